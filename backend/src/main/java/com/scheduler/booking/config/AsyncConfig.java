@@ -1,10 +1,108 @@
 package com.scheduler.booking.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.task.SimpleAsyncTaskExecutorBuilder;
+import org.springframework.boot.task.ThreadPoolTaskExecutorBuilder;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SimpleAsyncTaskExecutor;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
     // Enables @Async annotation support for asynchronous email sending
+
+    /**
+     * Default @Async executor (spring.task.execution.*). Declared explicitly because Boot
+     * backs off its own as soon as any other executor bean is defined.
+     */
+    @Bean(name = { "taskExecutor", "applicationTaskExecutor" })
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor applicationTaskExecutor(ThreadPoolTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * With spring.threads.virtual.enabled=true (Java 21+) each @Async task gets its own
+     * virtual thread instead of a pooled platform thread.
+     */
+    @Bean(name = { "taskExecutor", "applicationTaskExecutor" })
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor applicationTaskExecutorVirtual(SimpleAsyncTaskExecutorBuilder builder) {
+        return builder.build();
+    }
+
+    /**
+     * Bounded pool for CPU-heavy image resizing. When the queue is full new jobs are
+     * rejected (TaskRejectedException) rather than piling up in memory. Stays on platform
+     * threads in virtual-thread mode: the work is CPU-bound, not blocking.
+     */
+    @Bean(name = "imageProcessingExecutor")
+    public ThreadPoolTaskExecutor imageProcessingExecutor(
+            @Value("${images.processing.threads:2}") int threads,
+            @Value("${images.processing.queue-capacity:20}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("image-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Runs the remote (Clerk) steps of tenant creation so that no request thread or
+     * database connection waits on them. See TenantService#createTenantAsync.
+     */
+    @Bean(name = "tenantProvisioningExecutor")
+    @ConditionalOnThreading(Threading.PLATFORM)
+    public ThreadPoolTaskExecutor tenantProvisioningExecutor(
+            @Value("${tenants.provisioning.threads:4}") int threads,
+            @Value("${tenants.provisioning.queue-capacity:100}") int queueCapacity) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setQueueCapacity(queueCapacity);
+        executor.setThreadNamePrefix("tenant-provisioning-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
+
+    /**
+     * Virtual-thread variant: tasks beyond the limit wait (on their own virtual thread)
+     * instead of being queued or rejected.
+     */
+    @Bean(name = "tenantProvisioningExecutor")
+    @ConditionalOnThreading(Threading.VIRTUAL)
+    public SimpleAsyncTaskExecutor tenantProvisioningExecutorVirtual(
+            @Value("${tenants.provisioning.threads:4}") int threads) {
+        SimpleAsyncTaskExecutor executor = new SimpleAsyncTaskExecutor("tenant-provisioning-");
+        executor.setVirtualThreads(true);
+        executor.setConcurrencyLimit(threads);
+        executor.setTaskTerminationTimeout(30000);
+        return executor;
+    }
+
+    /**
+     * Runs the per-tenant booking writers (see BookingAdmissionService). At most one task
+     * per tenant is ever queued, and the thread count caps how many database connections
+     * booking creation can hold at once.
+     */
+    @Bean(name = "bookingAdmissionExecutor")
+    public ThreadPoolTaskExecutor bookingAdmissionExecutor(
+            @Value("${bookings.admission.writer-threads:4}") int threads) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(threads);
+        executor.setMaxPoolSize(threads);
+        executor.setThreadNamePrefix("booking-writer-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(30);
+        return executor;
+    }
 }
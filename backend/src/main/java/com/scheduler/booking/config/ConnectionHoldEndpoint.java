@@ -0,0 +1,31 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.service.ConnectionProfiler;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/connectionholds: operations that kept database connections checked out
+ * longest, with their statement counts and remote calls made while holding them.
+ * Only present while db.profiler.enabled=true; requires the ADMIN role.
+ */
+@Component
+@ConditionalOnProperty(prefix = "db.profiler", name = "enabled", havingValue = "true")
+@Endpoint(id = "connectionholds")
+@RequiredArgsConstructor
+public class ConnectionHoldEndpoint {
+
+    private final ConnectionProfiler connectionProfiler;
+
+    @ReadOperation
+    public List<Map<String, Object>> worstOffenders(@Nullable Integer limit) {
+        return connectionProfiler.worstOffenders(limit != null ? limit : 20);
+    }
+}
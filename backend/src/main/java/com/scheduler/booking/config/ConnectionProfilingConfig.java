@@ -0,0 +1,177 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.service.ConnectionProfiler;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+
+/**
+ * Wires ConnectionProfiler into the application: the DataSource is wrapped so every
+ * checkout, prepared statement and return is recorded, and @Transactional methods
+ * label the connections they use. Enable with db.profiler.enabled=true.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "db.profiler", name = "enabled", havingValue = "true")
+public class ConnectionProfilingConfig {
+
+    /**
+     * Static so it does not force this configuration, or the profiler and its
+     * MeterRegistry, to be created before other beans are post-processed
+     */
+    @Bean
+    public static BeanPostProcessor profilingDataSourcePostProcessor(ObjectProvider<ConnectionProfiler> profiler) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof ProfilingDataSource)) {
+                    return new ProfilingDataSource(dataSource, profiler);
+                }
+                return bean;
+            }
+        };
+    }
+
+    @Bean
+    public TransactionalOperationAspect transactionalOperationAspect(ConnectionProfiler profiler) {
+        return new TransactionalOperationAspect(profiler);
+    }
+
+    /**
+     * Names the connection holds of a @Transactional call after its outermost method.
+     * Ordered ahead of the transaction interceptor so the label is set before the
+     * connection is taken.
+     */
+    @Aspect
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    public static class TransactionalOperationAspect {
+
+        private final ConnectionProfiler profiler;
+
+        public TransactionalOperationAspect(ConnectionProfiler profiler) {
+            this.profiler = profiler;
+        }
+
+        @Around("execution(public * com.scheduler.booking..*(..)) && "
+                + "(@annotation(org.springframework.transaction.annotation.Transactional) || "
+                + "@within(org.springframework.transaction.annotation.Transactional))")
+        public Object labelOperation(ProceedingJoinPoint joinPoint) throws Throwable {
+            String operation = joinPoint.getSignature().getDeclaringType().getSimpleName()
+                    + "." + joinPoint.getSignature().getName();
+            boolean outermost = profiler.beginOperation(operation);
+            try {
+                return joinPoint.proceed();
+            } finally {
+                if (outermost) {
+                    profiler.endOperation();
+                }
+            }
+        }
+    }
+
+    /**
+     * DataSource whose connections report checkout, prepared statements and return to the
+     * profiler. Extends DelegatingDataSource so Boot's pool metrics still find Hikari.
+     */
+    static class ProfilingDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<ConnectionProfiler> profiler;
+
+        ProfilingDataSource(DataSource target, ObjectProvider<ConnectionProfiler> profiler) {
+            super(target);
+            this.profiler = profiler;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return profiled(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return profiled(super.getConnection(username, password));
+        }
+
+        private Connection profiled(Connection connection) {
+            ConnectionProfiler connectionProfiler = profiler.getIfAvailable();
+            if (connectionProfiler == null) {
+                return connection; // still starting up
+            }
+            ConnectionProfiler.Hold hold = connectionProfiler.connectionAcquired();
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class },
+                    new ProfiledConnection(connection, connectionProfiler, hold));
+        }
+    }
+
+    private static class ProfiledConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final ConnectionProfiler profiler;
+        private final ConnectionProfiler.Hold hold;
+        private boolean closed;
+
+        ProfiledConnection(Connection target, ConnectionProfiler profiler, ConnectionProfiler.Hold hold) {
+            this.target = target;
+            this.profiler = profiler;
+            this.hold = hold;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement" -> hold.statementPrepared();
+                case "close" -> {
+                    if (!closed) {
+                        closed = true;
+                        try {
+                            return method.invoke(target, args);
+                        } catch (InvocationTargetException e) {
+                            throw e.getCause();
+                        } finally {
+                            profiler.connectionReleased(hold);
+                        }
+                    }
+                    return null;
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            return invokeTarget(method, args);
+        }
+
+        private Object invokeTarget(Method method, Object[] args) throws Throwable {
+            try {
+                return method.invoke(target, args);
+            } catch (InvocationTargetException e) {
+                throw e.getCause();
+            }
+        }
+    }
+}
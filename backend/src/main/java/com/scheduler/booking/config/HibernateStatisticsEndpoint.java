@@ -0,0 +1,76 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.util.SqlFingerprint;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.QueryStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/hibernatestats: session-factory totals plus per-query execution statistics,
+ * ordered by total execution time. Only present while hibernate.generate_statistics=true;
+ * requires the ADMIN role since it returns every query string.
+ */
+@Component
+@ConditionalOnProperty(name = "spring.jpa.properties.hibernate.generate_statistics", havingValue = "true")
+@Endpoint(id = "hibernatestats")
+@RequiredArgsConstructor
+public class HibernateStatisticsEndpoint {
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    @ReadOperation
+    public Map<String, Object> statistics(@Nullable Integer limit) {
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("enabled", statistics.isStatisticsEnabled());
+        result.put("since", statistics.getStart());
+
+        Map<String, Object> totals = new LinkedHashMap<>();
+        totals.put("transactions", statistics.getTransactionCount());
+        totals.put("sessionsOpened", statistics.getSessionOpenCount());
+        totals.put("statementsPrepared", statistics.getPrepareStatementCount());
+        totals.put("queryExecutions", statistics.getQueryExecutionCount());
+        totals.put("queryExecutionMaxTimeMs", statistics.getQueryExecutionMaxTime());
+        totals.put("slowestQuery", statistics.getQueryExecutionMaxTimeQueryString());
+        totals.put("entityLoads", statistics.getEntityLoadCount());
+        totals.put("entityFetches", statistics.getEntityFetchCount());
+        totals.put("collectionLoads", statistics.getCollectionLoadCount());
+        totals.put("collectionFetches", statistics.getCollectionFetchCount());
+        totals.put("flushes", statistics.getFlushCount());
+        result.put("totals", totals);
+
+        List<Map<String, Object>> queries = Arrays.stream(statistics.getQueries())
+                .map(query -> queryStatistics(query, statistics.getQueryStatistics(query)))
+                .sorted(Comparator.comparingLong((Map<String, Object> query) -> (Long) query.get("totalTimeMs")).reversed())
+                .limit(limit != null ? limit : 50)
+                .toList();
+        result.put("queries", queries);
+        return result;
+    }
+
+    private static Map<String, Object> queryStatistics(String query, QueryStatistics stats) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("fingerprint", SqlFingerprint.of(query));
+        result.put("query", query);
+        result.put("executions", stats.getExecutionCount());
+        result.put("totalTimeMs", stats.getExecutionCount() * stats.getExecutionAvgTime());
+        result.put("avgTimeMs", stats.getExecutionAvgTime());
+        result.put("maxTimeMs", stats.getExecutionMaxTime());
+        result.put("rows", stats.getExecutionRowCount());
+        return result;
+    }
+}
@@ -0,0 +1,68 @@
+package com.scheduler.booking.config;
+
+import com.stripe.Stripe;
+import jakarta.annotation.PostConstruct;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.web.client.RestTemplate;
+
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Shared HTTP transport settings for external providers (Clerk, Mailgun, Stripe, R2).
+ *
+ * Clerk and Mailgun share one pooled, HTTP/2-capable java.net.http client; the
+ * S3 client (see R2Config) uses its own Netty connection pool with the same timeouts,
+ * and the Stripe SDK gets them through its static config. Read timeouts can be
+ * overridden per provider with http.client.read-timeouts.<provider>.
+ * The java.net.http client has no connection limit of its own: at most one connection
+ * per concurrent call, so the resilience4j bulkheads that ExternalCallGuard applies
+ * (with the circuit breakers, under resilience4j.*) are what cap it. maxConnections
+ * sizes only the R2 pool.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "http.client")
+@Data
+public class HttpClientConfig {
+
+    private Duration connectTimeout = Duration.ofSeconds(2);
+    private Duration readTimeout = Duration.ofSeconds(10);
+    // R2 connection pool size (see R2Config)
+    private int maxConnections = 50;
+    private Map<String, Duration> readTimeouts = new HashMap<>();
+
+    public Duration readTimeoutFor(String provider) {
+        return readTimeouts.getOrDefault(provider, readTimeout);
+    }
+
+    @Bean
+    public HttpClient providerHttpClient() {
+        return HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_2)
+                .connectTimeout(connectTimeout)
+                .followRedirects(HttpClient.Redirect.NORMAL)
+                .build();
+    }
+
+    @Bean
+    public RestTemplate clerkRestTemplate(RestTemplateBuilder builder, HttpClient providerHttpClient) {
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(providerHttpClient);
+        requestFactory.setReadTimeout(readTimeoutFor("clerk"));
+        return builder.requestFactory(() -> requestFactory).build();
+    }
+
+    @PostConstruct
+    public void configureStripeTimeouts() {
+        // The Stripe SDK keeps its HTTP settings in static fields
+        Stripe.setConnectTimeout((int) connectTimeout.toMillis());
+        Stripe.setReadTimeout((int) readTimeoutFor("stripe").toMillis());
+        Stripe.setMaxNetworkRetries(1);
+    }
+}
@@ -0,0 +1,237 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.service.IdempotencyService;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ReadListener;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.ServletInputStream;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletRequestWrapper;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.util.ContentCachingResponseWrapper;
+import org.springframework.web.util.WebUtils;
+
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.security.Principal;
+import java.util.HexFormat;
+import java.util.regex.Pattern;
+
+/**
+ * Idempotency-Key handling for the POSTs that create bookings or Checkout Sessions.
+ *
+ * A request carrying the header runs at most once per key, caller and endpoint; a retry
+ * gets the original status and body back with Idempotent-Replayed: true. Reusing a key
+ * with a different body is refused with 422, and a duplicate that is still running after
+ * idempotency.wait-timeout gets 409 with Retry-After. Requests without the header are
+ * untouched.
+ *
+ * Runs after Spring Security so the caller is known, and again on the async dispatch of
+ * the CompletableFuture endpoints, where the response is finally recorded.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyFilter extends OncePerRequestFilter {
+
+    public static final String HEADER = "Idempotency-Key";
+    public static final String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    private static final int MAX_KEY_LENGTH = 255;
+    private static final String CLAIM_ATTRIBUTE = IdempotencyFilter.class.getName() + ".KEY";
+    private static final Pattern IDEMPOTENT_PATHS = Pattern.compile(
+            "/api/customer/tenants/[^/]+/bookings(/checkout|/series)?|/api/business/bookings(/series)?"
+                    + "|/api/stripe/create-checkout-session");
+
+    private final IdempotencyService idempotencyService;
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        if (!"POST".equals(request.getMethod()) || request.getHeader(HEADER) == null) {
+            return true;
+        }
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        return !IDEMPOTENT_PATHS.matcher(path).matches();
+    }
+
+    @Override
+    protected boolean shouldNotFilterAsyncDispatch() {
+        return false;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        if (isAsyncDispatch(request)) {
+            filterChain.doFilter(request, response);
+            finish(request, response);
+            return;
+        }
+
+        String idempotencyKey = request.getHeader(HEADER);
+        if (idempotencyKey.isBlank() || idempotencyKey.length() > MAX_KEY_LENGTH) {
+            writeError(response, HttpStatus.BAD_REQUEST,
+                    HEADER + " must be between 1 and " + MAX_KEY_LENGTH + " characters");
+            return;
+        }
+
+        CachedBodyRequest cachedRequest = new CachedBodyRequest(request);
+        Principal caller = request.getUserPrincipal();
+        String key = sha256((request.getMethod() + " " + request.getRequestURI() + "\n"
+                + (caller != null ? caller.getName() : "") + "\n" + idempotencyKey).getBytes(StandardCharsets.UTF_8));
+
+        IdempotencyService.Outcome outcome = idempotencyService.begin(key, sha256(cachedRequest.body));
+        switch (outcome.decision()) {
+            case REPLAY -> {
+                IdempotencyService.StoredResponse stored = outcome.response();
+                response.setStatus(stored.status());
+                response.setHeader(REPLAYED_HEADER, "true");
+                if (stored.contentType() != null) {
+                    response.setContentType(stored.contentType());
+                }
+                if (stored.body() != null) {
+                    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+                    response.getWriter().write(stored.body());
+                }
+                return;
+            }
+            case MISMATCH -> {
+                writeError(response, HttpStatus.UNPROCESSABLE_ENTITY,
+                        HEADER + " was already used with a different request");
+                return;
+            }
+            case IN_PROGRESS -> {
+                response.setHeader(HttpHeaders.RETRY_AFTER, "1");
+                writeError(response, HttpStatus.CONFLICT, "A request with this " + HEADER + " is still in progress");
+                return;
+            }
+            default -> {
+                // PROCEED: this request owns the key
+            }
+        }
+
+        request.setAttribute(CLAIM_ATTRIBUTE, key);
+        ContentCachingResponseWrapper cachingResponse = new ContentCachingResponseWrapper(response);
+        try {
+            filterChain.doFilter(cachedRequest, cachingResponse);
+        } catch (ServletException | IOException | RuntimeException e) {
+            release(request);
+            throw e;
+        }
+        finish(request, cachingResponse);
+    }
+
+    /**
+     * Record the response once it is complete, i.e. not while an async request is still running
+     */
+    private void finish(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        if (isAsyncStarted(request)) {
+            return;
+        }
+        String key = (String) request.getAttribute(CLAIM_ATTRIBUTE);
+        ContentCachingResponseWrapper cachingResponse =
+                WebUtils.getNativeResponse(response, ContentCachingResponseWrapper.class);
+        if (key == null || cachingResponse == null) {
+            return;
+        }
+        request.removeAttribute(CLAIM_ATTRIBUTE);
+        try {
+            idempotencyService.complete(key, cachingResponse.getStatus(), cachingResponse.getContentType(),
+                    new String(cachingResponse.getContentAsByteArray(), StandardCharsets.UTF_8));
+        } catch (RuntimeException e) {
+            // The response itself is fine; a retry will simply execute again
+            log.error("Could not store idempotent response: {}", e.getMessage(), e);
+        } finally {
+            cachingResponse.copyBodyToResponse();
+        }
+    }
+
+    private void release(HttpServletRequest request) {
+        String key = (String) request.getAttribute(CLAIM_ATTRIBUTE);
+        if (key == null) {
+            return;
+        }
+        request.removeAttribute(CLAIM_ATTRIBUTE);
+        try {
+            idempotencyService.complete(key, HttpStatus.INTERNAL_SERVER_ERROR.value(), null, null);
+        } catch (RuntimeException e) {
+            log.error("Could not release idempotency key: {}", e.getMessage(), e);
+        }
+    }
+
+    private static void writeError(HttpServletResponse response, HttpStatus status, String message) throws IOException {
+        response.setStatus(status.value());
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"" + message + "\"}");
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Reads the (small, JSON) request body up front so it can be hashed and still be read
+     * by the controller
+     */
+    private static final class CachedBodyRequest extends HttpServletRequestWrapper {
+        private final byte[] body;
+
+        private CachedBodyRequest(HttpServletRequest request) throws IOException {
+            super(request);
+            this.body = request.getInputStream().readAllBytes();
+        }
+
+        @Override
+        public ServletInputStream getInputStream() {
+            ByteArrayInputStream in = new ByteArrayInputStream(body);
+            return new ServletInputStream() {
+                @Override
+                public int read() {
+                    return in.read();
+                }
+
+                @Override
+                public int read(byte[] b, int off, int len) {
+                    return in.read(b, off, len);
+                }
+
+                @Override
+                public boolean isFinished() {
+                    return in.available() == 0;
+                }
+
+                @Override
+                public boolean isReady() {
+                    return true;
+                }
+
+                @Override
+                public void setReadListener(ReadListener readListener) {
+                    throw new UnsupportedOperationException();
+                }
+            };
+        }
+
+        @Override
+        public BufferedReader getReader() throws IOException {
+            String encoding = getCharacterEncoding() != null ? getCharacterEncoding() : StandardCharsets.UTF_8.name();
+            return new BufferedReader(new InputStreamReader(getInputStream(), encoding));
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.service.MailgunDispatcher;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.Map;
+
+/**
+ * /actuator/mailqueue: tenants whose queued emails have waited longest, with their
+ * queue depths. The mailgun.queue.wait timer is only tagged by tier, so this is
+ * where a single tenant's backlog shows up. Requires the ADMIN role.
+ */
+@Component
+@Endpoint(id = "mailqueue")
+@RequiredArgsConstructor
+public class MailQueueEndpoint {
+
+    private final MailgunDispatcher mailgunDispatcher;
+
+    @ReadOperation
+    public List<Map<String, Object>> longestWaiting(@Nullable Integer limit) {
+        return mailgunDispatcher.longestWaiting(limit != null ? limit : 20);
+    }
+}
@@ -2,11 +2,17 @@ package com.scheduler.booking.config;
 
 import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mailgun.client.MailgunClient;
+import feign.Request;
+import feign.Retryer;
+import feign.http2client.Http2Client;
 import lombok.Getter;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
+import java.net.http.HttpClient;
+import java.util.concurrent.TimeUnit;
+
 @Configuration
 @Getter
 public class MailgunConfig {
@@ -26,9 +32,63 @@ public class MailgunConfig {
     @Value("${mailgun.enabled}")
     private boolean enabled;
 
+    // Sending quota shared by all tenants (token bucket in front of MailgunMessagesApi)
+    @Value("${mailgun.rate-limit.messages-per-second:10}")
+    private double messagesPerSecond;
+
+    @Value("${mailgun.rate-limit.burst:20}")
+    private int burst;
+
+    @Value("${mailgun.queue.max-per-tenant:1000}")
+    private int maxQueuedPerTenant;
+
+    // Round-robin weight per subscription tier, e.g. "BASIC:1,PRO:2,ENTERPRISE:4"
+    @Value("${mailgun.queue.tier-weights:BASIC:1}")
+    private String tierWeights;
+
+    // Attempts per message when Mailgun answers 429 or 5xx, before it is given up on
+    @Value("${mailgun.retry.max-attempts:5}")
+    private int maxSendAttempts;
+
+    /**
+     * Number of messages a tenant may send per round-robin turn
+     */
+    public int getTierWeight(String subscriptionTier) {
+        Integer weight = configuredTierWeight(subscriptionTier);
+        return weight != null ? weight : 1;
+    }
+
+    /**
+     * Whether the tier appears in mailgun.queue.tier-weights. Tiers are free text on the
+     * tenant, so only these are used as metric tags.
+     */
+    public boolean isConfiguredTier(String subscriptionTier) {
+        return configuredTierWeight(subscriptionTier) != null;
+    }
+
+    private Integer configuredTierWeight(String subscriptionTier) {
+        for (String entry : tierWeights.split(",")) {
+            String[] parts = entry.trim().split(":");
+            if (parts.length == 2 && parts[0].trim().equalsIgnoreCase(subscriptionTier)) {
+                return Math.max(1, Integer.parseInt(parts[1].trim()));
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Mailgun API on the shared HTTP/2 client instead of Feign's default one-connection-per-request
+     * HttpURLConnection. Retries are left to the dispatcher, which backs off when the circuit is open.
+     */
     @Bean
-    public MailgunMessagesApi mailgunMessagesApi() {
+    public MailgunMessagesApi mailgunMessagesApi(HttpClient providerHttpClient, HttpClientConfig httpClientConfig) {
         return MailgunClient.config(apiKey)
+                .client(new Http2Client(providerHttpClient))
+                .options(new Request.Options(
+                        httpClientConfig.getConnectTimeout().toMillis(), TimeUnit.MILLISECONDS,
+                        httpClientConfig.readTimeoutFor("mailgun").toMillis(), TimeUnit.MILLISECONDS,
+                        true))
+                .retryer(Retryer.NEVER_RETRY)
                 .createApi(MailgunMessagesApi.class);
     }
 }
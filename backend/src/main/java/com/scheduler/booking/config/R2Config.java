@@ -6,8 +6,10 @@ import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import software.amazon.awssdk.auth.credentials.AwsBasicCredentials;
 import software.amazon.awssdk.auth.credentials.StaticCredentialsProvider;
+import software.amazon.awssdk.core.client.config.ClientOverrideConfiguration;
+import software.amazon.awssdk.http.nio.netty.NettyNioAsyncHttpClient;
 import software.amazon.awssdk.regions.Region;
-import software.amazon.awssdk.services.s3.S3Client;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
 
 import java.net.URI;
 
@@ -23,17 +25,34 @@ public class R2Config {
     private String region = "auto";
     private String publicUrlBase;
 
+    // Overrides for other S3-compatible stores (local stand-in, MinIO); default is the account's R2 endpoint
+    private String endpoint;
+    private boolean pathStyleAccess = false;
+
     @Bean
-    public S3Client s3Client() {
+    public S3AsyncClient s3AsyncClient(HttpClientConfig httpClientConfig) {
         // Cloudflare R2 endpoint format: https://<account-id>.r2.cloudflarestorage.com
-        String endpoint = String.format("https://%s.r2.cloudflarestorage.com", accountId);
+        String endpointUrl = endpoint != null && !endpoint.isBlank()
+                ? endpoint
+                : String.format("https://%s.r2.cloudflarestorage.com", accountId);
 
-        return S3Client.builder()
+        return S3AsyncClient.builder()
                 .region(Region.of(region))
-                .endpointOverride(URI.create(endpoint))
+                .endpointOverride(URI.create(endpointUrl))
+                .forcePathStyle(pathStyleAccess)
                 .credentialsProvider(StaticCredentialsProvider.create(
                         AwsBasicCredentials.create(accessKeyId, secretAccessKey)
                 ))
+                // Non-blocking transport: uploads and deletes don't hold a thread while waiting on R2
+                .httpClientBuilder(NettyNioAsyncHttpClient.builder()
+                        .maxConcurrency(httpClientConfig.getMaxConnections())
+                        .connectionTimeout(httpClientConfig.getConnectTimeout())
+                        .readTimeout(httpClientConfig.readTimeoutFor("r2"))
+                        .writeTimeout(httpClientConfig.readTimeoutFor("r2"))
+                        .tcpKeepAlive(true))
+                .overrideConfiguration(ClientOverrideConfiguration.builder()
+                        .apiCallTimeout(httpClientConfig.readTimeoutFor("r2").multipliedBy(3))
+                        .build())
                 .build();
     }
 
@@ -0,0 +1,57 @@
+package com.scheduler.booking.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Rate limits for the public (unauthenticated) endpoints, applied by RateLimitFilter.
+ *
+ * Each endpoint class has a per-client-IP bucket and, where the path names a tenant,
+ * a per-tenant bucket shared by all clients. Set a rate to 0 to turn that scope off.
+ * Limits are per instance, not cluster-wide.
+ *
+ * booking-queued covers the booking POSTs that go through BookingAdmissionService. Its
+ * tenant scope is off by default: the admission queue is the per-tenant limit there, and a
+ * tenant bucket smaller than the queue would reject requests before it could batch them or
+ * answer 429/503 with its own Retry-After.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "rate-limit")
+@Data
+public class RateLimitConfig {
+
+    public static final String CUSTOMER_READ = "customer-read";
+    public static final String BOOKING_WRITE = "booking-write";
+    public static final String BOOKING_QUEUED = "booking-queued";
+    public static final String STRIPE = "stripe";
+
+    private boolean enabled = true;
+    private int maxKeys = 100_000;
+    private Map<String, Limit> limits = new HashMap<>(Map.of(
+            CUSTOMER_READ, new Limit(20, 60, 200, 400),
+            BOOKING_WRITE, new Limit(1, 5, 10, 30),
+            BOOKING_QUEUED, new Limit(1, 5, 0, 0),
+            STRIPE, new Limit(2, 10, 0, 0)));
+
+    @Data
+    public static class Limit {
+        private double ipPerSecond;
+        private int ipBurst;
+        private double tenantPerSecond;
+        private int tenantBurst;
+
+        public Limit() {
+        }
+
+        public Limit(double ipPerSecond, int ipBurst, double tenantPerSecond, int tenantBurst) {
+            this.ipPerSecond = ipPerSecond;
+            this.ipBurst = ipBurst;
+            this.tenantPerSecond = tenantPerSecond;
+            this.tenantBurst = tenantBurst;
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.util.TokenBucket;
+import com.scheduler.booking.util.TokenBucketCache;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-client-IP and per-tenant rate limiting for /api/customer/** and /api/stripe/**.
+ *
+ * Runs ahead of Spring Security so rejected requests cost a hash lookup and a CAS, not
+ * authentication or a database query. Rejections get 429 with Retry-After and are counted
+ * in ratelimit.rejected{class,scope}. The Stripe webhook is exempt: Stripe retries on its
+ * own schedule and its requests all come from a handful of addresses.
+ *
+ * The client address is request.getRemoteAddr(); behind a proxy, set
+ * server.forward-headers-strategy so it reflects X-Forwarded-For.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE + 10)
+@ConditionalOnProperty(prefix = "rate-limit", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private static final String CUSTOMER_PREFIX = "/api/customer/";
+    private static final String TENANT_PREFIX = "/api/customer/tenants/";
+    private static final String STRIPE_PREFIX = "/api/stripe/";
+    private static final String STRIPE_WEBHOOK = "/api/stripe/webhook";
+
+    private final RateLimitConfig config;
+    private final TokenBucketCache buckets;
+    private final MeterRegistry meterRegistry;
+    private final Map<String, Counter> rejections = new ConcurrentHashMap<>();
+
+    public RateLimitFilter(RateLimitConfig config, MeterRegistry meterRegistry) {
+        this.config = config;
+        this.meterRegistry = meterRegistry;
+        this.buckets = new TokenBucketCache(config.getMaxKeys());
+        Gauge.builder("ratelimit.buckets", buckets, TokenBucketCache::size)
+                .description("Rate-limit buckets currently tracked")
+                .register(meterRegistry);
+    }
+
+    @Override
+    protected boolean shouldNotFilter(HttpServletRequest request) {
+        return classify(request) == null;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        String endpointClass = classify(request);
+        RateLimitConfig.Limit limit = config.getLimits().get(endpointClass);
+        if (limit == null) {
+            filterChain.doFilter(request, response);
+            return;
+        }
+
+        if (limit.getIpPerSecond() > 0) {
+            TokenBucket bucket = buckets.get(endpointClass + "|ip|" + request.getRemoteAddr(),
+                    () -> new TokenBucket(Math.max(1, limit.getIpBurst()), limit.getIpPerSecond()));
+            if (!bucket.tryAcquire()) {
+                reject(response, endpointClass, "ip", bucket);
+                return;
+            }
+        }
+
+        String tenant = tenantKey(request);
+        if (tenant != null && limit.getTenantPerSecond() > 0) {
+            TokenBucket bucket = buckets.get(endpointClass + "|tenant|" + tenant,
+                    () -> new TokenBucket(Math.max(1, limit.getTenantBurst()), limit.getTenantPerSecond()));
+            if (!bucket.tryAcquire()) {
+                reject(response, endpointClass, "tenant", bucket);
+                return;
+            }
+        }
+
+        filterChain.doFilter(request, response);
+    }
+
+    /**
+     * Endpoint class for limit lookup, or null if the request is not rate limited
+     */
+    private static String classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        String method = request.getMethod();
+        if ("OPTIONS".equals(method)) {
+            return null; // CORS preflight
+        }
+        if (path.startsWith(CUSTOMER_PREFIX)) {
+            if ("GET".equals(method) || "HEAD".equals(method)) {
+                return RateLimitConfig.CUSTOMER_READ;
+            }
+            return "POST".equals(method) && isAdmissionControlled(path)
+                    ? RateLimitConfig.BOOKING_QUEUED
+                    : RateLimitConfig.BOOKING_WRITE;
+        }
+        if (path.startsWith(STRIPE_PREFIX) && !path.equals(STRIPE_WEBHOOK)) {
+            return RateLimitConfig.STRIPE;
+        }
+        return null;
+    }
+
+    /**
+     * POST /api/customer/tenants/{tenant}/bookings and .../bookings/checkout, which are queued
+     * per tenant by BookingAdmissionService
+     */
+    private static boolean isAdmissionControlled(String path) {
+        if (!path.startsWith(TENANT_PREFIX)) {
+            return false;
+        }
+        int end = path.indexOf('/', TENANT_PREFIX.length());
+        if (end < 0) {
+            return false;
+        }
+        String rest = path.substring(end);
+        return rest.equals("/bookings") || rest.equals("/bookings/checkout");
+    }
+
+    /**
+     * The tenant id or slug from /api/customer/tenants/{tenant}/..., or null
+     */
+    private static String tenantKey(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        if (!path.startsWith(TENANT_PREFIX)) {
+            return null;
+        }
+        int end = path.indexOf('/', TENANT_PREFIX.length());
+        String tenant = end < 0 ? path.substring(TENANT_PREFIX.length()) : path.substring(TENANT_PREFIX.length(), end);
+        return tenant.isEmpty() ? null : tenant;
+    }
+
+    private void reject(HttpServletResponse response, String endpointClass, String scope, TokenBucket bucket)
+            throws IOException {
+        rejections.computeIfAbsent(endpointClass + "|" + scope, key -> Counter.builder("ratelimit.rejected")
+                        .description("Requests rejected by the public endpoint rate limiter")
+                        .tag("class", endpointClass)
+                        .tag("scope", scope)
+                        .register(meterRegistry))
+                .increment();
+
+        long retryAfterSeconds = Math.max(1, (bucket.nanosUntilAvailable() + TimeUnit.SECONDS.toNanos(1) - 1)
+                / TimeUnit.SECONDS.toNanos(1));
+        response.setStatus(HttpStatus.TOO_MANY_REQUESTS.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"error\":\"Too many requests, please retry in " + retryAfterSeconds + "s\"}");
+    }
+}
@@ -4,6 +4,7 @@ import com.scheduler.booking.security.ClerkJwtAuthenticationConverter;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -39,12 +40,17 @@ public class SecurityConfig {
                 .cors(cors -> cors.configurationSource(corsConfigurationSource()))
                 .authorizeHttpRequests(auth -> auth
                         // Public endpoints
-                        .requestMatchers("/api/auth/**", "/h2-console/**", "/actuator/**",
+                        .requestMatchers("/api/auth/**", "/h2-console/**", "/actuator/health/**",
                                        "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                        // Metrics and profiling endpoints name internal operations and queries
+                        .requestMatchers("/actuator/**").hasRole("ADMIN")
                         // Customer endpoints are public (for booking pages)
                         .requestMatchers("/api/customer/**").permitAll()
                         // Stripe endpoints are public (for payment processing)
                         .requestMatchers("/api/stripe/**").permitAll()
+                        // Tenant images served by the optional media proxy
+                        .requestMatchers(HttpMethod.GET, "/media/**").permitAll()
+                        .requestMatchers(HttpMethod.HEAD, "/media/**").permitAll()
                         // Role-based access control
                         .requestMatchers("/api/admin/**").hasRole("ADMIN")
                         .requestMatchers("/api/business/**").hasRole("BUSINESS")
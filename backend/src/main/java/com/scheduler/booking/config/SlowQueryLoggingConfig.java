@@ -0,0 +1,155 @@
+package com.scheduler.booking.config;
+
+import com.scheduler.booking.service.SlowQueryLog;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+
+import javax.sql.DataSource;
+import java.lang.reflect.InvocationHandler;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.lang.reflect.Proxy;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+/**
+ * Wraps the DataSource so every statement execution is timed and slow ones reach SlowQueryLog.
+ * Only a clock read per execution, no stack walking, so unlike the connection profiler it is
+ * on by default; turn it off with db.slow-query.enabled=false.
+ */
+@Configuration
+@ConditionalOnProperty(prefix = "db.slow-query", name = "enabled", havingValue = "true", matchIfMissing = true)
+public class SlowQueryLoggingConfig {
+
+    /**
+     * Static so it does not force SlowQueryLog to be created before other beans are post-processed
+     */
+    @Bean
+    public static BeanPostProcessor slowQueryDataSourcePostProcessor(ObjectProvider<SlowQueryLog> slowQueryLog) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && !(bean instanceof TimedDataSource)) {
+                    return new TimedDataSource(dataSource, slowQueryLog);
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * DataSource whose statements report their execution time. Extends DelegatingDataSource
+     * so Boot's pool metrics still find Hikari.
+     */
+    static class TimedDataSource extends DelegatingDataSource {
+
+        private final ObjectProvider<SlowQueryLog> slowQueryLog;
+
+        TimedDataSource(DataSource target, ObjectProvider<SlowQueryLog> slowQueryLog) {
+            super(target);
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return timed(super.getConnection());
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return timed(super.getConnection(username, password));
+        }
+
+        private Connection timed(Connection connection) {
+            SlowQueryLog log = slowQueryLog.getIfAvailable();
+            if (log == null) {
+                return connection; // still starting up
+            }
+            return (Connection) Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                    new Class<?>[] { Connection.class }, new TimedConnection(connection, log));
+        }
+    }
+
+    private static class TimedConnection implements InvocationHandler {
+
+        private final Connection target;
+        private final SlowQueryLog slowQueryLog;
+
+        TimedConnection(Connection target, SlowQueryLog slowQueryLog) {
+            this.target = target;
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            switch (method.getName()) {
+                case "prepareStatement", "prepareCall", "createStatement" -> {
+                    Object statement = invokeTarget(target, method, args);
+                    String sql = args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                    return Proxy.newProxyInstance(Connection.class.getClassLoader(),
+                            new Class<?>[] { method.getReturnType() },
+                            new TimedStatement((Statement) statement, sql, slowQueryLog));
+                }
+                case "unwrap" -> {
+                    if (((Class<?>) args[0]).isInstance(proxy)) {
+                        return proxy;
+                    }
+                }
+                case "equals" -> {
+                    return proxy == args[0];
+                }
+                case "hashCode" -> {
+                    return System.identityHashCode(proxy);
+                }
+                default -> {
+                }
+            }
+            return invokeTarget(target, method, args);
+        }
+    }
+
+    private static class TimedStatement implements InvocationHandler {
+
+        private final Statement target;
+        private final String preparedSql;
+        private final SlowQueryLog slowQueryLog;
+
+        TimedStatement(Statement target, String preparedSql, SlowQueryLog slowQueryLog) {
+            this.target = target;
+            this.preparedSql = preparedSql;
+            this.slowQueryLog = slowQueryLog;
+        }
+
+        @Override
+        public Object invoke(Object proxy, Method method, Object[] args) throws Throwable {
+            if (!method.getName().startsWith("execute")) {
+                if ("unwrap".equals(method.getName()) && ((Class<?>) args[0]).isInstance(proxy)) {
+                    return proxy;
+                }
+                return invokeTarget(target, method, args);
+            }
+            long start = System.nanoTime();
+            try {
+                return invokeTarget(target, method, args);
+            } finally {
+                // Plain Statement.execute*(sql, ...) carries its SQL as the first argument
+                String sql = preparedSql != null ? preparedSql
+                        : args != null && args.length > 0 && args[0] instanceof String text ? text : null;
+                slowQueryLog.statementExecuted(sql, System.nanoTime() - start);
+            }
+        }
+    }
+
+    private static Object invokeTarget(Object target, Method method, Object[] args) throws Throwable {
+        try {
+            return method.invoke(target, args);
+        } catch (InvocationTargetException e) {
+            throw e.getCause();
+        }
+    }
+}
@@ -2,15 +2,26 @@ package com.scheduler.booking.controller;
 
 import com.scheduler.booking.dto.TenantRequest;
 import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.service.TenantImportService;
 import com.scheduler.booking.service.TenantService;
+import jakarta.servlet.http.HttpServletRequest;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyEmitter;
 
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.Duration;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/admin")
@@ -20,6 +31,11 @@ import java.util.UUID;
 public class AdminController {
 
     private final TenantService tenantService;
+    private final TenantImportService tenantImportService;
+    private final Executor applicationTaskExecutor;
+
+    @Value("${tenants.import.response-timeout:PT30M}")
+    private Duration importResponseTimeout;
 
     @GetMapping("/tenants")
     public ResponseEntity<List<Tenant>> getAllTenants() {
@@ -32,8 +48,38 @@ public class AdminController {
     }
 
     @PostMapping("/tenants")
-    public ResponseEntity<Tenant> createTenant(@Valid @RequestBody TenantRequest request) {
-        return ResponseEntity.ok(tenantService.createTenant(request));
+    public CompletableFuture<ResponseEntity<Tenant>> createTenant(@Valid @RequestBody TenantRequest request) {
+        // Completes once the owner account is provisioned; the request thread is released meanwhile
+        return tenantService.createTenantAsync(request).thenApply(ResponseEntity::ok);
+    }
+
+    /**
+     * Bulk tenant import. The body is NDJSON (one TenantImportRow per line) or CSV
+     * with a header row; one result per row is streamed back as NDJSON.
+     */
+    @PostMapping(value = "/tenants/bulk", consumes = { "application/x-ndjson", "text/csv" },
+            produces = "application/x-ndjson")
+    public ResponseEntity<ResponseBodyEmitter> bulkImportTenants(HttpServletRequest request) throws IOException {
+        String contentType = request.getContentType();
+        TenantImportService.Format format = contentType != null && contentType.startsWith("text/csv")
+                ? TenantImportService.Format.CSV
+                : TenantImportService.Format.NDJSON;
+        MediaType ndjson = MediaType.parseMediaType("application/x-ndjson");
+
+        // Imports can run far longer than the default async timeout, so only this response gets a long one
+        ResponseBodyEmitter emitter = new ResponseBodyEmitter(importResponseTimeout.toMillis());
+        InputStream in = request.getInputStream();
+        applicationTaskExecutor.execute(() -> {
+            try {
+                tenantImportService.importTenants(in, format, new EmitterOutputStream(emitter, ndjson));
+                emitter.complete();
+            } catch (Exception e) {
+                emitter.completeWithError(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(ndjson)
+                .body(emitter);
     }
 
     @PutMapping("/tenants/{id}")
@@ -48,4 +94,26 @@ public class AdminController {
         tenantService.deleteTenant(id);
         return ResponseEntity.noContent().build();
     }
+
+    /**
+     * Buffers what the import writes and hands it to the emitter on each flush
+     */
+    private static class EmitterOutputStream extends ByteArrayOutputStream {
+
+        private final ResponseBodyEmitter emitter;
+        private final MediaType mediaType;
+
+        EmitterOutputStream(ResponseBodyEmitter emitter, MediaType mediaType) {
+            this.emitter = emitter;
+            this.mediaType = mediaType;
+        }
+
+        @Override
+        public void flush() throws IOException {
+            if (size() > 0) {
+                emitter.send(toByteArray(), mediaType);
+                reset();
+            }
+        }
+    }
 }
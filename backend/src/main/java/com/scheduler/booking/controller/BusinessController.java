@@ -2,8 +2,14 @@ package com.scheduler.booking.controller;
 
 import com.scheduler.booking.dto.BlockedSlotRequest;
 import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.dto.BookingSeriesRequest;
 import com.scheduler.booking.dto.BusinessHoursRequest;
+import com.scheduler.booking.dto.BulkBlockedSlotRequest;
+import com.scheduler.booking.dto.BulkBlockedSlotResponse;
+import com.scheduler.booking.dto.BusinessHoursOverrideRequest;
+import com.scheduler.booking.dto.BusinessHoursOverrideResponse;
 import com.scheduler.booking.dto.BusinessHoursResponse;
+import com.scheduler.booking.dto.RescheduleRequest;
 import com.scheduler.booking.dto.SessionTypeRequest;
 import com.scheduler.booking.dto.TenantProfileRequest;
 import com.scheduler.booking.model.BlockedSlot;
@@ -14,23 +20,36 @@ import com.scheduler.booking.model.Tenant;
 import com.scheduler.booking.repository.BlockedSlotRepository;
 import com.scheduler.booking.repository.BusinessUserRepository;
 import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.service.BlockedSlotService;
 import com.scheduler.booking.service.BookingService;
+import com.scheduler.booking.service.ImageProcessingService;
+import com.scheduler.booking.service.ImageStorageService;
 import com.scheduler.booking.service.SessionTypeService;
 import com.scheduler.booking.service.StripeService;
+import com.scheduler.booking.service.TenantService;
 import com.scheduler.booking.repository.PaymentRepository;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.task.TaskRejectedException;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.DateTimeException;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/business")
 @RequiredArgsConstructor
+@Slf4j
 @PreAuthorize("hasRole('BUSINESS')")
 @CrossOrigin(origins = { "http://localhost:3000", "http://localhost:5173" })
 public class BusinessController {
@@ -40,10 +59,14 @@ public class BusinessController {
     private final BusinessUserRepository businessUserRepository;
     private final TenantRepository tenantRepository;
     private final BlockedSlotRepository blockedSlotRepository;
+    private final BlockedSlotService blockedSlotService;
     private final com.scheduler.booking.service.BusinessHoursService businessHoursService;
     private final com.scheduler.booking.service.ImageStorageService imageStorageService;
+    private final ImageProcessingService imageProcessingService;
+    private final TenantService tenantService;
     private final StripeService stripeService;
     private final PaymentRepository paymentRepository;
+    private final Executor applicationTaskExecutor;
 
     private UUID getTenantIdFromAuth(Authentication authentication) {
         String clerkUserId = authentication.getName();
@@ -106,6 +129,12 @@ public class BusinessController {
 
         String timezone = request.get("timezone");
         if (timezone != null && !timezone.isEmpty()) {
+            // Business hours are checked in this zone, so it has to be one ZoneId knows
+            try {
+                ZoneId.of(timezone);
+            } catch (DateTimeException e) {
+                throw new RuntimeException("Unknown timezone: " + timezone);
+            }
             tenant.setTimezone(timezone);
             tenant = tenantRepository.save(tenant);
         }
@@ -113,6 +142,23 @@ public class BusinessController {
         return ResponseEntity.ok(tenant);
     }
 
+    @PutMapping("/tenant/notification-mode")
+    public ResponseEntity<Tenant> updateNotificationMode(
+            Authentication authentication,
+            @RequestBody java.util.Map<String, String> request) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        Tenant tenant = tenantRepository.findById(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+
+        String mode = request.get("notificationMode");
+        if (!List.of("INSTANT", "HOURLY", "DAILY").contains(mode)) {
+            throw new RuntimeException("Notification mode must be one of INSTANT, HOURLY or DAILY");
+        }
+        tenant.setNotificationMode(mode);
+
+        return ResponseEntity.ok(tenantRepository.save(tenant));
+    }
+
     @PutMapping("/tenant/profile")
     public ResponseEntity<Tenant> updateTenantProfile(
             Authentication authentication,
@@ -123,6 +169,10 @@ public class BusinessController {
 
         // Update logo URL if provided
         if (request.getLogoUrl() != null) {
+            if (!request.getLogoUrl().equals(tenant.getLogoUrl())) {
+                // Variants belong to the previous logo
+                tenant.setLogoVariants(null);
+            }
             tenant.setLogoUrl(request.getLogoUrl());
         }
 
@@ -136,46 +186,58 @@ public class BusinessController {
     }
 
     @PostMapping("/tenant/upload-logo")
-    public ResponseEntity<java.util.Map<String, String>> uploadLogo(
+    public CompletableFuture<ResponseEntity<java.util.Map<String, String>>> uploadLogo(
             Authentication authentication,
             @RequestParam("file") org.springframework.web.multipart.MultipartFile file) {
-        try {
-            UUID tenantId = getTenantIdFromAuth(authentication);
-            Tenant tenant = tenantRepository.findById(tenantId)
-                    .orElseThrow(() -> new RuntimeException("Tenant not found"));
-
-            System.out.println("=== LOGO UPLOAD DEBUG ===");
-            System.out.println("Tenant ID: " + tenantId);
-            System.out.println("File name: " + file.getOriginalFilename());
-            System.out.println("File size: " + file.getSize());
-            System.out.println("Content type: " + file.getContentType());
-
-            // Delete old logo if exists
-            if (tenant.getLogoUrl() != null && !tenant.getLogoUrl().isEmpty()) {
-                System.out.println("Deleting old logo: " + tenant.getLogoUrl());
-                imageStorageService.deleteImage(tenant.getLogoUrl());
-            }
-
-            // Upload new logo
-            String logoUrl = imageStorageService.uploadImage(file, tenantId);
-            System.out.println("New logo URL: " + logoUrl);
-
-            // Update tenant with new logo URL
-            tenant.setLogoUrl(logoUrl);
-            tenant = tenantRepository.save(tenant);
-
-            System.out.println("✅ Logo uploaded and tenant updated successfully");
+        UUID tenantId = getTenantIdFromAuth(authentication);
 
-            return ResponseEntity.ok(java.util.Map.of("logoUrl", logoUrl));
+        log.debug("Logo upload for tenant {}: {} ({} bytes, {})", tenantId, file.getOriginalFilename(),
+                file.getSize(), file.getContentType());
 
+        // Spool to disk (hashing and sniffing the format); the servlet thread is
+        // released while the original is stored in R2
+        ImageStorageService.SpooledImage image;
+        try {
+            image = imageStorageService.spool(file);
         } catch (IllegalArgumentException e) {
-            System.err.println("❌ Validation error: " + e.getMessage());
+            log.warn("Rejected logo upload for tenant {}: {}", tenantId, e.getMessage());
             throw new RuntimeException("Invalid file: " + e.getMessage());
-        } catch (Exception e) {
-            System.err.println("❌ Upload error: " + e.getMessage());
-            e.printStackTrace();
-            throw new RuntimeException("Failed to upload logo: " + e.getMessage());
         }
+
+        // The tenant update is a blocking transaction, so it runs on the task executor
+        // rather than on the S3 client's completion thread
+        return imageStorageService.putImage(tenantId, image)
+                .thenApplyAsync(logoUrl -> {
+                    log.debug("Stored logo for tenant {} at {}", tenantId, logoUrl);
+
+                    // Old logo objects are deleted in the background once this commits
+                    boolean needsVariants = tenantService.replaceLogo(tenantId, logoUrl);
+                    if (needsVariants) {
+                        try {
+                            imageProcessingService.generateLogoVariants(tenantId, image, logoUrl);
+                        } catch (TaskRejectedException e) {
+                            // Processing backlog is full; the original is still served
+                            log.warn("Logo variant generation rejected for tenant {}: {}", tenantId, e.getMessage());
+                            ImageStorageService.deleteQuietly(image.path());
+                        }
+                    } else {
+                        ImageStorageService.deleteQuietly(image.path());
+                    }
+
+                    log.debug("Logo updated for tenant {}", tenantId);
+                    return ResponseEntity.ok(java.util.Map.of("logoUrl", logoUrl));
+                }, applicationTaskExecutor)
+                .whenComplete((response, error) -> {
+                    if (error != null) {
+                        ImageStorageService.deleteQuietly(image.path());
+                        log.warn("Logo upload failed for tenant {}: {}", tenantId, error.getMessage());
+                    }
+                })
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof java.util.concurrent.CompletionException && error.getCause() != null
+                            ? error.getCause() : error;
+                    throw new RuntimeException("Failed to upload logo: " + cause.getMessage(), cause);
+                });
     }
 
     @GetMapping("/sessions")
@@ -248,6 +310,23 @@ public class BusinessController {
         return ResponseEntity.ok(bookingService.createBooking(tenantId, request, null));
     }
 
+    @PostMapping("/bookings/series")
+    public ResponseEntity<List<Booking>> createBookingSeries(
+            Authentication authentication,
+            @Valid @RequestBody BookingSeriesRequest request) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        return ResponseEntity.ok(bookingService.createSeries(tenantId, request, null));
+    }
+
+    @PostMapping("/bookings/{id}/reschedule")
+    public ResponseEntity<Booking> rescheduleBooking(
+            Authentication authentication,
+            @PathVariable UUID id,
+            @Valid @RequestBody RescheduleRequest request) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        return ResponseEntity.ok(bookingService.rescheduleBooking(id, tenantId, null, request.getStartTime()));
+    }
+
     @DeleteMapping("/bookings/{id}")
     public ResponseEntity<Void> cancelBooking(@PathVariable UUID id) {
         bookingService.cancelBooking(id, "Cancelled by business");
@@ -255,23 +334,23 @@ public class BusinessController {
     }
 
     // Blocked Slots endpoints
+
+    /**
+     * With from and to (epoch millis), the blocked intervals overlapping that window, with
+     * recurring blocks expanded into their occurrences; without them, the stored blocks
+     */
     @GetMapping("/blocked-slots")
-    public ResponseEntity<List<BlockedSlot>> getBlockedSlots(Authentication authentication) {
+    public ResponseEntity<List<BlockedSlot>> getBlockedSlots(
+            Authentication authentication,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
         UUID tenantId = getTenantIdFromAuth(authentication);
-        List<BlockedSlot> slots = blockedSlotRepository.findByTenantId(tenantId);
-
-        System.out.println("=== BLOCKED SLOTS RESPONSE DEBUG ===");
-        System.out.println("Total blocked slots: " + slots.size());
-        for (BlockedSlot slot : slots) {
-            System.out.println("Slot ID: " + slot.getId());
-            System.out.println("  Start Time (LocalDateTime): " + slot.getStartTime());
-            System.out.println("  End Time (LocalDateTime): " + slot.getEndTime());
-            System.out.println("  Start epoch: " + slot.getStartTime().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
-            System.out.println("  End epoch: " + slot.getEndTime().atZone(java.time.ZoneId.systemDefault()).toInstant().toEpochMilli());
+        if (from == null || to == null) {
+            return ResponseEntity.ok(blockedSlotRepository.findByTenantId(tenantId));
         }
-        System.out.println("====================================");
-
-        return ResponseEntity.ok(slots);
+        return ResponseEntity.ok(blockedSlotService.findBlocking(tenantId,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(from), ZoneId.systemDefault()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(to), ZoneId.systemDefault())));
     }
 
     @PostMapping("/blocked-slots")
@@ -294,8 +373,23 @@ public class BusinessController {
         blockedSlot.setEndTime(endTime);
         blockedSlot.setReason(request.getReason());
         blockedSlot.setCreatedBy(clerkUserId);
+        blockedSlot.setRecurrenceRule(request.getRecurrenceRule());
 
-        return ResponseEntity.ok(blockedSlotRepository.save(blockedSlot));
+        return ResponseEntity.ok(blockedSlotService.save(blockedSlot));
+    }
+
+    /**
+     * Block many ranges at once. Overlapping and adjacent ranges (new or existing) are
+     * merged into single blocks; bookings that now fall inside a block are returned, not
+     * cancelled.
+     */
+    @PostMapping("/blocked-slots/bulk")
+    public ResponseEntity<BulkBlockedSlotResponse> createBlockedSlots(
+            Authentication authentication,
+            @Valid @RequestBody BulkBlockedSlotRequest request) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        return ResponseEntity.ok(
+                blockedSlotService.blockRanges(tenantId, authentication.getName(), request.getRanges()));
     }
 
     @DeleteMapping("/blocked-slots/{id}")
@@ -356,4 +450,33 @@ public class BusinessController {
         UUID tenantId = getTenantIdFromAuth(authentication);
         return ResponseEntity.ok(businessHoursService.updateAllBusinessHours(tenantId, requests));
     }
+
+    /**
+     * Date-specific overrides from the given date (yyyy-MM-dd, default today) on
+     */
+    @GetMapping("/business-hours/overrides")
+    public ResponseEntity<List<BusinessHoursOverrideResponse>> getBusinessHoursOverrides(
+            Authentication authentication,
+            @RequestParam(required = false) String from) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        return ResponseEntity.ok(businessHoursService.getOverrides(tenantId,
+                from != null ? java.time.LocalDate.parse(from) : java.time.LocalDate.now()));
+    }
+
+    @PostMapping("/business-hours/overrides")
+    public ResponseEntity<BusinessHoursOverrideResponse> createBusinessHoursOverride(
+            Authentication authentication,
+            @Valid @RequestBody BusinessHoursOverrideRequest request) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        return ResponseEntity.ok(businessHoursService.createOverride(tenantId, request));
+    }
+
+    @DeleteMapping("/business-hours/overrides/{id}")
+    public ResponseEntity<Void> deleteBusinessHoursOverride(
+            Authentication authentication,
+            @PathVariable UUID id) {
+        UUID tenantId = getTenantIdFromAuth(authentication);
+        businessHoursService.deleteOverride(id, tenantId);
+        return ResponseEntity.noContent().build();
+    }
 }
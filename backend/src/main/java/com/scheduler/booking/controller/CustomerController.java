@@ -1,21 +1,36 @@
 package com.scheduler.booking.controller;
 
 import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.dto.BookingSeriesRequest;
+import com.scheduler.booking.dto.BusinessHoursOverrideResponse;
 import com.scheduler.booking.dto.BusinessHoursResponse;
+import com.scheduler.booking.dto.ManagedBookingResponse;
+import com.scheduler.booking.dto.RescheduleRequest;
 import com.scheduler.booking.model.BlockedSlot;
 import com.scheduler.booking.model.Booking;
 import com.scheduler.booking.model.SessionType;
 import com.scheduler.booking.model.Tenant;
 import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.service.BlockedSlotService;
+import com.scheduler.booking.service.BookingAdmissionService;
 import com.scheduler.booking.service.BookingService;
+import com.scheduler.booking.service.CheckoutService;
 import com.scheduler.booking.service.SessionTypeService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
 
 @RestController
 @RequestMapping("/api/customer")
@@ -25,9 +40,12 @@ public class CustomerController {
 
     private final SessionTypeService sessionTypeService;
     private final BookingService bookingService;
+    private final BookingAdmissionService bookingAdmissionService;
+    private final CheckoutService checkoutService;
     private final TenantRepository tenantRepository;
     private final com.scheduler.booking.service.BusinessHoursService businessHoursService;
     private final com.scheduler.booking.repository.BlockedSlotRepository blockedSlotRepository;
+    private final BlockedSlotService blockedSlotService;
 
     @GetMapping("/tenants/{slug}")
     public ResponseEntity<Tenant> getTenantBySlug(@PathVariable String slug) {
@@ -41,11 +59,37 @@ public class CustomerController {
         return ResponseEntity.ok(sessionTypeService.getActiveSessionTypesByTenant(tenantId));
     }
 
+    /**
+     * Queued behind other requests for the same tenant (see BookingAdmissionService);
+     * 429 or 503 with Retry-After when the tenant's queue is overloaded.
+     */
     @PostMapping("/tenants/{tenantId}/bookings")
-    public ResponseEntity<Booking> createBooking(
+    public CompletableFuture<ResponseEntity<?>> createBooking(
             @PathVariable UUID tenantId,
             @Valid @RequestBody BookingRequest request) {
-        return ResponseEntity.ok(bookingService.createBooking(tenantId, request, null));
+        return respond(bookingAdmissionService.submit(tenantId, request));
+    }
+
+    /**
+     * Create a booking and, if it has to be paid, its Stripe Checkout Session in one call.
+     * The response carries the checkout URL to redirect to (null for free sessions).
+     */
+    @PostMapping("/tenants/{tenantId}/bookings/checkout")
+    public CompletableFuture<ResponseEntity<?>> createBookingWithCheckout(
+            @PathVariable UUID tenantId,
+            @RequestParam(required = false) String slug,
+            @Valid @RequestBody BookingRequest request) {
+        return respond(checkoutService.bookAndCheckout(tenantId, request, slug));
+    }
+
+    /**
+     * Book a weekly series (free sessions only). All occurrences are booked or none are.
+     */
+    @PostMapping("/tenants/{tenantId}/bookings/series")
+    public ResponseEntity<List<Booking>> createBookingSeries(
+            @PathVariable UUID tenantId,
+            @Valid @RequestBody BookingSeriesRequest request) {
+        return ResponseEntity.ok(bookingService.createSeries(tenantId, request, null));
     }
 
     @GetMapping("/bookings/{id}")
@@ -53,13 +97,75 @@ public class CustomerController {
         return ResponseEntity.ok(bookingService.getBookingById(id));
     }
 
+    /**
+     * The booking behind a manage link, with its business (for the reschedule calendar)
+     */
+    @GetMapping("/bookings/{id}/manage")
+    public ResponseEntity<ManagedBookingResponse> getManagedBooking(
+            @PathVariable UUID id,
+            @RequestParam String token) {
+        return ResponseEntity.ok(bookingService.getManagedBooking(id, token));
+    }
+
+    /**
+     * Move a booking to another time in one step. The token is the one from the manage link
+     * in the booking's confirmation email.
+     */
+    @PostMapping("/bookings/{id}/reschedule")
+    public ResponseEntity<Booking> rescheduleBooking(
+            @PathVariable UUID id,
+            @Valid @RequestBody RescheduleRequest request) {
+        return ResponseEntity.ok(bookingService.rescheduleBooking(id, null, request.getToken(), request.getStartTime()));
+    }
+
     @GetMapping("/tenants/{tenantId}/business-hours")
     public ResponseEntity<List<BusinessHoursResponse>> getBusinessHours(@PathVariable UUID tenantId) {
         return ResponseEntity.ok(businessHoursService.getBusinessHours(tenantId));
     }
 
+    /**
+     * Upcoming date-specific hours; on those dates they replace the weekly business hours
+     */
+    @GetMapping("/tenants/{tenantId}/business-hours/overrides")
+    public ResponseEntity<List<BusinessHoursOverrideResponse>> getBusinessHoursOverrides(@PathVariable UUID tenantId) {
+        // From yesterday, so visitors in zones ahead of the server still get today's
+        return ResponseEntity.ok(businessHoursService.getOverrides(tenantId, LocalDate.now().minusDays(1)));
+    }
+
+    /**
+     * With from and to (epoch millis), the blocked intervals overlapping that window, with
+     * recurring blocks expanded into their occurrences; without them, the stored blocks
+     */
     @GetMapping("/tenants/{tenantId}/blocked-slots")
-    public ResponseEntity<List<BlockedSlot>> getBlockedSlots(@PathVariable UUID tenantId) {
-        return ResponseEntity.ok(blockedSlotRepository.findByTenantId(tenantId));
+    public ResponseEntity<List<BlockedSlot>> getBlockedSlots(
+            @PathVariable UUID tenantId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        if (from == null || to == null) {
+            return ResponseEntity.ok(blockedSlotRepository.findByTenantId(tenantId));
+        }
+        return ResponseEntity.ok(blockedSlotService.findBlocking(tenantId,
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(from), ZoneId.systemDefault()),
+                LocalDateTime.ofInstant(Instant.ofEpochMilli(to), ZoneId.systemDefault())));
+    }
+
+    /**
+     * 200 with the result, or 429/503 with Retry-After if the booking queue refused it
+     */
+    private static CompletableFuture<ResponseEntity<?>> respond(CompletableFuture<?> result) {
+        return result
+                .<ResponseEntity<?>>thenApply(ResponseEntity::ok)
+                .exceptionally(error -> {
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof BookingAdmissionService.AdmissionRejectedException rejected) {
+                        return ResponseEntity.status(rejected.getStatus())
+                                .header(HttpHeaders.RETRY_AFTER, Long.toString(rejected.getRetryAfterSeconds()))
+                                .body(Map.of("error", rejected.getMessage()));
+                    }
+                    if (cause instanceof RuntimeException runtimeException) {
+                        throw runtimeException;
+                    }
+                    throw new CompletionException(cause);
+                });
     }
 }
@@ -3,6 +3,7 @@ package com.scheduler.booking.controller;
 import com.scheduler.booking.model.*;
 import com.scheduler.booking.repository.*;
 import com.scheduler.booking.service.CalendarService;
+import com.scheduler.booking.service.CustomerResolver;
 import com.scheduler.booking.service.EmailService;
 import com.scheduler.booking.service.TenantService;
 import lombok.RequiredArgsConstructor;
@@ -38,11 +39,11 @@ public class EmailTestController {
             Tenant tenant = tenantRepository.findBySlug("demo-yoga")
                     .orElseThrow(() -> new RuntimeException("Demo tenant not found"));
 
-            // Create or get customer
-            Customer customer = customerRepository.findByEmail(toEmail)
+            // Create or get customer (emails are stored normalised)
+            Customer customer = customerRepository.findByEmail(CustomerResolver.normalize(toEmail))
                     .orElseGet(() -> {
                         Customer newCustomer = new Customer();
-                        newCustomer.setEmail(toEmail);
+                        newCustomer.setEmail(CustomerResolver.normalize(toEmail));
                         newCustomer.setFirstName("Test");
                         newCustomer.setLastName("Customer");
                         newCustomer.setPhone("+1234567890");
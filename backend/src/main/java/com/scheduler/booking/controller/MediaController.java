@@ -0,0 +1,162 @@
+package com.scheduler.booking.controller;
+
+import com.scheduler.booking.service.MediaCacheService;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.MediaTypeFactory;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.ServletWebRequest;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.CompletionException;
+
+/**
+ * Serves tenant images from a local disk cache of R2, for deployments without a CDN.
+ * Enabled with images.media-proxy.enabled=true; point cloudflare.r2.public-url-base
+ * at {@code <app-url>/media} so stored URLs resolve here.
+ */
+@RestController
+@ConditionalOnProperty(prefix = "images.media-proxy", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+public class MediaController {
+
+    private static final String MEDIA_PREFIX = "/media/";
+    private static final String SENDFILE_SUPPORT = "org.apache.tomcat.sendfile.support";
+    private static final String SENDFILE_FILENAME = "org.apache.tomcat.sendfile.filename";
+    private static final String SENDFILE_START = "org.apache.tomcat.sendfile.start";
+    private static final String SENDFILE_END = "org.apache.tomcat.sendfile.end";
+
+    private final MediaCacheService mediaCacheService;
+
+    @GetMapping("/media/**")
+    public void serve(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        String key = request.getRequestURI().substring(request.getContextPath().length() + MEDIA_PREFIX.length());
+        if (!key.startsWith("tenants/") || key.contains("..")) {
+            response.sendError(HttpServletResponse.SC_NOT_FOUND);
+            return;
+        }
+
+        MediaCacheService.CachedMedia media;
+        try {
+            // Misses wait for the download; hits complete immediately
+            media = mediaCacheService.get(key).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof NoSuchKeyException) {
+                response.sendError(HttpServletResponse.SC_NOT_FOUND);
+                return;
+            }
+            throw e;
+        }
+
+        // If-None-Match / If-Modified-Since -> 304
+        if (new ServletWebRequest(request, response).checkNotModified(media.getETag(), media.getLastModified())) {
+            return;
+        }
+
+        response.setContentType(MediaTypeFactory.getMediaType(key)
+                .orElse(MediaType.APPLICATION_OCTET_STREAM).toString());
+        response.setHeader(HttpHeaders.CACHE_CONTROL, "public, max-age=31536000, immutable");
+        response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+
+        long size = media.getSize();
+        long start = 0;
+        long end = size - 1;
+
+        String range = request.getHeader(HttpHeaders.RANGE);
+        String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+        if (range != null && (ifRange == null || ifRange.equals(media.getETag()))) {
+            long[] bounds = parseRange(range, size);
+            if (bounds == null) {
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+                response.sendError(HttpServletResponse.SC_REQUESTED_RANGE_NOT_SATISFIABLE);
+                return;
+            }
+            if (bounds.length == 2) {
+                start = bounds[0];
+                end = bounds[1];
+                response.setStatus(HttpServletResponse.SC_PARTIAL_CONTENT);
+                response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+            }
+        }
+
+        long length = end - start + 1;
+        response.setContentLengthLong(length);
+        if ("HEAD".equals(request.getMethod()) || length == 0) {
+            return;
+        }
+
+        if (size <= mediaCacheService.getMmapThresholdBytes()) {
+            // Small file: write straight from the mapped pages
+            ByteBuffer slice = media.mapped().duplicate();
+            slice.position((int) start).limit((int) (end + 1));
+            WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+            while (slice.hasRemaining()) {
+                out.write(slice);
+            }
+        } else if (Boolean.TRUE.equals(request.getAttribute(SENDFILE_SUPPORT))) {
+            // Let Tomcat hand the file to the kernel after this method returns
+            request.setAttribute(SENDFILE_FILENAME, media.getPath().toAbsolutePath().toString());
+            request.setAttribute(SENDFILE_START, start);
+            request.setAttribute(SENDFILE_END, end + 1);
+        } else {
+            try (FileChannel file = FileChannel.open(media.getPath(), StandardOpenOption.READ)) {
+                WritableByteChannel out = Channels.newChannel(response.getOutputStream());
+                long position = start;
+                while (position <= end) {
+                    position += file.transferTo(position, end + 1 - position, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Parse a single "bytes=" range. Multiple ranges are not supported and get the whole file.
+     *
+     * @return {start, end} inclusive, an empty array to serve the whole file, or null if unsatisfiable
+     */
+    private long[] parseRange(String header, long size) {
+        if (!header.startsWith("bytes=") || header.contains(",")) {
+            return new long[0];
+        }
+        String spec = header.substring("bytes=".length()).trim();
+        int dash = spec.indexOf('-');
+        if (dash < 0) {
+            return new long[0];
+        }
+        try {
+            String first = spec.substring(0, dash).trim();
+            String last = spec.substring(dash + 1).trim();
+            long start;
+            long end;
+            if (first.isEmpty()) {
+                // Suffix range: last N bytes
+                long suffix = Long.parseLong(last);
+                if (suffix <= 0) {
+                    return null;
+                }
+                start = Math.max(0, size - suffix);
+                end = size - 1;
+            } else {
+                start = Long.parseLong(first);
+                end = last.isEmpty() ? size - 1 : Math.min(Long.parseLong(last), size - 1);
+            }
+            if (start >= size || start > end) {
+                return null;
+            }
+            return new long[] { start, end };
+        } catch (NumberFormatException e) {
+            return new long[0];
+        }
+    }
+}
@@ -1,30 +1,31 @@
 package com.scheduler.booking.controller;
 
 import com.scheduler.booking.config.StripeConfig;
-import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.dto.CheckoutResponse;
 import com.scheduler.booking.model.Payment;
-import com.scheduler.booking.model.SessionType;
-import com.scheduler.booking.model.Tenant;
-import com.scheduler.booking.repository.BookingRepository;
 import com.scheduler.booking.repository.PaymentRepository;
-import com.scheduler.booking.repository.SessionTypeRepository;
-import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.service.CheckoutService;
+import com.scheduler.booking.service.PaymentStatusNotifier;
 import com.scheduler.booking.service.StripeService;
 import com.stripe.exception.SignatureVerificationException;
-import com.stripe.exception.StripeException;
 import com.stripe.model.Event;
-import com.stripe.model.checkout.Session;
 import com.stripe.net.Webhook;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.async.DeferredResult;
 
-import java.math.BigDecimal;
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.Optional;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
 
 @RestController
 @RequestMapping("/api/stripe")
@@ -35,13 +36,17 @@ public class StripeController {
 
     private final StripeService stripeService;
     private final StripeConfig stripeConfig;
-    private final BookingRepository bookingRepository;
-    private final SessionTypeRepository sessionTypeRepository;
     private final PaymentRepository paymentRepository;
-    private final TenantRepository tenantRepository;
+    private final CheckoutService checkoutService;
+    private final PaymentStatusNotifier paymentStatusNotifier;
+    private final Executor applicationTaskExecutor;
+
+    @Value("${payments.status-wait.max:PT60S}")
+    private Duration maxStatusWait;
 
     /**
-     * Create Stripe Checkout Session for a booking
+     * Create Stripe Checkout Session for a booking, or return the booking's session if it
+     * is still open. Safe to call repeatedly (double clicks, returning from the cancel page).
      */
     @PostMapping("/create-checkout-session")
     public ResponseEntity<Map<String, String>> createCheckoutSession(@RequestBody Map<String, String> request) {
@@ -49,57 +54,15 @@ public class StripeController {
             String bookingId = request.get("bookingId");
             String tenantSlug = request.get("slug"); // Get slug from request
 
-            Booking booking = bookingRepository.findById(UUID.fromString(bookingId))
-                    .orElseThrow(() -> new RuntimeException("Booking not found"));
-
-            SessionType sessionType = sessionTypeRepository.findById(booking.getSessionTypeId())
-                    .orElseThrow(() -> new RuntimeException("Session type not found"));
-
-            // If slug not provided, try to get it from tenant
-            String slug = tenantSlug;
-            if (slug == null || slug.isEmpty()) {
-                Tenant tenant = tenantRepository.findById(booking.getTenantId())
-                        .orElse(null);
-                if (tenant != null) {
-                    slug = tenant.getSlug();
-                }
-            }
-
-            // Create Stripe Checkout Session
-            Session session = stripeService.createCheckoutSession(
-                    booking,
-                    sessionType,
-                    booking.getCustomer().getEmail(),
-                    slug
-            );
-
-            // Create payment record
-            Map<String, BigDecimal> fees = stripeService.calculateFees(sessionType.getPrice());
-
-            Payment payment = new Payment();
-            payment.setBookingId(booking.getId());
-            payment.setTenantId(booking.getTenantId());
-            payment.setCustomerId(booking.getCustomerId());
-            payment.setAmount(fees.get("totalAmount"));
-            payment.setCurrency(sessionType.getCurrency());
-            payment.setStatus("PENDING");
-            payment.setStripeCheckoutSessionId(session.getId());
-            payment.setPlatformFee(fees.get("platformFee"));
-            payment.setBusinessAmount(fees.get("businessAmount"));
-
-            paymentRepository.save(payment);
+            CheckoutResponse checkout = checkoutService.checkoutForBooking(UUID.fromString(bookingId), tenantSlug);
 
             // Return checkout URL
             Map<String, String> response = new HashMap<>();
-            response.put("checkoutUrl", session.getUrl());
-            response.put("sessionId", session.getId());
+            response.put("checkoutUrl", checkout.getCheckoutUrl());
+            response.put("sessionId", checkout.getSessionId());
 
             return ResponseEntity.ok(response);
 
-        } catch (StripeException e) {
-            log.error("Stripe error creating checkout session", e);
-            return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
-                    .body(Map.of("error", "Failed to create checkout session: " + e.getMessage()));
         } catch (Exception e) {
             log.error("Error creating checkout session", e);
             return ResponseEntity.status(HttpStatus.INTERNAL_SERVER_ERROR)
@@ -170,13 +133,55 @@ public class StripeController {
     }
 
     /**
-     * Get payment status for a booking
+     * Get payment status for a booking. With wait (e.g. wait=30s, at most
+     * payments.status-wait.max) a PENDING payment is held open until its status changes.
      */
     @GetMapping("/payment-status/{bookingId}")
-    public ResponseEntity<Payment> getPaymentStatus(@PathVariable UUID bookingId) {
-        Payment payment = paymentRepository.findByBookingId(bookingId)
-                .orElseThrow(() -> new RuntimeException("Payment not found"));
-        return ResponseEntity.ok(payment);
+    public DeferredResult<ResponseEntity<Payment>> getPaymentStatus(@PathVariable UUID bookingId,
+                                                                    @RequestParam(required = false) String wait) {
+        Duration waitFor;
+        try {
+            waitFor = wait != null ? DurationStyle.detectAndParse(wait) : Duration.ZERO;
+        } catch (IllegalArgumentException e) {
+            DeferredResult<ResponseEntity<Payment>> invalid = new DeferredResult<>();
+            invalid.setResult(ResponseEntity.badRequest().build());
+            return invalid;
+        }
+        if (waitFor.isNegative()) {
+            waitFor = Duration.ZERO;
+        } else if (waitFor.compareTo(maxStatusWait) > 0) {
+            waitFor = maxStatusWait;
+        }
+        DeferredResult<ResponseEntity<Payment>> result = new DeferredResult<>(Math.max(1, waitFor.toMillis()));
+
+        // Register before reading so a change landing in between is not missed
+        CompletableFuture<Void> change = paymentStatusNotifier.awaitChange(bookingId);
+        Optional<Payment> payment;
+        try {
+            payment = paymentRepository.findByBookingId(bookingId);
+        } catch (RuntimeException e) {
+            paymentStatusNotifier.cancel(bookingId, change);
+            throw e;
+        }
+        if (payment.isEmpty() || waitFor.isZero() || !"PENDING".equals(payment.get().getStatus())) {
+            // Answered now: the waiter is not needed
+            paymentStatusNotifier.cancel(bookingId, change);
+            result.setResult(payment.map(ResponseEntity::ok).orElseGet(() -> ResponseEntity.notFound().build()));
+            return result;
+        }
+        result.onCompletion(() -> paymentStatusNotifier.cancel(bookingId, change));
+
+        // Parked without a thread until the webhook (on any node) changes the status, or until wait runs out
+        // The change completes on the notifier's listener thread, so the read runs elsewhere
+        change.thenRunAsync(() -> result.setResult(currentPaymentStatus(bookingId)), applicationTaskExecutor);
+        result.onTimeout(() -> result.setResult(currentPaymentStatus(bookingId)));
+        return result;
+    }
+
+    private ResponseEntity<Payment> currentPaymentStatus(UUID bookingId) {
+        return paymentRepository.findByBookingId(bookingId)
+                .map(ResponseEntity::ok)
+                .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
     /**
@@ -12,4 +12,6 @@ public class BlockedSlotRequest {
     private Long endTime; // Epoch timestamp in milliseconds
 
     private String reason;
+
+    private String recurrenceRule; // Optional RRULE subset, e.g. FREQ=WEEKLY;BYDAY=MO,WE,FR
 }
@@ -0,0 +1,16 @@
+package com.scheduler.booking.dto;
+
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+/**
+ * A booking repeated weekly: the first occurrence is startTime, then every intervalWeeks
+ * weeks for count occurrences or until the until timestamp, whichever comes first.
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class BookingSeriesRequest extends BookingRequest {
+    private Integer intervalWeeks = 1;
+    private Integer count;
+    private Long until; // Epoch timestamp in milliseconds, inclusive
+}
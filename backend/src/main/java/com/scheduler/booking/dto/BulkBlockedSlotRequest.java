@@ -0,0 +1,14 @@
+package com.scheduler.booking.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import lombok.Data;
+
+import java.util.List;
+
+@Data
+public class BulkBlockedSlotRequest {
+    @NotEmpty(message = "At least one range is required")
+    @Valid
+    private List<BlockedSlotRequest> ranges;
+}
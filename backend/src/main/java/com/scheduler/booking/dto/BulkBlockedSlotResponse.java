@@ -0,0 +1,23 @@
+package com.scheduler.booking.dto;
+
+import com.scheduler.booking.model.BlockedSlot;
+import com.scheduler.booking.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Result of a bulk block-out: the blocked slots written (new or extended by merging),
+ * how many existing slots were merged into them and removed, and the bookings still
+ * holding time inside the newly blocked ranges.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BulkBlockedSlotResponse {
+    private List<BlockedSlot> blockedSlots;
+    private int removedSlots;
+    private List<Booking> conflictingBookings;
+}
@@ -0,0 +1,16 @@
+package com.scheduler.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class BusinessHoursOverrideRequest {
+    @NotNull(message = "Date is required")
+    private String date; // Format: "yyyy-MM-dd"
+
+    private String startTime; // Format: "HH:mm"; omit both times to close the whole day
+
+    private String endTime; // Format: "HH:mm"
+
+    private String reason;
+}
@@ -0,0 +1,18 @@
+package com.scheduler.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BusinessHoursOverrideResponse {
+    private UUID id;
+    private String date; // Format: "yyyy-MM-dd"
+    private String startTime; // Format: "HH:mm"; null when closed all day
+    private String endTime; // Format: "HH:mm"; null when closed all day
+    private String reason;
+}
@@ -0,0 +1,19 @@
+package com.scheduler.booking.dto;
+
+import com.scheduler.booking.model.Booking;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * Result of book-and-checkout. checkoutUrl and sessionId are null when no payment is
+ * needed and the booking is already confirmed.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CheckoutResponse {
+    private Booking booking;
+    private String checkoutUrl;
+    private String sessionId;
+}
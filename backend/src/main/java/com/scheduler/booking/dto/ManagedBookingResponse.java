@@ -0,0 +1,18 @@
+package com.scheduler.booking.dto;
+
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Tenant;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * A booking and its business, for the customer's manage-booking page
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ManagedBookingResponse {
+    private Booking booking;
+    private Tenant tenant;
+}
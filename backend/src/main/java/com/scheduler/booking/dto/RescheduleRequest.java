@@ -0,0 +1,13 @@
+package com.scheduler.booking.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+
+@Data
+public class RescheduleRequest {
+    @NotNull(message = "Start time is required")
+    private Long startTime; // Epoch timestamp in milliseconds
+
+    // Customer self-service only: the token from the booking's manage link
+    private String token;
+}
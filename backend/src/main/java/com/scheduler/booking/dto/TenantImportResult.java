@@ -0,0 +1,29 @@
+package com.scheduler.booking.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Outcome of one bulk import row, streamed back as a line of NDJSON
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TenantImportResult {
+    private long row;
+    private String slug;
+    private String status; // CREATED or FAILED
+    private UUID tenantId;
+    private String error;
+
+    public static TenantImportResult created(long row, String slug, UUID tenantId) {
+        return new TenantImportResult(row, slug, "CREATED", tenantId, null);
+    }
+
+    public static TenantImportResult failed(long row, String slug, String error) {
+        return new TenantImportResult(row, slug, "FAILED", null, error);
+    }
+}
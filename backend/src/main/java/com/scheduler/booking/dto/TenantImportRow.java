@@ -0,0 +1,17 @@
+package com.scheduler.booking.dto;
+
+import jakarta.validation.Valid;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+
+import java.util.List;
+
+/**
+ * One tenant in a bulk import: the usual tenant fields plus optional session types
+ */
+@Data
+@EqualsAndHashCode(callSuper = true)
+public class TenantImportRow extends TenantRequest {
+    @Valid
+    private List<SessionTypeRequest> sessionTypes;
+}
@@ -34,6 +34,15 @@ public class BlockedSlot {
     @Column(name = "created_by")
     private String createdBy; // Business user who created the block
 
+    // RRULE subset; when set, startTime/endTime are the first occurrence
+    @Column(name = "recurrence_rule")
+    private String recurrenceRule;
+
+    // No occurrence ends after this; null if the rule never ends
+    @Column(name = "recurrence_end")
+    @JsonFormat(shape = JsonFormat.Shape.NUMBER)
+    private LocalDateTime recurrenceEnd;
+
     @CreationTimestamp
     @Column(name = "created_at", updatable = false)
     @JsonFormat(shape = JsonFormat.Shape.NUMBER)
@@ -1,12 +1,16 @@
 package com.scheduler.booking.model;
 
 import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
 import lombok.NoArgsConstructor;
+import lombok.ToString;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
+import org.springframework.data.domain.Persistable;
 
 import java.time.LocalDateTime;
 import java.util.UUID;
@@ -16,10 +20,11 @@ import java.util.UUID;
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
-public class Booking {
+public class Booking implements Persistable<UUID> {
 
+    // Assigned rather than generated, so a Stripe Checkout Session can reference the
+    // booking before it is inserted (see CheckoutService)
     @Id
-    @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
     @Column(name = "tenant_id", nullable = false)
@@ -64,6 +69,14 @@ public class Booking {
 
     private String cancelledBy;
 
+    // Shared by the occurrences of a recurring series (see BookingService#createSeries)
+    @Column(name = "series_id")
+    private UUID seriesId;
+
+    // ICS SEQUENCE of the booking's calendar event, bumped on each reschedule
+    @Column(nullable = false)
+    private Integer icsSequence = 0;
+
     @CreationTimestamp
     @JsonFormat(shape = JsonFormat.Shape.NUMBER)
     private LocalDateTime createdAt;
@@ -72,6 +85,35 @@ public class Booking {
     @JsonFormat(shape = JsonFormat.Shape.NUMBER)
     private LocalDateTime updatedAt;
 
+    @Transient
+    @JsonIgnore
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private boolean persisted;
+
+    @PrePersist
+    void assignId() {
+        if (id == null) {
+            id = UUID.randomUUID();
+        }
+    }
+
+    @PostPersist
+    @PostLoad
+    void markPersisted() {
+        persisted = true;
+    }
+
+    /**
+     * New until saved or loaded, whether or not an id has been assigned, so that
+     * save() inserts instead of merging
+     */
+    @Override
+    @JsonIgnore
+    public boolean isNew() {
+        return !persisted;
+    }
+
     public String getConfirmationNumber() {
         return "BK-" + id.toString().substring(0, 8).toUpperCase();
     }
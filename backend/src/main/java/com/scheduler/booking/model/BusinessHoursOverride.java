@@ -0,0 +1,54 @@
+package com.scheduler.booking.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import org.hibernate.annotations.UpdateTimestamp;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.UUID;
+
+/**
+ * Hours for one specific date. A date with any override rows uses only those rows instead
+ * of its weekday's business hours; a row without times closes the whole day.
+ */
+@Entity
+@Table(name = "business_hours_overrides")
+@Data
+@NoArgsConstructor
+public class BusinessHoursOverride {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "override_date", nullable = false)
+    private LocalDate date;
+
+    @Column(name = "start_time")
+    private LocalTime startTime; // null (with endTime) when closed all day
+
+    @Column(name = "end_time")
+    private LocalTime endTime;
+
+    @Column(name = "reason")
+    private String reason;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+
+    @UpdateTimestamp
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public boolean isClosed() {
+        return startTime == null;
+    }
+}
@@ -48,6 +48,11 @@ public class Payment {
     private String stripeChargeId;
     private String stripeCheckoutSessionId;
 
+    @Column(columnDefinition = "TEXT")
+    private String stripeCheckoutUrl;
+
+    private LocalDateTime stripeSessionExpiresAt;
+
     @Column(precision = 10, scale = 2)
     private BigDecimal platformFee = BigDecimal.ZERO;
 
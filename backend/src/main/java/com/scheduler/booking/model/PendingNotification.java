@@ -0,0 +1,43 @@
+package com.scheduler.booking.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A business booking notification buffered for a tenant that receives
+ * hourly or daily digests instead of one email per booking. A new booking
+ * unless previousStartTime is set, in which case the booking was rescheduled.
+ */
+@Entity
+@Table(name = "pending_notifications")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PendingNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "tenant_id", nullable = false)
+    private UUID tenantId;
+
+    @Column(name = "booking_id", nullable = false)
+    private UUID bookingId;
+
+    @Column(name = "recipient_email", nullable = false)
+    private String recipientEmail;
+
+    @Column(name = "previous_start_time")
+    private LocalDateTime previousStartTime;
+
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false)
+    private LocalDateTime createdAt;
+}
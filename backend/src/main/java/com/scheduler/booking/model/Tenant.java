@@ -1,5 +1,6 @@
 package com.scheduler.booking.model;
 
+import com.fasterxml.jackson.annotation.JsonIgnore;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -36,6 +37,9 @@ public class Tenant {
     private String phone;
     private String logoUrl;
 
+    @JdbcTypeCode(SqlTypes.JSON)
+    private Map<String, String> logoVariants; // width ("64", "128", ...) or "original" -> public URL
+
     @Column(columnDefinition = "TEXT")
     private String description;
 
@@ -55,6 +59,18 @@ public class Tenant {
     @Column(nullable = false)
     private String timezone = "UTC"; // IANA timezone identifier (e.g., "Europe/Amsterdam", "America/New_York")
 
+    @Column(nullable = false)
+    private String notificationMode = "INSTANT"; // INSTANT, HOURLY or DAILY business booking notifications
+
+    // Owner account being created while PROVISIONING; cleared on activation (see TenantService.discardTenant)
+    @JsonIgnore
+    private String provisioningOwnerEmail;
+
+    // Bumped by BusinessHoursService only (never written through the entity)
+    @JsonIgnore
+    @Column(name = "hours_version", insertable = false, updatable = false)
+    private long hoursVersion;
+
     @CreationTimestamp
     private LocalDateTime createdAt;
 
@@ -23,7 +23,11 @@ public interface BlockedSlotRepository extends JpaRepository<BlockedSlot, UUID>
         @Param("endDate") LocalDateTime endDate
     );
 
-    @Query("SELECT b FROM BlockedSlot b WHERE b.tenantId = :tenantId " +
+    /**
+     * One-off blocked slots conflicting with [startTime, endTime); recurring ones are
+     * expanded by BlockedSlotService
+     */
+    @Query("SELECT b FROM BlockedSlot b WHERE b.tenantId = :tenantId AND b.recurrenceRule IS NULL " +
            "AND ((b.startTime <= :startTime AND b.endTime > :startTime) " +
            "OR (b.startTime < :endTime AND b.endTime >= :endTime) " +
            "OR (b.startTime >= :startTime AND b.endTime <= :endTime))")
@@ -32,4 +36,30 @@ public interface BlockedSlotRepository extends JpaRepository<BlockedSlot, UUID>
         @Param("startTime") LocalDateTime startTime,
         @Param("endTime") LocalDateTime endTime
     );
+
+    /**
+     * One-off blocked slots overlapping or adjacent to [from, to], i.e. the ones a block
+     * over that range would be merged with
+     */
+    @Query("SELECT b FROM BlockedSlot b WHERE b.tenantId = :tenantId AND b.recurrenceRule IS NULL " +
+           "AND b.startTime <= :to AND b.endTime >= :from")
+    List<BlockedSlot> findTouching(
+        @Param("tenantId") UUID tenantId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    /**
+     * Recurring blocked slots that may have an occurrence overlapping [from, to)
+     */
+    @Query("SELECT b FROM BlockedSlot b WHERE b.tenantId = :tenantId AND b.recurrenceRule IS NOT NULL " +
+           "AND b.startTime < :to AND (b.recurrenceEnd IS NULL OR b.recurrenceEnd > :from)")
+    List<BlockedSlot> findRecurring(
+        @Param("tenantId") UUID tenantId,
+        @Param("from") LocalDateTime from,
+        @Param("to") LocalDateTime to
+    );
+
+    @Query("SELECT DISTINCT b.tenantId FROM BlockedSlot b")
+    List<UUID> findTenantIds();
 }
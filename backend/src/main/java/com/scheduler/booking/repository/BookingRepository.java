@@ -1,11 +1,14 @@
 package com.scheduler.booking.repository;
 
 import com.scheduler.booking.model.Booking;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -18,6 +21,13 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
     Optional<Booking> findByIdAndTenantId(UUID id, UUID tenantId);
     List<Booking> findByStartTimeBetween(LocalDateTime start, LocalDateTime end);
 
+    @Query("SELECT b.tenantId FROM Booking b WHERE b.id = :id")
+    Optional<UUID> findTenantIdById(UUID id);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT b FROM Booking b WHERE b.id = :id")
+    Optional<Booking> findByIdForUpdate(UUID id);
+
     @Query("SELECT b FROM Booking b WHERE b.tenantId = :tenantId AND b.startTime >= :from ORDER BY b.startTime ASC")
     List<Booking> findUpcomingBookings(UUID tenantId, LocalDateTime from);
 
@@ -28,9 +38,24 @@ public interface BookingRepository extends JpaRepository<Booking, UUID> {
            "ORDER BY b.startTime ASC")
     List<Booking> findUpcomingBookingsWithDetails(UUID tenantId, LocalDateTime from);
 
+    /**
+     * Bookings that still hold their time (pending, awaiting payment or confirmed) overlapping [from, to)
+     */
+    @Query("SELECT b FROM Booking b WHERE b.tenantId = :tenantId " +
+           "AND b.status IN ('PENDING', 'PENDING_PAYMENT', 'CONFIRMED') " +
+           "AND b.startTime < :to AND b.endTime > :from")
+    List<Booking> findActiveOverlapping(UUID tenantId, LocalDateTime from, LocalDateTime to);
+
     @Query("SELECT b FROM Booking b " +
            "LEFT JOIN FETCH b.sessionType " +
            "LEFT JOIN FETCH b.customer " +
            "WHERE b.id = :id")
     Optional<Booking> findByIdWithDetails(UUID id);
+
+    @Query("SELECT b FROM Booking b " +
+           "LEFT JOIN FETCH b.sessionType " +
+           "LEFT JOIN FETCH b.customer " +
+           "WHERE b.id IN :ids " +
+           "ORDER BY b.startTime ASC")
+    List<Booking> findAllByIdWithDetails(Collection<UUID> ids);
 }
@@ -0,0 +1,18 @@
+package com.scheduler.booking.repository;
+
+import com.scheduler.booking.model.BusinessHoursOverride;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDate;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface BusinessHoursOverrideRepository extends JpaRepository<BusinessHoursOverride, UUID> {
+
+    List<BusinessHoursOverride> findByTenantId(UUID tenantId);
+
+    List<BusinessHoursOverride> findByTenantIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(UUID tenantId,
+                                                                                                 LocalDate from);
+}
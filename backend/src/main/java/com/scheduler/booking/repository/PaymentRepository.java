@@ -2,8 +2,12 @@ package com.scheduler.booking.repository;
 
 import com.scheduler.booking.model.Payment;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -11,6 +15,19 @@ import java.util.UUID;
 @Repository
 public interface PaymentRepository extends JpaRepository<Payment, UUID> {
     Optional<Payment> findByBookingId(UUID bookingId);
+
+    /**
+     * The booking's most recent payment; rows are unique per booking since v1.7.0, this only
+     * guards against reading stale duplicates before that migration has run
+     */
+    Optional<Payment> findFirstByBookingIdOrderByCreatedAtDesc(UUID bookingId);
     List<Payment> findByTenantId(UUID tenantId);
     List<Payment> findByCustomerId(UUID customerId);
+
+    @Modifying
+    @Transactional
+    @Query("UPDATE Payment p SET p.stripeCheckoutSessionId = :sessionId, p.stripeCheckoutUrl = :url, " +
+           "p.stripeSessionExpiresAt = :expiresAt, p.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE p.bookingId = :bookingId")
+    int attachCheckoutSession(UUID bookingId, String sessionId, String url, LocalDateTime expiresAt);
 }
@@ -0,0 +1,24 @@
+package com.scheduler.booking.repository;
+
+import com.scheduler.booking.model.PendingNotification;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface PendingNotificationRepository extends JpaRepository<PendingNotification, UUID> {
+
+    @Query("SELECT p FROM PendingNotification p WHERE p.tenantId IN " +
+           "(SELECT t.id FROM Tenant t WHERE t.notificationMode = :mode) " +
+           "ORDER BY p.tenantId, p.createdAt")
+    List<PendingNotification> findByTenantNotificationMode(@Param("mode") String mode);
+
+    @Query("SELECT p FROM PendingNotification p WHERE p.tenantId NOT IN " +
+           "(SELECT t.id FROM Tenant t WHERE t.notificationMode = :mode) " +
+           "ORDER BY p.tenantId, p.createdAt")
+    List<PendingNotification> findByTenantNotificationModeNot(@Param("mode") String mode);
+}
@@ -13,4 +13,5 @@ public interface SessionTypeRepository extends JpaRepository<SessionType, UUID>
     List<SessionType> findByTenantId(UUID tenantId);
     List<SessionType> findByTenantIdAndIsActive(UUID tenantId, boolean isActive);
     Optional<SessionType> findByIdAndTenantId(UUID id, UUID tenantId);
+    void deleteByTenantId(UUID tenantId);
 }
@@ -1,9 +1,14 @@
 package com.scheduler.booking.repository;
 
 import com.scheduler.booking.model.Tenant;
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
@@ -13,4 +18,23 @@ public interface TenantRepository extends JpaRepository<Tenant, UUID> {
     Optional<Tenant> findBySlug(String slug);
     boolean existsBySlug(String slug);
     List<Tenant> findByStatus(String status);
+    List<Tenant> findByStatusAndCreatedAtBefore(String status, LocalDateTime createdAt);
+
+    /**
+     * Row lock on the tenant, held until the transaction ends. Serializes booking
+     * claims for one tenant across application instances.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t FROM Tenant t WHERE t.id = :id")
+    Optional<Tenant> findByIdForUpdate(UUID id);
+
+    @Query("SELECT t.hoursVersion FROM Tenant t WHERE t.id = :id")
+    Optional<Long> findHoursVersion(UUID id);
+
+    /**
+     * Mark the tenant's business hours or overrides as changed
+     */
+    @Modifying
+    @Query("UPDATE Tenant t SET t.hoursVersion = t.hoursVersion + 1 WHERE t.id = :id")
+    int incrementHoursVersion(UUID id);
 }
@@ -0,0 +1,333 @@
+package com.scheduler.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scheduler.booking.dto.BlockedSlotRequest;
+import com.scheduler.booking.dto.BulkBlockedSlotResponse;
+import com.scheduler.booking.model.BlockedSlot;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BlockedSlotRepository;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.util.IntervalMerger;
+import com.scheduler.booking.util.RecurrenceRule;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Writes blocked slots so that a tenant never holds overlapping or adjacent blocks.
+ *
+ * New ranges are merged with each other and with the existing blocks they overlap or
+ * touch in one sort-and-sweep pass: each merged span keeps one row (an existing one,
+ * extended, if there is one) and the rows it absorbed are deleted, with batched inserts
+ * and deletes. Conflict checks therefore scan a few long rows instead of many fragments.
+ * A nightly job coalesces rows written before this, or through the single-slot endpoint.
+ *
+ * Recurring blocks (a weekly lunch break, every other Friday) are stored once, as their
+ * first occurrence plus an RRULE, and are never merged. Conflict checks and windowed
+ * listings expand them only inside the queried window, a calendar month of one rule at a
+ * time, with the expanded months cached. Rules are expanded in the tenant's time zone, so
+ * a 12:00 lunch break stays at 12:00 there across daylight-saving changes, whatever the
+ * server's zone.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class BlockedSlotService {
+
+    private final BlockedSlotRepository blockedSlotRepository;
+    private final BookingRepository bookingRepository;
+    private final TenantRepository tenantRepository;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${blocked-slots.bulk.max-ranges:500}")
+    private int maxRanges;
+
+    @Value("${blocked-slots.recurrence.max-window:P731D}")
+    private Duration maxExpansionWindow;
+
+    @Value("${blocked-slots.recurrence.cache-max-size:10000}")
+    private long expansionCacheMaxSize;
+
+    /**
+     * Occurrence starts of a rule within one month. Keyed by the rule's content and zone
+     * rather than the row id, so a changed rule or tenant timezone can never read stale
+     * occurrences.
+     */
+    private record Expansion(String rule, LocalDateTime firstStart, ZoneId zone, YearMonth month) {
+    }
+
+    private Cache<Expansion, List<LocalDateTime>> expansions;
+
+    @PostConstruct
+    public void init() {
+        expansions = Caffeine.newBuilder()
+                .maximumSize(expansionCacheMaxSize)
+                .build();
+    }
+
+    /**
+     * Save a single block, validating its recurrence rule if it has one
+     */
+    public BlockedSlot save(BlockedSlot slot) {
+        if (!slot.getEndTime().isAfter(slot.getStartTime())) {
+            throw new RuntimeException("End time must be after start time");
+        }
+        if (slot.getRecurrenceRule() == null || slot.getRecurrenceRule().isBlank()) {
+            slot.setRecurrenceRule(null);
+            slot.setRecurrenceEnd(null);
+            return blockedSlotRepository.save(slot);
+        }
+
+        slot.setRecurrenceRule(slot.getRecurrenceRule().trim());
+        Instant lastStart;
+        try {
+            RecurrenceRule rule = RecurrenceRule.parse(slot.getRecurrenceRule());
+            ZonedDateTime dtstart = inZone(slot.getStartTime(), zoneOf(slot.getTenantId()));
+            rule.validateStart(dtstart);
+            lastStart = rule.lastStart(dtstart);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException("Invalid recurrence rule: " + e.getMessage());
+        }
+        slot.setRecurrenceEnd(lastStart != null
+                ? toLocal(lastStart).plus(Duration.between(slot.getStartTime(), slot.getEndTime()))
+                : null);
+        return blockedSlotRepository.save(slot);
+    }
+
+    /**
+     * Blocked intervals overlapping [from, to): one-off blocks as stored, plus each
+     * occurrence of a recurring block inside the window. Occurrences are unsaved copies of
+     * their block (same id, reason and rule) with the occurrence's times.
+     */
+    public List<BlockedSlot> findBlocking(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from) || Duration.between(from, to).compareTo(maxExpansionWindow) > 0) {
+            throw new RuntimeException("The window must be positive and at most "
+                    + maxExpansionWindow.toDays() + " days");
+        }
+        List<BlockedSlot> blocking = new ArrayList<>(blockedSlotRepository.findConflictingSlots(tenantId, from, to));
+        List<BlockedSlot> recurringSlots = blockedSlotRepository.findRecurring(tenantId, from, to);
+        ZoneId zone = recurringSlots.isEmpty() ? null : zoneOf(tenantId);
+        for (BlockedSlot recurring : recurringSlots) {
+            Duration length = Duration.between(recurring.getStartTime(), recurring.getEndTime());
+            // An occurrence starting up to one length before the window still overlaps it
+            for (YearMonth month = YearMonth.from(from.minus(length));
+                 month.atDay(1).atStartOfDay().isBefore(to);
+                 month = month.plusMonths(1)) {
+                for (LocalDateTime start : startsIn(recurring, zone, month)) {
+                    LocalDateTime end = start.plus(length);
+                    if (start.isBefore(to) && end.isAfter(from)) {
+                        blocking.add(occurrence(recurring, start, end));
+                    }
+                }
+            }
+        }
+        return blocking;
+    }
+    /**
+     * The widest window findBlocking accepts (blocked-slots.recurrence.max-window)
+     */
+    public Duration getMaxExpansionWindow() {
+        return maxExpansionWindow;
+    }
+
+
+    /**
+     * Block all the given ranges, merged with the tenant's existing blocks.
+     *
+     * Runs under the tenant row lock used for new bookings, so no booking can be claimed
+     * in a range between blocking it and reporting the bookings it conflicts with. Those
+     * bookings (pending, awaiting payment or confirmed) are not cancelled.
+     */
+    @Transactional
+    public BulkBlockedSlotResponse blockRanges(UUID tenantId, String createdBy, List<BlockedSlotRequest> ranges) {
+        if (ranges.size() > maxRanges) {
+            throw new RuntimeException("At most " + maxRanges + " ranges can be blocked at once");
+        }
+        tenantRepository.findByIdForUpdate(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+
+        List<BlockedSlot> requested = new ArrayList<>(ranges.size());
+        for (BlockedSlotRequest range : ranges) {
+            BlockedSlot slot = new BlockedSlot();
+            slot.setTenantId(tenantId);
+            slot.setStartTime(toLocal(range.getStartTime()));
+            slot.setEndTime(toLocal(range.getEndTime()));
+            slot.setReason(range.getReason());
+            slot.setCreatedBy(createdBy);
+            if (range.getRecurrenceRule() != null && !range.getRecurrenceRule().isBlank()) {
+                throw new RuntimeException("Recurring blocks must be created one at a time");
+            }
+            if (!slot.getEndTime().isAfter(slot.getStartTime())) {
+                throw new RuntimeException("End time must be after start time");
+            }
+            requested.add(slot);
+        }
+
+        LocalDateTime from = requested.stream().map(BlockedSlot::getStartTime).min(Comparator.naturalOrder()).get();
+        LocalDateTime to = requested.stream().map(BlockedSlot::getEndTime).max(Comparator.naturalOrder()).get();
+        List<BlockedSlot> candidates = new ArrayList<>(blockedSlotRepository.findTouching(tenantId, from, to));
+        candidates.addAll(requested);
+
+        List<BlockedSlot> written = new ArrayList<>();
+        List<BlockedSlot> removed = new ArrayList<>();
+        for (IntervalMerger.Group<BlockedSlot> group
+                : IntervalMerger.group(candidates, BlockedSlot::getStartTime, BlockedSlot::getEndTime)) {
+            if (group.members().stream().allMatch(slot -> slot.getId() != null)) {
+                if (group.members().size() > 1) {
+                    // Legacy fragments that happen to lie between the new ranges
+                    written.add(coalesce(group, removed));
+                }
+                continue;
+            }
+            written.add(coalesce(group, removed));
+        }
+
+        blockedSlotRepository.deleteAllInBatch(removed);
+        blockedSlotRepository.saveAll(written);
+
+        List<Booking> conflicts = bookingRepository.findActiveOverlapping(tenantId, from, to).stream()
+                .filter(booking -> requested.stream().anyMatch(slot ->
+                        slot.getStartTime().isBefore(booking.getEndTime()) && slot.getEndTime().isAfter(booking.getStartTime())))
+                .sorted(Comparator.comparing(Booking::getStartTime))
+                .toList();
+        log.info("Blocked {} range(s) for tenant {}: {} slot(s) written, {} merged away, {} conflicting booking(s)",
+                ranges.size(), tenantId, written.size(), removed.size(), conflicts.size());
+        return new BulkBlockedSlotResponse(written, removed.size(), conflicts);
+    }
+
+    /**
+     * Merge one tenant's overlapping and adjacent one-off blocked slots
+     *
+     * @return number of rows removed
+     */
+    @Transactional
+    public int compact(UUID tenantId) {
+        tenantRepository.findByIdForUpdate(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+
+        List<BlockedSlot> written = new ArrayList<>();
+        List<BlockedSlot> removed = new ArrayList<>();
+        List<BlockedSlot> oneOff = blockedSlotRepository.findByTenantId(tenantId).stream()
+                .filter(slot -> slot.getRecurrenceRule() == null)
+                .toList();
+        for (IntervalMerger.Group<BlockedSlot> group
+                : IntervalMerger.group(oneOff, BlockedSlot::getStartTime, BlockedSlot::getEndTime)) {
+            if (group.members().size() > 1) {
+                written.add(coalesce(group, removed));
+            }
+        }
+        blockedSlotRepository.deleteAllInBatch(removed);
+        blockedSlotRepository.saveAll(written);
+        return removed.size();
+    }
+
+    @Scheduled(cron = "${blocked-slots.compaction-cron:0 15 4 * * *}")
+    public void compactAll() {
+        int removed = 0;
+        for (UUID tenantId : blockedSlotRepository.findTenantIds()) {
+            try {
+                // One short transaction per tenant, so bookings for other tenants are not held up
+                removed += Objects.requireNonNull(transactionTemplate.execute(status -> compact(tenantId)));
+            } catch (RuntimeException e) {
+                log.error("Could not compact blocked slots for tenant {}: {}", tenantId, e.getMessage(), e);
+            }
+        }
+        if (removed > 0) {
+            log.info("Blocked slot compaction merged away {} rows", removed);
+        }
+    }
+
+    /**
+     * Keep one row for the group's span, preferring an existing one, and queue the rest for deletion
+     */
+    private static BlockedSlot coalesce(IntervalMerger.Group<BlockedSlot> group, List<BlockedSlot> removed) {
+        BlockedSlot kept = group.members().stream()
+                .filter(slot -> slot.getId() != null)
+                .findFirst()
+                .orElse(group.members().get(0));
+        for (BlockedSlot slot : group.members()) {
+            if (slot == kept) {
+                continue;
+            }
+            if (kept.getReason() == null) {
+                kept.setReason(slot.getReason());
+            }
+            if (slot.getId() != null) {
+                removed.add(slot);
+            }
+        }
+        kept.setStartTime(group.start());
+        kept.setEndTime(group.end());
+        return kept;
+    }
+
+    /**
+     * Occurrence starts within a month of server-local time, expanded in the tenant's zone
+     */
+    private List<LocalDateTime> startsIn(BlockedSlot recurring, ZoneId zone, YearMonth month) {
+        return expansions.get(new Expansion(recurring.getRecurrenceRule(), recurring.getStartTime(), zone, month),
+                key -> RecurrenceRule.parse(key.rule())
+                        .startsBetween(inZone(key.firstStart(), key.zone()),
+                                key.month().atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant(),
+                                key.month().plusMonths(1).atDay(1).atStartOfDay(ZoneId.systemDefault()).toInstant())
+                        .stream()
+                        .map(start -> toLocal(start.toInstant()))
+                        .toList());
+    }
+
+    private ZoneId zoneOf(UUID tenantId) {
+        return ZoneId.of(tenantRepository.findById(tenantId)
+                .map(Tenant::getTimezone)
+                .orElse("UTC"));
+    }
+
+    /**
+     * A stored (server-local) time as seen in the tenant's zone
+     */
+    private static ZonedDateTime inZone(LocalDateTime serverLocal, ZoneId zone) {
+        return serverLocal.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone);
+    }
+
+    private static BlockedSlot occurrence(BlockedSlot recurring, LocalDateTime start, LocalDateTime end) {
+        BlockedSlot occurrence = new BlockedSlot();
+        occurrence.setId(recurring.getId());
+        occurrence.setTenantId(recurring.getTenantId());
+        occurrence.setStartTime(start);
+        occurrence.setEndTime(end);
+        occurrence.setReason(recurring.getReason());
+        occurrence.setCreatedBy(recurring.getCreatedBy());
+        occurrence.setRecurrenceRule(recurring.getRecurrenceRule());
+        occurrence.setRecurrenceEnd(recurring.getRecurrenceEnd());
+        occurrence.setCreatedAt(recurring.getCreatedAt());
+        occurrence.setUpdatedAt(recurring.getUpdatedAt());
+        return occurrence;
+    }
+
+    private static LocalDateTime toLocal(Long epochMillis) {
+        return toLocal(Instant.ofEpochMilli(epochMillis));
+    }
+
+    private static LocalDateTime toLocal(Instant instant) {
+        return LocalDateTime.ofInstant(instant, ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,219 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.model.Booking;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Admission control in front of BookingService for public booking requests.
+ *
+ * Each tenant has a bounded queue drained by at most one writer at a time, which claims up
+ * to bookings.admission.batch-size requests in one transaction. When a tenant releases
+ * popular slots, requests therefore wait briefly in memory instead of each holding a
+ * connection and contending for the same rows, and the database sees one short transaction
+ * per batch. Requests that do not fit in the queue fail immediately with 429, and requests
+ * that waited longer than bookings.admission.max-wait are dropped with 503 rather than
+ * processed late; both carry a Retry-After hint.
+ */
+@Service
+@Slf4j
+public class BookingAdmissionService {
+
+    private final BookingService bookingService;
+    private final Executor bookingAdmissionExecutor;
+    private final int queueCapacity;
+    private final int batchSize;
+    private final Duration maxWait;
+    private final long retryAfterSeconds;
+    private final MeterRegistry meterRegistry;
+    private final Timer queueWait;
+    private final DistributionSummary batchSizes;
+    private final Map<UUID, TenantLane> lanes = new ConcurrentHashMap<>();
+
+    public BookingAdmissionService(BookingService bookingService,
+                                   @Qualifier("bookingAdmissionExecutor") Executor bookingAdmissionExecutor,
+                                   MeterRegistry meterRegistry,
+                                   @Value("${bookings.admission.queue-capacity:200}") int queueCapacity,
+                                   @Value("${bookings.admission.batch-size:25}") int batchSize,
+                                   @Value("${bookings.admission.max-wait:PT5S}") Duration maxWait,
+                                   @Value("${bookings.admission.retry-after:PT2S}") Duration retryAfter) {
+        this.bookingService = bookingService;
+        this.bookingAdmissionExecutor = bookingAdmissionExecutor;
+        this.meterRegistry = meterRegistry;
+        this.queueCapacity = queueCapacity;
+        this.batchSize = batchSize;
+        this.maxWait = maxWait;
+        this.retryAfterSeconds = Math.max(1, retryAfter.toSeconds());
+        this.queueWait = Timer.builder("bookings.admission.wait")
+                .description("Time booking requests spend queued before their batch starts")
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        this.batchSizes = DistributionSummary.builder("bookings.admission.batch.size")
+                .description("Booking requests claimed per transaction")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Queue a booking request behind the tenant's writer.
+     *
+     * @return completes with the saved booking, or exceptionally with the reason it was
+     *         refused (AdmissionRejectedException if it was never attempted)
+     */
+    public CompletableFuture<Booking> submit(UUID tenantId, BookingRequest request) {
+        return submit(tenantId, new BookingClaim(request, null));
+    }
+
+    /**
+     * Queue a prepared claim (pre-assigned booking id, payment to insert with it)
+     */
+    public CompletableFuture<Booking> submit(UUID tenantId, BookingClaim claim) {
+        TenantLane lane = lanes.computeIfAbsent(tenantId, TenantLane::new);
+        if (!lane.queue.offer(claim)) {
+            rejected("queue_full");
+            return CompletableFuture.failedFuture(new AdmissionRejectedException(HttpStatus.TOO_MANY_REQUESTS,
+                    "Too many booking requests for this business right now. Please try again shortly.",
+                    retryAfterSeconds));
+        }
+        schedule(lane);
+        return claim.getResult();
+    }
+
+    private void schedule(TenantLane lane) {
+        if (!lane.scheduled.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            bookingAdmissionExecutor.execute(() -> drain(lane));
+        } catch (RejectedExecutionException e) {
+            // Shutting down: nothing will drain this lane
+            lane.scheduled.set(false);
+            List<BookingClaim> stranded = new ArrayList<>();
+            lane.queue.drainTo(stranded);
+            stranded.forEach(claim -> fail(claim, "unavailable"));
+        }
+    }
+
+    private void drain(TenantLane lane) {
+        try {
+            List<BookingClaim> batch = new ArrayList<>(batchSize);
+            while (lane.queue.drainTo(batch, batchSize) > 0) {
+                process(lane.tenantId, batch);
+                batch.clear();
+            }
+        } finally {
+            lane.scheduled.set(false);
+            // A request may have been queued after the last drain but before the flag was cleared.
+            // Idle lanes are dropped so unknown tenant ids cannot accumulate; a request that still
+            // reaches a dropped lane schedules its own drain, and the tenant row lock in
+            // claimSlots keeps a briefly duplicated lane from double-booking.
+            if (!lane.queue.isEmpty()) {
+                schedule(lane);
+            } else {
+                lanes.remove(lane.tenantId, lane);
+            }
+        }
+    }
+
+    private void process(UUID tenantId, List<BookingClaim> batch) {
+        long now = System.nanoTime();
+        List<BookingClaim> live = new ArrayList<>(batch.size());
+        for (BookingClaim claim : batch) {
+            long waited = now - claim.getEnqueuedAtNanos();
+            queueWait.record(waited, TimeUnit.NANOSECONDS);
+            if (waited > maxWait.toNanos()) {
+                fail(claim, "timeout");
+            } else {
+                live.add(claim);
+            }
+        }
+        if (live.isEmpty()) {
+            return;
+        }
+        batchSizes.record(live.size());
+
+        try {
+            bookingService.claimSlots(tenantId, live);
+        } catch (RuntimeException e) {
+            log.error("Booking batch of {} for tenant {} failed: {}", live.size(), tenantId, e.getMessage(), e);
+            live.forEach(claim -> claim.getResult().completeExceptionally(e));
+            return;
+        }
+
+        for (BookingClaim claim : live) {
+            if (claim.getFailure() != null) {
+                claim.getResult().completeExceptionally(claim.getFailure());
+            } else {
+                claim.getResult().complete(claim.getBooking());
+            }
+        }
+        // After responding, so the winners do not wait on email preparation
+        for (BookingClaim claim : live) {
+            if (claim.getBooking() != null) {
+                bookingService.sendConfirmationEmails(claim.getBooking());
+            }
+        }
+    }
+
+    private void fail(BookingClaim claim, String reason) {
+        rejected(reason);
+        claim.getResult().completeExceptionally(new AdmissionRejectedException(HttpStatus.SERVICE_UNAVAILABLE,
+                "Booking service is busy. Please try again shortly.", retryAfterSeconds));
+    }
+
+    private void rejected(String reason) {
+        Counter.builder("bookings.admission.rejected")
+                .description("Booking requests refused before being attempted")
+                .tag("reason", reason)
+                .register(meterRegistry)
+                .increment();
+    }
+
+    private final class TenantLane {
+        private final UUID tenantId;
+        private final BlockingQueue<BookingClaim> queue;
+        private final AtomicBoolean scheduled = new AtomicBoolean();
+
+        private TenantLane(UUID tenantId) {
+            this.tenantId = tenantId;
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+        }
+    }
+
+    /**
+     * The request was not attempted because of load; safe to retry after retryAfterSeconds
+     */
+    @Getter
+    public static class AdmissionRejectedException extends RuntimeException {
+        private final HttpStatus status;
+        private final long retryAfterSeconds;
+
+        public AdmissionRejectedException(HttpStatus status, String message, long retryAfterSeconds) {
+            super(message);
+            this.status = status;
+            this.retryAfterSeconds = retryAfterSeconds;
+        }
+    }
+}
@@ -0,0 +1,50 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Payment;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+import lombok.Setter;
+
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.function.Function;
+
+/**
+ * One booking request on its way through BookingService#claimSlots: either a booking
+ * is saved for it or it carries the reason it was refused.
+ */
+@Getter
+@RequiredArgsConstructor
+public class BookingClaim {
+
+    private final BookingRequest request;
+    private final UUID customerId;
+    private final long enqueuedAtNanos = System.nanoTime();
+    private final CompletableFuture<Booking> result = new CompletableFuture<>();
+
+    /**
+     * Id to give the booking, when something outside the transaction already refers to it
+     */
+    @Setter
+    private UUID bookingId;
+
+    /**
+     * Payment to insert alongside the booking, if any
+     */
+    @Setter
+    private Function<Booking, Payment> paymentFactory;
+
+    /**
+     * Recurring series the booking belongs to, if any
+     */
+    @Setter
+    private UUID seriesId;
+
+    @Setter
+    private Booking booking;
+
+    @Setter
+    private RuntimeException failure;
+}
@@ -0,0 +1,79 @@
+package com.scheduler.booking.service;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Issues and checks the tokens in customers' manage-booking links.
+ *
+ * A token is an HMAC-SHA256 of the booking id under bookings.manage-token.secret, so only
+ * someone who received the booking's confirmation or reschedule email can change it.
+ * Without a configured secret a random one is used, and links stop working on restart.
+ */
+@Service
+@Slf4j
+public class BookingManageTokenService {
+
+    private static final String ALGORITHM = "HmacSHA256";
+
+    private final SecretKeySpec key;
+    private final String frontendUrl;
+
+    public BookingManageTokenService(@Value("${bookings.manage-token.secret:}") String secret,
+                                     @Value("${app.frontend.url:http://localhost:5173}") String frontendUrl) {
+        byte[] keyBytes;
+        if (secret == null || secret.isBlank()) {
+            log.warn("⚠️ bookings.manage-token.secret is not set; manage-booking links will not survive a restart");
+            keyBytes = new byte[32];
+            new SecureRandom().nextBytes(keyBytes);
+        } else {
+            keyBytes = secret.getBytes(StandardCharsets.UTF_8);
+        }
+        this.key = new SecretKeySpec(keyBytes, ALGORITHM);
+        this.frontendUrl = frontendUrl;
+    }
+
+    public String issue(UUID bookingId) {
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(sign(bookingId));
+    }
+
+    /**
+     * Link to the customer's manage-booking page, carrying the booking's token
+     */
+    public String manageUrl(UUID bookingId) {
+        return frontendUrl + "/bookings/" + bookingId + "/manage?token=" + issue(bookingId);
+    }
+
+    public boolean verify(UUID bookingId, String token) {
+        if (bookingId == null || token == null || token.isBlank()) {
+            return false;
+        }
+        byte[] presented;
+        try {
+            presented = Base64.getUrlDecoder().decode(token.trim());
+        } catch (IllegalArgumentException e) {
+            return false;
+        }
+        return MessageDigest.isEqual(sign(bookingId), presented);
+    }
+
+    private byte[] sign(UUID bookingId) {
+        try {
+            Mac mac = Mac.getInstance(ALGORITHM);
+            mac.init(key);
+            return mac.doFinal(bookingId.toString().getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("HmacSHA256 is not available", e);
+        }
+    }
+}
@@ -0,0 +1,16 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Tenant;
+
+import java.time.LocalDateTime;
+
+/**
+ * Published when a booking moves to a new time; the notifications go out once it commits.
+ *
+ * @param tenant            Tenant the booking belongs to
+ * @param booking           The booking at its new time
+ * @param previousStartTime Where the booking started before the move
+ */
+public record BookingRescheduledEvent(Tenant tenant, Booking booking, LocalDateTime previousStartTime) {
+}
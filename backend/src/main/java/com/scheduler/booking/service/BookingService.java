@@ -2,22 +2,41 @@ package com.scheduler.booking.service;
 
 import com.scheduler.booking.config.StripeConfig;
 import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.dto.BookingSeriesRequest;
+import com.scheduler.booking.dto.ManagedBookingResponse;
 import com.scheduler.booking.model.BlockedSlot;
 import com.scheduler.booking.model.Booking;
 import com.scheduler.booking.model.Customer;
 import com.scheduler.booking.model.SessionType;
-import com.scheduler.booking.repository.BlockedSlotRepository;
+import com.scheduler.booking.model.Tenant;
 import com.scheduler.booking.repository.BookingRepository;
 import com.scheduler.booking.repository.CustomerRepository;
+import com.scheduler.booking.repository.PaymentRepository;
 import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.util.CompiledWeeklySchedule;
+import com.scheduler.booking.util.RecurrenceRule;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
 
 @Service
@@ -25,13 +44,28 @@ import java.util.UUID;
 @Slf4j
 public class BookingService {
 
+    private static final String SLOT_BLOCKED = "This time slot is not available. Please choose another time.";
+    private static final String SLOT_TAKEN = "This time slot is no longer available. Please choose another time.";
+    private static final String OUTSIDE_HOURS = "This time is outside business hours. Please choose another time.";
+    // Claims further apart than this get their own booking and blocked-slot lookups instead of spanning the gap
+    private static final Duration BLOCKING_CLUSTER_GAP = Duration.ofDays(31);
+
     private final BookingRepository bookingRepository;
     private final SessionTypeRepository sessionTypeRepository;
     private final CustomerRepository customerRepository;
-    private final BlockedSlotRepository blockedSlotRepository;
+    private final CustomerResolver customerResolver;
+    private final BlockedSlotService blockedSlotService;
+    private final BusinessHoursService businessHoursService;
+    private final TenantRepository tenantRepository;
+    private final PaymentRepository paymentRepository;
     private final TenantService tenantService;
     private final EmailService emailService;
+    private final BookingManageTokenService manageTokenService;
     private final StripeConfig stripeConfig;
+    private final ApplicationEventPublisher eventPublisher;
+
+    @Value("${bookings.series.max-occurrences:52}")
+    private int maxSeriesOccurrences;
 
     public List<Booking> getBookingsByTenant(UUID tenantId) {
         return bookingRepository.findByTenantId(tenantId);
@@ -50,113 +84,487 @@ public class BookingService {
                 .orElseThrow(() -> new RuntimeException("Booking not found"));
     }
 
+    /**
+     * A booking and its tenant for the manage link in the booking's emails. Without the
+     * link's token it is reported as not found, like any other booking id.
+     */
+    public ManagedBookingResponse getManagedBooking(UUID bookingId, String manageToken) {
+        if (!manageTokenService.verify(bookingId, manageToken)) {
+            throw new RuntimeException("Booking not found");
+        }
+        Booking booking = getBookingById(bookingId);
+        Tenant tenant = tenantRepository.findById(booking.getTenantId())
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+        return new ManagedBookingResponse(booking, tenant);
+    }
+
     @Transactional
     public Booking createBooking(UUID tenantId, BookingRequest request, UUID customerId) {
-        SessionType sessionType = sessionTypeRepository.findByIdAndTenantId(
-                request.getSessionTypeId(), tenantId)
-                .orElseThrow(() -> new RuntimeException("Session type not found"));
+        BookingClaim claim = new BookingClaim(request, customerId);
+        claimSlots(tenantId, List.of(claim));
+        if (claim.getFailure() != null) {
+            throw claim.getFailure();
+        }
+        sendConfirmationEmails(claim.getBooking());
+        return claim.getBooking();
+    }
 
-        // Convert epoch timestamp to LocalDateTime
-        java.time.Instant startInstant = java.time.Instant.ofEpochMilli(request.getStartTime());
-        LocalDateTime startTime = LocalDateTime.ofInstant(startInstant, java.time.ZoneId.systemDefault());
+    /**
+     * Create bookings for a batch of claims against one tenant in a single transaction.
+     *
+     * The tenant row is locked for the duration, so claims for a tenant are serialized
+     * across instances. Existing bookings and blocked slots are loaded once per cluster of
+     * nearby claims (see loadConflicts). Each claim is checked against them and against
+     * the claims accepted before it: a slot is free if it lies within the tenant's business
+     * hours, no blocked slot or booking of another session type overlaps it and bookings of
+     * the same session type leave room below its capacity.
+     * Refused claims get a failure and do not affect the others.
+     */
+    @Transactional
+    public void claimSlots(UUID tenantId, List<BookingClaim> claims) {
+        Tenant tenant = tenantRepository.findByIdForUpdate(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+        claimLocked(tenant, claims);
+    }
 
-        // Calculate end time
-        LocalDateTime endTime = startTime.plusMinutes(sessionType.getDurationMinutes());
+    /**
+     * Book every occurrence of a weekly series, or none of them.
+     *
+     * Occurrences are expanded in the tenant's time zone and claimed together like an
+     * admission batch: one lock, one load of blocked slots and bookings per cluster of
+     * nearby occurrences, and one batched insert. If any occurrence is unavailable the
+     * series is refused with the dates that clash. Only free sessions (or Stripe disabled) can be
+     * booked as a series, and the customer and business get one email for all of it, sent
+     * after commit so the tenant lock is not held while it is rendered and queued.
+     */
+    @Transactional
+    public List<Booking> createSeries(UUID tenantId, BookingSeriesRequest request, UUID customerId) {
+        Tenant tenant = tenantRepository.findByIdForUpdate(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+        ZoneId zone = zoneOf(tenant);
 
-        // Check if the time slot is blocked
-        List<BlockedSlot> conflictingBlocks = blockedSlotRepository.findConflictingSlots(
-                tenantId, startTime, endTime);
+        List<ZonedDateTime> occurrences;
+        try {
+            occurrences = RecurrenceRule.weekly(
+                            request.getIntervalWeeks() != null ? request.getIntervalWeeks() : 1,
+                            request.getCount(),
+                            request.getUntil() != null ? Instant.ofEpochMilli(request.getUntil()) : null)
+                    .occurrences(Instant.ofEpochMilli(request.getStartTime()).atZone(zone), maxSeriesOccurrences);
+        } catch (IllegalArgumentException e) {
+            throw new RuntimeException(e.getMessage());
+        }
+        if (occurrences.size() < 2) {
+            throw new RuntimeException("A series needs at least two sessions");
+        }
 
-        if (!conflictingBlocks.isEmpty()) {
-            throw new RuntimeException("This time slot is not available. Please choose another time.");
+        UUID seriesId = UUID.randomUUID();
+        List<BookingClaim> claims = new ArrayList<>(occurrences.size());
+        for (ZonedDateTime occurrence : occurrences) {
+            BookingRequest single = new BookingRequest();
+            single.setSessionTypeId(request.getSessionTypeId());
+            single.setStartTime(occurrence.toInstant().toEpochMilli());
+            single.setParticipants(request.getParticipants());
+            single.setNotes(request.getNotes());
+            single.setCustomerTimezone(request.getCustomerTimezone());
+            single.setFirstName(request.getFirstName());
+            single.setLastName(request.getLastName());
+            single.setEmail(request.getEmail());
+            single.setPhone(request.getPhone());
+            BookingClaim claim = new BookingClaim(single, customerId);
+            claim.setSeriesId(seriesId);
+            claims.add(claim);
         }
 
-        // If customer ID not provided, create or find customer by email
-        if (customerId == null && request.getEmail() != null) {
-            Customer customer = customerRepository.findByEmail(request.getEmail())
-                    .orElseGet(() -> {
-                        Customer newCustomer = new Customer();
-                        newCustomer.setEmail(request.getEmail());
-                        newCustomer.setFirstName(request.getFirstName());
-                        newCustomer.setLastName(request.getLastName());
-                        newCustomer.setPhone(request.getPhone());
-                        return customerRepository.save(newCustomer);
-                    });
-            customerId = customer.getId();
+        // Nothing is flushed before commit, so throwing here discards the whole series
+        claimLocked(tenant, claims);
+        List<String> unavailable = new ArrayList<>();
+        for (int i = 0; i < claims.size(); i++) {
+            RuntimeException failure = claims.get(i).getFailure();
+            if (failure == null) {
+                continue;
+            }
+            if (!SLOT_BLOCKED.equals(failure.getMessage()) && !SLOT_TAKEN.equals(failure.getMessage())
+                    && !OUTSIDE_HOURS.equals(failure.getMessage())) {
+                throw failure;
+            }
+            unavailable.add(occurrences.get(i).toLocalDate().toString());
+        }
+        if (!unavailable.isEmpty()) {
+            throw new RuntimeException("These dates are not available: " + String.join(", ", unavailable)
+                    + ". Please choose another time.");
         }
 
-        if (customerId == null) {
-            throw new RuntimeException("Customer information is required");
+        List<Booking> series = claims.stream().map(BookingClaim::getBooking).toList();
+        if (series.stream().anyMatch(booking -> !"CONFIRMED".equals(booking.getStatus()))) {
+            throw new RuntimeException("Recurring bookings are only available for free sessions");
         }
+        log.info("Series {} created with {} bookings for tenant {}", seriesId, series.size(), tenantId);
 
-        Booking booking = new Booking();
-        booking.setTenantId(tenantId);
-        booking.setCustomerId(customerId);
-        booking.setSessionTypeId(sessionType.getId());
-        booking.setStartTime(startTime);
-        booking.setEndTime(endTime);
-        booking.setParticipants(request.getParticipants());
-        booking.setNotes(request.getNotes());
-        booking.setCustomerTimezone(request.getCustomerTimezone());
-        
-        // Determine booking status based on Stripe configuration and session price
+        eventPublisher.publishEvent(new SeriesBookedEvent(tenant, series));
+        return series;
+    }
+
+    private void claimLocked(Tenant tenant, List<BookingClaim> claims) {
+        UUID tenantId = tenant.getId();
+        Map<UUID, SessionType> sessionTypes = new HashMap<>();
+        sessionTypeRepository.findAllById(claims.stream().map(claim -> claim.getRequest().getSessionTypeId()).toList())
+                .stream()
+                .filter(sessionType -> tenantId.equals(sessionType.getTenantId()))
+                .forEach(sessionType -> sessionTypes.put(sessionType.getId(), sessionType));
+
+        boolean anyOpen = false;
+        for (BookingClaim claim : claims) {
+            if (!sessionTypes.containsKey(claim.getRequest().getSessionTypeId())) {
+                claim.setFailure(new RuntimeException("Session type not found"));
+            }
+            anyOpen |= claim.getFailure() == null;
+        }
+        if (!anyOpen) {
+            return;
+        }
+
+        CompiledWeeklySchedule schedule = businessHoursService.getSchedule(tenantId);
+        ZoneId zone = zoneOf(tenant);
+        Map<BookingClaim, Conflicts> conflicts = loadConflicts(tenantId, claims, sessionTypes);
+        // Accepted earlier in this batch, not yet saved
+        List<Booking> claimedBookings = new ArrayList<>();
         boolean isStripeEnabled = stripeConfig.isEnabled();
-        boolean isFreeSession = sessionType.getPrice() == null || 
-                               sessionType.getPrice().compareTo(BigDecimal.ZERO) == 0;
-        
-        if (!isStripeEnabled || isFreeSession) {
-            // If Stripe is disabled or session is free, confirm immediately
-            booking.setStatus("CONFIRMED");
-        } else {
-            // If Stripe is enabled and session has a price, wait for payment
-            booking.setStatus("PENDING_PAYMENT");
-        }
-
-        Booking savedBooking = bookingRepository.save(booking);
-        
-        log.info("Booking {} created with status: {} (Stripe enabled: {}, Free session: {})", 
-                savedBooking.getId(), savedBooking.getStatus(), isStripeEnabled, isFreeSession);
-
-        // If booking is confirmed (Stripe disabled or free session), send emails immediately
-        if ("CONFIRMED".equals(savedBooking.getStatus())) {
-            log.info("Sending confirmation emails immediately for booking {} (Stripe disabled or free session)", 
-                    savedBooking.getId());
-            try {
-                // Load full booking with relationships for email
-                Booking fullBooking = bookingRepository.findByIdWithDetails(savedBooking.getId())
-                        .orElse(savedBooking);
-                
-                // Ensure relationships are loaded
-                if (fullBooking.getCustomer() == null) {
-                    Customer customer = customerRepository.findById(fullBooking.getCustomerId())
-                            .orElseThrow(() -> new RuntimeException("Customer not found"));
-                    fullBooking.setCustomer(customer);
-                }
-                if (fullBooking.getSessionType() == null) {
-                    SessionType st = sessionTypeRepository.findById(fullBooking.getSessionTypeId())
-                            .orElseThrow(() -> new RuntimeException("Session type not found"));
-                    fullBooking.setSessionType(st);
+
+        List<BookingClaim> accepted = new ArrayList<>();
+        // Not yet in the resolver's cache until commit
+        Map<String, UUID> customersByEmail = new HashMap<>();
+        for (BookingClaim claim : claims) {
+            if (claim.getFailure() != null) {
+                continue;
+            }
+            BookingRequest request = claim.getRequest();
+            SessionType sessionType = sessionTypes.get(request.getSessionTypeId());
+            LocalDateTime startTime = startTimeOf(request);
+            LocalDateTime endTime = startTime.plusMinutes(sessionType.getDurationMinutes());
+            int participants = request.getParticipants() != null ? request.getParticipants() : 1;
+
+            if (!withinHours(schedule, zone, startTime, endTime)) {
+                claim.setFailure(new RuntimeException(OUTSIDE_HOURS));
+                continue;
+            }
+            Conflicts nearby = conflicts.get(claim);
+            if (nearby.blockedSlots().stream().anyMatch(slot -> blocks(slot, startTime, endTime))) {
+                claim.setFailure(new RuntimeException(SLOT_BLOCKED));
+                continue;
+            }
+            List<Booking> heldBookings = new ArrayList<>(nearby.bookings());
+            heldBookings.addAll(claimedBookings);
+            if (!hasRoom(sessionType, startTime, endTime, participants, heldBookings)) {
+                claim.setFailure(new RuntimeException(SLOT_TAKEN));
+                continue;
+            }
+
+            UUID customerId = claim.getCustomerId();
+            // If customer ID not provided, create or find customer by email
+            if (customerId == null && request.getEmail() != null) {
+                customerId = customersByEmail.computeIfAbsent(CustomerResolver.normalize(request.getEmail()),
+                        email -> customerResolver.resolve(email, request.getFirstName(), request.getLastName(),
+                                request.getPhone()));
+            }
+            if (customerId == null) {
+                claim.setFailure(new RuntimeException("Customer information is required"));
+                continue;
+            }
+
+            Booking booking = new Booking();
+            booking.setId(claim.getBookingId());
+            booking.setTenantId(tenantId);
+            booking.setCustomerId(customerId);
+            booking.setSessionTypeId(sessionType.getId());
+            booking.setStartTime(startTime);
+            booking.setEndTime(endTime);
+            booking.setParticipants(participants);
+            booking.setNotes(request.getNotes());
+            booking.setCustomerTimezone(request.getCustomerTimezone());
+            booking.setSeriesId(claim.getSeriesId());
+
+            // Determine booking status based on Stripe configuration and session price
+            boolean isFreeSession = sessionType.getPrice() == null ||
+                                   sessionType.getPrice().compareTo(BigDecimal.ZERO) == 0;
+            // If Stripe is disabled or session is free, confirm immediately; otherwise wait for payment
+            booking.setStatus(!isStripeEnabled || isFreeSession ? "CONFIRMED" : "PENDING_PAYMENT");
+
+            claim.setBooking(booking);
+            claimedBookings.add(booking);
+            accepted.add(claim);
+        }
+
+        bookingRepository.saveAll(accepted.stream().map(BookingClaim::getBooking).toList());
+        paymentRepository.saveAll(accepted.stream()
+                .filter(claim -> claim.getPaymentFactory() != null)
+                .map(claim -> claim.getPaymentFactory().apply(claim.getBooking()))
+                .toList());
+        for (BookingClaim claim : accepted) {
+            log.info("Booking {} created with status: {} (Stripe enabled: {})",
+                    claim.getBooking().getId(), claim.getBooking().getStatus(), isStripeEnabled);
+        }
+    }
+
+    /**
+     * Blocked slots (with recurring ones expanded) and active bookings near a claim
+     */
+    private record Conflicts(List<BlockedSlot> blockedSlots, List<Booking> bookings) {
+    }
+
+    /**
+     * Blocked slots and active bookings relevant to each claim that is still open.
+     *
+     * Claims are sorted and cut into clusters wherever the next claim starts more than
+     * BLOCKING_CLUSTER_GAP after the cluster's end, or would stretch the cluster beyond the
+     * expansion window findBlocking accepts. Each cluster costs one lookup of each over its
+     * own span, so a long series neither loads the bookings and expands the blocks of the
+     * empty months between far-apart claims nor fails as a whole for exceeding the window.
+     * If a lookup fails, only that cluster's claims fail.
+     */
+    private Map<BookingClaim, Conflicts> loadConflicts(UUID tenantId, List<BookingClaim> claims,
+                                                       Map<UUID, SessionType> sessionTypes) {
+        record Span(BookingClaim claim, LocalDateTime start, LocalDateTime end) {
+        }
+        List<Span> spans = new ArrayList<>();
+        for (BookingClaim claim : claims) {
+            if (claim.getFailure() == null) {
+                LocalDateTime startTime = startTimeOf(claim.getRequest());
+                SessionType sessionType = sessionTypes.get(claim.getRequest().getSessionTypeId());
+                spans.add(new Span(claim, startTime, startTime.plusMinutes(sessionType.getDurationMinutes())));
+            }
+        }
+        spans.sort(Comparator.comparing(Span::start));
+
+        Duration maxWindow = blockedSlotService.getMaxExpansionWindow();
+        Map<BookingClaim, Conflicts> conflicts = new IdentityHashMap<>();
+        int first = 0;
+        while (first < spans.size()) {
+            LocalDateTime clusterStart = spans.get(first).start();
+            LocalDateTime clusterEnd = spans.get(first).end();
+            int next = first + 1;
+            for (; next < spans.size(); next++) {
+                Span span = spans.get(next);
+                LocalDateTime end = span.end().isAfter(clusterEnd) ? span.end() : clusterEnd;
+                if (span.start().isAfter(clusterEnd.plus(BLOCKING_CLUSTER_GAP))
+                        || Duration.between(clusterStart, end).compareTo(maxWindow) > 0) {
+                    break;
                 }
-                
-                var tenant = tenantService.getTenantById(fullBooking.getTenantId());
-                var businessUser = tenantService.getBusinessEmailForTenant(fullBooking.getTenantId());
-                
-                emailService.sendCustomerBookingConfirmation(fullBooking, tenant);
-                emailService.sendBusinessBookingNotification(fullBooking, tenant, businessUser);
-                
-                log.info("✅ Confirmation emails sent for booking {}", savedBooking.getId());
-            } catch (Exception e) {
-                // Log error but don't fail the booking creation
-                log.error("❌ Failed to send booking confirmation emails for booking {}: {}", 
-                        savedBooking.getId(), e.getMessage(), e);
+                clusterEnd = end;
             }
-        } else {
-            // If payment is required, emails will be sent after successful payment
-            // via the Stripe webhook handler (see StripeService.handlePaymentSuccess)
+
+            List<Span> cluster = spans.subList(first, next);
+            try {
+                Conflicts found = new Conflicts(
+                        blockedSlotService.findBlocking(tenantId, clusterStart, clusterEnd),
+                        bookingRepository.findActiveOverlapping(tenantId, clusterStart, clusterEnd));
+                cluster.forEach(span -> conflicts.put(span.claim(), found));
+            } catch (RuntimeException e) {
+                log.warn("Conflicts between {} and {} could not be loaded: {}", clusterStart, clusterEnd,
+                        e.getMessage());
+                cluster.forEach(span -> span.claim().setFailure(e));
+            }
+            first = next;
+        }
+        return conflicts;
+    }
+
+    /**
+     * Send the customer and business confirmation emails for a booking confirmed at
+     * creation (Stripe disabled or free session). Paid bookings are confirmed by the
+     * Stripe webhook handler instead (see StripeService.handlePaymentSuccess).
+     */
+    public void sendConfirmationEmails(Booking savedBooking) {
+        if (!"CONFIRMED".equals(savedBooking.getStatus())) {
             log.info("Emails will be sent after successful payment for booking {}", savedBooking.getId());
+            return;
         }
+        log.info("Sending confirmation emails immediately for booking {} (Stripe disabled or free session)",
+                savedBooking.getId());
+        try {
+            // Load full booking with relationships for email
+            Booking fullBooking = bookingRepository.findByIdWithDetails(savedBooking.getId())
+                    .orElse(savedBooking);
+
+            // Ensure relationships are loaded
+            if (fullBooking.getCustomer() == null) {
+                Customer customer = customerRepository.findById(fullBooking.getCustomerId())
+                        .orElseThrow(() -> new RuntimeException("Customer not found"));
+                fullBooking.setCustomer(customer);
+            }
+            if (fullBooking.getSessionType() == null) {
+                SessionType st = sessionTypeRepository.findById(fullBooking.getSessionTypeId())
+                        .orElseThrow(() -> new RuntimeException("Session type not found"));
+                fullBooking.setSessionType(st);
+            }
+
+            var tenant = tenantService.getTenantById(fullBooking.getTenantId());
+            var businessUser = tenantService.getBusinessEmailForTenant(fullBooking.getTenantId());
+
+            emailService.sendCustomerBookingConfirmation(fullBooking, tenant);
+            emailService.sendBusinessBookingNotification(fullBooking, tenant, businessUser);
+
+            log.info("✅ Confirmation emails sent for booking {}", savedBooking.getId());
+        } catch (Exception e) {
+            // Log error but don't fail the booking creation
+            log.error("❌ Failed to send booking confirmation emails for booking {}: {}",
+                    savedBooking.getId(), e.getMessage(), e);
+        }
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onSeriesBooked(SeriesBookedEvent event) {
+        sendSeriesConfirmationEmails(event.tenant(), event.series());
+    }
+
+    private void sendSeriesConfirmationEmails(Tenant tenant, List<Booking> series) {
+        try {
+            // All occurrences share the customer and session type
+            Booking first = series.get(0);
+            Customer customer = customerRepository.findById(first.getCustomerId())
+                    .orElseThrow(() -> new RuntimeException("Customer not found"));
+            SessionType sessionType = sessionTypeRepository.findById(first.getSessionTypeId())
+                    .orElseThrow(() -> new RuntimeException("Session type not found"));
+            series.forEach(booking -> {
+                booking.setCustomer(customer);
+                booking.setSessionType(sessionType);
+            });
+
+            var businessUser = tenantService.getBusinessEmailForTenant(tenant.getId());
+            emailService.sendCustomerSeriesConfirmation(series, tenant);
+            emailService.sendBusinessSeriesNotification(series, tenant, businessUser);
+        } catch (Exception e) {
+            // Log error but don't fail the booking creation
+            log.error("❌ Failed to send series confirmation emails for series {}: {}",
+                    series.get(0).getSeriesId(), e.getMessage(), e);
+        }
+    }
+
+    private static LocalDateTime startTimeOf(BookingRequest request) {
+        // Convert epoch timestamp to LocalDateTime
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(request.getStartTime()), ZoneId.systemDefault());
+    }
+
+    /**
+     * Same overlap rule as BlockedSlotRepository#findConflictingSlots, applied to one-off
+     * blocks and to the occurrences of recurring ones
+     */
+    private static boolean blocks(BlockedSlot slot, LocalDateTime startTime, LocalDateTime endTime) {
+        return (!slot.getStartTime().isAfter(startTime) && slot.getEndTime().isAfter(startTime))
+                || (slot.getStartTime().isBefore(endTime) && !slot.getEndTime().isBefore(endTime))
+                || (!slot.getStartTime().isBefore(startTime) && !slot.getEndTime().isAfter(endTime));
+    }
+
+    /**
+     * Whether [startTime, endTime) lies inside one open range of the tenant's hours for its
+     * date, honouring date overrides. Bookings are stored in the server's zone and business
+     * hours are in the tenant's, so a session running past midnight there is never inside.
+     */
+    private static boolean withinHours(CompiledWeeklySchedule schedule, ZoneId zone,
+                                       LocalDateTime startTime, LocalDateTime endTime) {
+        LocalDateTime local = startTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(zone).toLocalDateTime();
+        int startMinute = local.getHour() * 60 + local.getMinute();
+        int endMinute = startMinute + (int) Duration.between(startTime, endTime).toMinutes();
+        return schedule.covers(local.toLocalDate(), startMinute, endMinute);
+    }
+
+    private static ZoneId zoneOf(Tenant tenant) {
+        return ZoneId.of(tenant.getTimezone() != null ? tenant.getTimezone() : "UTC");
+    }
 
-        return savedBooking;
+    private static boolean hasRoom(SessionType sessionType, LocalDateTime startTime, LocalDateTime endTime,
+                                   int participants, List<Booking> heldBookings) {
+        int capacity = sessionType.getCapacity() != null ? sessionType.getCapacity() : 1;
+        int booked = 0;
+        for (Booking held : heldBookings) {
+            if (held.getStartTime().isBefore(endTime) && held.getEndTime().isAfter(startTime)) {
+                if (!sessionType.getId().equals(held.getSessionTypeId())) {
+                    return false;
+                }
+                booked += held.getParticipants() != null ? held.getParticipants() : 1;
+            }
+        }
+        return booked + participants <= capacity;
+    }
+
+    /**
+     * Move a booking to a new start time in one transaction, under the same tenant lock as
+     * new bookings: the new interval is checked against business hours, blocked slots and
+     * other bookings (ignoring this one, so it may overlap its old time) and the booking row
+     * is updated in place, which claims the new time and releases the old one together. The calendar
+     * event's SEQUENCE is bumped and, once the move commits, one rescheduled notification
+     * goes out. The booking is read only after the tenant lock is held, and its row is
+     * locked too, so a concurrent cancellation or payment update cannot be overwritten
+     * with a stale status.
+     *
+     * @param tenantId    when called by a business, the caller's tenant; otherwise null
+     * @param manageToken when called by a customer, the token from the booking's manage link
+     */
+    @Transactional
+    public Booking rescheduleBooking(UUID bookingId, UUID tenantId, String manageToken, Long newStartTime) {
+        if (tenantId == null && !manageTokenService.verify(bookingId, manageToken)) {
+            throw new RuntimeException("Booking not found");
+        }
+        UUID bookingTenantId = bookingRepository.findTenantIdById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (tenantId != null && !tenantId.equals(bookingTenantId)) {
+            throw new RuntimeException("Booking not found");
+        }
+        Tenant tenant = tenantRepository.findByIdForUpdate(bookingTenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+
+        Booking booking = bookingRepository.findByIdForUpdate(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (!"CONFIRMED".equals(booking.getStatus()) && !"PENDING".equals(booking.getStatus())) {
+            throw new RuntimeException("PENDING_PAYMENT".equals(booking.getStatus())
+                    ? "Complete payment before rescheduling this booking"
+                    : "Only upcoming bookings can be rescheduled");
+        }
+
+        LocalDateTime previousStart = booking.getStartTime();
+        LocalDateTime startTime = LocalDateTime.ofInstant(Instant.ofEpochMilli(newStartTime), ZoneId.systemDefault());
+        LocalDateTime endTime = startTime.plus(Duration.between(booking.getStartTime(), booking.getEndTime()));
+        if (!startTime.isAfter(LocalDateTime.now())) {
+            throw new RuntimeException("The new time must be in the future");
+        }
+        if (startTime.equals(previousStart)) {
+            return booking;
+        }
+
+        if (!withinHours(businessHoursService.getSchedule(tenant.getId()), zoneOf(tenant), startTime, endTime)) {
+            throw new RuntimeException(OUTSIDE_HOURS);
+        }
+        if (blockedSlotService.findBlocking(tenant.getId(), startTime, endTime).stream()
+                .anyMatch(slot -> blocks(slot, startTime, endTime))) {
+            throw new RuntimeException(SLOT_BLOCKED);
+        }
+        List<Booking> heldBookings = bookingRepository.findActiveOverlapping(tenant.getId(), startTime, endTime).stream()
+                .filter(held -> !held.getId().equals(booking.getId()))
+                .toList();
+        int participants = booking.getParticipants() != null ? booking.getParticipants() : 1;
+        if (!hasRoom(booking.getSessionType(), startTime, endTime, participants, heldBookings)) {
+            throw new RuntimeException(SLOT_TAKEN);
+        }
+
+        booking.setStartTime(startTime);
+        booking.setEndTime(endTime);
+        booking.setIcsSequence((booking.getIcsSequence() != null ? booking.getIcsSequence() : 0) + 1);
+        Booking saved = bookingRepository.save(booking);
+        log.info("Booking {} rescheduled from {} to {}", bookingId, previousStart, startTime);
+
+        eventPublisher.publishEvent(new BookingRescheduledEvent(tenant, saved, previousStart));
+        return saved;
+    }
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onBookingRescheduled(BookingRescheduledEvent event) {
+        try {
+            emailService.sendBookingRescheduled(event.booking(), event.tenant(),
+                    tenantService.getBusinessEmailForTenant(event.tenant().getId()), event.previousStartTime());
+        } catch (Exception e) {
+            // Log error but don't fail the reschedule
+            log.error("❌ Failed to send reschedule notification for booking {}: {}",
+                    event.booking().getId(), e.getMessage(), e);
+        }
     }
 
     @Transactional
@@ -168,6 +576,24 @@ public class BookingService {
         bookingRepository.save(booking);
     }
 
+    /**
+     * Give back the slot held by an unpaid booking whose checkout could not be started
+     */
+    @Transactional
+    public void releaseUnpaidHold(UUID bookingId, String reason) {
+        bookingRepository.findById(bookingId).ifPresent(booking -> {
+            booking.setStatus("CANCELLED");
+            booking.setCancellationReason(reason);
+            booking.setCancelledAt(LocalDateTime.now());
+            bookingRepository.save(booking);
+        });
+        paymentRepository.findByBookingId(bookingId).ifPresent(payment -> {
+            payment.setStatus("FAILED");
+            payment.setFailureReason(reason);
+            paymentRepository.save(payment);
+        });
+    }
+
     /**
      * Confirm booking after successful payment and send confirmation emails
      * This is called from the Stripe webhook handler
@@ -1,25 +1,58 @@
 package com.scheduler.booking.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scheduler.booking.dto.BusinessHoursOverrideRequest;
+import com.scheduler.booking.dto.BusinessHoursOverrideResponse;
 import com.scheduler.booking.dto.BusinessHoursRequest;
 import com.scheduler.booking.dto.BusinessHoursResponse;
 import com.scheduler.booking.model.BusinessHours;
+import com.scheduler.booking.model.BusinessHoursOverride;
+import com.scheduler.booking.repository.BusinessHoursOverrideRepository;
 import com.scheduler.booking.repository.BusinessHoursRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.util.CompiledWeeklySchedule;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.DayOfWeek;
+import java.time.LocalDate;
 import java.time.LocalTime;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.UUID;
 import java.util.stream.Collectors;
 
+/**
+ * Weekly business hours and date-specific overrides.
+ *
+ * Checks run against a {@link CompiledWeeklySchedule} cached per tenant. Every change to a
+ * tenant's hours or overrides increments tenants.hours_version in the same transaction;
+ * a cached schedule is used while its version matches, so a change made on any instance
+ * is picked up by the next check everywhere.
+ */
 @Service
 @RequiredArgsConstructor
 public class BusinessHoursService {
 
     private final BusinessHoursRepository businessHoursRepository;
+    private final BusinessHoursOverrideRepository businessHoursOverrideRepository;
+    private final TenantRepository tenantRepository;
+
+    @Value("${business-hours.schedule-cache.max-size:10000}")
+    private long scheduleCacheMaxSize;
+
+    private Cache<UUID, CompiledWeeklySchedule> schedules;
+
+    @PostConstruct
+    public void init() {
+        schedules = Caffeine.newBuilder()
+                .maximumSize(scheduleCacheMaxSize)
+                .build();
+    }
 
     public List<BusinessHoursResponse> getBusinessHours(UUID tenantId) {
         List<BusinessHours> hours = businessHoursRepository.findByTenantIdOrderByDayOfWeekAscStartTimeAsc(tenantId);
@@ -30,7 +63,13 @@ public class BusinessHoursService {
 
     @Transactional
     public void initializeDefaultBusinessHours(UUID tenantId) {
-        // Create default business hours: Monday to Friday, 9 AM - 5 PM
+        businessHoursRepository.saveAll(defaultBusinessHours(tenantId));
+    }
+
+    /**
+     * Default business hours for a new tenant (not saved): Monday to Friday, 9 AM - 5 PM
+     */
+    public List<BusinessHours> defaultBusinessHours(UUID tenantId) {
         List<BusinessHours> defaultHours = new ArrayList<>();
 
         DayOfWeek[] weekdays = {
@@ -51,7 +90,7 @@ public class BusinessHoursService {
             defaultHours.add(hours);
         }
 
-        businessHoursRepository.saveAll(defaultHours);
+        return defaultHours;
     }
 
     @Transactional
@@ -64,6 +103,7 @@ public class BusinessHoursService {
         hours.setEnabled(request.isEnabled());
 
         BusinessHours saved = businessHoursRepository.save(hours);
+        tenantRepository.incrementHoursVersion(tenantId);
         return mapToResponse(saved);
     }
 
@@ -82,6 +122,7 @@ public class BusinessHoursService {
         hours.setEnabled(request.isEnabled());
 
         BusinessHours saved = businessHoursRepository.save(hours);
+        tenantRepository.incrementHoursVersion(tenantId);
         return mapToResponse(saved);
     }
 
@@ -95,6 +136,7 @@ public class BusinessHoursService {
         }
 
         businessHoursRepository.delete(hours);
+        tenantRepository.incrementHoursVersion(tenantId);
     }
 
     @Transactional
@@ -116,6 +158,7 @@ public class BusinessHoursService {
                 .collect(Collectors.toList());
 
         List<BusinessHours> saved = businessHoursRepository.saveAll(hoursList);
+        tenantRepository.incrementHoursVersion(tenantId);
         return saved.stream()
                 .map(this::mapToResponse)
                 .collect(Collectors.toList());
@@ -131,17 +174,90 @@ public class BusinessHoursService {
         );
     }
 
-    public boolean isWithinBusinessHours(UUID tenantId, DayOfWeek dayOfWeek, LocalTime time) {
-        List<BusinessHours> hours = businessHoursRepository.findByTenantIdAndDayOfWeek(tenantId, dayOfWeek);
+    /**
+     * Overrides from the given date on, in date order
+     */
+    public List<BusinessHoursOverrideResponse> getOverrides(UUID tenantId, LocalDate from) {
+        return businessHoursOverrideRepository
+                .findByTenantIdAndDateGreaterThanEqualOrderByDateAscStartTimeAsc(tenantId, from).stream()
+                .map(this::mapToResponse)
+                .collect(Collectors.toList());
+    }
 
-        for (BusinessHours hour : hours) {
-            if (hour.isEnabled() &&
-                !time.isBefore(hour.getStartTime()) &&
-                time.isBefore(hour.getEndTime())) {
-                return true;
+    @Transactional
+    public BusinessHoursOverrideResponse createOverride(UUID tenantId, BusinessHoursOverrideRequest request) {
+        BusinessHoursOverride override = new BusinessHoursOverride();
+        override.setTenantId(tenantId);
+        override.setDate(LocalDate.parse(request.getDate()));
+        if ((request.getStartTime() == null) != (request.getEndTime() == null)) {
+            throw new RuntimeException("Start and end time must both be set, or both be omitted to close the day");
+        }
+        if (request.getStartTime() != null) {
+            override.setStartTime(LocalTime.parse(request.getStartTime()));
+            override.setEndTime(LocalTime.parse(request.getEndTime()));
+            if (!override.getEndTime().isAfter(override.getStartTime())) {
+                throw new RuntimeException("End time must be after start time");
             }
         }
+        override.setReason(request.getReason());
+
+        BusinessHoursOverride saved = businessHoursOverrideRepository.save(override);
+        tenantRepository.incrementHoursVersion(tenantId);
+        return mapToResponse(saved);
+    }
+
+    @Transactional
+    public void deleteOverride(UUID id, UUID tenantId) {
+        BusinessHoursOverride override = businessHoursOverrideRepository.findById(id)
+                .orElseThrow(() -> new RuntimeException("Business hours override not found"));
+
+        if (!override.getTenantId().equals(tenantId)) {
+            throw new RuntimeException("Unauthorized access to business hours override");
+        }
+
+        businessHoursOverrideRepository.delete(override);
+        tenantRepository.incrementHoursVersion(tenantId);
+    }
+
+    private BusinessHoursOverrideResponse mapToResponse(BusinessHoursOverride override) {
+        return new BusinessHoursOverrideResponse(
+                override.getId(),
+                override.getDate().toString(),
+                override.getStartTime() != null ? override.getStartTime().toString() : null,
+                override.getEndTime() != null ? override.getEndTime().toString() : null,
+                override.getReason()
+        );
+    }
+
+    /**
+     * The tenant's compiled schedule, recompiled only when its hours version has changed.
+     * Fetch it once to check many days or times.
+     */
+    public CompiledWeeklySchedule getSchedule(UUID tenantId) {
+        long version = tenantRepository.findHoursVersion(tenantId)
+                .orElseThrow(() -> new RuntimeException("Tenant not found"));
+        CompiledWeeklySchedule cached = schedules.getIfPresent(tenantId);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+        // Read after the version, so a concurrent change can only make this newer than its label
+        CompiledWeeklySchedule compiled = CompiledWeeklySchedule.compile(version,
+                businessHoursRepository.findByTenantIdOrderByDayOfWeekAscStartTimeAsc(tenantId),
+                businessHoursOverrideRepository.findByTenantId(tenantId));
+        schedules.asMap().merge(tenantId, compiled,
+                (existing, candidate) -> existing.version() >= candidate.version() ? existing : candidate);
+        return compiled;
+    }
+
+    /**
+     * Weekly hours only; use {@link #isWithinBusinessHours(UUID, LocalDate, LocalTime)} to
+     * honour date overrides
+     */
+    public boolean isWithinBusinessHours(UUID tenantId, DayOfWeek dayOfWeek, LocalTime time) {
+        return getSchedule(tenantId).isOpen(dayOfWeek, time);
+    }
 
-        return false;
+    public boolean isWithinBusinessHours(UUID tenantId, LocalDate date, LocalTime time) {
+        return getSchedule(tenantId).isOpen(date, time);
     }
 }
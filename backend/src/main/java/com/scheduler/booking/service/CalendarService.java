@@ -7,8 +7,6 @@ import net.fortuna.ical4j.model.component.VEvent;
 import net.fortuna.ical4j.model.parameter.Cn;
 import net.fortuna.ical4j.model.parameter.Role;
 import net.fortuna.ical4j.model.property.*;
-import net.fortuna.ical4j.util.RandomUidGenerator;
-import net.fortuna.ical4j.util.UidGenerator;
 import org.springframework.stereotype.Service;
 
 import java.io.ByteArrayOutputStream;
@@ -16,20 +14,34 @@ import java.net.URI;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.UUID;
 
 @Service
 @Slf4j
 public class CalendarService {
 
-    private final UidGenerator uidGenerator = new RandomUidGenerator();
+    /**
+     * One calendar event. Events for a booking keep the same uid and carry an increasing
+     * sequence, so calendar apps update the event they already have when it changes.
+     */
+    public record EventTime(String uid, int sequence, LocalDateTime start, LocalDateTime end) {
+    }
+
+    /**
+     * Stable ICS UID for a booking's event
+     */
+    public static String uidFor(UUID bookingId) {
+        return "booking-" + bookingId + "@session-scheduler";
+    }
 
     /**
-     * Generate ICS calendar file for a booking
+     * Generate ICS calendar file with an event per occurrence (one for a single booking,
+     * several for a recurring series)
      *
-     * @param eventTitle       Title of the event
-     * @param eventDescription Description of the event
-     * @param startTime        Event start time
-     * @param endTime          Event end time
+     * @param eventTitle       Title of the events
+     * @param eventDescription Description of the events
+     * @param occurrences      UID, sequence, start and end of each event
      * @param location         Event location
      * @param organizerEmail   Organizer's email
      * @param organizerName    Organizer's name
@@ -40,8 +52,7 @@ public class CalendarService {
     public byte[] generateIcsFile(
             String eventTitle,
             String eventDescription,
-            LocalDateTime startTime,
-            LocalDateTime endTime,
+            List<EventTime> occurrences,
             String location,
             String organizerEmail,
             String organizerName,
@@ -56,68 +67,17 @@ public class CalendarService {
             calendar.getProperties().add(CalScale.GREGORIAN);
             calendar.getProperties().add(Method.REQUEST);
 
-            // Convert LocalDateTime to Date (using system default timezone)
-            ZoneId zoneId = ZoneId.systemDefault();
-            java.util.Date start = java.util.Date.from(startTime.atZone(zoneId).toInstant());
-            java.util.Date end = java.util.Date.from(endTime.atZone(zoneId).toInstant());
-
-            // Create the event
-            VEvent event = new VEvent(new DateTime(start), new DateTime(end), eventTitle);
-
-            // Add UID (required)
-            event.getProperties().add(uidGenerator.generateUid());
-
-            // Add description
-            if (eventDescription != null && !eventDescription.isEmpty()) {
-                event.getProperties().add(new Description(eventDescription));
-            }
-
-            // Add location
-            if (location != null && !location.isEmpty()) {
-                event.getProperties().add(new Location(location));
-            }
-
-            // Add organizer
-            Organizer organizer = new Organizer(URI.create("mailto:" + organizerEmail));
-            organizer.getParameters().add(new Cn(organizerName));
-            event.getProperties().add(organizer);
-
-            // Add attendee
-            Attendee attendee = new Attendee(URI.create("mailto:" + attendeeEmail));
-            attendee.getParameters().add(new Cn(attendeeName));
-            attendee.getParameters().add(Role.REQ_PARTICIPANT);
-            attendee.getParameters().add(new net.fortuna.ical4j.model.parameter.Rsvp(true));
-            event.getProperties().add(attendee);
-
-            // Add status
-            event.getProperties().add(Status.VEVENT_CONFIRMED);
-
-            // Add sequence
-            event.getProperties().add(new Sequence(0));
-
-            // Add timestamp
-            event.getProperties().add(new DtStamp(new DateTime()));
-
-            // Add URL for virtual meeting link (if location is a URL)
-            if (location != null && !location.isEmpty() &&
-                    (location.startsWith("http://") || location.startsWith("https://"))) {
-                try {
-                    event.getProperties().add(new Url(new URI(location)));
-                    log.debug("Added URL property to calendar event: {}", location);
-                } catch (Exception e) {
-                    log.warn("Failed to add URL property: {}", e.getMessage());
-                }
+            for (EventTime occurrence : occurrences) {
+                calendar.getComponents().add(buildEvent(eventTitle, eventDescription, occurrence, location,
+                        organizerEmail, organizerName, attendeeEmail, attendeeName));
             }
 
-            // Add event to calendar
-            calendar.getComponents().add(event);
-
             // Output to byte array
             ByteArrayOutputStream outputStream = new ByteArrayOutputStream();
             CalendarOutputter outputter = new CalendarOutputter();
             outputter.output(calendar, outputStream);
 
-            log.info("Generated ICS file for event: {}", eventTitle);
+            log.info("Generated ICS file with {} event(s): {}", occurrences.size(), eventTitle);
             return outputStream.toByteArray();
 
         } catch (Exception e) {
@@ -126,6 +86,64 @@ public class CalendarService {
         }
     }
 
+    private VEvent buildEvent(String eventTitle, String eventDescription, EventTime occurrence, String location,
+                              String organizerEmail, String organizerName, String attendeeEmail, String attendeeName) {
+        // Convert LocalDateTime to Date (using system default timezone)
+        ZoneId zoneId = ZoneId.systemDefault();
+        java.util.Date start = java.util.Date.from(occurrence.start().atZone(zoneId).toInstant());
+        java.util.Date end = java.util.Date.from(occurrence.end().atZone(zoneId).toInstant());
+
+        // Create the event
+        VEvent event = new VEvent(new DateTime(start), new DateTime(end), eventTitle);
+
+        // Add UID (required)
+        event.getProperties().add(new Uid(occurrence.uid()));
+
+        // Add description
+        if (eventDescription != null && !eventDescription.isEmpty()) {
+            event.getProperties().add(new Description(eventDescription));
+        }
+
+        // Add location
+        if (location != null && !location.isEmpty()) {
+            event.getProperties().add(new Location(location));
+        }
+
+        // Add organizer
+        Organizer organizer = new Organizer(URI.create("mailto:" + organizerEmail));
+        organizer.getParameters().add(new Cn(organizerName));
+        event.getProperties().add(organizer);
+
+        // Add attendee
+        Attendee attendee = new Attendee(URI.create("mailto:" + attendeeEmail));
+        attendee.getParameters().add(new Cn(attendeeName));
+        attendee.getParameters().add(Role.REQ_PARTICIPANT);
+        attendee.getParameters().add(new net.fortuna.ical4j.model.parameter.Rsvp(true));
+        event.getProperties().add(attendee);
+
+        // Add status
+        event.getProperties().add(Status.VEVENT_CONFIRMED);
+
+        // Add sequence
+        event.getProperties().add(new Sequence(occurrence.sequence()));
+
+        // Add timestamp
+        event.getProperties().add(new DtStamp(new DateTime()));
+
+        // Add URL for virtual meeting link (if location is a URL)
+        if (location != null && !location.isEmpty() &&
+                (location.startsWith("http://") || location.startsWith("https://"))) {
+            try {
+                event.getProperties().add(new Url(new URI(location)));
+                log.debug("Added URL property to calendar event: {}", location);
+            } catch (Exception e) {
+                log.warn("Failed to add URL property: {}", e.getMessage());
+            }
+        }
+
+        return event;
+    }
+
     /**
      * Generate filename for ICS file
      */
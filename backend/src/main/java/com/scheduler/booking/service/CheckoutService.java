@@ -0,0 +1,259 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.config.StripeConfig;
+import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.dto.CheckoutResponse;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Payment;
+import com.scheduler.booking.model.SessionType;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.PaymentRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.stripe.exception.StripeException;
+import com.stripe.model.checkout.Session;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+
+/**
+ * Books a slot and starts Stripe Checkout for it in one request.
+ *
+ * The booking id is chosen up front so the Checkout Session can be created while the
+ * booking is still waiting in the tenant's admission queue. The booking (held as
+ * PENDING_PAYMENT) and its PENDING payment are inserted in the same transaction; the
+ * session id is attached to the payment once both sides have finished. If the slot turns
+ * out to be taken the session is expired, and if Stripe fails the hold is released.
+ *
+ * For bookings that already exist, checkoutForBooking hands back the open session
+ * instead of creating a new one per click.
+ */
+@Service
+@Slf4j
+public class CheckoutService {
+
+    private final SessionTypeRepository sessionTypeRepository;
+    private final TenantRepository tenantRepository;
+    private final PaymentRepository paymentRepository;
+    private final StripeService stripeService;
+    private final StripeConfig stripeConfig;
+    private final BookingService bookingService;
+    private final BookingAdmissionService bookingAdmissionService;
+    private final BookingRepository bookingRepository;
+    private final Executor applicationTaskExecutor;
+    private final Duration reuseMargin;
+    private final Map<UUID, CompletableFuture<CheckoutResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public CheckoutService(SessionTypeRepository sessionTypeRepository,
+                           TenantRepository tenantRepository,
+                           PaymentRepository paymentRepository,
+                           StripeService stripeService,
+                           StripeConfig stripeConfig,
+                           BookingService bookingService,
+                           BookingAdmissionService bookingAdmissionService,
+                           BookingRepository bookingRepository,
+                           @Qualifier("applicationTaskExecutor") Executor applicationTaskExecutor,
+                           @Value("${bookings.checkout.reuse-margin:PT5M}") Duration reuseMargin) {
+        this.sessionTypeRepository = sessionTypeRepository;
+        this.tenantRepository = tenantRepository;
+        this.paymentRepository = paymentRepository;
+        this.stripeService = stripeService;
+        this.stripeConfig = stripeConfig;
+        this.bookingService = bookingService;
+        this.bookingAdmissionService = bookingAdmissionService;
+        this.bookingRepository = bookingRepository;
+        this.applicationTaskExecutor = applicationTaskExecutor;
+        this.reuseMargin = reuseMargin;
+    }
+
+    public CompletableFuture<CheckoutResponse> bookAndCheckout(UUID tenantId, BookingRequest request, String slug) {
+        SessionType sessionType = sessionTypeRepository.findByIdAndTenantId(request.getSessionTypeId(), tenantId)
+                .orElseThrow(() -> new RuntimeException("Session type not found"));
+
+        boolean isFreeSession = sessionType.getPrice() == null
+                || sessionType.getPrice().compareTo(BigDecimal.ZERO) == 0;
+        if (!stripeConfig.isEnabled() || isFreeSession) {
+            // Confirmed at creation, nothing to pay
+            return bookingAdmissionService.submit(tenantId, request)
+                    .thenApply(booking -> new CheckoutResponse(booking, null, null));
+        }
+        if (request.getEmail() == null) {
+            throw new RuntimeException("Customer information is required");
+        }
+
+        String tenantSlug = slug != null && !slug.isBlank() ? slug
+                : tenantRepository.findById(tenantId).map(Tenant::getSlug).orElse(null);
+        UUID bookingId = UUID.randomUUID();
+        Map<String, BigDecimal> fees = stripeService.calculateFees(sessionType.getPrice());
+
+        BookingClaim claim = new BookingClaim(request, null);
+        claim.setBookingId(bookingId);
+        claim.setPaymentFactory(booking -> {
+            Payment payment = new Payment();
+            payment.setBookingId(booking.getId());
+            payment.setTenantId(booking.getTenantId());
+            payment.setCustomerId(booking.getCustomerId());
+            payment.setAmount(fees.get("totalAmount"));
+            payment.setCurrency(sessionType.getCurrency());
+            payment.setStatus("PENDING");
+            payment.setPlatformFee(fees.get("platformFee"));
+            payment.setBusinessAmount(fees.get("businessAmount"));
+            return payment;
+        });
+
+        CompletableFuture<Session> session = CompletableFuture.supplyAsync(() -> {
+            try {
+                return stripeService.createCheckoutSession(bookingId, tenantId, sessionType, request.getEmail(), tenantSlug);
+            } catch (StripeException e) {
+                throw new RuntimeException("Failed to create checkout session: " + e.getMessage(), e);
+            }
+        }, applicationTaskExecutor);
+        CompletableFuture<Booking> booking = bookingAdmissionService.submit(tenantId, claim);
+
+        // Off the booking writer thread: this may call Stripe or the database again
+        return CompletableFuture.allOf(session, booking).handleAsync((ignored, error) -> {
+            if (booking.isCompletedExceptionally()) {
+                if (!session.isCompletedExceptionally()) {
+                    expireQuietly(session.join().getId());
+                }
+                throw unwrap(booking);
+            }
+            if (session.isCompletedExceptionally()) {
+                log.warn("Releasing booking {}: checkout could not be started", bookingId);
+                bookingService.releaseUnpaidHold(bookingId, "Checkout could not be started");
+                throw unwrap(session);
+            }
+
+            Session checkout = session.join();
+            paymentRepository.attachCheckoutSession(bookingId, checkout.getId(), checkout.getUrl(), expiresAtOf(checkout));
+            return new CheckoutResponse(booking.join(), checkout.getUrl(), checkout.getId());
+        }, applicationTaskExecutor);
+    }
+
+    /**
+     * Checkout for an existing PENDING_PAYMENT booking. The booking's Checkout Session is
+     * returned again while it is still open (with bookings.checkout.reuse-margin to spare);
+     * otherwise a new session replaces it on the same payment row and the old one is expired.
+     * Concurrent calls for one booking share a single attempt.
+     */
+    public CheckoutResponse checkoutForBooking(UUID bookingId, String slug) {
+        CompletableFuture<CheckoutResponse> attempt = new CompletableFuture<>();
+        CompletableFuture<CheckoutResponse> inProgress = inFlight.putIfAbsent(bookingId, attempt);
+        if (inProgress != null) {
+            try {
+                return inProgress.join();
+            } catch (CompletionException e) {
+                throw e.getCause() instanceof RuntimeException runtimeException ? runtimeException : e;
+            }
+        }
+        try {
+            CheckoutResponse response = openCheckout(bookingId, slug);
+            attempt.complete(response);
+            return response;
+        } catch (RuntimeException e) {
+            attempt.completeExceptionally(e);
+            throw e;
+        } finally {
+            inFlight.remove(bookingId, attempt);
+        }
+    }
+
+    private CheckoutResponse openCheckout(UUID bookingId, String slug) {
+        Booking booking = bookingRepository.findById(bookingId)
+                .orElseThrow(() -> new RuntimeException("Booking not found"));
+        if (!"PENDING_PAYMENT".equals(booking.getStatus())) {
+            throw new RuntimeException("Booking is not awaiting payment");
+        }
+
+        Payment payment = paymentRepository.findFirstByBookingIdOrderByCreatedAtDesc(bookingId).orElse(null);
+        if (payment != null && isOpen(payment)) {
+            log.info("Reusing Stripe Checkout Session {} for booking {}", payment.getStripeCheckoutSessionId(), bookingId);
+            return new CheckoutResponse(booking, payment.getStripeCheckoutUrl(), payment.getStripeCheckoutSessionId());
+        }
+
+        SessionType sessionType = sessionTypeRepository.findById(booking.getSessionTypeId())
+                .orElseThrow(() -> new RuntimeException("Session type not found"));
+        String tenantSlug = slug != null && !slug.isBlank() ? slug
+                : tenantRepository.findById(booking.getTenantId()).map(Tenant::getSlug).orElse(null);
+
+        Session session;
+        try {
+            session = stripeService.createCheckoutSession(booking, sessionType, booking.getCustomer().getEmail(), tenantSlug);
+        } catch (StripeException e) {
+            throw new RuntimeException("Failed to create checkout session: " + e.getMessage(), e);
+        }
+
+        // A session that is still open but too close to expiry is closed so it cannot be paid as well
+        String supersededSessionId = payment != null && payment.getStripeSessionExpiresAt() != null
+                && payment.getStripeSessionExpiresAt().isAfter(LocalDateTime.now())
+                ? payment.getStripeCheckoutSessionId()
+                : null;
+        if (payment == null) {
+            Map<String, BigDecimal> fees = stripeService.calculateFees(sessionType.getPrice());
+            payment = new Payment();
+            payment.setBookingId(booking.getId());
+            payment.setTenantId(booking.getTenantId());
+            payment.setCustomerId(booking.getCustomerId());
+            payment.setAmount(fees.get("totalAmount"));
+            payment.setCurrency(sessionType.getCurrency());
+            payment.setPlatformFee(fees.get("platformFee"));
+            payment.setBusinessAmount(fees.get("businessAmount"));
+        }
+        payment.setStatus("PENDING");
+        payment.setStripeCheckoutSessionId(session.getId());
+        payment.setStripeCheckoutUrl(session.getUrl());
+        payment.setStripeSessionExpiresAt(expiresAtOf(session));
+        paymentRepository.save(payment);
+        if (supersededSessionId != null) {
+            expireQuietly(supersededSessionId);
+        }
+
+        return new CheckoutResponse(booking, session.getUrl(), session.getId());
+    }
+
+    private boolean isOpen(Payment payment) {
+        return "PENDING".equals(payment.getStatus())
+                && payment.getStripeCheckoutSessionId() != null
+                && payment.getStripeCheckoutUrl() != null
+                && payment.getStripeSessionExpiresAt() != null
+                && payment.getStripeSessionExpiresAt().isAfter(LocalDateTime.now().plus(reuseMargin));
+    }
+
+    private static LocalDateTime expiresAtOf(Session session) {
+        return session.getExpiresAt() != null
+                ? LocalDateTime.ofInstant(Instant.ofEpochSecond(session.getExpiresAt()), ZoneId.systemDefault())
+                : null;
+    }
+
+    private void expireQuietly(String sessionId) {
+        try {
+            stripeService.expireCheckoutSession(sessionId);
+        } catch (Exception e) {
+            // Unpaid sessions expire on their own after 24 hours
+            log.warn("Could not expire Checkout Session {}: {}", sessionId, e.getMessage());
+        }
+    }
+
+    private static CompletionException unwrap(CompletableFuture<?> failed) {
+        try {
+            failed.join();
+            throw new IllegalStateException("Future did not fail");
+        } catch (CompletionException e) {
+            return e;
+        }
+    }
+}
@@ -1,26 +1,35 @@
 package com.scheduler.booking.service;
 
+import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestTemplate;
+import org.springframework.web.util.UriComponentsBuilder;
 
+import java.util.ArrayList;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
 
 /**
  * Service for interacting with Clerk Backend API to manage users.
+ * Calls go through the shared pooled client (HttpClientConfig) and the "clerk" ExternalCallGuard.
  */
 @Service
+@RequiredArgsConstructor
 @Slf4j
 public class ClerkUserService {
 
     @Value("${clerk.secret-key}")
     private String clerkSecretKey;
 
-    private static final String CLERK_API_BASE = "https://api.clerk.com/v1";
-    private final RestTemplate restTemplate = new RestTemplate();
+    @Value("${clerk.api-base-url:https://api.clerk.com/v1}")
+    private String clerkApiBase;
+
+    private final RestTemplate clerkRestTemplate;
+    private final ExternalCallGuard externalCallGuard;
 
     /**
      * Create a new user in Clerk with email and password
@@ -36,7 +45,7 @@ public class ClerkUserService {
     public String createUser(String email, String password, String firstName, String lastName,
             String role, String tenantId) {
         try {
-            String url = CLERK_API_BASE + "/users";
+            String url = clerkApiBase + "/users";
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -66,7 +75,8 @@ public class ClerkUserService {
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
 
             log.info("Creating Clerk user with email: {}", email);
-            ResponseEntity<Map> response = restTemplate.postForEntity(url, request, Map.class);
+            ResponseEntity<Map> response = externalCallGuard.call("clerk",
+                    () -> clerkRestTemplate.postForEntity(url, request, Map.class));
 
             if (response.getStatusCode().is2xxSuccessful() && response.getBody() != null) {
                 String clerkUserId = (String) response.getBody().get("id");
@@ -91,7 +101,7 @@ public class ClerkUserService {
      */
     public void updateUserMetadata(String clerkUserId, Map<String, Object> publicMetadata) {
         try {
-            String url = CLERK_API_BASE + "/users/" + clerkUserId + "/metadata";
+            String url = clerkApiBase + "/users/" + clerkUserId + "/metadata";
 
             HttpHeaders headers = new HttpHeaders();
             headers.setContentType(MediaType.APPLICATION_JSON);
@@ -102,7 +112,7 @@ public class ClerkUserService {
 
             HttpEntity<Map<String, Object>> request = new HttpEntity<>(body, headers);
 
-            restTemplate.patchForObject(url, request, Map.class);
+            externalCallGuard.call("clerk", () -> clerkRestTemplate.patchForObject(url, request, Map.class));
             log.info("Updated metadata for Clerk user: {}", clerkUserId);
 
         } catch (Exception e) {
@@ -118,13 +128,13 @@ public class ClerkUserService {
      */
     public void deleteUser(String clerkUserId) {
         try {
-            String url = CLERK_API_BASE + "/users/" + clerkUserId;
+            String url = clerkApiBase + "/users/" + clerkUserId;
 
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(clerkSecretKey);
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
-            restTemplate.exchange(url, HttpMethod.DELETE, request, Void.class);
+            externalCallGuard.call("clerk", () -> clerkRestTemplate.exchange(url, HttpMethod.DELETE, request, Void.class));
 
             log.info("Deleted Clerk user: {}", clerkUserId);
 
@@ -134,6 +144,45 @@ public class ClerkUserService {
         }
     }
 
+    /**
+     * Find the users with an email address that were created for a tenant
+     *
+     * @param email    Email address
+     * @param tenantId Tenant ID stored in the users' public metadata
+     * @return Clerk user IDs
+     */
+    public List<String> findUserIds(String email, String tenantId) {
+        try {
+            String url = UriComponentsBuilder.fromHttpUrl(clerkApiBase + "/users")
+                    .queryParam("email_address", email)
+                    .encode()
+                    .toUriString();
+
+            HttpHeaders headers = new HttpHeaders();
+            headers.setBearerAuth(clerkSecretKey);
+
+            HttpEntity<Void> request = new HttpEntity<>(headers);
+            ResponseEntity<List> response = externalCallGuard.call("clerk",
+                    () -> clerkRestTemplate.exchange(url, HttpMethod.GET, request, List.class));
+
+            List<String> userIds = new ArrayList<>();
+            if (response.getBody() != null) {
+                for (Object user : response.getBody()) {
+                    if (user instanceof Map<?, ?> fields
+                            && fields.get("public_metadata") instanceof Map<?, ?> metadata
+                            && tenantId.equals(metadata.get("tenant_id"))) {
+                        userIds.add((String) fields.get("id"));
+                    }
+                }
+            }
+            return userIds;
+
+        } catch (Exception e) {
+            log.error("Error searching users in Clerk: {}", e.getMessage(), e);
+            throw new RuntimeException("Error searching users in Clerk: " + e.getMessage(), e);
+        }
+    }
+
     /**
      * Get user from Clerk by ID
      *
@@ -142,13 +191,14 @@ public class ClerkUserService {
      */
     public Map<String, Object> getUser(String clerkUserId) {
         try {
-            String url = CLERK_API_BASE + "/users/" + clerkUserId;
+            String url = clerkApiBase + "/users/" + clerkUserId;
 
             HttpHeaders headers = new HttpHeaders();
             headers.setBearerAuth(clerkSecretKey);
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
-            ResponseEntity<Map> response = restTemplate.exchange(url, HttpMethod.GET, request, Map.class);
+            ResponseEntity<Map> response = externalCallGuard.call("clerk",
+                    () -> clerkRestTemplate.exchange(url, HttpMethod.GET, request, Map.class));
 
             return response.getBody();
 
@@ -0,0 +1,236 @@
+package com.scheduler.booking.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records how long each operation keeps a pooled JDBC connection checked out, how many
+ * statements it runs on it and which remote calls it makes while holding it.
+ *
+ * An operation is the outermost @Transactional method on the thread, or, for code that
+ * uses a TransactionTemplate or no transaction at all, the nearest application frame
+ * at checkout. Results go to Micrometer (db.connection.hold, db.connection.statements,
+ * db.connection.remote.calls, tagged by operation) and are summarised by the
+ * connectionholds actuator endpoint. The operation also labels SlowQueryLog lines.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class ConnectionProfiler {
+
+    private static final String APP_PACKAGE = "com.scheduler.booking.";
+    private static final String UNKNOWN = "unknown";
+
+    private static final ThreadLocal<String> currentOperation = new ThreadLocal<>();
+    private static final ThreadLocal<Hold> currentHold = new ThreadLocal<>();
+
+    private static final StackWalker STACK_WALKER = StackWalker.getInstance();
+
+    private final MeterRegistry meterRegistry;
+
+    private final ConcurrentHashMap<String, OperationStats> stats = new ConcurrentHashMap<>();
+
+    /**
+     * Label connections checked out on this thread until {@link #endOperation} is called.
+     *
+     * @return false if an outer operation is already active, in which case it keeps the label
+     */
+    public boolean beginOperation(String operation) {
+        if (currentOperation.get() != null) {
+            return false;
+        }
+        currentOperation.set(operation);
+        return true;
+    }
+
+    public void endOperation() {
+        currentOperation.remove();
+    }
+
+    /**
+     * Called by the profiling DataSource when a connection is checked out on this thread
+     */
+    public Hold connectionAcquired() {
+        String operation = currentOperation.get();
+        if (operation == null) {
+            operation = callerOperation();
+        }
+        Hold hold = new Hold(operation, currentHold.get(), Thread.currentThread());
+        currentHold.set(hold);
+        return hold;
+    }
+
+    /**
+     * Called when the connection is returned to the pool
+     */
+    public void connectionReleased(Hold hold) {
+        long heldNanos = System.nanoTime() - hold.startNanos;
+        if (hold.thread == Thread.currentThread() && currentHold.get() == hold) {
+            if (hold.previous == null) {
+                currentHold.remove();
+            } else {
+                currentHold.set(hold.previous);
+            }
+        }
+
+        Timer.builder("db.connection.hold")
+                .description("Time a pooled connection was checked out")
+                .tag("operation", hold.operation)
+                .publishPercentileHistogram()
+                .register(meterRegistry)
+                .record(heldNanos, TimeUnit.NANOSECONDS);
+        DistributionSummary.builder("db.connection.statements")
+                .description("Statements prepared on a connection while checked out")
+                .tag("operation", hold.operation)
+                .register(meterRegistry)
+                .record(hold.statements);
+
+        stats.computeIfAbsent(hold.operation, OperationStats::new).record(heldNanos, hold.statements, hold.remoteCalls);
+    }
+
+    /**
+     * Operation holding the connection on this thread, or null if none (or profiling is off)
+     */
+    public String currentOperation() {
+        Hold hold = currentHold.get();
+        return hold != null ? hold.operation : null;
+    }
+
+    /**
+     * Called by ExternalCallGuard before a blocking remote call. Flags the call if this
+     * thread is holding a connection, since every such call extends the hold time by a
+     * network round trip.
+     */
+    public void remoteCallStarting(String provider) {
+        Hold hold = currentHold.get();
+        if (hold == null) {
+            return;
+        }
+        hold.remoteCalls.merge(provider, 1L, Long::sum);
+        Counter.builder("db.connection.remote.calls")
+                .description("Remote calls made while holding a database connection")
+                .tag("operation", hold.operation)
+                .tag("provider", provider)
+                .register(meterRegistry)
+                .increment();
+        log.warn("Remote call to {} while holding a database connection in {}", provider, hold.operation);
+    }
+
+    /**
+     * Operations ordered by their longest connection hold
+     */
+    public List<Map<String, Object>> worstOffenders(int limit) {
+        return stats.values().stream()
+                .sorted(Comparator.comparingLong((OperationStats s) -> s.maxHoldNanos.get()).reversed())
+                .limit(limit)
+                .map(OperationStats::toMap)
+                .toList();
+    }
+
+    /**
+     * Innermost application frame that is not part of the profiling itself, with lambda
+     * names folded into their enclosing method (lambda$createTenantAsync$1 -> createTenantAsync)
+     */
+    private static String callerOperation() {
+        Optional<String> caller = STACK_WALKER.walk(frames -> frames
+                .filter(frame -> frame.getClassName().startsWith(APP_PACKAGE)
+                        && !frame.getClassName().contains("$$")
+                        && !frame.getClassName().startsWith(ConnectionProfiler.class.getName())
+                        && !frame.getClassName().startsWith("com.scheduler.booking.config.ConnectionProfilingConfig"))
+                .findFirst()
+                .map(frame -> simpleName(frame.getClassName()) + "." + methodName(frame.getMethodName())));
+        return caller.orElse(UNKNOWN);
+    }
+
+    private static String simpleName(String className) {
+        String name = className.substring(className.lastIndexOf('.') + 1);
+        int inner = name.indexOf('$');
+        return inner < 0 ? name : name.substring(0, inner);
+    }
+
+    private static String methodName(String method) {
+        if (method.startsWith("lambda$")) {
+            int end = method.indexOf('$', "lambda$".length());
+            return end < 0 ? method : method.substring("lambda$".length(), end);
+        }
+        return method;
+    }
+
+    /**
+     * One checkout of a connection
+     */
+    public static final class Hold {
+        private final String operation;
+        private final Hold previous;
+        private final Thread thread;
+        private final long startNanos = System.nanoTime();
+        private final Map<String, Long> remoteCalls = new ConcurrentHashMap<>();
+        private volatile int statements;
+
+        private Hold(String operation, Hold previous, Thread thread) {
+            this.operation = operation;
+            this.previous = previous;
+            this.thread = thread;
+        }
+
+        public void statementPrepared() {
+            statements++;
+        }
+    }
+
+    private static final class OperationStats {
+        private final String operation;
+        private final LongAdder connections = new LongAdder();
+        private final LongAdder totalHoldNanos = new LongAdder();
+        private final LongAccumulator maxHoldNanos = new LongAccumulator(Math::max, 0);
+        private final LongAdder totalStatements = new LongAdder();
+        private final LongAccumulator maxStatements = new LongAccumulator(Math::max, 0);
+        private final ConcurrentHashMap<String, AtomicLong> remoteCalls = new ConcurrentHashMap<>();
+
+        private OperationStats(String operation) {
+            this.operation = operation;
+        }
+
+        private void record(long holdNanos, int statements, Map<String, Long> calls) {
+            connections.increment();
+            totalHoldNanos.add(holdNanos);
+            maxHoldNanos.accumulate(holdNanos);
+            totalStatements.add(statements);
+            maxStatements.accumulate(statements);
+            calls.forEach((provider, count) ->
+                    remoteCalls.computeIfAbsent(provider, p -> new AtomicLong()).addAndGet(count));
+        }
+
+        private Map<String, Object> toMap() {
+            long count = Math.max(1, connections.sum());
+            Map<String, Object> result = new LinkedHashMap<>();
+            result.put("operation", operation);
+            result.put("connections", connections.sum());
+            result.put("maxHoldMs", maxHoldNanos.get() / 1_000_000.0);
+            result.put("meanHoldMs", totalHoldNanos.sum() / count / 1_000_000.0);
+            result.put("totalHoldMs", totalHoldNanos.sum() / 1_000_000.0);
+            result.put("maxStatements", maxStatements.get());
+            result.put("meanStatements", (double) totalStatements.sum() / count);
+            Map<String, Long> calls = new LinkedHashMap<>();
+            remoteCalls.forEach((provider, counter) -> calls.put(provider, counter.get()));
+            result.put("remoteCallsWhileHeld", calls);
+            return result;
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.scheduler.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Locale;
+import java.util.UUID;
+
+/**
+ * Resolves a booking's email address to a customer id, creating the customer if needed.
+ *
+ * The customer row is written with a single upsert (INSERT ... ON CONFLICT on PostgreSQL,
+ * MERGE on H2), so concurrent first bookings from one address end up with the same customer
+ * instead of one of them failing on the unique email constraint. Existing customers keep
+ * their stored name and phone. Ids are cached by normalised email once the inserting
+ * transaction has committed, so repeat customers cost no query at all.
+ *
+ * Emails are stored normalised (trimmed, lower-case); a check constraint enforces it, so
+ * the unique email constraint and the upsert's conflict target are effectively
+ * case-insensitive.
+ */
+@Service
+public class CustomerResolver {
+
+    private static final String POSTGRES_UPSERT = """
+            INSERT INTO customers (id, email, first_name, last_name, phone, timezone, created_at, updated_at)
+            VALUES (?, ?, ?, ?, ?, 'UTC', ?, ?)
+            ON CONFLICT (email) DO UPDATE SET email = EXCLUDED.email
+            RETURNING id""";
+
+    private static final String H2_MERGE = """
+            MERGE INTO customers c
+            USING (SELECT CAST(? AS UUID) AS id, CAST(? AS VARCHAR(255)) AS email,
+                          CAST(? AS VARCHAR(255)) AS first_name, CAST(? AS VARCHAR(255)) AS last_name,
+                          CAST(? AS VARCHAR(50)) AS phone, CAST(? AS TIMESTAMP) AS created_at,
+                          CAST(? AS TIMESTAMP) AS updated_at) s
+            ON c.email = s.email
+            WHEN NOT MATCHED THEN INSERT (id, email, first_name, last_name, phone, timezone, created_at, updated_at)
+                VALUES (s.id, s.email, s.first_name, s.last_name, s.phone, 'UTC', s.created_at, s.updated_at)""";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final boolean postgres;
+    private final Cache<String, UUID> idsByEmail;
+
+    public CustomerResolver(JdbcTemplate jdbcTemplate,
+                            @Value("${spring.datasource.url}") String url,
+                            @Value("${customers.cache.max-size:50000}") long cacheMaxSize,
+                            @Value("${customers.cache.ttl:PT6H}") Duration cacheTtl) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.postgres = url.startsWith("jdbc:postgresql:");
+        this.idsByEmail = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterAccess(cacheTtl)
+                .build();
+    }
+
+    /**
+     * Id of the customer with this email, inserted with the given details if there is none.
+     * Joins the caller's transaction.
+     */
+    public UUID resolve(String email, String firstName, String lastName, String phone) {
+        String normalized = normalize(email);
+        UUID cached = idsByEmail.getIfPresent(normalized);
+        if (cached != null) {
+            return cached;
+        }
+
+        UUID id = upsert(normalized, firstName, lastName, phone);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            // A rolled-back insert must not leave a dangling id behind
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    idsByEmail.put(normalized, id);
+                }
+            });
+        } else {
+            idsByEmail.put(normalized, id);
+        }
+        return id;
+    }
+
+    public static String normalize(String email) {
+        return email.trim().toLowerCase(Locale.ROOT);
+    }
+
+    private UUID upsert(String email, String firstName, String lastName, String phone) {
+        LocalDateTime now = LocalDateTime.now();
+        if (postgres) {
+            return jdbcTemplate.queryForObject(POSTGRES_UPSERT, UUID.class,
+                    UUID.randomUUID(), email, firstName, lastName, phone, now, now);
+        }
+        try {
+            jdbcTemplate.update(H2_MERGE, UUID.randomUUID(), email, firstName, lastName, phone, now, now);
+        } catch (DuplicateKeyException e) {
+            // H2 does not lock the match: a concurrent MERGE inserted the same email first
+        }
+        return jdbcTemplate.queryForObject("SELECT id FROM customers WHERE email = ?", UUID.class, email);
+    }
+}
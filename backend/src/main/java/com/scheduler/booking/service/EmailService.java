@@ -1,12 +1,11 @@
 package com.scheduler.booking.service;
 
-import com.mailgun.api.v3.MailgunMessagesApi;
 import com.mailgun.model.message.Message;
-import com.mailgun.model.message.MessageResponse;
 import com.scheduler.booking.config.MailgunConfig;
 import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.PendingNotification;
 import com.scheduler.booking.model.Tenant;
-import feign.FeignException;
+import com.scheduler.booking.repository.PendingNotificationRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.scheduling.annotation.Async;
@@ -17,6 +16,9 @@ import java.io.FileOutputStream;
 import java.io.IOException;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -24,12 +26,20 @@ import java.time.format.DateTimeFormatter;
 public class EmailService {
 
     private final MailgunConfig mailgunConfig;
-    private final MailgunMessagesApi mailgunMessagesApi;
+    private final MailgunDispatcher mailgunDispatcher;
     private final CalendarService calendarService;
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final BookingManageTokenService manageTokenService;
 
     private static final DateTimeFormatter DATE_TIME_FORMATTER = DateTimeFormatter
             .ofPattern("EEEE, MMMM d, yyyy 'at' h:mm a");
 
+    /**
+     * A booking listed in a digest as moved, with where it started before
+     */
+    public record RescheduledBooking(Booking booking, LocalDateTime previousStartTime) {
+    }
+
     /**
      * Send booking confirmation email to customer
      */
@@ -52,7 +62,8 @@ public class EmailService {
             // Generate email body
             String htmlBody = buildCustomerEmailBody(customerName, sessionName, formattedDateTime,
                     booking.getSessionType().getDurationMinutes(), tenant, booking.getStartTime(), booking.getEndTime(),
-                    booking.getSessionType().getMeetingLink(), booking.getSessionType().getMeetingPassword());
+                    booking.getSessionType().getMeetingLink(), booking.getSessionType().getMeetingPassword(),
+                    manageTokenService.manageUrl(booking.getId()));
 
             // Generate ICS file with Google Meet link
             String meetingLink = booking.getSessionType().getMeetingLink();
@@ -72,8 +83,7 @@ public class EmailService {
             byte[] icsFile = calendarService.generateIcsFile(
                     sessionName + " with " + tenant.getName(),
                     description,
-                    booking.getStartTime(),
-                    booking.getEndTime(),
+                    List.of(eventTime(booking)),
                     meetingLink != null && !meetingLink.isEmpty() ? meetingLink : "Online Session",
                     tenant.getEmail(),
                     tenant.getName(),
@@ -84,13 +94,15 @@ public class EmailService {
 
             // Send email
             sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
                     booking.getCustomer().getEmail(),
                     subject,
                     htmlBody,
                     icsFile,
                     icsFilename);
 
-            log.info("Booking confirmation email sent to customer: {}", booking.getCustomer().getEmail());
+            log.info("Booking confirmation email queued for customer: {}", booking.getCustomer().getEmail());
 
         } catch (Exception e) {
             log.error("Failed to send customer booking confirmation email", e);
@@ -98,10 +110,23 @@ public class EmailService {
     }
 
     /**
-     * Send booking notification email to business
+     * Send booking notification email to business.
+     * Tenants on HOURLY or DAILY notifications get the booking buffered for
+     * their next digest instead (see NotificationDigestService).
      */
     @Async
     public void sendBusinessBookingNotification(Booking booking, Tenant tenant, String businessEmail) {
+        if (tenant.getNotificationMode() != null && !"INSTANT".equals(tenant.getNotificationMode())) {
+            PendingNotification pending = new PendingNotification();
+            pending.setTenantId(tenant.getId());
+            pending.setBookingId(booking.getId());
+            pending.setRecipientEmail(businessEmail);
+            pendingNotificationRepository.save(pending);
+            log.info("Buffered business notification for booking {} ({} digest)", booking.getId(),
+                    tenant.getNotificationMode());
+            return;
+        }
+
         if (!mailgunConfig.isEnabled()) {
             log.warn("⚠️ Email sending is DISABLED (mailgun.enabled=false). Skipping business booking notification for booking {}. " +
                     "To enable emails, set MAILGUN_ENABLED=true and configure Mailgun credentials.", booking.getId());
@@ -143,8 +168,7 @@ public class EmailService {
             byte[] icsFile = calendarService.generateIcsFile(
                     sessionName + " - " + customerName,
                     descriptionBusiness,
-                    booking.getStartTime(),
-                    booking.getEndTime(),
+                    List.of(eventTime(booking)),
                     meetingLinkBusiness != null && !meetingLinkBusiness.isEmpty() ? meetingLinkBusiness
                             : "Online Session",
                     businessEmail,
@@ -157,13 +181,15 @@ public class EmailService {
 
             // Send email
             sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
                     businessEmail,
                     subject,
                     htmlBody,
                     icsFile,
                     icsFilename);
 
-            log.info("Booking notification email sent to business: {}", businessEmail);
+            log.info("Booking notification email queued for business: {}", businessEmail);
 
         } catch (Exception e) {
             log.error("Failed to send business booking notification email", e);
@@ -171,43 +197,318 @@ public class EmailService {
     }
 
     /**
-     * Send email with ICS attachment using Mailgun
+     * Send one confirmation to the customer for every occurrence of a recurring series.
+     * The attached ICS file holds an event per occurrence.
+     */
+    @Async
+    public void sendCustomerSeriesConfirmation(List<Booking> series, Tenant tenant) {
+        if (!mailgunConfig.isEnabled()) {
+            log.warn("⚠️ Email sending is DISABLED (mailgun.enabled=false). Skipping customer series confirmation for series {}.",
+                    series.get(0).getSeriesId());
+            return;
+        }
+
+        try {
+            Booking first = series.get(0);
+            String customerName = first.getCustomer().getFirstName() + " " + first.getCustomer().getLastName();
+            String sessionName = first.getSessionType().getName();
+            String meetingLink = first.getSessionType().getMeetingLink();
+
+            String subject = "Your " + series.size() + " " + sessionName + " Sessions are Confirmed! ✨";
+            String htmlBody = buildCustomerEmailBody(customerName, sessionName, formatSchedule(series),
+                    first.getSessionType().getDurationMinutes(), tenant, first.getStartTime(), first.getEndTime(),
+                    meetingLink, first.getSessionType().getMeetingPassword(), null);
+
+            String description = "Your session: " + sessionName + "\\n\\n";
+            if (meetingLink != null && !meetingLink.isEmpty()) {
+                description += "Join Google Meet: " + meetingLink + "\\n\\n";
+            }
+            if (first.getNotes() != null) {
+                description += "Notes: " + first.getNotes();
+            }
+
+            byte[] icsFile = calendarService.generateIcsFile(
+                    sessionName + " with " + tenant.getName(),
+                    description,
+                    eventTimes(series),
+                    meetingLink != null && !meetingLink.isEmpty() ? meetingLink : "Online Session",
+                    tenant.getEmail(),
+                    tenant.getName(),
+                    first.getCustomer().getEmail(),
+                    customerName);
+
+            sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
+                    first.getCustomer().getEmail(),
+                    subject,
+                    htmlBody,
+                    icsFile,
+                    calendarService.generateIcsFilename(sessionName + "_series", first.getStartTime()));
+
+            log.info("Series confirmation email ({} sessions) queued for customer: {}", series.size(),
+                    first.getCustomer().getEmail());
+
+        } catch (Exception e) {
+            log.error("Failed to send customer series confirmation email", e);
+        }
+    }
+
+    /**
+     * Send one notification to the business for a recurring series. Tenants on HOURLY or
+     * DAILY notifications get each occurrence buffered for their next digest instead.
+     */
+    @Async
+    public void sendBusinessSeriesNotification(List<Booking> series, Tenant tenant, String businessEmail) {
+        if (tenant.getNotificationMode() != null && !"INSTANT".equals(tenant.getNotificationMode())) {
+            pendingNotificationRepository.saveAll(series.stream().map(booking -> {
+                PendingNotification pending = new PendingNotification();
+                pending.setTenantId(tenant.getId());
+                pending.setBookingId(booking.getId());
+                pending.setRecipientEmail(businessEmail);
+                return pending;
+            }).toList());
+            log.info("Buffered business notifications for series {} ({} digest)", series.get(0).getSeriesId(),
+                    tenant.getNotificationMode());
+            return;
+        }
+
+        if (!mailgunConfig.isEnabled()) {
+            log.warn("⚠️ Email sending is DISABLED (mailgun.enabled=false). Skipping business series notification for series {}.",
+                    series.get(0).getSeriesId());
+            return;
+        }
+
+        try {
+            Booking first = series.get(0);
+            String customerName = first.getCustomer().getFirstName() + " " + first.getCustomer().getLastName();
+            String sessionName = first.getSessionType().getName();
+            String meetingLink = first.getSessionType().getMeetingLink();
+
+            String subject = "New Recurring Booking: " + series.size() + " x " + sessionName + " with " + customerName;
+            String htmlBody = buildBusinessEmailBody(customerName, first.getCustomer().getEmail(),
+                    first.getCustomer().getPhone(), sessionName, formatSchedule(series),
+                    first.getSessionType().getDurationMinutes(), first.getNotes(),
+                    first.getStartTime(), first.getEndTime(),
+                    meetingLink, first.getSessionType().getMeetingPassword());
+
+            String description = "Customer: " + customerName + "\\n" +
+                    "Email: " + first.getCustomer().getEmail() + "\\n" +
+                    "Phone: " + first.getCustomer().getPhone() + "\\n\\n";
+            if (meetingLink != null && !meetingLink.isEmpty()) {
+                description += "Google Meet Link: " + meetingLink + "\\n\\n";
+            }
+            if (first.getNotes() != null) {
+                description += "Notes: " + first.getNotes();
+            }
+
+            byte[] icsFile = calendarService.generateIcsFile(
+                    sessionName + " - " + customerName,
+                    description,
+                    eventTimes(series),
+                    meetingLink != null && !meetingLink.isEmpty() ? meetingLink : "Online Session",
+                    businessEmail,
+                    tenant.getName(),
+                    first.getCustomer().getEmail(),
+                    customerName);
+
+            sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
+                    businessEmail,
+                    subject,
+                    htmlBody,
+                    icsFile,
+                    calendarService.generateIcsFilename(sessionName + "_" + customerName + "_series",
+                            first.getStartTime()));
+
+            log.info("Series notification email ({} sessions) queued for business: {}", series.size(), businessEmail);
+
+        } catch (Exception e) {
+            log.error("Failed to send business series notification email", e);
+        }
+    }
+
+    /**
+     * Tell the customer and the business that a booking moved. The attached ICS file keeps
+     * the booking's UID with the next SEQUENCE, so calendar apps move the existing event.
+     * Tenants on HOURLY or DAILY notifications get the move buffered for their next digest
+     * instead of a business email.
      */
-    private void sendEmailWithAttachment(String to, String subject, String htmlBody,
-            byte[] attachment, String attachmentFilename) {
+    @Async
+    public void sendBookingRescheduled(Booking booking, Tenant tenant, String businessEmail,
+                                       LocalDateTime previousStartTime) {
+        boolean digest = tenant.getNotificationMode() != null && !"INSTANT".equals(tenant.getNotificationMode());
+        if (digest) {
+            PendingNotification pending = new PendingNotification();
+            pending.setTenantId(tenant.getId());
+            pending.setBookingId(booking.getId());
+            pending.setRecipientEmail(businessEmail);
+            pending.setPreviousStartTime(previousStartTime);
+            pendingNotificationRepository.save(pending);
+            log.info("Buffered business reschedule notification for booking {} ({} digest)", booking.getId(),
+                    tenant.getNotificationMode());
+        }
+
+        if (!mailgunConfig.isEnabled()) {
+            log.warn("⚠️ Email sending is DISABLED (mailgun.enabled=false). Skipping reschedule notification for booking {}.",
+                    booking.getId());
+            return;
+        }
+
         try {
-            // Create temporary file for attachment
-            File tempFile = File.createTempFile("calendar", ".ics");
-            try (FileOutputStream fos = new FileOutputStream(tempFile)) {
-                fos.write(attachment);
+            String customerName = booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName();
+            String sessionName = booking.getSessionType().getName();
+            String meetingLink = booking.getSessionType().getMeetingLink();
+            String location = meetingLink != null && !meetingLink.isEmpty() ? meetingLink : "Online Session";
+            String previous = previousStartTime.format(DATE_TIME_FORMATTER);
+            String current = booking.getStartTime().format(DATE_TIME_FORMATTER);
+            String icsFilename = calendarService.generateIcsFilename(sessionName, booking.getStartTime());
+
+            String description = "Your session: " + sessionName + "\\n\\n";
+            if (meetingLink != null && !meetingLink.isEmpty()) {
+                description += "Join Google Meet: " + meetingLink + "\\n\\n";
             }
+            byte[] customerIcs = calendarService.generateIcsFile(
+                    sessionName + " with " + tenant.getName(),
+                    description,
+                    List.of(eventTime(booking)),
+                    location,
+                    tenant.getEmail(),
+                    tenant.getName(),
+                    booking.getCustomer().getEmail(),
+                    customerName);
+            sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
+                    booking.getCustomer().getEmail(),
+                    "Your " + sessionName + " Session has been Rescheduled",
+                    buildRescheduledEmailBody(customerName, sessionName, previous, current, tenant.getName(),
+                            manageTokenService.manageUrl(booking.getId())),
+                    customerIcs,
+                    icsFilename);
+            log.info("Reschedule email queued for customer: {}", booking.getCustomer().getEmail());
+
+            if (digest) {
+                return;
+            }
+            byte[] businessIcs = calendarService.generateIcsFile(
+                    sessionName + " - " + customerName,
+                    "Customer: " + customerName + "\\n" + "Email: " + booking.getCustomer().getEmail(),
+                    List.of(eventTime(booking)),
+                    location,
+                    businessEmail,
+                    tenant.getName(),
+                    booking.getCustomer().getEmail(),
+                    customerName);
+            sendEmailWithAttachment(
+                    tenant,
+                    MailgunDispatcher.Priority.TRANSACTIONAL,
+                    businessEmail,
+                    "Booking Rescheduled: " + sessionName + " with " + customerName,
+                    buildRescheduledEmailBody(tenant.getName(), sessionName + " with " + customerName,
+                            previous, current, tenant.getName(), null),
+                    businessIcs,
+                    icsFilename);
+            log.info("Reschedule email queued for business: {}", businessEmail);
+
+        } catch (Exception e) {
+            log.error("Failed to send reschedule notification email", e);
+        }
+    }
+
+    /**
+     * Send a digest of buffered booking notifications to a business.
+     * The returned future completes once Mailgun has accepted the email, so the
+     * digest job only removes the buffered rows after a confirmed send. Digests go
+     * out at BULK priority, behind any pending booking confirmations.
+     */
+    public CompletableFuture<Void> sendBusinessDigest(Tenant tenant, String businessEmail, List<Booking> bookings,
+                                                      List<RescheduledBooking> rescheduled) {
+        if (bookings.isEmpty() && rescheduled.isEmpty()) {
+            return CompletableFuture.completedFuture(null);
+        }
+        if (!mailgunConfig.isEnabled()) {
+            log.warn("⚠️ Email sending is DISABLED (mailgun.enabled=false). Skipping {} digest of {} bookings and {} reschedules for tenant {}.",
+                    tenant.getNotificationMode(), bookings.size(), rescheduled.size(), tenant.getId());
+            return CompletableFuture.completedFuture(null);
+        }
+
+        String subject = digestHeadline(bookings.size(), rescheduled.size()) + " for " + tenant.getName();
 
-            // Build message
-            Message message = Message.builder()
+        CompletableFuture<Void> sent = sendEmailWithAttachment(tenant, MailgunDispatcher.Priority.BULK, businessEmail,
+                subject, buildBusinessDigestEmailBody(tenant, bookings, rescheduled), null, null);
+        log.info("Booking digest with {} bookings and {} reschedules queued for business: {}", bookings.size(),
+                rescheduled.size(), businessEmail);
+        return sent;
+    }
+
+    /**
+     * e.g. "3 New Bookings", "1 Rescheduled Booking" or "2 New Bookings and 1 Rescheduled"
+     */
+    private static String digestHeadline(int newBookings, int rescheduled) {
+        String added = newBookings + " New Booking" + (newBookings == 1 ? "" : "s");
+        if (rescheduled == 0) {
+            return added;
+        }
+        if (newBookings == 0) {
+            return rescheduled + " Rescheduled Booking" + (rescheduled == 1 ? "" : "s");
+        }
+        return added + " and " + rescheduled + " Rescheduled";
+    }
+
+    /**
+     * Queue email with an optional ICS attachment for sending through Mailgun
+     *
+     * @return Completes once Mailgun has accepted the email
+     */
+    private CompletableFuture<Void> sendEmailWithAttachment(Tenant tenant, MailgunDispatcher.Priority priority, String to,
+            String subject, String htmlBody, byte[] attachment, String attachmentFilename) {
+        try {
+            Message.MessageBuilder builder = Message.builder()
                     .from(mailgunConfig.getFromName() + " <" + mailgunConfig.getFromEmail() + ">")
                     .to(to)
                     .subject(subject)
-                    .html(htmlBody)
-                    .attachment(tempFile)
-                    .build();
-
-            // Send via Mailgun
-            MessageResponse response = mailgunMessagesApi.sendMessage(mailgunConfig.getDomain(), message);
-
-            log.info("Email sent successfully. Message ID: {}", response.getId());
+                    .html(htmlBody);
+
+            // Create temporary file for attachment (deleted by the dispatcher once sent)
+            File tempFile = null;
+            if (attachment != null) {
+                tempFile = File.createTempFile("calendar", ".ics");
+                try (FileOutputStream fos = new FileOutputStream(tempFile)) {
+                    fos.write(attachment);
+                }
+                builder.attachment(tempFile);
+            }
 
-            // Clean up temp file
-            tempFile.delete();
+            return mailgunDispatcher.submit(tenant.getId(), priority, tenant.getSubscriptionTier(),
+                    builder.build(), tempFile);
 
-        } catch (FeignException e) {
-            log.error("Mailgun API error: {} - {}", e.status(), e.contentUTF8());
-            throw new RuntimeException("Failed to send email via Mailgun", e);
         } catch (IOException e) {
             log.error("IO error creating temporary file", e);
             throw new RuntimeException("Failed to create temporary file for attachment", e);
         }
     }
 
+    /**
+     * Occurrence dates of a series, one per line
+     */
+    private static String formatSchedule(List<Booking> series) {
+        return series.stream()
+                .map(booking -> booking.getStartTime().format(DATE_TIME_FORMATTER))
+                .collect(Collectors.joining("<br>"));
+    }
+
+    private static List<CalendarService.EventTime> eventTimes(List<Booking> series) {
+        return series.stream().map(EmailService::eventTime).toList();
+    }
+
+    private static CalendarService.EventTime eventTime(Booking booking) {
+        return new CalendarService.EventTime(CalendarService.uidFor(booking.getId()),
+                booking.getIcsSequence() != null ? booking.getIcsSequence() : 0,
+                booking.getStartTime(), booking.getEndTime());
+    }
+
     /**
      * Generate Google Calendar URL
      */
@@ -254,7 +555,7 @@ public class EmailService {
     private String buildCustomerEmailBody(String customerName, String sessionName,
             String formattedDateTime, int durationMinutes,
             Tenant tenant, LocalDateTime startTime, LocalDateTime endTime,
-            String meetingLink, String meetingPassword) {
+            String meetingLink, String meetingPassword, String manageUrl) {
         // Build description with meeting link for calendar events
         String calendarDescription = "Your session: " + sessionName;
         if (meetingLink != null && !meetingLink.isEmpty()) {
@@ -296,6 +597,12 @@ public class EmailService {
                     +
                     "</div>";
         }
+
+        // A series confirmation covers several bookings, so only single bookings get a manage link
+        String rescheduleNote = manageUrl != null
+                ? "Need a different time? <a href=\"" + manageUrl + "\">Reschedule this booking</a>. "
+                        + "If you have any questions, please don't hesitate to reach out."
+                : "If you need to reschedule or have any questions, please don't hesitate to reach out.";
         return String.format(
                 "<!DOCTYPE html>" +
                         "<html>" +
@@ -368,7 +675,7 @@ public class EmailService {
                         +
                         "            </div>" +
                         "" +
-                        "            <p style=\"color: #4b5563; margin-top: 20px;\">If you need to reschedule or have any questions, please don't hesitate to reach out.</p>"
+                        "            <p style=\"color: #4b5563; margin-top: 20px;\">%s</p>"
                         +
                         "" +
                         "            <p style=\"color: #4b5563;\">We're here to provide you with a wonderful experience. Take a deep breath, relax, and we'll see you soon!</p>"
@@ -383,7 +690,43 @@ public class EmailService {
                         "</body>" +
                         "</html>",
                 customerName, sessionName, formattedDateTime, durationMinutes,
-                tenant.getName(), meetingSection, googleCalUrl, outlookCalUrl, tenant.getName());
+                tenant.getName(), meetingSection, googleCalUrl, outlookCalUrl, rescheduleNote, tenant.getName());
+    }
+
+    /**
+     * Build HTML email body for a rescheduled booking. The manage link is only given to the customer.
+     */
+    private String buildRescheduledEmailBody(String recipientName, String sessionName, String previousDateTime,
+            String newDateTime, String tenantName, String manageUrl) {
+        String manageSection = manageUrl != null
+                ? "<p style=\"color: #4b5563;\">Need a different time? <a href=\"" + manageUrl + "\">Reschedule this booking</a>.</p>"
+                : "";
+        return String.format(
+                "<!DOCTYPE html>" +
+                        "<html>" +
+                        "<head><meta charset=\"UTF-8\"></head>" +
+                        "<body style=\"font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; line-height: 1.6; color: #333;\">" +
+                        "    <div style=\"max-width: 600px; margin: 0 auto; padding: 20px;\">" +
+                        "        <div style=\"background: linear-gradient(135deg, #667eea 0%%, #764ba2 100%%); color: white; padding: 30px; border-radius: 10px 10px 0 0; text-align: center;\">" +
+                        "            <h1 style=\"margin: 0; font-size: 28px;\">Booking Rescheduled</h1>" +
+                        "        </div>" +
+                        "        <div style=\"background: #f9fafb; padding: 30px; border-radius: 0 0 10px 10px;\">" +
+                        "            <p style=\"font-size: 18px; color: #1f2937;\">Hello %s,</p>" +
+                        "            <p style=\"color: #4b5563;\">%s has moved to a new time.</p>" +
+                        "            <div style=\"background: white; padding: 20px; border-radius: 8px; margin: 20px 0; box-shadow: 0 2px 4px rgba(0,0,0,0.1);\">" +
+                        "                <p style=\"margin: 0; color: #6b7280;\"><s>%s</s></p>" +
+                        "                <p style=\"margin: 10px 0 0; color: #1f2937; font-weight: 600;\">%s</p>" +
+                        "            </div>" +
+                        "            <p style=\"color: #4b5563;\">The attached calendar file updates the event already in your calendar.</p>" +
+                        "            %s" +
+                        "        </div>" +
+                        "        <div style=\"text-align: center; padding: 20px; color: #6b7280; font-size: 14px;\">" +
+                        "            <p>This email was sent by %s</p>" +
+                        "        </div>" +
+                        "    </div>" +
+                        "</body>" +
+                        "</html>",
+                recipientName, sessionName, previousDateTime, newDateTime, manageSection, tenantName);
     }
 
     /**
@@ -531,4 +874,107 @@ public class EmailService {
                 sessionName, formattedDateTime, durationMinutes,
                 notesSection, meetingSection, googleCalUrl, outlookCalUrl);
     }
+
+    /**
+     * Build HTML email body for a business booking digest
+     */
+    private String buildBusinessDigestEmailBody(Tenant tenant, List<Booking> bookings,
+            List<RescheduledBooking> rescheduled) {
+        StringBuilder rows = new StringBuilder();
+        for (Booking booking : bookings) {
+            String customerName = booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName();
+            String notes = booking.getNotes() != null && !booking.getNotes().isEmpty()
+                    ? "<div style=\"color: #92400e; font-size: 13px; margin-top: 4px;\">" + booking.getNotes() + "</div>"
+                    : "";
+            rows.append("<tr>")
+                    .append("<td class=\"cell\">").append(booking.getStartTime().format(DATE_TIME_FORMATTER)).append("</td>")
+                    .append("<td class=\"cell\">").append(booking.getSessionType().getName())
+                    .append(" (").append(booking.getSessionType().getDurationMinutes()).append(" min)</td>")
+                    .append("<td class=\"cell\">").append(customerName)
+                    .append("<br><a href=\"mailto:").append(booking.getCustomer().getEmail()).append("\">")
+                    .append(booking.getCustomer().getEmail()).append("</a>")
+                    .append(notes)
+                    .append("</td>")
+                    .append("</tr>");
+        }
+
+        String period = "DAILY".equals(tenant.getNotificationMode()) ? "day" : "hour";
+
+        String bookedSection = "";
+        if (!bookings.isEmpty()) {
+            bookedSection = "<p style=\"font-size: 16px; color: #1f2937;\">Here are the sessions booked with "
+                    + tenant.getName() + " in the last " + period + ":</p>"
+                    + "<table>"
+                    + "<tr><th>Date & Time</th><th>Session</th><th>Customer</th></tr>"
+                    + rows
+                    + "</table>";
+        }
+
+        String rescheduledSection = "";
+        if (!rescheduled.isEmpty()) {
+            StringBuilder movedRows = new StringBuilder();
+            for (RescheduledBooking moved : rescheduled) {
+                Booking booking = moved.booking();
+                String customerName = booking.getCustomer().getFirstName() + " " + booking.getCustomer().getLastName();
+                movedRows.append("<tr>")
+                        .append("<td class=\"cell\">").append(booking.getStartTime().format(DATE_TIME_FORMATTER))
+                        .append("<div style=\"color: #6b7280; font-size: 13px; margin-top: 4px;\">was <s>")
+                        .append(moved.previousStartTime().format(DATE_TIME_FORMATTER)).append("</s></div></td>")
+                        .append("<td class=\"cell\">").append(booking.getSessionType().getName())
+                        .append(" (").append(booking.getSessionType().getDurationMinutes()).append(" min)</td>")
+                        .append("<td class=\"cell\">").append(customerName)
+                        .append("<br><a href=\"mailto:").append(booking.getCustomer().getEmail()).append("\">")
+                        .append(booking.getCustomer().getEmail()).append("</a>")
+                        .append("</td>")
+                        .append("</tr>");
+            }
+            rescheduledSection = "<p style=\"font-size: 16px; color: #1f2937; margin-top: 25px;\">These sessions moved to a new time in the last "
+                    + period + ":</p>"
+                    + "<table>"
+                    + "<tr><th>New Date & Time</th><th>Session</th><th>Customer</th></tr>"
+                    + movedRows
+                    + "</table>";
+        }
+
+        return String.format(
+                "<!DOCTYPE html>" +
+                        "<html>" +
+                        "<head>" +
+                        "    <meta charset=\"UTF-8\">" +
+                        "    <style>" +
+                        "        body { font-family: 'Segoe UI', Tahoma, Geneva, Verdana, sans-serif; line-height: 1.6; color: #333; }"
+                        +
+                        "        .container { max-width: 700px; margin: 0 auto; padding: 20px; }" +
+                        "        .header { background: linear-gradient(135deg, #3b82f6 0%%, #1e40af 100%%); color: white; padding: 30px; border-radius: 10px 10px 0 0; text-align: center; }"
+                        +
+                        "        .content { background: #f9fafb; padding: 30px; border-radius: 0 0 10px 10px; }" +
+                        "        table { width: 100%%; border-collapse: collapse; background: white; border-radius: 8px; box-shadow: 0 2px 4px rgba(0,0,0,0.1); }"
+                        +
+                        "        th { text-align: left; padding: 12px; color: #6b7280; font-weight: 600; border-bottom: 2px solid #e5e7eb; }"
+                        +
+                        "        .cell { padding: 12px; border-bottom: 1px solid #e5e7eb; color: #1f2937; vertical-align: top; }" +
+                        "        .footer { text-align: center; padding: 20px; color: #6b7280; font-size: 14px; }" +
+                        "    </style>" +
+                        "</head>" +
+                        "<body>" +
+                        "    <div class=\"container\">" +
+                        "        <div class=\"header\">" +
+                        "            <h1 style=\"margin: 0; font-size: 28px;\">%s</h1>" +
+                        "        </div>" +
+                        "        <div class=\"content\">" +
+                        "            %s" +
+                        "            %s" +
+                        "            <p style=\"color: #4b5563; margin-top: 20px;\">" +
+                        "                Full details for every booking are available in your business dashboard."
+                        +
+                        "            </p>" +
+                        "        </div>" +
+                        "        <div class=\"footer\">" +
+                        "            <p>Session Scheduler - Business Booking Digest</p>" +
+                        "        </div>" +
+                        "    </div>" +
+                        "</body>" +
+                        "</html>",
+                digestHeadline(bookings.size(), rescheduled.size()), bookedSection, rescheduledSection);
+    }
 }
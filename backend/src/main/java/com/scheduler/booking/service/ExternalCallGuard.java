@@ -0,0 +1,113 @@
+package com.scheduler.booking.service;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Runs calls to external providers behind a per-provider bulkhead and circuit breaker.
+ *
+ * The bulkhead caps how many threads may be inside a provider at once and fails
+ * fast when it is full, so a slow Clerk or Mailgun cannot tie up every Tomcat
+ * thread. The circuit breaker stops calling a provider that keeps failing or
+ * answering slowly. Both are configured per provider name under
+ * resilience4j.bulkhead.instances.* and resilience4j.circuitbreaker.instances.*,
+ * and publish their state through the resilience4j Micrometer metrics.
+ * Blocking calls made while the thread holds a database connection are reported
+ * to ConnectionProfiler.
+ */
+@Component
+@RequiredArgsConstructor
+public class ExternalCallGuard {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ConnectionProfiler connectionProfiler;
+
+    @FunctionalInterface
+    public interface RemoteCall<T, E extends Exception> {
+        T call() throws E;
+    }
+
+    /**
+     * Execute a remote call for the given provider ("clerk", "mailgun", "stripe", "r2").
+     *
+     * @throws io.github.resilience4j.bulkhead.BulkheadFullException if the provider's concurrency limit is reached
+     * @throws io.github.resilience4j.circuitbreaker.CallNotPermittedException if the provider's circuit is open
+     */
+    public <T, E extends Exception> T call(String provider, RemoteCall<T, E> remoteCall) throws E {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(provider);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(provider);
+        connectionProfiler.remoteCallStarting(provider);
+
+        circuitBreaker.acquirePermission();
+        try {
+            bulkhead.acquirePermission();
+        } catch (RuntimeException e) {
+            circuitBreaker.releasePermission();
+            throw e;
+        }
+
+        long start = System.nanoTime();
+        try {
+            T result = remoteCall.call();
+            circuitBreaker.onSuccess(System.nanoTime() - start, TimeUnit.NANOSECONDS);
+            return result;
+        } catch (Exception e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            throw e;
+        } finally {
+            bulkhead.onComplete();
+        }
+    }
+
+    /**
+     * Asynchronous variant of {@link #call}: permits are taken when the call starts and
+     * released when the returned future completes. Rejections fail the future.
+     */
+    public <T> CompletableFuture<T> callAsync(String provider, Supplier<CompletableFuture<T>> remoteCall) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(provider);
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead(provider);
+
+        try {
+            circuitBreaker.acquirePermission();
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        if (!bulkhead.tryAcquirePermission()) {
+            circuitBreaker.releasePermission();
+            return CompletableFuture.failedFuture(BulkheadFullException.createBulkheadFullException(bulkhead));
+        }
+
+        long start = System.nanoTime();
+        CompletableFuture<T> future;
+        try {
+            future = remoteCall.get();
+        } catch (RuntimeException e) {
+            circuitBreaker.onError(System.nanoTime() - start, TimeUnit.NANOSECONDS, e);
+            bulkhead.onComplete();
+            return CompletableFuture.failedFuture(e);
+        }
+
+        return future.whenComplete((result, error) -> {
+            long duration = System.nanoTime() - start;
+            if (error == null) {
+                circuitBreaker.onSuccess(duration, TimeUnit.NANOSECONDS);
+            } else {
+                Throwable cause = error instanceof CompletionException && error.getCause() != null
+                        ? error.getCause() : error;
+                circuitBreaker.onError(duration, TimeUnit.NANOSECONDS, cause);
+            }
+            bulkhead.onComplete();
+        });
+    }
+}
@@ -0,0 +1,231 @@
+package com.scheduler.booking.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes each Idempotency-Key at most once and replays its stored response to retries.
+ *
+ * Completed responses live in a bounded Caffeine cache in front of the idempotency_keys
+ * table, so a retry that lands on another node still replays. A key is claimed by inserting
+ * its row before the request runs: a duplicate on the same node waits on the first
+ * execution's future, and a duplicate on another node polls the row until it completes.
+ * Only successful and client-error responses are stored; after a server error or a
+ * load-shedding status (409, 429, 503) the claim is dropped so a retry runs again.
+ * A claim left behind by a crashed node is taken over once it is older than the lease.
+ */
+@Service
+@Slf4j
+public class IdempotencyService {
+
+    public enum Decision { PROCEED, REPLAY, MISMATCH, IN_PROGRESS }
+
+    public record StoredResponse(String requestHash, int status, String contentType, String body) {
+    }
+
+    public record Outcome(Decision decision, StoredResponse response) {
+    }
+
+    private record InFlight(String requestHash, CompletableFuture<StoredResponse> result) {
+    }
+
+    private record Row(String requestHash, Integer status, String contentType, String body, LocalDateTime createdAt) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+    private final Duration lease;
+    private final Cache<String, StoredResponse> completed;
+    private final Map<String, InFlight> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(JdbcTemplate jdbcTemplate,
+                              @Value("${idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                              @Value("${idempotency.lease:PT2M}") Duration lease,
+                              @Value("${idempotency.cache.max-size:10000}") long cacheMaxSize) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.lease = lease;
+        this.completed = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .expireAfterWrite(ttl)
+                .build();
+    }
+
+    /**
+     * Decide what to do with a request carrying this key. PROCEED means the caller now
+     * owns the key and must call complete() when the response is known.
+     */
+    public Outcome begin(String key, String requestHash) {
+        StoredResponse cached = completed.getIfPresent(key);
+        if (cached != null) {
+            return replay(cached, requestHash);
+        }
+
+        InFlight mine = new InFlight(requestHash, new CompletableFuture<>());
+        InFlight running = inFlight.putIfAbsent(key, mine);
+        if (running != null) {
+            if (!running.requestHash().equals(requestHash)) {
+                return new Outcome(Decision.MISMATCH, null);
+            }
+            StoredResponse response = await(running.result());
+            return response != null ? replay(response, requestHash) : new Outcome(Decision.IN_PROGRESS, null);
+        }
+
+        try {
+            Outcome outcome = claim(key, requestHash);
+            if (outcome.decision() != Decision.PROCEED) {
+                finishLocal(key, mine, outcome.response());
+            }
+            return outcome;
+        } catch (RuntimeException e) {
+            finishLocal(key, mine, null);
+            throw e;
+        }
+    }
+
+    /**
+     * Record the response of a request that was told to PROCEED and release waiting duplicates
+     */
+    public void complete(String key, int status, String contentType, String body) {
+        InFlight mine = inFlight.get(key);
+        StoredResponse response = null;
+        try {
+            if (isStorable(status)) {
+                String requestHash = mine != null ? mine.requestHash() : null;
+                jdbcTemplate.update("UPDATE idempotency_keys SET status_code = ?, content_type = ?, response_body = ? "
+                        + "WHERE cache_key = ?", status, contentType, body, key);
+                response = new StoredResponse(requestHash, status, contentType, body);
+                completed.put(key, response);
+            } else {
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE cache_key = ? AND status_code IS NULL", key);
+            }
+        } finally {
+            if (mine != null) {
+                finishLocal(key, mine, response);
+            }
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${idempotency.purge-interval-ms:3600000}")
+    public void purgeExpired() {
+        int purged = jdbcTemplate.update("DELETE FROM idempotency_keys WHERE expires_at < ?", LocalDateTime.now());
+        if (purged > 0) {
+            log.info("Purged {} expired idempotency keys", purged);
+        }
+    }
+
+    private Outcome claim(String key, String requestHash) {
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+        while (true) {
+            LocalDateTime now = LocalDateTime.now();
+            try {
+                jdbcTemplate.update("INSERT INTO idempotency_keys (cache_key, request_hash, created_at, expires_at) "
+                        + "VALUES (?, ?, ?, ?)", key, requestHash, now, now.plus(ttl));
+                return new Outcome(Decision.PROCEED, null);
+            } catch (DuplicateKeyException e) {
+                // Claimed before: completed, or still running on another node
+            }
+
+            Row row = findRow(key);
+            if (row == null) {
+                // Past its TTL but not purged yet: the key is free again
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE cache_key = ? AND expires_at < ?", key, now);
+                if (!pause(deadline)) {
+                    return new Outcome(Decision.IN_PROGRESS, null);
+                }
+                continue;
+            }
+            if (!row.requestHash().equals(requestHash)) {
+                return new Outcome(Decision.MISMATCH, null);
+            }
+            if (row.status() != null) {
+                StoredResponse response = new StoredResponse(row.requestHash(), row.status(), row.contentType(), row.body());
+                completed.put(key, response);
+                return new Outcome(Decision.REPLAY, response);
+            }
+            if (row.createdAt().isBefore(now.minus(lease))) {
+                log.warn("Taking over abandoned idempotency key claim from {}", row.createdAt());
+                jdbcTemplate.update("DELETE FROM idempotency_keys WHERE cache_key = ? AND status_code IS NULL "
+                        + "AND created_at = ?", key, row.createdAt());
+            }
+            if (!pause(deadline)) {
+                return new Outcome(Decision.IN_PROGRESS, null);
+            }
+        }
+    }
+
+    /**
+     * Sleep before the next claim attempt; false once the wait timeout has passed
+     */
+    private static boolean pause(long deadline) {
+        if (System.nanoTime() > deadline) {
+            return false;
+        }
+        try {
+            Thread.sleep(100);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    private Row findRow(String key) {
+        List<Row> rows = jdbcTemplate.query("SELECT request_hash, status_code, content_type, response_body, created_at "
+                        + "FROM idempotency_keys WHERE cache_key = ? AND expires_at > ?",
+                (rs, rowNum) -> new Row(
+                        rs.getString("request_hash"),
+                        (Integer) rs.getObject("status_code"),
+                        rs.getString("content_type"),
+                        rs.getString("response_body"),
+                        rs.getTimestamp("created_at").toLocalDateTime()),
+                key, LocalDateTime.now());
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+
+    private StoredResponse await(CompletableFuture<StoredResponse> running) {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException | ExecutionException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        }
+    }
+
+    private void finishLocal(String key, InFlight mine, StoredResponse response) {
+        inFlight.remove(key, mine);
+        mine.result().complete(response);
+    }
+
+    private static Outcome replay(StoredResponse response, String requestHash) {
+        if (response.requestHash() != null && !response.requestHash().equals(requestHash)) {
+            return new Outcome(Decision.MISMATCH, null);
+        }
+        return new Outcome(Decision.REPLAY, response);
+    }
+
+    private static boolean isStorable(int status) {
+        return status < 500 && status != 409 && status != 429;
+    }
+}
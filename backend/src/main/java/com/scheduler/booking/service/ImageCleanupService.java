@@ -0,0 +1,154 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Deletes images that are no longer referenced by any tenant.
+ *
+ * Replaced logos are queued once the replacing transaction commits, so a rollback
+ * never leaves a tenant pointing at a deleted object. The queue is flushed in the
+ * background with batched DeleteObjects calls after a short delay, which gives a
+ * variant job that is still running for the previous upload time to finish; keys a
+ * tenant references again by then are kept, and so are keys an upload of the same
+ * content resolved after they were queued (see ImageStorageService#deleteUnlessReused,
+ * which also makes an upload racing the delete store its object again). The queue is
+ * in memory, so anything
+ * lost on restart (or left behind by a discarded variant job) is picked up by the
+ * periodic orphan sweep.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageCleanupService {
+
+    private static final String TENANT_IMAGES_PREFIX = "tenants/";
+
+    private final ImageStorageService imageStorageService;
+    private final TenantRepository tenantRepository;
+
+    private final ConcurrentLinkedQueue<PendingDeletion> pending = new ConcurrentLinkedQueue<>();
+
+    @Value("${images.cleanup.delete-delay:PT1M}")
+    private Duration deleteDelay;
+
+    @Value("${images.cleanup.orphan-min-age:P1D}")
+    private Duration orphanMinAge;
+
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onImagesReplaced(ImagesReplacedEvent event) {
+        Instant now = Instant.now();
+        for (String url : event.oldUrls()) {
+            String key = imageStorageService.extractKeyFromUrl(url);
+            if (key != null) {
+                pending.add(new PendingDeletion(event.tenantId(), key, now));
+            }
+        }
+    }
+
+    /**
+     * Delete queued keys that are past the delay and not referenced again
+     */
+    @Scheduled(fixedDelayString = "${images.cleanup.flush-interval-ms:10000}")
+    public void flushPendingDeletions() {
+        Instant cutoff = Instant.now().minus(deleteDelay);
+        List<PendingDeletion> due = new ArrayList<>();
+        PendingDeletion head;
+        while ((head = pending.peek()) != null && head.queuedAt().isBefore(cutoff)) {
+            due.add(pending.poll());
+        }
+        if (due.isEmpty()) {
+            return;
+        }
+
+        Set<UUID> tenantIds = new HashSet<>();
+        due.forEach(deletion -> tenantIds.add(deletion.tenantId()));
+        Set<String> referenced = referencedKeys(tenantRepository.findAllById(tenantIds));
+
+        // Queued more than once: the latest queue time decides whether it was reused since
+        Map<String, Instant> keys = new HashMap<>();
+        for (PendingDeletion deletion : due) {
+            if (!referenced.contains(deletion.key())) {
+                keys.merge(deletion.key(), deletion.queuedAt(), (a, b) -> a.isAfter(b) ? a : b);
+            }
+        }
+        if (keys.isEmpty()) {
+            return;
+        }
+
+        List<String> failed = imageStorageService.deleteUnlessReused(keys).join();
+        if (!failed.isEmpty()) {
+            // Leave them for the orphan sweep rather than retrying in a tight loop
+            log.warn("{} replaced images could not be deleted, leaving them for the orphan sweep", failed.size());
+        }
+    }
+
+    /**
+     * Delete tenant images that no tenant references. Only objects older than
+     * images.cleanup.orphan-min-age are considered, so uploads still being saved are left alone.
+     */
+    @Scheduled(cron = "${images.cleanup.orphan-sweep-cron:0 30 3 * * *}")
+    public void sweepOrphans() {
+        Set<String> referenced = referencedKeys(tenantRepository.findAll());
+        Instant cutoff = Instant.now().minus(orphanMinAge);
+
+        // Pages are delivered one at a time; join() publishes the list back to this thread
+        List<String> orphans = new ArrayList<>();
+        imageStorageService.listObjects(TENANT_IMAGES_PREFIX, object -> {
+            if (object.lastModified().isBefore(cutoff) && !referenced.contains(object.key())) {
+                orphans.add(object.key());
+            }
+        }).join();
+
+        if (orphans.isEmpty()) {
+            return;
+        }
+        log.info("Deleting {} orphaned images", orphans.size());
+        // Any recent upload of the same content keeps an orphan, even one resolved before the sweep started
+        Map<String, Instant> keys = new HashMap<>();
+        orphans.forEach(key -> keys.put(key, Instant.EPOCH));
+        List<String> failed = imageStorageService.deleteUnlessReused(keys).join();
+        if (!failed.isEmpty()) {
+            log.warn("{} orphaned images could not be deleted", failed.size());
+        }
+    }
+
+    private Set<String> referencedKeys(Iterable<Tenant> tenants) {
+        Set<String> keys = new HashSet<>();
+        for (Tenant tenant : tenants) {
+            addKey(keys, tenant.getLogoUrl());
+            if (tenant.getLogoVariants() != null) {
+                tenant.getLogoVariants().values().forEach(url -> addKey(keys, url));
+            }
+        }
+        return keys;
+    }
+
+    private void addKey(Set<String> keys, String url) {
+        String key = imageStorageService.extractKeyFromUrl(url);
+        if (key != null) {
+            keys.add(key);
+        }
+    }
+
+    private record PendingDeletion(UUID tenantId, String key, Instant queuedAt) {
+    }
+}
@@ -0,0 +1,225 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.util.ImageFormat;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageReadParam;
+import javax.imageio.ImageReader;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageInputStream;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.RenderingHints;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Produces resized variants of tenant logos in the background.
+ *
+ * The original is decoded once (bounded, see decode), scaled down to each configured width
+ * (images.logo.variant-widths) and re-encoded, preferring WebP when an ImageIO
+ * WebP writer is on the classpath and falling back to PNG (with transparency)
+ * or JPEG. Variants are stored under their content hash, so re-uploading the
+ * same logo reuses the existing objects, and the resulting map is saved to
+ * Tenant.logoVariants.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ImageProcessingService {
+
+    private final ImageStorageService imageStorageService;
+    private final TenantRepository tenantRepository;
+
+    @Value("${images.logo.variant-widths:64,128,256,512}")
+    private int[] variantWidths;
+
+    @Value("${images.logo.jpeg-quality:0.85}")
+    private float jpegQuality;
+
+    @Value("${images.logo.max-pixels:40000000}")
+    private long maxPixels;
+
+    /**
+     * Generate and store logo variants for a tenant, then record them on the tenant.
+     * Runs on the bounded imageProcessingExecutor; the spooled temp file is deleted when done.
+     *
+     * @param tenantId    Tenant the logo belongs to
+     * @param original    Spooled original upload
+     * @param originalUrl URL of the stored original, used to detect a newer upload in the meantime
+     */
+    @Async("imageProcessingExecutor")
+    public void generateLogoVariants(UUID tenantId, ImageStorageService.SpooledImage original, String originalUrl) {
+        try {
+            BufferedImage source = decode(original.path());
+            if (source == null) {
+                // e.g. WebP without an ImageIO plugin; the original is still served as-is
+                log.info("No decoder for {} logo of tenant {}, skipping variants", original.format(), tenantId);
+                return;
+            }
+
+            ImageFormat outputFormat = outputFormatFor(source);
+            Map<String, CompletableFuture<String>> uploads = new LinkedHashMap<>();
+
+            for (int width : Arrays.stream(variantWidths).sorted().toArray()) {
+                if (width >= source.getWidth()) {
+                    break; // never upscale
+                }
+                BufferedImage resized = resize(source, width, outputFormat == ImageFormat.JPEG);
+                byte[] encoded = encode(resized, outputFormat);
+                // Upload while the next size is being resized
+                uploads.put(String.valueOf(width), imageStorageService.putImage(tenantId, encoded, outputFormat));
+            }
+
+            Map<String, String> variants = new LinkedHashMap<>();
+            variants.put("original", originalUrl);
+            for (Map.Entry<String, CompletableFuture<String>> upload : uploads.entrySet()) {
+                variants.put(upload.getKey(), upload.getValue().join());
+            }
+
+            saveVariants(tenantId, originalUrl, variants);
+            log.info("Generated {} logo variants for tenant {}", variants.size() - 1, tenantId);
+
+        } catch (IllegalArgumentException e) {
+            // The original is still served as-is
+            log.warn("Skipping logo variants for tenant {}: {}", tenantId, e.getMessage());
+        } catch (Exception e) {
+            log.error("Failed to generate logo variants for tenant {}", tenantId, e);
+        } finally {
+            ImageStorageService.deleteQuietly(original.path());
+        }
+    }
+
+    /**
+     * Decode an image without trusting its declared size: the dimensions are read from the
+     * header first and anything over images.logo.max-pixels is refused, and larger images
+     * are subsampled while decoding to about twice the widest variant, which is all
+     * resize() needs. A few-MB PNG can otherwise declare a multi-GB raster.
+     *
+     * @return the decoded image, or null if no ImageIO reader handles the format
+     * @throws IllegalArgumentException if the image is larger than allowed
+     */
+    private BufferedImage decode(Path path) throws IOException {
+        try (ImageInputStream in = ImageIO.createImageInputStream(path.toFile())) {
+            Iterator<ImageReader> readers = in != null ? ImageIO.getImageReaders(in) : Collections.emptyIterator();
+            if (!readers.hasNext()) {
+                return null;
+            }
+            ImageReader reader = readers.next();
+            try {
+                reader.setInput(in, true, true);
+                int width = reader.getWidth(0);
+                int height = reader.getHeight(0);
+                if ((long) width * height > maxPixels) {
+                    throw new IllegalArgumentException(width + "x" + height + " is over the "
+                            + maxPixels + "-pixel limit");
+                }
+
+                int widest = Arrays.stream(variantWidths).max().orElse(width);
+                int step = Math.max(1, width / (widest * 2));
+                ImageReadParam param = reader.getDefaultReadParam();
+                param.setSourceSubsampling(step, step, 0, 0);
+                return reader.read(0, param);
+            } finally {
+                reader.dispose();
+            }
+        }
+    }
+
+    private void saveVariants(UUID tenantId, String originalUrl, Map<String, String> variants) {
+        Tenant tenant = tenantRepository.findById(tenantId).orElse(null);
+        if (tenant == null || !originalUrl.equals(tenant.getLogoUrl())) {
+            // The logo was replaced while we were working; the newer upload has its own job
+            log.info("Logo of tenant {} changed during processing, discarding variants", tenantId);
+            return;
+        }
+        tenant.setLogoVariants(variants);
+        tenantRepository.save(tenant);
+    }
+
+    private ImageFormat outputFormatFor(BufferedImage source) {
+        if (ImageIO.getImageWritersByMIMEType(ImageFormat.WEBP.getContentType()).hasNext()) {
+            return ImageFormat.WEBP;
+        }
+        return source.getColorModel().hasAlpha() ? ImageFormat.PNG : ImageFormat.JPEG;
+    }
+
+    /**
+     * Scale down in steps of at most half, which keeps bilinear filtering from
+     * dropping pixels on large reductions
+     */
+    private BufferedImage resize(BufferedImage source, int targetWidth, boolean opaque) {
+        int type = opaque ? BufferedImage.TYPE_INT_RGB : BufferedImage.TYPE_INT_ARGB;
+        int targetHeight = Math.max(1, (int) Math.round((double) source.getHeight() * targetWidth / source.getWidth()));
+
+        BufferedImage current = source;
+        int width = source.getWidth();
+        int height = source.getHeight();
+        do {
+            width = Math.max(targetWidth, width / 2);
+            height = Math.max(targetHeight, height / 2);
+
+            BufferedImage step = new BufferedImage(width, height, type);
+            Graphics2D g = step.createGraphics();
+            try {
+                g.setRenderingHint(RenderingHints.KEY_INTERPOLATION, RenderingHints.VALUE_INTERPOLATION_BILINEAR);
+                g.setRenderingHint(RenderingHints.KEY_RENDERING, RenderingHints.VALUE_RENDER_QUALITY);
+                if (opaque) {
+                    g.setColor(Color.WHITE);
+                    g.fillRect(0, 0, width, height);
+                }
+                g.drawImage(current, 0, 0, width, height, null);
+            } finally {
+                g.dispose();
+            }
+            current = step;
+        } while (width > targetWidth);
+
+        return current;
+    }
+
+    private byte[] encode(BufferedImage image, ImageFormat format) throws IOException {
+        Iterator<ImageWriter> writers = ImageIO.getImageWritersByMIMEType(format.getContentType());
+        if (!writers.hasNext()) {
+            throw new IOException("No ImageIO writer for " + format.getContentType());
+        }
+        ImageWriter writer = writers.next();
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream imageOut = ImageIO.createImageOutputStream(out)) {
+            writer.setOutput(imageOut);
+            ImageWriteParam param = writer.getDefaultWriteParam();
+            if (format != ImageFormat.PNG && param.canWriteCompressed()) {
+                param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+                String[] types = param.getCompressionTypes();
+                if (types != null && types.length > 0 && param.getCompressionType() == null) {
+                    param.setCompressionType(types[0]);
+                }
+                param.setCompressionQuality(jpegQuality);
+            }
+            writer.write(null, new IIOImage(image, null, null), param);
+        } finally {
+            writer.dispose();
+        }
+        return out.toByteArray();
+    }
+}
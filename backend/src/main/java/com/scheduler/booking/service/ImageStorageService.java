@@ -1,114 +1,342 @@
 package com.scheduler.booking.service;
 
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
 import com.scheduler.booking.config.R2Config;
+import com.scheduler.booking.util.ImageFormat;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 import org.springframework.web.multipart.MultipartFile;
-import software.amazon.awssdk.core.sync.RequestBody;
-import software.amazon.awssdk.services.s3.S3Client;
-import software.amazon.awssdk.services.s3.model.DeleteObjectRequest;
+import software.amazon.awssdk.core.async.AsyncRequestBody;
+import software.amazon.awssdk.core.async.AsyncResponseTransformer;
+import software.amazon.awssdk.services.s3.S3AsyncClient;
+import software.amazon.awssdk.services.s3.model.Delete;
+import software.amazon.awssdk.services.s3.model.DeleteObjectsRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectRequest;
+import software.amazon.awssdk.services.s3.model.GetObjectResponse;
+import software.amazon.awssdk.services.s3.model.HeadObjectRequest;
+import software.amazon.awssdk.services.s3.model.ListObjectsV2Request;
+import software.amazon.awssdk.services.s3.model.NoSuchKeyException;
+import software.amazon.awssdk.services.s3.model.ObjectIdentifier;
 import software.amazon.awssdk.services.s3.model.PutObjectRequest;
+import software.amazon.awssdk.services.s3.model.PutObjectResponse;
+import software.amazon.awssdk.services.s3.model.S3Error;
+import software.amazon.awssdk.services.s3.model.S3Object;
 
+import java.io.BufferedInputStream;
 import java.io.IOException;
-import java.util.Arrays;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.security.DigestInputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
 import java.util.List;
+import java.util.Map;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
 @Slf4j
 public class ImageStorageService {
 
-    private final S3Client s3Client;
+    private final S3AsyncClient s3AsyncClient;
     private final R2Config r2Config;
-
-    private static final List<String> ALLOWED_CONTENT_TYPES = Arrays.asList(
-            "image/jpeg",
-            "image/jpg",
-            "image/png",
-            "image/webp"
-    );
+    private final ExternalCallGuard externalCallGuard;
 
     private static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
 
+    public static final int MAX_KEYS_PER_DELETE = 1000; // S3 DeleteObjects limit
+
+    // How long a key counts as reused after a putImage call resolved it (see deleteUnlessReused)
+    private static final Duration REUSE_MEMORY = Duration.ofHours(1);
+
+    // Guards resolvedKeys and deleting together, so a key is either seen as reused by a
+    // delete or seen as being deleted by an upload, never neither
+    private final Object keyGuard = new Object();
+    private final Cache<String, Instant> resolvedKeys = Caffeine.newBuilder()
+            .expireAfterWrite(REUSE_MEMORY)
+            .build();
+    private final Map<String, CompletableFuture<List<String>>> deleting = new HashMap<>();
+
+    /**
+     * Upload of an image spooled to a local temp file, with its detected format and SHA-256.
+     * The caller owns the temp file and must delete it when done.
+     */
+    public record SpooledImage(Path path, ImageFormat format, String sha256, long size) {
+    }
+
     /**
-     * Upload an image to Cloudflare R2
+     * Upload an image to Cloudflare R2 under a content-addressed key.
      * @param file The image file to upload
      * @param tenantId The tenant ID (for organizing files)
-     * @return The public URL of the uploaded image
+     * @return Future of the public URL of the uploaded image
      */
-    public String uploadImage(MultipartFile file, UUID tenantId) {
-        try {
-            // Validate file
-            validateImage(file);
-
-            // Generate unique filename
-            String originalFilename = file.getOriginalFilename();
-            String fileExtension = getFileExtension(originalFilename);
-            String filename = String.format("tenants/%s/%s%s",
-                tenantId,
-                UUID.randomUUID(),
-                fileExtension
-            );
-
-            log.info("Uploading image to R2: bucket={}, key={}", r2Config.getBucketName(), filename);
-
-            // Upload to R2
-            PutObjectRequest putObjectRequest = PutObjectRequest.builder()
-                    .bucket(r2Config.getBucketName())
-                    .key(filename)
-                    .contentType(file.getContentType())
-                    .cacheControl("public, max-age=31536000") // Cache for 1 year
-                    .build();
+    public CompletableFuture<String> uploadImage(MultipartFile file, UUID tenantId) {
+        SpooledImage image = spool(file);
+        return putImage(tenantId, image)
+                .whenComplete((url, error) -> deleteQuietly(image.path()));
+    }
 
-            s3Client.putObject(
-                    putObjectRequest,
-                    RequestBody.fromBytes(file.getBytes())
-            );
+    /**
+     * Validate an upload and copy it to a temp file, hashing it and identifying
+     * its format from its magic bytes on the way through. Nothing is buffered in heap.
+     */
+    public SpooledImage spool(MultipartFile file) {
+        validateImage(file);
 
-            // Construct public URL
-            String publicUrl = String.format("%s/%s", r2Config.getPublicUrlBase(), filename);
-            log.info("✅ Image uploaded successfully: {}", publicUrl);
+        Path tempFile = null;
+        try (InputStream in = new BufferedInputStream(file.getInputStream())) {
+            ImageFormat format = detectFormat(in);
 
-            return publicUrl;
+            tempFile = Files.createTempFile("upload-", format.getExtension());
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            long size;
+            try (DigestInputStream digestIn = new DigestInputStream(in, digest)) {
+                size = Files.copy(digestIn, tempFile, StandardCopyOption.REPLACE_EXISTING);
+            }
+            return new SpooledImage(tempFile, format, HexFormat.of().formatHex(digest.digest()), size);
 
-        } catch (IOException e) {
-            log.error("Failed to upload image to R2", e);
+        } catch (IOException | NoSuchAlgorithmException e) {
+            deleteQuietly(tempFile);
+            log.error("Failed to read uploaded image", e);
             throw new RuntimeException("Failed to upload image: " + e.getMessage(), e);
+        } catch (RuntimeException e) {
+            deleteQuietly(tempFile);
+            throw e;
         }
     }
 
     /**
-     * Delete an image from R2
-     * @param imageUrl The public URL of the image to delete
+     * Store a spooled image in R2, streaming it from its temp file.
+     * Skipped if an object with the same content hash already exists.
+     * @return Future of the public URL of the stored image
      */
-    public void deleteImage(String imageUrl) {
-        try {
-            if (imageUrl == null || imageUrl.isEmpty()) {
-                return;
+    public CompletableFuture<String> putImage(UUID tenantId, SpooledImage image) {
+        String key = contentKey(tenantId, image.sha256(), image.format());
+        return storeIfAbsent(key, () -> {
+            log.info("Uploading image to R2: bucket={}, key={}", r2Config.getBucketName(), key);
+            return s3AsyncClient.putObject(
+                    putRequest(key, image.format(), image.size()),
+                    AsyncRequestBody.fromFile(image.path()));
+        });
+    }
+
+    /**
+     * Store encoded image bytes (e.g. a resized variant) under a content-addressed key
+     * @return Future of the public URL of the stored image
+     */
+    public CompletableFuture<String> putImage(UUID tenantId, byte[] data, ImageFormat format) {
+        String key = contentKey(tenantId, sha256(data), format);
+        return storeIfAbsent(key, () -> s3AsyncClient.putObject(
+                putRequest(key, format, data.length),
+                AsyncRequestBody.fromBytes(data)));
+    }
+
+    /**
+     * Delete the given keys unless a putImage call has resolved them since the instant each
+     * is mapped to. While such a delete is in flight, putImage for one of its keys waits for
+     * it and then stores the object again instead of trusting a HEAD, so an upload whose
+     * content matches a replaced image never ends up pointing at a deleted object.
+     * @return Future of the keys that could not be deleted
+     */
+    public CompletableFuture<List<String>> deleteUnlessReused(Map<String, Instant> keys) {
+        CompletableFuture<List<String>> done = new CompletableFuture<>();
+        List<String> toDelete = new ArrayList<>();
+        synchronized (keyGuard) {
+            keys.forEach((key, since) -> {
+                Instant resolved = resolvedKeys.getIfPresent(key);
+                if ((resolved == null || resolved.isBefore(since)) && !deleting.containsKey(key)) {
+                    toDelete.add(key);
+                    deleting.put(key, done);
+                }
+            });
+        }
+        if (toDelete.isEmpty()) {
+            return CompletableFuture.completedFuture(List.of());
+        }
+        if (toDelete.size() < keys.size()) {
+            log.info("Keeping {} images that were uploaded again", keys.size() - toDelete.size());
+        }
+
+        deleteKeys(toDelete).whenComplete((failed, error) -> {
+            synchronized (keyGuard) {
+                toDelete.forEach(key -> deleting.remove(key, done));
+            }
+            if (error != null) {
+                done.completeExceptionally(error);
+            } else {
+                done.complete(failed);
             }
+        });
+        return done;
+    }
 
-            // Extract the key from the public URL
-            String key = extractKeyFromUrl(imageUrl);
-            if (key == null) {
-                log.warn("Could not extract key from URL: {}", imageUrl);
-                return;
+    private CompletableFuture<String> storeIfAbsent(String key, Supplier<CompletableFuture<PutObjectResponse>> put) {
+        CompletableFuture<List<String>> inFlightDelete;
+        synchronized (keyGuard) {
+            resolvedKeys.put(key, Instant.now());
+            inFlightDelete = deleting.get(key);
+        }
+        CompletableFuture<Boolean> present = inFlightDelete != null
+                ? inFlightDelete.handle((failed, error) -> false)
+                : exists(key);
+        return present.thenCompose(exists -> {
+            if (exists) {
+                return CompletableFuture.completedFuture(publicUrl(key));
             }
+            return externalCallGuard.callAsync("r2", put).thenApply(response -> publicUrl(key));
+        });
+    }
 
-            log.info("Deleting image from R2: bucket={}, key={}", r2Config.getBucketName(), key);
+    /**
+     * Delete objects by public URL, up to {@link #MAX_KEYS_PER_DELETE} keys per DeleteObjects call.
+     * URLs outside the bucket's public base are ignored.
+     * @return Future of the keys that could not be deleted
+     */
+    public CompletableFuture<List<String>> deleteImages(Collection<String> imageUrls) {
+        List<String> keys = new ArrayList<>();
+        for (String url : imageUrls) {
+            String key = extractKeyFromUrl(url);
+            if (key != null) {
+                keys.add(key);
+            } else if (url != null && !url.isEmpty()) {
+                log.warn("Could not extract key from URL: {}", url);
+            }
+        }
+        return deleteKeys(keys);
+    }
+
+    /**
+     * Delete objects by key, batched into DeleteObjects calls
+     * @return Future of the keys that could not be deleted
+     */
+    public CompletableFuture<List<String>> deleteKeys(List<String> keys) {
+        List<CompletableFuture<List<String>>> batches = new ArrayList<>();
+        for (int from = 0; from < keys.size(); from += MAX_KEYS_PER_DELETE) {
+            List<String> batch = keys.subList(from, Math.min(keys.size(), from + MAX_KEYS_PER_DELETE));
+            batches.add(deleteBatch(batch));
+        }
+        return CompletableFuture.allOf(batches.toArray(new CompletableFuture[0]))
+                .thenApply(v -> batches.stream()
+                        .flatMap(batch -> batch.join().stream())
+                        .toList());
+    }
 
-            DeleteObjectRequest deleteObjectRequest = DeleteObjectRequest.builder()
-                    .bucket(r2Config.getBucketName())
-                    .key(key)
-                    .build();
+    private CompletableFuture<List<String>> deleteBatch(List<String> keys) {
+        DeleteObjectsRequest request = DeleteObjectsRequest.builder()
+                .bucket(r2Config.getBucketName())
+                .delete(Delete.builder()
+                        .objects(keys.stream().map(key -> ObjectIdentifier.builder().key(key).build()).toList())
+                        .quiet(true)
+                        .build())
+                .build();
 
-            s3Client.deleteObject(deleteObjectRequest);
-            log.info("✅ Image deleted successfully: {}", key);
+        List<String> batch = List.copyOf(keys);
+        return externalCallGuard.callAsync("r2", () -> s3AsyncClient.deleteObjects(request))
+                .thenApply(response -> {
+                    List<String> failed = response.errors().stream().map(S3Error::key).toList();
+                    log.info("Deleted {} images from R2 ({} failed)", batch.size() - failed.size(), failed.size());
+                    return failed;
+                })
+                .exceptionally(e -> {
+                    log.error("Failed to delete {} images from R2", batch.size(), e);
+                    return batch;
+                });
+    }
 
-        } catch (Exception e) {
-            log.error("Failed to delete image from R2: " + imageUrl, e);
-            // Don't throw exception - deletion failure shouldn't block updates
+    /**
+     * List every object under a key prefix, page by page
+     */
+    public CompletableFuture<Void> listObjects(String prefix, Consumer<S3Object> consumer) {
+        ListObjectsV2Request request = ListObjectsV2Request.builder()
+                .bucket(r2Config.getBucketName())
+                .prefix(prefix)
+                .build();
+        return externalCallGuard.callAsync("r2",
+                () -> s3AsyncClient.listObjectsV2Paginator(request).contents().subscribe(consumer));
+    }
+
+    /**
+     * Download an object to a local file (which must not exist yet)
+     */
+    public CompletableFuture<GetObjectResponse> download(String key, Path target) {
+        GetObjectRequest request = GetObjectRequest.builder()
+                .bucket(r2Config.getBucketName())
+                .key(key)
+                .build();
+        return externalCallGuard.callAsync("r2",
+                () -> s3AsyncClient.getObject(request, AsyncResponseTransformer.toFile(target)));
+    }
+
+    /**
+     * Public URL for an object key
+     */
+    public String publicUrl(String key) {
+        return String.format("%s/%s", r2Config.getPublicUrlBase(), key);
+    }
+
+    private PutObjectRequest putRequest(String key, ImageFormat format, long contentLength) {
+        return PutObjectRequest.builder()
+                .bucket(r2Config.getBucketName())
+                .key(key)
+                .contentType(format.getContentType())
+                .contentLength(contentLength)
+                // Content-addressed keys never change, so caches may keep them forever
+                .cacheControl("public, max-age=31536000, immutable")
+                .build();
+    }
+
+    private CompletableFuture<Boolean> exists(String key) {
+        HeadObjectRequest request = HeadObjectRequest.builder()
+                .bucket(r2Config.getBucketName())
+                .key(key)
+                .build();
+        return externalCallGuard.callAsync("r2", () -> s3AsyncClient.headObject(request))
+                .handle((response, error) -> {
+                    if (error == null) {
+                        return true;
+                    }
+                    Throwable cause = error instanceof CompletionException ? error.getCause() : error;
+                    if (cause instanceof NoSuchKeyException) {
+                        return false;
+                    }
+                    throw error instanceof CompletionException ce ? ce : new CompletionException(error);
+                });
+    }
+
+    private String contentKey(UUID tenantId, String sha256, ImageFormat format) {
+        return String.format("tenants/%s/%s%s", tenantId, sha256, format.getExtension());
+    }
+
+    private static String sha256(byte[] data) {
+        try {
+            return HexFormat.of().formatHex(MessageDigest.getInstance("SHA-256").digest(data));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    public static void deleteQuietly(Path path) {
+        if (path == null) {
+            return;
+        }
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete temp file {}", path);
         }
     }
 
@@ -127,29 +355,30 @@ public class ImageStorageService {
             );
         }
 
-        // Check content type
-        String contentType = file.getContentType();
-        if (contentType == null || !ALLOWED_CONTENT_TYPES.contains(contentType.toLowerCase())) {
-            throw new IllegalArgumentException(
-                "Invalid file type. Allowed types: " + String.join(", ", ALLOWED_CONTENT_TYPES)
-            );
-        }
     }
 
     /**
-     * Extract file extension from filename
+     * Peek at the leading bytes of the stream to identify the image format,
+     * then rewind so the full file is still uploaded
      */
-    private String getFileExtension(String filename) {
-        if (filename == null || !filename.contains(".")) {
-            return "";
+    private ImageFormat detectFormat(InputStream in) throws IOException {
+        byte[] header = new byte[ImageFormat.SIGNATURE_LENGTH];
+        in.mark(header.length);
+        int length = in.readNBytes(header, 0, header.length);
+        in.reset();
+
+        ImageFormat format = ImageFormat.detect(header, length);
+        if (format == null) {
+            throw new IllegalArgumentException("Invalid file type. Allowed types: JPEG, PNG, WebP");
         }
-        return filename.substring(filename.lastIndexOf("."));
+        return format;
     }
 
     /**
      * Extract the R2 key from the public URL
+     * @return The key, or null if the URL is not in this bucket
      */
-    private String extractKeyFromUrl(String url) {
+    public String extractKeyFromUrl(String url) {
         if (url == null || !url.startsWith(r2Config.getPublicUrlBase())) {
             return null;
         }
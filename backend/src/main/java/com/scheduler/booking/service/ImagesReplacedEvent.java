@@ -0,0 +1,13 @@
+package com.scheduler.booking.service;
+
+import java.util.Set;
+import java.util.UUID;
+
+/**
+ * Published when a tenant's images are replaced; the old objects are deleted once the change commits.
+ *
+ * @param tenantId Tenant whose images changed
+ * @param oldUrls  Public URLs that are no longer referenced
+ */
+public record ImagesReplacedEvent(UUID tenantId, Set<String> oldUrls) {
+}
@@ -0,0 +1,438 @@
+package com.scheduler.booking.service;
+
+import com.mailgun.api.v3.MailgunMessagesApi;
+import com.mailgun.model.message.Message;
+import com.mailgun.model.message.MessageResponse;
+import com.scheduler.booking.config.MailgunConfig;
+import com.scheduler.booking.util.TokenBucket;
+import feign.FeignException;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.File;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Single point through which every Mailgun message is sent.
+ *
+ * Messages are queued per tenant and picked by one dispatcher thread:
+ * TRANSACTIONAL messages (booking confirmations) always go before BULK ones
+ * (digests, reminders), and within each class tenants are served by weighted
+ * round-robin so a tenant running a promotion cannot starve the others. Every
+ * send takes a permit from a token bucket sized from mailgun.rate-limit.*, which
+ * keeps us inside the account's sending quota, and is then handed to a pool of
+ * sender threads as large as the "mailgun" bulkhead, so several requests are in
+ * flight at once and the token bucket alone sets the pace. Queue wait up to the first
+ * send attempt is recorded in the mailgun.queue.wait timer, tagged by priority and
+ * subscription tier; the tenants whose messages have waited longest are listed by
+ * {@link #longestWaiting} (/actuator/mailqueue). While the "mailgun" circuit breaker
+ * is open, messages stay queued and dispatching pauses instead of dropping them;
+ * messages rejected with 429 or a 5xx are put back and retried up to
+ * mailgun.retry.max-attempts times after the same pause. The queue lives in
+ * memory, so callers that must not lose a message keep their own record until
+ * the future returned by {@link #submit} completes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MailgunDispatcher {
+
+    public enum Priority {
+        TRANSACTIONAL,
+        BULK
+    }
+
+    private final MailgunConfig mailgunConfig;
+    private final MailgunMessagesApi mailgunMessagesApi;
+    private final MeterRegistry meterRegistry;
+    private final ExternalCallGuard externalCallGuard;
+    private final BulkheadRegistry bulkheadRegistry;
+
+    private static final long RETRY_BACKOFF_NANOS = TimeUnit.SECONDS.toNanos(5);
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition notEmpty = lock.newCondition();
+    private final Map<UUID, TenantQueue> tenantQueues = new HashMap<>();
+    private final Map<Priority, ArrayDeque<TenantQueue>> rounds = Map.of(
+            Priority.TRANSACTIONAL, new ArrayDeque<>(),
+            Priority.BULK, new ArrayDeque<>());
+    private final AtomicInteger queued = new AtomicInteger();
+    private final Map<String, Timer> queueWait = new ConcurrentHashMap<>();
+
+    private TokenBucket tokenBucket;
+    private Semaphore sendSlots;
+    private ExecutorService senders;
+    private Thread dispatcherThread;
+    private volatile boolean running;
+    // System.nanoTime() before which nothing is dispatched (Mailgun unavailable or throttling)
+    private volatile long resumeAt;
+
+    @PostConstruct
+    public void start() {
+        tokenBucket = new TokenBucket(mailgunConfig.getBurst(), mailgunConfig.getMessagesPerSecond());
+        Gauge.builder("mailgun.queue.depth", queued, AtomicInteger::get)
+                .description("Messages waiting for a Mailgun send permit")
+                .register(meterRegistry);
+
+        // One sender per bulkhead slot, so sends are never refused for lack of one
+        int concurrency = bulkheadRegistry.bulkhead("mailgun").getBulkheadConfig().getMaxConcurrentCalls();
+        sendSlots = new Semaphore(concurrency);
+        AtomicInteger senderCount = new AtomicInteger();
+        senders = Executors.newFixedThreadPool(concurrency, runnable -> {
+            Thread thread = new Thread(runnable, "mailgun-sender-" + senderCount.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        running = true;
+        resumeAt = System.nanoTime();
+        dispatcherThread = new Thread(this::dispatchLoop, "mailgun-dispatcher");
+        dispatcherThread.setDaemon(true);
+        dispatcherThread.start();
+        log.info("Mailgun dispatcher started ({} msg/s, burst {}, {} concurrent sends)",
+                mailgunConfig.getMessagesPerSecond(), mailgunConfig.getBurst(), concurrency);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        dispatcherThread.interrupt();
+        senders.shutdown();
+        if (queued.get() > 0) {
+            log.warn("Mailgun dispatcher stopped with {} unsent messages", queued.get());
+        }
+    }
+
+    /**
+     * Queue a message for sending.
+     *
+     * @param tenantId   Tenant the message belongs to (fairness key)
+     * @param priority   TRANSACTIONAL or BULK
+     * @param tier       Tenant's subscription tier: sets its round-robin weight
+     *                   (mailgun.queue.tier-weights) and tags its queue wait
+     * @param message    Mailgun message
+     * @param attachment Temporary attachment file to delete once sent, or null
+     * @return Completes once Mailgun has accepted the message, or exceptionally if it was
+     *         rejected or ran out of retries
+     */
+    public CompletableFuture<Void> submit(UUID tenantId, Priority priority, String tier, Message message,
+                                          File attachment) {
+        String tierName = mailgunConfig.isConfiguredTier(tier) ? tier.toUpperCase(Locale.ROOT) : "OTHER";
+        int weight = mailgunConfig.getTierWeight(tier);
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenantQueues.computeIfAbsent(tenantId, TenantQueue::new);
+            tenantQueue.weight = weight;
+
+            ArrayDeque<QueuedMessage> queue = tenantQueue.queue(priority);
+            if (queue.size() >= mailgunConfig.getMaxQueuedPerTenant()) {
+                throw new IllegalStateException("Mail queue for tenant " + tenantId + " is full");
+            }
+            if (queue.isEmpty()) {
+                rounds.get(priority).addLast(tenantQueue);
+            }
+            QueuedMessage queuedMessage = new QueuedMessage(tenantId, priority, tierName, weight, message,
+                    attachment, System.nanoTime());
+            queue.addLast(queuedMessage);
+            queued.incrementAndGet();
+            notEmpty.signal();
+            return queuedMessage.sent;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void dispatchLoop() {
+        while (running) {
+            try {
+                sendSlots.acquire();
+                QueuedMessage next;
+                try {
+                    next = take();
+                } catch (InterruptedException e) {
+                    sendSlots.release();
+                    throw e;
+                }
+                try {
+                    awaitPermit();
+                    awaitResume();
+                    senders.execute(() -> sendOrRequeue(next));
+                } catch (InterruptedException | RejectedExecutionException e) {
+                    requeue(next);
+                    sendSlots.release();
+                    throw e;
+                }
+            } catch (InterruptedException | RejectedExecutionException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (Exception e) {
+                log.error("Unexpected error in Mailgun dispatcher", e);
+            }
+        }
+    }
+
+    private void sendOrRequeue(QueuedMessage message) {
+        try {
+            if (!send(message)) {
+                // Pause first, so the dispatcher does not pick the message straight back up
+                resumeAt = Math.max(resumeAt, System.nanoTime() + RETRY_BACKOFF_NANOS);
+                requeue(message);
+            }
+        } catch (Exception e) {
+            log.error("Unexpected error sending through Mailgun", e);
+        } finally {
+            sendSlots.release();
+        }
+    }
+
+    /**
+     * Pick the next message: strict priority between classes, weighted
+     * round-robin between tenants within a class.
+     */
+    private QueuedMessage take() throws InterruptedException {
+        lock.lock();
+        try {
+            while (true) {
+                for (Priority priority : Priority.values()) {
+                    ArrayDeque<TenantQueue> round = rounds.get(priority);
+                    TenantQueue tenantQueue = round.peekFirst();
+                    if (tenantQueue == null) {
+                        continue;
+                    }
+
+                    ArrayDeque<QueuedMessage> queue = tenantQueue.queue(priority);
+                    QueuedMessage message = queue.pollFirst();
+                    int served = ++tenantQueue.servedThisTurn[priority.ordinal()];
+
+                    // End of this tenant's turn: move it to the back of the round
+                    if (queue.isEmpty() || served >= tenantQueue.weight) {
+                        round.pollFirst();
+                        tenantQueue.servedThisTurn[priority.ordinal()] = 0;
+                        if (!queue.isEmpty()) {
+                            round.addLast(tenantQueue);
+                        }
+                    }
+                    if (tenantQueue.isEmpty()) {
+                        tenantQueues.remove(tenantQueue.tenantId);
+                    }
+
+                    queued.decrementAndGet();
+                    return message;
+                }
+                notEmpty.await();
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Put a message that could not be sent back at the head of its tenant's queue
+     */
+    private void requeue(QueuedMessage message) {
+        lock.lock();
+        try {
+            TenantQueue tenantQueue = tenantQueues.computeIfAbsent(message.tenantId, TenantQueue::new);
+            // The tenant's queue may have been dropped once empty; do not let it fall back to weight 1
+            tenantQueue.weight = Math.max(tenantQueue.weight, message.weight);
+            ArrayDeque<QueuedMessage> queue = tenantQueue.queue(message.priority);
+            if (queue.isEmpty()) {
+                rounds.get(message.priority).addFirst(tenantQueue);
+            }
+            queue.addFirst(message);
+            queued.incrementAndGet();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Tenants whose oldest queued message has waited longest, for /actuator/mailqueue
+     */
+    public List<Map<String, Object>> longestWaiting(int limit) {
+        long now = System.nanoTime();
+        List<Map<String, Object>> tenants = new ArrayList<>();
+        lock.lock();
+        try {
+            for (TenantQueue tenantQueue : tenantQueues.values()) {
+                long oldest = Long.MAX_VALUE;
+                String tier = null;
+                for (Priority priority : Priority.values()) {
+                    QueuedMessage head = tenantQueue.queue(priority).peekFirst();
+                    if (head != null && head.enqueuedAt < oldest) {
+                        oldest = head.enqueuedAt;
+                        tier = head.tier;
+                    }
+                }
+                if (tier == null) {
+                    continue;
+                }
+                Map<String, Object> entry = new LinkedHashMap<>();
+                entry.put("tenantId", tenantQueue.tenantId);
+                entry.put("tier", tier);
+                entry.put("oldestWaitMs", TimeUnit.NANOSECONDS.toMillis(now - oldest));
+                entry.put("transactional", tenantQueue.transactional.size());
+                entry.put("bulk", tenantQueue.bulk.size());
+                tenants.add(entry);
+            }
+        } finally {
+            lock.unlock();
+        }
+        tenants.sort(Comparator.comparingLong((Map<String, Object> entry) -> (Long) entry.get("oldestWaitMs"))
+                .reversed());
+        return tenants.subList(0, Math.min(limit, tenants.size()));
+    }
+
+    private void awaitResume() throws InterruptedException {
+        long wait;
+        while ((wait = resumeAt - System.nanoTime()) > 0) {
+            LockSupport.parkNanos(wait);
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    private void awaitPermit() throws InterruptedException {
+        while (!tokenBucket.tryAcquire()) {
+            LockSupport.parkNanos(tokenBucket.nanosUntilAvailable());
+            if (Thread.interrupted()) {
+                throw new InterruptedException();
+            }
+        }
+    }
+
+    /**
+     * @return false if the message should be retried: Mailgun is unavailable (circuit open), or
+     *         it answered 429 or a 5xx and the message has attempts left
+     */
+    private boolean send(QueuedMessage queuedMessage) {
+        // Only the wait for the first attempt; retries would count the same wait again
+        if (!queuedMessage.waitRecorded) {
+            queuedMessage.waitRecorded = true;
+            queueWaitTimer(queuedMessage.priority, queuedMessage.tier)
+                    .record(System.nanoTime() - queuedMessage.enqueuedAt, TimeUnit.NANOSECONDS);
+        }
+
+        Exception failure = null;
+        try {
+            MessageResponse response = externalCallGuard.call("mailgun",
+                    () -> mailgunMessagesApi.sendMessage(mailgunConfig.getDomain(), queuedMessage.message));
+            log.info("Email sent successfully. Message ID: {}", response.getId());
+        } catch (CallNotPermittedException | BulkheadFullException e) {
+            log.warn("Mailgun unavailable ({}), keeping message queued", e.getMessage());
+            return false;
+        } catch (FeignException e) {
+            if (isTransient(e) && ++queuedMessage.attempts < mailgunConfig.getMaxSendAttempts()) {
+                log.warn("Mailgun answered {} (attempt {}), retrying", e.status(), queuedMessage.attempts);
+                return false;
+            }
+            log.error("Mailgun API error: {} - {}", e.status(), e.contentUTF8());
+            failure = e;
+        } catch (Exception e) {
+            log.error("Failed to send email via Mailgun", e);
+            failure = e;
+        }
+
+        // Sent or given up on: clean up the temp file and tell the caller
+        if (queuedMessage.attachment != null) {
+            queuedMessage.attachment.delete();
+        }
+        if (failure == null) {
+            queuedMessage.sent.complete(null);
+        } else {
+            queuedMessage.sent.completeExceptionally(failure);
+        }
+        return true;
+    }
+
+    /**
+     * One timer per priority and tier, so the tag count stays bounded however many tenants there are
+     */
+    private Timer queueWaitTimer(Priority priority, String tier) {
+        return queueWait.computeIfAbsent(priority.name() + "/" + tier, key -> Timer.builder("mailgun.queue.wait")
+                .description("Time a message waited for its first Mailgun send attempt")
+                .tag("priority", priority.name())
+                .tag("tier", tier)
+                .register(meterRegistry));
+    }
+
+    /**
+     * Rate limited, a server-side error, or no response at all (status -1)
+     */
+    private static boolean isTransient(FeignException e) {
+        return e.status() == 429 || e.status() >= 500 || e.status() < 0;
+    }
+
+    private static final class TenantQueue {
+        private final UUID tenantId;
+        private final ArrayDeque<QueuedMessage> transactional = new ArrayDeque<>();
+        private final ArrayDeque<QueuedMessage> bulk = new ArrayDeque<>();
+        private int weight = 1;
+        private final int[] servedThisTurn = new int[Priority.values().length];
+
+        private TenantQueue(UUID tenantId) {
+            this.tenantId = tenantId;
+        }
+
+        private ArrayDeque<QueuedMessage> queue(Priority priority) {
+            return priority == Priority.TRANSACTIONAL ? transactional : bulk;
+        }
+
+        private boolean isEmpty() {
+            return transactional.isEmpty() && bulk.isEmpty();
+        }
+    }
+
+    private static final class QueuedMessage {
+        private final UUID tenantId;
+        private final Priority priority;
+        private final String tier;
+        private final int weight;
+        private final Message message;
+        private final File attachment;
+        private final long enqueuedAt;
+        private final CompletableFuture<Void> sent = new CompletableFuture<>();
+        private int attempts;
+        private boolean waitRecorded;
+
+        private QueuedMessage(UUID tenantId, Priority priority, String tier, int weight, Message message,
+                              File attachment, long enqueuedAt) {
+            this.tenantId = tenantId;
+            this.priority = priority;
+            this.tier = tier;
+            this.weight = weight;
+            this.message = message;
+            this.attachment = attachment;
+            this.enqueuedAt = enqueuedAt;
+        }
+    }
+}
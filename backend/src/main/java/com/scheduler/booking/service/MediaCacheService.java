@@ -0,0 +1,237 @@
+package com.scheduler.booking.service;
+
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.stream.Stream;
+
+/**
+ * Local disk cache of R2 objects for the /media proxy.
+ *
+ * Objects are downloaded once into images.media-proxy.cache-dir, named by the
+ * SHA-256 of their key, and served from there. Files up to
+ * images.media-proxy.mmap-threshold-bytes are memory-mapped on first use so
+ * repeated hits are served from the page cache without a read syscall; larger
+ * files are left for sendfile/transferTo. Concurrent misses for the same key share
+ * one download, and the least recently used files are evicted once the cache
+ * exceeds images.media-proxy.max-cache-bytes.
+ */
+@Service
+@ConditionalOnProperty(prefix = "images.media-proxy", name = "enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class MediaCacheService {
+
+    private final ImageStorageService imageStorageService;
+
+    @Value("${images.media-proxy.cache-dir:${java.io.tmpdir}/scheduler-media}")
+    private Path cacheDir;
+
+    @Value("${images.media-proxy.max-cache-bytes:536870912}")
+    private long maxCacheBytes;
+
+    @Value("${images.media-proxy.mmap-threshold-bytes:262144}")
+    private long mmapThresholdBytes;
+
+    private final ConcurrentHashMap<String, CachedMedia> entries = new ConcurrentHashMap<>();
+    private final ConcurrentHashMap<String, CompletableFuture<CachedMedia>> downloads = new ConcurrentHashMap<>();
+    private final AtomicLong cachedBytes = new AtomicLong();
+    private final ReentrantLock evictionLock = new ReentrantLock();
+
+    @PostConstruct
+    public void init() throws IOException {
+        Files.createDirectories(cacheDir);
+        try (Stream<Path> files = Files.list(cacheDir)) {
+            files.forEach(file -> {
+                String name = file.getFileName().toString();
+                try {
+                    if (name.contains(".part-")) {
+                        Files.deleteIfExists(file); // interrupted download
+                    } else {
+                        CachedMedia media = new CachedMedia(file, Files.size(file),
+                                Files.getLastModifiedTime(file).toMillis(), name);
+                        entries.put(name, media);
+                        cachedBytes.addAndGet(media.size);
+                    }
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable media cache file {}", file);
+                }
+            });
+        }
+        log.info("Media cache at {} holds {} files ({} bytes)", cacheDir, entries.size(), cachedBytes.get());
+    }
+
+    /**
+     * Get a cached object, downloading it from R2 on a miss.
+     * The future fails with NoSuchKeyException if the object does not exist.
+     */
+    public CompletableFuture<CachedMedia> get(String key) {
+        String name = cacheName(key);
+        CachedMedia cached = entries.get(name);
+        if (cached != null) {
+            cached.lastAccess = System.nanoTime();
+            return CompletableFuture.completedFuture(cached);
+        }
+
+        CompletableFuture<CachedMedia> pending = new CompletableFuture<>();
+        CompletableFuture<CachedMedia> existing = downloads.putIfAbsent(name, pending);
+        if (existing != null) {
+            return existing;
+        }
+        download(key, name).whenComplete((media, error) -> {
+            downloads.remove(name);
+            if (error != null) {
+                pending.completeExceptionally(error);
+            } else {
+                pending.complete(media);
+            }
+        });
+        return pending;
+    }
+
+    private CompletableFuture<CachedMedia> download(String key, String name) {
+        Path target = cacheDir.resolve(name);
+        Path partial = cacheDir.resolve(name + ".part-" + UUID.randomUUID());
+
+        return imageStorageService.download(key, partial)
+                .thenApply(response -> {
+                    try {
+                        Files.move(partial, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+                        CachedMedia media = new CachedMedia(target, Files.size(target),
+                                Files.getLastModifiedTime(target).toMillis(), name);
+                        entries.put(name, media);
+                        cachedBytes.addAndGet(media.size);
+                        return media;
+                    } catch (IOException e) {
+                        throw new RuntimeException("Failed to cache media: " + e.getMessage(), e);
+                    }
+                })
+                .whenComplete((media, error) -> {
+                    if (error != null) {
+                        deleteQuietly(partial);
+                    } else {
+                        evictIfNeeded();
+                    }
+                });
+    }
+
+    private void evictIfNeeded() {
+        if (cachedBytes.get() <= maxCacheBytes || !evictionLock.tryLock()) {
+            return;
+        }
+        try {
+            // Evict down to 90% so we don't evict again on the next miss
+            long target = maxCacheBytes * 9 / 10;
+            List<CachedMedia> byAge = new ArrayList<>(entries.values());
+            byAge.sort(Comparator.comparingLong(media -> media.lastAccess));
+            for (CachedMedia media : byAge) {
+                if (cachedBytes.get() <= target) {
+                    break;
+                }
+                if (entries.remove(media.name, media)) {
+                    cachedBytes.addAndGet(-media.size);
+                    // Open channels and mappings stay valid until released
+                    deleteQuietly(media.path);
+                }
+            }
+        } finally {
+            evictionLock.unlock();
+        }
+    }
+
+    public long getMmapThresholdBytes() {
+        return mmapThresholdBytes;
+    }
+
+    private static String cacheName(String key) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(key.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static void deleteQuietly(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            log.warn("Could not delete media cache file {}", path);
+        }
+    }
+
+    /**
+     * A file in the media cache
+     */
+    public static final class CachedMedia {
+        private final Path path;
+        private final long size;
+        private final long lastModified;
+        private final String name;
+        private volatile long lastAccess = System.nanoTime();
+        private volatile MappedByteBuffer mapped;
+
+        private CachedMedia(Path path, long size, long lastModified, String name) {
+            this.path = path;
+            this.size = size;
+            this.lastModified = lastModified;
+            this.name = name;
+        }
+
+        public Path getPath() {
+            return path;
+        }
+
+        public long getSize() {
+            return size;
+        }
+
+        public long getLastModified() {
+            return lastModified;
+        }
+
+        /**
+         * Strong validator: the cache name is derived from the (immutable) object key
+         */
+        public String getETag() {
+            return "\"" + name + "\"";
+        }
+
+        /**
+         * Read-only mapping of the whole file, created on first use
+         */
+        public MappedByteBuffer mapped() throws IOException {
+            MappedByteBuffer buffer = mapped;
+            if (buffer == null) {
+                try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                    buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, size);
+                }
+                mapped = buffer;
+            }
+            return buffer;
+        }
+    }
+}
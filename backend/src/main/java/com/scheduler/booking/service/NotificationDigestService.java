@@ -0,0 +1,148 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.PendingNotification;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.PendingNotificationRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Sends the hourly and daily business booking digests.
+ *
+ * Notifications for tenants that are not on INSTANT mode, for new bookings and
+ * reschedules alike, are buffered in the pending_notifications table by
+ * EmailService. Each run loads every pending row for the relevant tenants,
+ * fetches all referenced bookings and tenants in one query each and renders a
+ * single email per tenant and recipient. A recipient's
+ * rows are only removed once Mailgun has accepted their digest; until then they
+ * are held in flight so a later run does not send them twice, and if the send
+ * fails or the process restarts they are picked up again by the next run.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class NotificationDigestService {
+
+    private final PendingNotificationRepository pendingNotificationRepository;
+    private final BookingRepository bookingRepository;
+    private final TenantRepository tenantRepository;
+    private final EmailService emailService;
+    private final Executor applicationTaskExecutor;
+
+    // Rows whose digest is queued in the MailgunDispatcher but not yet confirmed
+    private final Set<UUID> inFlight = ConcurrentHashMap.newKeySet();
+
+    @Scheduled(cron = "${notifications.digest.hourly-cron:0 0 * * * *}")
+    public void sendHourlyDigests() {
+        flush(pendingNotificationRepository.findByTenantNotificationMode("HOURLY"));
+    }
+
+    /**
+     * Daily run also picks up rows left behind by tenants that switched back to
+     * INSTANT, so nothing stays buffered forever.
+     */
+    @Scheduled(cron = "${notifications.digest.daily-cron:0 0 7 * * *}")
+    public void sendDailyDigests() {
+        flush(pendingNotificationRepository.findByTenantNotificationModeNot("HOURLY"));
+    }
+
+    private void flush(List<PendingNotification> buffered) {
+        List<PendingNotification> pending = buffered.stream()
+                .filter(notification -> !inFlight.contains(notification.getId()))
+                .toList();
+        if (pending.isEmpty()) {
+            return;
+        }
+
+        Map<UUID, Booking> bookings = bookingRepository.findAllByIdWithDetails(
+                        pending.stream().map(PendingNotification::getBookingId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Booking::getId, Function.identity()));
+        Map<UUID, Tenant> tenants = tenantRepository.findAllById(
+                        pending.stream().map(PendingNotification::getTenantId).collect(Collectors.toSet()))
+                .stream()
+                .collect(Collectors.toMap(Tenant::getId, Function.identity()));
+
+        // Group by tenant and recipient, keeping the creation order from the query
+        Map<UUID, Map<String, List<PendingNotification>>> grouped = new LinkedHashMap<>();
+        for (PendingNotification notification : pending) {
+            grouped.computeIfAbsent(notification.getTenantId(), id -> new LinkedHashMap<>())
+                    .computeIfAbsent(notification.getRecipientEmail(), email -> new ArrayList<>())
+                    .add(notification);
+        }
+
+        int queued = 0;
+        for (Map.Entry<UUID, Map<String, List<PendingNotification>>> tenantEntry : grouped.entrySet()) {
+            Tenant tenant = tenants.get(tenantEntry.getKey());
+
+            for (Map.Entry<String, List<PendingNotification>> recipientEntry : tenantEntry.getValue().entrySet()) {
+                List<PendingNotification> notifications = recipientEntry.getValue();
+                List<UUID> ids = notifications.stream().map(PendingNotification::getId).toList();
+
+                // Bookings that were rolled back, cancelled or failed payment are dropped from the digest
+                List<Booking> digestBookings = notifications.stream()
+                        .filter(notification -> notification.getPreviousStartTime() == null)
+                        .map(notification -> bookings.get(notification.getBookingId()))
+                        .filter(booking -> booking != null && "CONFIRMED".equals(booking.getStatus()))
+                        .distinct()
+                        .collect(Collectors.toList());
+                // A booking moved several times is listed once, from where it was when last reported;
+                // one that is new in this digest is already listed at its current time
+                Map<UUID, EmailService.RescheduledBooking> rescheduled = new LinkedHashMap<>();
+                for (PendingNotification notification : notifications) {
+                    Booking booking = bookings.get(notification.getBookingId());
+                    if (notification.getPreviousStartTime() != null && booking != null
+                            && "CONFIRMED".equals(booking.getStatus()) && !digestBookings.contains(booking)) {
+                        rescheduled.putIfAbsent(booking.getId(),
+                                new EmailService.RescheduledBooking(booking, notification.getPreviousStartTime()));
+                    }
+                }
+
+                inFlight.addAll(ids);
+                try {
+                    CompletableFuture<Void> sent = tenant != null
+                            ? emailService.sendBusinessDigest(tenant, recipientEntry.getKey(), digestBookings,
+                                    new ArrayList<>(rescheduled.values()))
+                            : CompletableFuture.completedFuture(null);
+                    // Completes on the dispatcher thread; delete elsewhere so sending is not held up
+                    sent.whenCompleteAsync((ignored, error) -> {
+                        try {
+                            if (error == null) {
+                                pendingNotificationRepository.deleteAllByIdInBatch(ids);
+                            } else {
+                                // Leave the rows buffered so the next run retries them
+                                log.error("❌ Failed to send booking digest for tenant {} to {}: {}",
+                                        tenantEntry.getKey(), recipientEntry.getKey(), error.getMessage());
+                            }
+                        } finally {
+                            ids.forEach(inFlight::remove);
+                        }
+                    }, applicationTaskExecutor);
+                    queued += ids.size();
+                } catch (Exception e) {
+                    ids.forEach(inFlight::remove);
+                    log.error("❌ Failed to queue booking digest for tenant {} to {}: {}",
+                            tenantEntry.getKey(), recipientEntry.getKey(), e.getMessage(), e);
+                }
+            }
+        }
+        log.info("Queued {} of {} buffered business notifications", queued, pending.size());
+    }
+}
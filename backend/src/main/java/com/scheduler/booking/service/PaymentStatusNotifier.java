@@ -0,0 +1,179 @@
+package com.scheduler.booking.service;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Wakes up requests waiting for a booking's payment status to change.
+ *
+ * Waiters register a future per booking id; publish() completes them on this node and,
+ * on PostgreSQL, sends NOTIFY payment_status so every other node completes its own. Each
+ * node keeps one dedicated connection (outside the pool) in LISTEN for that channel.
+ * On other databases notifications stay in-process. The number of parked waiters is
+ * the payments.status.waiters gauge.
+ */
+@Component
+@Slf4j
+public class PaymentStatusNotifier {
+
+    private static final String CHANNEL = "payment_status";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean postgres;
+    private final Map<UUID, Set<CompletableFuture<Void>>> waiters = new ConcurrentHashMap<>();
+
+    private volatile boolean running;
+    private volatile Connection listenConnection;
+    private Thread listener;
+
+    public PaymentStatusNotifier(JdbcTemplate jdbcTemplate,
+                                 @Value("${spring.datasource.url}") String url,
+                                 @Value("${spring.datasource.username:}") String username,
+                                 @Value("${spring.datasource.password:}") String password,
+                                 MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.postgres = url.startsWith("jdbc:postgresql:");
+        Gauge.builder("payments.status.waiters", waiters,
+                        map -> map.values().stream().mapToInt(Set::size).sum())
+                .description("Requests waiting for a payment status change")
+                .register(meterRegistry);
+    }
+
+    /**
+     * Future completed the next time the booking's payment status is published. Pass it
+     * to cancel() if the caller stops waiting.
+     */
+    public CompletableFuture<Void> awaitChange(UUID bookingId) {
+        CompletableFuture<Void> waiter = new CompletableFuture<>();
+        waiters.computeIfAbsent(bookingId, id -> ConcurrentHashMap.newKeySet()).add(waiter);
+        return waiter;
+    }
+
+    public void cancel(UUID bookingId, CompletableFuture<Void> waiter) {
+        waiters.computeIfPresent(bookingId, (id, set) -> {
+            set.remove(waiter);
+            return set.isEmpty() ? null : set;
+        });
+    }
+
+    /**
+     * Announce that a booking's payment status changed. Call after the change is committed.
+     */
+    public void publish(UUID bookingId) {
+        wake(bookingId);
+        if (postgres) {
+            try {
+                jdbcTemplate.queryForList("SELECT pg_notify(?, ?)", CHANNEL, bookingId.toString());
+            } catch (Exception e) {
+                // Waiters on other nodes fall back to their timeout
+                log.warn("Could not send payment status notification for booking {}: {}", bookingId, e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * A payment_status notification, i.e. a status change published on another node
+     */
+    public void onNotification(String payload) {
+        try {
+            wake(UUID.fromString(payload));
+        } catch (IllegalArgumentException e) {
+            log.warn("Ignoring malformed payment status notification: {}", payload);
+        }
+    }
+
+    private void wake(UUID bookingId) {
+        Set<CompletableFuture<Void>> woken = waiters.remove(bookingId);
+        if (woken != null) {
+            woken.forEach(waiter -> waiter.complete(null));
+        }
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!postgres) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "payment-status-listener");
+        listener.setDaemon(true);
+        listener.start();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (listener != null) {
+            listener.interrupt();
+        }
+        closeQuietly(listenConnection);
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password)) {
+                listenConnection = connection;
+                try (Statement statement = connection.createStatement()) {
+                    statement.execute("LISTEN " + CHANNEL);
+                }
+                log.info("Listening for payment status notifications");
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(10_000);
+                    if (notifications == null) {
+                        continue;
+                    }
+                    for (PGNotification notification : notifications) {
+                        onNotification(notification.getParameter());
+                    }
+                }
+            } catch (SQLException e) {
+                if (!running) {
+                    return;
+                }
+                // Notifications sent while reconnecting are lost; waiters fall back to their timeout
+                log.warn("Payment status listener connection failed, reconnecting: {}", e.getMessage());
+                try {
+                    Thread.sleep(5000);
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection != null) {
+            try {
+                connection.close();
+            } catch (SQLException ignored) {
+                // shutting down
+            }
+        }
+    }
+}
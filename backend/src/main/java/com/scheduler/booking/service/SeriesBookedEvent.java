@@ -0,0 +1,15 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.Tenant;
+
+import java.util.List;
+
+/**
+ * Published when a booking series is created; the confirmation emails go out once it commits.
+ *
+ * @param tenant Tenant the series was booked with
+ * @param series The series' bookings, in date order
+ */
+public record SeriesBookedEvent(Tenant tenant, List<Booking> series) {
+}
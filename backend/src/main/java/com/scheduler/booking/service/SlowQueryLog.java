@@ -0,0 +1,47 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.util.SqlFingerprint;
+import lombok.RequiredArgsConstructor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Logs statements slower than db.slow-query.threshold to the com.scheduler.booking.slow-query
+ * logger, one line per statement as key=value pairs, with a fingerprint of the normalized SQL
+ * so repeated executions of the same query can be grouped. Fed by SlowQueryLoggingConfig;
+ * when the connection profiler is on, lines also name the operation holding the connection.
+ */
+@Component
+@RequiredArgsConstructor
+public class SlowQueryLog {
+
+    private static final Logger slowQueryLog = LoggerFactory.getLogger("com.scheduler.booking.slow-query");
+
+    private final ConnectionProfiler connectionProfiler;
+
+    @Value("${db.slow-query.threshold:PT0.5S}")
+    private Duration threshold;
+
+    /**
+     * Called after each statement execution
+     */
+    public void statementExecuted(String sql, long nanos) {
+        if (nanos < threshold.toNanos() || sql == null) {
+            return;
+        }
+        String operation = connectionProfiler.currentOperation();
+        if (operation != null) {
+            slowQueryLog.warn("slow_query duration_ms={} fingerprint={} operation={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), SqlFingerprint.of(sql), operation,
+                    SqlFingerprint.normalize(sql));
+        } else {
+            slowQueryLog.warn("slow_query duration_ms={} fingerprint={} sql=\"{}\"",
+                    TimeUnit.NANOSECONDS.toMillis(nanos), SqlFingerprint.of(sql), SqlFingerprint.normalize(sql));
+        }
+    }
+}
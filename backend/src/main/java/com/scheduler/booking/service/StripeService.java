@@ -31,6 +31,8 @@ public class StripeService {
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
     private final BookingService bookingService;
+    private final ExternalCallGuard externalCallGuard;
+    private final PaymentStatusNotifier paymentStatusNotifier;
 
     @Value("${app.frontend.url:http://localhost:5173}")
     private String frontendUrl;
@@ -57,6 +59,14 @@ public class StripeService {
      */
     public Session createCheckoutSession(Booking booking, SessionType sessionType, String customerEmail, String tenantSlug)
             throws StripeException {
+        return createCheckoutSession(booking.getId(), booking.getTenantId(), sessionType, customerEmail, tenantSlug);
+    }
+
+    /**
+     * Create a Checkout Session for a booking that may not have been inserted yet
+     */
+    public Session createCheckoutSession(UUID bookingId, UUID tenantId, SessionType sessionType, String customerEmail,
+                                         String tenantSlug) throws StripeException {
 
         if (!stripeConfig.isEnabled()) {
             throw new RuntimeException("Stripe is not enabled");
@@ -70,8 +80,8 @@ public class StripeService {
         long amountInCents = totalAmount.multiply(BigDecimal.valueOf(100)).longValue();
 
         // Build redirect URLs with slug for proper navigation back to business page
-        String successUrl = frontendUrl + "/booking-success?session_id={CHECKOUT_SESSION_ID}&slug=" + 
-                           (tenantSlug != null ? tenantSlug : "");
+        String successUrl = frontendUrl + "/booking-success?session_id={CHECKOUT_SESSION_ID}&booking_id=" + bookingId
+                           + "&slug=" + (tenantSlug != null ? tenantSlug : "");
         String cancelUrl = frontendUrl + "/booking-cancelled?slug=" + 
                           (tenantSlug != null ? tenantSlug : "");
 
@@ -104,18 +114,26 @@ public class StripeService {
                 );
 
         // Add metadata
-        paramsBuilder.putMetadata("booking_id", booking.getId().toString());
-        paramsBuilder.putMetadata("tenant_id", booking.getTenantId().toString());
+        paramsBuilder.putMetadata("booking_id", bookingId.toString());
+        paramsBuilder.putMetadata("tenant_id", tenantId.toString());
         paramsBuilder.putMetadata("session_type_id", sessionType.getId().toString());
         paramsBuilder.putMetadata("platform_fee", fees.get("platformFee").toString());
         paramsBuilder.putMetadata("business_amount", fees.get("businessAmount").toString());
 
-        Session session = Session.create(paramsBuilder.build());
-        log.info("Created Stripe Checkout Session: {} for booking: {}", session.getId(), booking.getId());
+        Session session = externalCallGuard.call("stripe", () -> Session.create(paramsBuilder.build()));
+        log.info("Created Stripe Checkout Session: {} for booking: {}", session.getId(), bookingId);
 
         return session;
     }
 
+    /**
+     * Expire an open Checkout Session so it can no longer be paid
+     */
+    public void expireCheckoutSession(String sessionId) throws StripeException {
+        externalCallGuard.call("stripe", () -> Session.retrieve(sessionId).expire());
+        log.info("Expired Stripe Checkout Session: {}", sessionId);
+    }
+
     /**
      * Handle successful payment from webhook
      * This is the critical method that confirms bookings and sends emails
@@ -195,6 +213,7 @@ public class StripeService {
             // Confirm booking and send emails (this is the critical step!)
             bookingService.confirmBookingAfterPayment(bookingId);
             log.info("✅ Booking {} confirmed and emails sent", bookingId);
+            paymentStatusNotifier.publish(bookingId);
 
         } catch (Exception e) {
             log.error("❌ Error handling payment success", e);
@@ -252,6 +271,7 @@ public class StripeService {
             booking.setStatus("PAYMENT_FAILED");
             bookingRepository.save(booking);
             log.info("❌ Booking {} status updated to PAYMENT_FAILED - slot remains available", bookingId);
+            paymentStatusNotifier.publish(bookingId);
 
             // Note: NO emails are sent for failed payments
             // Note: The time slot is NOT booked and remains available for other customers
@@ -300,6 +320,13 @@ public class StripeService {
             // Find payment record and mark as cancelled
             Payment payment = paymentRepository.findByBookingId(bookingId).orElse(null);
 
+            // A replaced session expiring does not cancel the booking's current checkout
+            if (payment != null && payment.getStripeCheckoutSessionId() != null
+                    && !payment.getStripeCheckoutSessionId().equals(session.getId())) {
+                log.info("Ignoring expiry of superseded Checkout Session {} for booking {}", session.getId(), bookingId);
+                return;
+            }
+
             if (payment != null) {
                 payment.setStatus("CANCELLED");
                 payment.setFailureReason("Checkout session expired or was cancelled by user");
@@ -312,6 +339,7 @@ public class StripeService {
             booking.setCancellationReason("Payment cancelled or expired");
             bookingRepository.save(booking);
             log.info("⚠️ Booking {} status updated to CANCELLED - slot remains available", bookingId);
+            paymentStatusNotifier.publish(bookingId);
 
             // Note: NO emails are sent
             // Note: The time slot is NOT booked and remains available
@@ -347,7 +375,7 @@ public class StripeService {
             }
 
             // Retrieve session from Stripe
-            Session session = Session.retrieve(checkoutSessionId);
+            Session session = externalCallGuard.call("stripe", () -> Session.retrieve(checkoutSessionId));
             log.info("Retrieved Stripe session {} for booking {}: payment_status={}, status={}", 
                     checkoutSessionId, bookingId, session.getPaymentStatus(), session.getStatus());
 
@@ -376,6 +404,7 @@ public class StripeService {
                     bookingService.confirmBookingAfterPayment(bookingId);
                     log.info("✅ Confirmed booking {} after payment sync", bookingId);
                 }
+                paymentStatusNotifier.publish(bookingId);
             } else if ("unpaid".equals(stripePaymentStatus) && "expired".equals(stripeSessionStatus)) {
                 // Payment expired
                 payment.setStatus("CANCELLED");
@@ -388,6 +417,7 @@ public class StripeService {
                     bookingRepository.save(booking);
                     log.info("⚠️ Synced booking {} to CANCELLED (payment expired)", bookingId);
                 }
+                paymentStatusNotifier.publish(bookingId);
             } else if ("unpaid".equals(stripePaymentStatus)) {
                 // Payment not completed yet
                 if (!"PENDING".equals(payment.getStatus())) {
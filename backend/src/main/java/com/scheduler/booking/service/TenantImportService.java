@@ -0,0 +1,478 @@
+package com.scheduler.booking.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.scheduler.booking.dto.SessionTypeRequest;
+import com.scheduler.booking.dto.TenantImportResult;
+import com.scheduler.booking.dto.TenantImportRow;
+import com.scheduler.booking.model.BusinessHours;
+import com.scheduler.booking.util.CsvReader;
+import jakarta.annotation.PostConstruct;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.core.env.Environment;
+import org.springframework.core.task.VirtualThreadTaskExecutor;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.HttpStatus;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.client.HttpClientErrorException;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.sql.Time;
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Bulk tenant onboarding.
+ *
+ * Rows are read one at a time from NDJSON or CSV and processed in chunks of
+ * tenants.import.batch-size: each chunk's tenants, default business hours and
+ * session types are written with JDBC batch inserts in one short transaction,
+ * then the owners' Clerk accounts are created in parallel (bounded by
+ * tenants.import.clerk-parallelism, with retries on transient failures) outside
+ * any transaction. Tenants with an owner stay PROVISIONING until their Clerk user
+ * and BusinessUser exist; if provisioning fails the tenant is removed again so the
+ * row can simply be re-imported. One result line per row is streamed back as each
+ * chunk completes.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TenantImportService {
+
+    public enum Format {
+        NDJSON,
+        CSV
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedParameterJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ClerkUserService clerkUserService;
+    private final BusinessHoursService businessHoursService;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final Environment environment;
+
+    @Value("${tenants.import.batch-size:200}")
+    private int batchSize;
+
+    @Value("${tenants.import.clerk-parallelism:8}")
+    private int clerkParallelism;
+
+    @Value("${tenants.import.clerk-max-attempts:3}")
+    private int clerkMaxAttempts;
+
+    @Value("${tenants.import.clerk-retry-backoff:PT0.5S}")
+    private Duration clerkRetryBackoff;
+
+    private ObjectReader rowReader;
+
+    @PostConstruct
+    public void init() {
+        rowReader = objectMapper.readerFor(TenantImportRow.class)
+                .without(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES);
+    }
+
+    /**
+     * Import tenants from the input, writing one NDJSON {@link TenantImportResult} per row to the output
+     */
+    public void importTenants(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        RowSource source = format == Format.CSV ? csvSource(reader) : ndjsonSource(reader);
+
+        AtomicInteger threadCount = new AtomicInteger();
+        ThreadFactory threadFactory = Threading.VIRTUAL.isActive(environment)
+                ? new VirtualThreadTaskExecutor("tenant-import-clerk-").getVirtualThreadFactory()
+                : runnable -> {
+                    Thread thread = new Thread(runnable, "tenant-import-clerk-" + threadCount.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                };
+        ExecutorService clerkPool = Executors.newFixedThreadPool(clerkParallelism, threadFactory);
+
+        int[] counts = new int[2]; // created, failed
+        try {
+            List<ImportRow> chunk = new ArrayList<>(batchSize);
+            ImportRow row;
+            while ((row = source.next()) != null) {
+                if (row.error() != null) {
+                    write(writer, TenantImportResult.failed(row.row(), null, row.error()), counts);
+                    continue;
+                }
+                chunk.add(row);
+                if (chunk.size() >= batchSize) {
+                    for (TenantImportResult result : processChunk(chunk, clerkPool)) {
+                        write(writer, result, counts);
+                    }
+                    // Let the client see progress chunk by chunk
+                    writer.flush();
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                for (TenantImportResult result : processChunk(chunk, clerkPool)) {
+                    write(writer, result, counts);
+                }
+            }
+            writer.flush();
+        } finally {
+            clerkPool.shutdownNow();
+            log.info("Tenant import finished: {} created, {} failed", counts[0], counts[1]);
+        }
+    }
+
+    private List<TenantImportResult> processChunk(List<ImportRow> chunk, ExecutorService clerkPool) {
+        Map<Long, TenantImportResult> results = new LinkedHashMap<>();
+        chunk.forEach(row -> results.put(row.row(), null));
+
+        // Validation, duplicate slugs within the chunk and slugs that already exist
+        Set<String> existingSlugs = findExistingSlugs(chunk);
+        Set<String> seenSlugs = new HashSet<>();
+        List<PreparedTenant> accepted = new ArrayList<>();
+        for (ImportRow row : chunk) {
+            TenantImportRow data = row.data();
+            String error = validate(data);
+            if (error == null && existingSlugs.contains(data.getSlug())) {
+                error = "Slug already exists";
+            }
+            if (error == null && !seenSlugs.add(data.getSlug())) {
+                error = "Duplicate slug in import";
+            }
+            if (error != null) {
+                results.put(row.row(), TenantImportResult.failed(row.row(), data.getSlug(), error));
+            } else {
+                accepted.add(new PreparedTenant(row.row(), UUID.randomUUID(), data));
+            }
+        }
+
+        // Batched inserts; if the batch fails, retry row by row to isolate the bad rows
+        List<PreparedTenant> inserted = new ArrayList<>();
+        try {
+            insertTenants(accepted);
+            inserted.addAll(accepted);
+        } catch (DataAccessException e) {
+            log.warn("Batch insert of {} tenants failed, retrying individually: {}", accepted.size(), e.getMessage());
+            for (PreparedTenant tenant : accepted) {
+                try {
+                    insertTenants(List.of(tenant));
+                    inserted.add(tenant);
+                } catch (DataAccessException rowError) {
+                    results.put(tenant.row(), TenantImportResult.failed(tenant.row(), tenant.data().getSlug(),
+                            "Database error: " + rowError.getMostSpecificCause().getMessage()));
+                }
+            }
+        }
+
+        // Clerk provisioning in parallel, outside any transaction
+        Map<PreparedTenant, CompletableFuture<String>> provisioning = new LinkedHashMap<>();
+        for (PreparedTenant tenant : inserted) {
+            if (hasOwner(tenant.data())) {
+                provisioning.put(tenant, CompletableFuture.supplyAsync(() -> provisionOwner(tenant), clerkPool));
+            } else {
+                results.put(tenant.row(), TenantImportResult.created(tenant.row(), tenant.data().getSlug(), tenant.id()));
+            }
+        }
+
+        Map<PreparedTenant, String> provisioned = new LinkedHashMap<>();
+        List<PreparedTenant> unprovisioned = new ArrayList<>();
+        provisioning.forEach((tenant, future) -> {
+            try {
+                provisioned.put(tenant, future.join());
+            } catch (Exception e) {
+                Throwable cause = e.getCause() != null ? e.getCause() : e;
+                unprovisioned.add(tenant);
+                results.put(tenant.row(), TenantImportResult.failed(tenant.row(), tenant.data().getSlug(),
+                        "Clerk provisioning failed: " + cause.getMessage()));
+            }
+        });
+
+        if (!provisioned.isEmpty()) {
+            activateTenants(provisioned);
+            provisioned.keySet().forEach(tenant -> results.put(tenant.row(),
+                    TenantImportResult.created(tenant.row(), tenant.data().getSlug(), tenant.id())));
+        }
+        if (!unprovisioned.isEmpty()) {
+            // Compensate: remove the tenants so the slug is free and the row can be re-imported
+            deleteTenants(unprovisioned.stream().map(PreparedTenant::id).toList());
+        }
+
+        return new ArrayList<>(results.values());
+    }
+
+    private Set<String> findExistingSlugs(List<ImportRow> chunk) {
+        Set<String> slugs = chunk.stream()
+                .map(row -> row.data().getSlug())
+                .filter(slug -> slug != null && !slug.isBlank())
+                .collect(Collectors.toSet());
+        if (slugs.isEmpty()) {
+            return Set.of();
+        }
+        return new HashSet<>(namedParameterJdbcTemplate.queryForList(
+                "SELECT slug FROM tenants WHERE slug IN (:slugs)", Map.of("slugs", slugs), String.class));
+    }
+
+    private void insertTenants(List<PreparedTenant> tenants) {
+        if (tenants.isEmpty()) {
+            return;
+        }
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> tenantRows = new ArrayList<>();
+        List<Object[]> hoursRows = new ArrayList<>();
+        List<Object[]> sessionTypeRows = new ArrayList<>();
+        for (PreparedTenant tenant : tenants) {
+            TenantImportRow data = tenant.data();
+            tenantRows.add(new Object[] {
+                    tenant.id(), data.getName(), data.getSlug(), data.getEmail(), data.getPhone(),
+                    data.getLogoUrl(), data.getDescription(),
+                    data.getSubscriptionTier() != null ? data.getSubscriptionTier() : "BASIC",
+                    data.getTimezone() != null ? data.getTimezone() : "UTC",
+                    hasOwner(data) ? "PROVISIONING" : "ACTIVE",
+                    hasOwner(data) ? data.getOwnerEmail() : null,
+                    now, now
+            });
+
+            for (BusinessHours hours : businessHoursService.defaultBusinessHours(tenant.id())) {
+                hoursRows.add(new Object[] {
+                        UUID.randomUUID(), tenant.id(), hours.getDayOfWeek().name(),
+                        Time.valueOf(hours.getStartTime()), Time.valueOf(hours.getEndTime()), hours.isEnabled(),
+                        now, now
+                });
+            }
+
+            if (data.getSessionTypes() != null) {
+                for (SessionTypeRequest sessionType : data.getSessionTypes()) {
+                    sessionTypeRows.add(new Object[] {
+                            UUID.randomUUID(), tenant.id(), sessionType.getName(), sessionType.getDescription(),
+                            sessionType.getDurationMinutes(), sessionType.getPrice(),
+                            sessionType.getCurrency() != null ? sessionType.getCurrency() : "USD",
+                            sessionType.getCapacity() != null ? sessionType.getCapacity() : 1,
+                            sessionType.getCategory(), sessionType.getColor(), true,
+                            sessionType.getCancellationPolicy(), sessionType.getMeetingLink(),
+                            sessionType.getMeetingPassword(), now, now
+                    });
+                }
+            }
+        }
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO tenants (id, name, slug, email, phone, logo_url, description, subscription_tier, "
+                            + "timezone, status, provisioning_owner_email, created_at, updated_at) "
+                            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    tenantRows);
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO business_hours (id, tenant_id, day_of_week, start_time, end_time, enabled, "
+                            + "created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?)",
+                    hoursRows);
+            if (!sessionTypeRows.isEmpty()) {
+                jdbcTemplate.batchUpdate(
+                        "INSERT INTO session_types (id, tenant_id, name, description, duration_minutes, price, "
+                                + "currency, capacity, category, color, is_active, cancellation_policy, meeting_link, "
+                                + "meeting_password, created_at, updated_at) "
+                                + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                        sessionTypeRows);
+            }
+        });
+    }
+
+    private void activateTenants(Map<PreparedTenant, String> provisioned) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> userRows = new ArrayList<>();
+        List<Object[]> tenantRows = new ArrayList<>();
+        provisioned.forEach((tenant, clerkUserId) -> {
+            TenantImportRow data = tenant.data();
+            userRows.add(new Object[] {
+                    UUID.randomUUID(), tenant.id(), data.getOwnerEmail(), clerkUserId,
+                    ownerFirstName(data), ownerLastName(data), "OWNER", true, now, now
+            });
+            tenantRows.add(new Object[] { now, tenant.id() });
+        });
+
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.batchUpdate(
+                    "INSERT INTO business_users (id, tenant_id, email, clerk_user_id, first_name, last_name, role, "
+                            + "is_active, created_at, updated_at) VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?)",
+                    userRows);
+            jdbcTemplate.batchUpdate(
+                    "UPDATE tenants SET status = 'ACTIVE', provisioning_owner_email = NULL, updated_at = ? WHERE id = ?",
+                    tenantRows);
+        });
+    }
+
+    private void deleteTenants(List<UUID> tenantIds) {
+        Map<String, Object> params = Map.of("ids", tenantIds);
+        transactionTemplate.executeWithoutResult(status -> {
+            namedParameterJdbcTemplate.update("DELETE FROM session_types WHERE tenant_id IN (:ids)", params);
+            namedParameterJdbcTemplate.update("DELETE FROM business_hours WHERE tenant_id IN (:ids)", params);
+            namedParameterJdbcTemplate.update("DELETE FROM tenants WHERE id IN (:ids)", params);
+        });
+    }
+
+    /**
+     * Create the owner's Clerk user, retrying transient failures with exponential backoff.
+     * Client errors (e.g. email already taken) are not retried, except 429.
+     */
+    private String provisionOwner(PreparedTenant tenant) {
+        TenantImportRow data = tenant.data();
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return clerkUserService.createUser(data.getOwnerEmail(), data.getOwnerPassword(),
+                        ownerFirstName(data), ownerLastName(data), "BUSINESS", tenant.id().toString());
+            } catch (RuntimeException e) {
+                if (attempt >= clerkMaxAttempts || !isRetryable(e)) {
+                    throw e;
+                }
+                try {
+                    Thread.sleep(clerkRetryBackoff.toMillis() << (attempt - 1));
+                } catch (InterruptedException interrupted) {
+                    Thread.currentThread().interrupt();
+                    throw e;
+                }
+            }
+        }
+    }
+
+    private boolean isRetryable(Throwable e) {
+        for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+            if (cause instanceof HttpClientErrorException clientError) {
+                return clientError.getStatusCode().isSameCodeAs(HttpStatus.TOO_MANY_REQUESTS);
+            }
+        }
+        return true;
+    }
+
+    private String validate(TenantImportRow data) {
+        Set<ConstraintViolation<TenantImportRow>> violations = validator.validate(data);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(violation -> violation.getPropertyPath() + ": " + violation.getMessage())
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        if (data.getOwnerEmail() != null && data.getOwnerPassword() == null) {
+            return "ownerPassword is required when ownerEmail is set";
+        }
+        return null;
+    }
+
+    private static boolean hasOwner(TenantImportRow data) {
+        return data.getOwnerEmail() != null && data.getOwnerPassword() != null;
+    }
+
+    private static String ownerFirstName(TenantImportRow data) {
+        return data.getOwnerFirstName() != null ? data.getOwnerFirstName() : "Business";
+    }
+
+    private static String ownerLastName(TenantImportRow data) {
+        return data.getOwnerLastName() != null ? data.getOwnerLastName() : "Owner";
+    }
+
+    private void write(Writer writer, TenantImportResult result, int[] counts) throws IOException {
+        writer.write(objectMapper.writeValueAsString(result));
+        writer.write('\n');
+        counts["CREATED".equals(result.getStatus()) ? 0 : 1]++;
+    }
+
+    // ---- Input formats ----
+
+    private RowSource ndjsonSource(BufferedReader reader) {
+        long[] lineNumber = { 0 };
+        return () -> {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber[0]++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                try {
+                    return new ImportRow(lineNumber[0], rowReader.readValue(line), null);
+                } catch (JsonProcessingException e) {
+                    return new ImportRow(lineNumber[0], null, "Invalid JSON: " + e.getOriginalMessage());
+                }
+            }
+            return null;
+        };
+    }
+
+    /**
+     * CSV with a header row naming TenantImportRow properties (name, slug, email, ownerEmail, ...).
+     * Session types can only be imported from NDJSON.
+     */
+    private RowSource csvSource(BufferedReader reader) throws IOException {
+        CsvReader csv = new CsvReader(reader);
+        List<String> header = csv.readRecord();
+        if (header == null) {
+            return () -> null;
+        }
+        List<String> columns = header.stream().map(String::trim).toList();
+        return () -> {
+            List<String> record = csv.readRecord();
+            if (record == null) {
+                return null;
+            }
+            long row = csv.getRecordNumber();
+            if (record.size() > columns.size()) {
+                return new ImportRow(row, null, "Expected " + columns.size() + " columns but found " + record.size());
+            }
+            Map<String, Object> values = new HashMap<>();
+            for (int i = 0; i < record.size(); i++) {
+                String value = record.get(i).trim();
+                values.put(columns.get(i), value.isEmpty() ? null : value);
+            }
+            try {
+                return new ImportRow(row, rowReader.readValue((JsonNode) objectMapper.valueToTree(values)), null);
+            } catch (IOException | IllegalArgumentException e) {
+                return new ImportRow(row, null, "Invalid row: " + e.getMessage());
+            }
+        };
+    }
+
+    @FunctionalInterface
+    private interface RowSource {
+        ImportRow next() throws IOException;
+    }
+
+    /**
+     * A parsed input row, or the reason it could not be parsed
+     */
+    private record ImportRow(long row, TenantImportRow data, String error) {
+    }
+
+    private record PreparedTenant(long row, UUID id, TenantImportRow data) {
+    }
+}
@@ -3,15 +3,31 @@ package com.scheduler.booking.service;
 import com.scheduler.booking.dto.TenantRequest;
 import com.scheduler.booking.model.BusinessUser;
 import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BusinessHoursRepository;
 import com.scheduler.booking.repository.BusinessUserRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
 import com.scheduler.booking.repository.TenantRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
 
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 @Service
 @RequiredArgsConstructor
@@ -22,6 +38,14 @@ public class TenantService {
     private final BusinessUserRepository businessUserRepository;
     private final ClerkUserService clerkUserService;
     private final BusinessHoursService businessHoursService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final BusinessHoursRepository businessHoursRepository;
+    private final SessionTypeRepository sessionTypeRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final Executor tenantProvisioningExecutor;
+
+    @Value("${tenants.provisioning.timeout:PT15M}")
+    private Duration provisioningTimeout;
 
     public List<Tenant> getAllTenants() {
         return tenantRepository.findAll();
@@ -32,13 +56,81 @@ public class TenantService {
                 .orElseThrow(() -> new RuntimeException("Tenant not found"));
     }
 
-    @Transactional
+    /**
+     * Create a tenant and wait for its owner account to be provisioned.
+     * Prefer {@link #createTenantAsync} where the caller can continue asynchronously.
+     */
     public Tenant createTenant(TenantRequest request) {
+        try {
+            return createTenantAsync(request).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    /**
+     * Tenant creation saga. No database connection is held while Clerk is called:
+     * <ol>
+     *     <li>the tenant and its default business hours are committed as PROVISIONING,</li>
+     *     <li>the owner is created in Clerk on the provisioning executor,</li>
+     *     <li>the BusinessUser is saved and the tenant set ACTIVE in a second short transaction.</li>
+     * </ol>
+     * If step 2 or 3 fails, the tenant is deleted again (freeing the slug), and a Clerk user
+     * created in step 2 is removed, including one Clerk created although the call failed
+     * (e.g. timed out). Tenants without owner details are ACTIVE right away.
+     */
+    public CompletableFuture<Tenant> createTenantAsync(TenantRequest request) {
+        boolean hasOwner = request.getOwnerEmail() != null && request.getOwnerPassword() != null;
+        Tenant tenant = transactionTemplate.execute(status ->
+                insertTenant(request, hasOwner ? "PROVISIONING" : "ACTIVE", hasOwner ? request.getOwnerEmail() : null));
+        if (!hasOwner) {
+            return CompletableFuture.completedFuture(tenant);
+        }
+
+        String firstName = request.getOwnerFirstName() != null ? request.getOwnerFirstName() : "Business";
+        String lastName = request.getOwnerLastName() != null ? request.getOwnerLastName() : "Owner";
+        UUID tenantId = tenant.getId();
+
+        CompletableFuture<String> clerkUser;
+        try {
+            clerkUser = CompletableFuture.supplyAsync(() -> clerkUserService.createUser(
+                    request.getOwnerEmail(),
+                    request.getOwnerPassword(),
+                    firstName,
+                    lastName,
+                    "BUSINESS",
+                    tenantId.toString()), tenantProvisioningExecutor);
+        } catch (RejectedExecutionException e) {
+            clerkUser = CompletableFuture.failedFuture(new RuntimeException("Tenant provisioning is busy, try again later", e));
+        }
+
+        return clerkUser
+                .thenApply(clerkUserId -> {
+                    log.info("Created Clerk user for business owner: {}", clerkUserId);
+                    try {
+                        return transactionTemplate.execute(status ->
+                                activateTenant(tenantId, request.getOwnerEmail(), clerkUserId, firstName, lastName));
+                    } catch (RuntimeException e) {
+                        deleteClerkUserQuietly(clerkUserId);
+                        throw e;
+                    }
+                })
+                .whenComplete((activated, error) -> {
+                    if (error != null) {
+                        log.error("Provisioning failed for tenant {}, removing it: {}", tenantId, error.getMessage());
+                        discardTenant(tenantId, request.getOwnerEmail());
+                    }
+                });
+    }
+
+    private Tenant insertTenant(TenantRequest request, String status, String ownerEmail) {
         if (tenantRepository.existsBySlug(request.getSlug())) {
             throw new RuntimeException("Slug already exists");
         }
 
-        // Create tenant first
         Tenant tenant = new Tenant();
         tenant.setName(request.getName());
         tenant.setSlug(request.getSlug());
@@ -49,50 +141,91 @@ public class TenantService {
         tenant.setBrandColors(request.getBrandColors());
         tenant.setSubscriptionTier(request.getSubscriptionTier() != null ? request.getSubscriptionTier() : "BASIC");
         tenant.setTimezone(request.getTimezone() != null ? request.getTimezone() : "UTC");
-        tenant.setStatus("ACTIVE");
+        tenant.setStatus(status);
+        tenant.setProvisioningOwnerEmail(ownerEmail);
 
-        tenant = tenantRepository.save(tenant);
-        log.info("Created tenant: {} with ID: {}", tenant.getName(), tenant.getId());
+        try {
+            tenant = tenantRepository.saveAndFlush(tenant);
+        } catch (DataIntegrityViolationException e) {
+            // Lost a race with a concurrent create for the same slug
+            throw new RuntimeException("Slug already exists");
+        }
+        log.info("Created tenant: {} with ID: {} ({})", tenant.getName(), tenant.getId(), status);
 
         // Initialize default business hours (9 AM - 5 PM, Monday to Friday)
         businessHoursService.initializeDefaultBusinessHours(tenant.getId());
-        log.info("Initialized default business hours for tenant: {}", tenant.getId());
+        return tenant;
+    }
 
-        // Create business owner user in Clerk if details provided
-        if (request.getOwnerEmail() != null && request.getOwnerPassword() != null) {
-            String firstName = request.getOwnerFirstName() != null ? request.getOwnerFirstName() : "Business";
-            String lastName = request.getOwnerLastName() != null ? request.getOwnerLastName() : "Owner";
+    private Tenant activateTenant(UUID tenantId, String email, String clerkUserId, String firstName, String lastName) {
+        Tenant tenant = getTenantById(tenantId);
 
-            // Create user in Clerk
-            // Note: If this fails, the RuntimeException will propagate and cause the
-            // @Transactional createTenant method to rollback the tenant creation.
-            String clerkUserId = clerkUserService.createUser(
-                    request.getOwnerEmail(),
-                    request.getOwnerPassword(),
-                    firstName,
-                    lastName,
-                    "BUSINESS",
-                    tenant.getId().toString());
-
-            log.info("Created Clerk user for business owner: {}", clerkUserId);
-
-            // Create BusinessUser record
-            BusinessUser businessUser = new BusinessUser();
-            businessUser.setTenantId(tenant.getId());
-            businessUser.setEmail(request.getOwnerEmail());
-            businessUser.setClerkUserId(clerkUserId);
-            businessUser.setFirstName(firstName);
-            businessUser.setLastName(lastName);
-            businessUser.setRole("OWNER");
-            businessUser.setActive(true);
-
-            businessUserRepository.save(businessUser);
-            log.info("Created BusinessUser record for tenant: {}", tenant.getId());
-        }
+        BusinessUser businessUser = new BusinessUser();
+        businessUser.setTenantId(tenantId);
+        businessUser.setEmail(email);
+        businessUser.setClerkUserId(clerkUserId);
+        businessUser.setFirstName(firstName);
+        businessUser.setLastName(lastName);
+        businessUser.setRole("OWNER");
+        businessUser.setActive(true);
+        businessUserRepository.save(businessUser);
 
+        tenant.setStatus("ACTIVE");
+        tenant.setProvisioningOwnerEmail(null);
+        tenant = tenantRepository.save(tenant);
+        log.info("Activated tenant {} with owner {}", tenantId, clerkUserId);
         return tenant;
     }
 
+    /**
+     * Compensation: remove a tenant that never became ACTIVE, and any Clerk user created for
+     * it. Clerk is searched by owner email rather than trusting a recorded user id, since the
+     * user may exist although createUser failed or the saga was cut short by a restart.
+     */
+    private void discardTenant(UUID tenantId, String ownerEmail) {
+        if (ownerEmail != null) {
+            try {
+                for (String clerkUserId : clerkUserService.findUserIds(ownerEmail, tenantId.toString())) {
+                    clerkUserService.deleteUser(clerkUserId);
+                }
+            } catch (RuntimeException e) {
+                // Keep the tenant (and with it the owner email) so the stale-provisioning sweep retries
+                log.error("Could not remove Clerk user of unprovisioned tenant {}: {}", tenantId, e.getMessage());
+                return;
+            }
+        }
+        try {
+            transactionTemplate.executeWithoutResult(status -> {
+                sessionTypeRepository.deleteByTenantId(tenantId);
+                businessHoursRepository.deleteByTenantId(tenantId);
+                tenantRepository.deleteById(tenantId);
+            });
+        } catch (RuntimeException e) {
+            // Left PROVISIONING; the stale-provisioning sweep retries
+            log.error("Could not remove unprovisioned tenant {}: {}", tenantId, e.getMessage());
+        }
+    }
+
+    private void deleteClerkUserQuietly(String clerkUserId) {
+        try {
+            clerkUserService.deleteUser(clerkUserId);
+        } catch (RuntimeException e) {
+            log.error("Could not remove Clerk user {} after failed activation: {}", clerkUserId, e.getMessage());
+        }
+    }
+
+    /**
+     * Remove tenants stuck in PROVISIONING, e.g. after a restart in the middle of a saga
+     */
+    @Scheduled(fixedDelayString = "${tenants.provisioning.sweep-interval-ms:300000}")
+    public void sweepStaleProvisioning() {
+        LocalDateTime cutoff = LocalDateTime.now().minus(provisioningTimeout);
+        for (Tenant tenant : tenantRepository.findByStatusAndCreatedAtBefore("PROVISIONING", cutoff)) {
+            log.warn("Tenant {} has been PROVISIONING since {}, removing it", tenant.getId(), tenant.getCreatedAt());
+            discardTenant(tenant.getId(), tenant.getProvisioningOwnerEmail());
+        }
+    }
+
     @Transactional
     public Tenant updateTenant(UUID id, TenantRequest request) {
         Tenant tenant = getTenantById(id);
@@ -111,6 +244,40 @@ public class TenantService {
         return tenantRepository.save(tenant);
     }
 
+    /**
+     * Point a tenant at a newly uploaded logo. The previous logo and its variants
+     * are deleted from storage after this transaction commits.
+     *
+     * @return false if this is the current logo and its variants already exist
+     */
+    @Transactional
+    public boolean replaceLogo(UUID tenantId, String logoUrl) {
+        Tenant tenant = getTenantById(tenantId);
+        if (logoUrl.equals(tenant.getLogoUrl()) && tenant.getLogoVariants() != null
+                && tenant.getLogoVariants().size() > 1) {
+            return false;
+        }
+
+        Set<String> oldUrls = new HashSet<>();
+        if (tenant.getLogoUrl() != null && !tenant.getLogoUrl().isEmpty()) {
+            oldUrls.add(tenant.getLogoUrl());
+        }
+        if (tenant.getLogoVariants() != null) {
+            oldUrls.addAll(tenant.getLogoVariants().values());
+        }
+        oldUrls.remove(logoUrl);
+
+        // Resized variants are added by ImageProcessingService once generated
+        tenant.setLogoUrl(logoUrl);
+        tenant.setLogoVariants(Map.of("original", logoUrl));
+        tenantRepository.save(tenant);
+
+        if (!oldUrls.isEmpty()) {
+            eventPublisher.publishEvent(new ImagesReplacedEvent(tenantId, oldUrls));
+        }
+        return true;
+    }
+
     @Transactional
     public void deleteTenant(UUID id) {
         Tenant tenant = getTenantById(id);
@@ -0,0 +1,149 @@
+package com.scheduler.booking.util;
+
+import com.scheduler.booking.model.BusinessHours;
+import com.scheduler.booking.model.BusinessHoursOverride;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * A tenant's business hours and date overrides, compiled for lookups that allocate nothing.
+ *
+ * Each weekday's enabled hours become a sorted array of merged [start, end) minute offsets
+ * from midnight (start0, end0, start1, end1, ...). Overrides are kept as parallel sorted
+ * arrays of epoch days and their ranges, searched with a binary search. Immutable, so one
+ * instance can be shared by every thread until the tenant's hours version changes.
+ */
+public final class CompiledWeeklySchedule {
+
+    private static final int[] CLOSED = new int[0];
+
+    private final long version;
+    private final int[][] weekly;
+    private final long[] overrideDays;
+    private final int[][] overrideRanges;
+
+    private CompiledWeeklySchedule(long version, int[][] weekly, long[] overrideDays, int[][] overrideRanges) {
+        this.version = version;
+        this.weekly = weekly;
+        this.overrideDays = overrideDays;
+        this.overrideRanges = overrideRanges;
+    }
+
+    public static CompiledWeeklySchedule compile(long version, List<BusinessHours> hours,
+                                                 List<BusinessHoursOverride> overrides) {
+        List<List<int[]>> byDay = new ArrayList<>(7);
+        for (int i = 0; i < 7; i++) {
+            byDay.add(new ArrayList<>());
+        }
+        for (BusinessHours hour : hours) {
+            if (hour.isEnabled()) {
+                byDay.get(hour.getDayOfWeek().ordinal()).add(range(hour.getStartTime(), hour.getEndTime()));
+            }
+        }
+        int[][] weekly = new int[7][];
+        for (int i = 0; i < 7; i++) {
+            weekly[i] = merge(byDay.get(i));
+        }
+
+        TreeMap<LocalDate, List<int[]>> byDate = new TreeMap<>();
+        for (BusinessHoursOverride override : overrides) {
+            // A closing row still registers the date, so it ends up with no open ranges
+            List<int[]> ranges = byDate.computeIfAbsent(override.getDate(), date -> new ArrayList<>());
+            if (!override.isClosed()) {
+                ranges.add(range(override.getStartTime(), override.getEndTime()));
+            }
+        }
+        long[] overrideDays = new long[byDate.size()];
+        int[][] overrideRanges = new int[byDate.size()][];
+        int i = 0;
+        for (Map.Entry<LocalDate, List<int[]>> entry : byDate.entrySet()) {
+            overrideDays[i] = entry.getKey().toEpochDay();
+            overrideRanges[i] = merge(entry.getValue());
+            i++;
+        }
+        return new CompiledWeeklySchedule(version, weekly, overrideDays, overrideRanges);
+    }
+
+    public long version() {
+        return version;
+    }
+
+    /**
+     * Whether the weekly hours (ignoring date overrides) include the given time
+     */
+    public boolean isOpen(DayOfWeek dayOfWeek, LocalTime time) {
+        return contains(weekly[dayOfWeek.ordinal()], minuteOf(time), minuteOf(time) + 1);
+    }
+
+    /**
+     * Whether the given date is open at the given time, honouring date overrides
+     */
+    public boolean isOpen(LocalDate date, LocalTime time) {
+        return contains(rangesFor(date), minuteOf(time), minuteOf(time) + 1);
+    }
+
+    /**
+     * Whether [start, end) on the given date lies inside a single open range. Minutes
+     * are offsets from midnight, so end may be up to 1440.
+     */
+    public boolean covers(LocalDate date, int startMinute, int endMinute) {
+        return contains(rangesFor(date), startMinute, endMinute);
+    }
+
+    private int[] rangesFor(LocalDate date) {
+        int index = Arrays.binarySearch(overrideDays, date.toEpochDay());
+        return index >= 0 ? overrideRanges[index] : weekly[date.getDayOfWeek().ordinal()];
+    }
+
+    private static boolean contains(int[] ranges, int startMinute, int endMinute) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (startMinute < ranges[i]) {
+                // Ranges are sorted and merged: no later one can start early enough
+                return false;
+            }
+            if (endMinute <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static int minuteOf(LocalTime time) {
+        return time.getHour() * 60 + time.getMinute();
+    }
+
+    private static int[] range(LocalTime start, LocalTime end) {
+        return new int[] {minuteOf(start), minuteOf(end)};
+    }
+
+    /**
+     * Sort, drop empty ranges and merge overlapping or touching ones into a flat array
+     */
+    private static int[] merge(List<int[]> ranges) {
+        if (ranges.isEmpty()) {
+            return CLOSED;
+        }
+        ranges.sort((a, b) -> Integer.compare(a[0], b[0]));
+        int[] merged = new int[ranges.size() * 2];
+        int length = 0;
+        for (int[] range : ranges) {
+            if (range[1] <= range[0]) {
+                continue;
+            }
+            if (length > 0 && range[0] <= merged[length - 1]) {
+                merged[length - 1] = Math.max(merged[length - 1], range[1]);
+            } else {
+                merged[length++] = range[0];
+                merged[length++] = range[1];
+            }
+        }
+        return Arrays.copyOf(merged, length);
+    }
+}
@@ -0,0 +1,86 @@
+package com.scheduler.booking.util;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Streaming reader for RFC 4180 CSV: comma separated, fields optionally quoted with
+ * double quotes, "" for a literal quote, and line breaks allowed inside quoted fields.
+ * Records are read one at a time so large files are never held in memory.
+ */
+public class CsvReader {
+
+    private final BufferedReader reader;
+    private long recordNumber;
+
+    public CsvReader(Reader reader) {
+        this.reader = reader instanceof BufferedReader buffered ? buffered : new BufferedReader(reader);
+    }
+
+    /**
+     * Number of the last record returned (1 = first record, usually the header)
+     */
+    public long getRecordNumber() {
+        return recordNumber;
+    }
+
+    /**
+     * @return The next record's fields, or null at end of input
+     */
+    public List<String> readRecord() throws IOException {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        boolean sawAny = false;
+
+        int c;
+        while ((c = reader.read()) != -1) {
+            sawAny = true;
+            char ch = (char) c;
+            if (quoted) {
+                if (ch == '"') {
+                    reader.mark(1);
+                    int next = reader.read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        if (next != -1) {
+                            reader.reset();
+                        }
+                    }
+                } else {
+                    field.append(ch);
+                }
+            } else if (ch == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (ch == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (ch == '\n' || ch == '\r') {
+                if (ch == '\r') {
+                    reader.mark(1);
+                    if (reader.read() != '\n') {
+                        reader.reset();
+                    }
+                }
+                if (fields.isEmpty() && field.isEmpty()) {
+                    continue; // skip blank lines
+                }
+                break;
+            } else {
+                field.append(ch);
+            }
+        }
+
+        if (!sawAny || (c == -1 && fields.isEmpty() && field.isEmpty())) {
+            return null;
+        }
+        fields.add(field.toString());
+        recordNumber++;
+        return fields;
+    }
+}
@@ -0,0 +1,70 @@
+package com.scheduler.booking.util;
+
+/**
+ * Image formats accepted for uploads, identified by their file signature
+ * ("magic bytes") rather than the client-supplied Content-Type or file name.
+ */
+public enum ImageFormat {
+
+    JPEG("image/jpeg", ".jpg"),
+    PNG("image/png", ".png"),
+    WEBP("image/webp", ".webp");
+
+    /** Number of leading bytes needed to identify every supported format */
+    public static final int SIGNATURE_LENGTH = 12;
+
+    private static final byte[] PNG_SIGNATURE = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'
+    };
+
+    private final String contentType;
+    private final String extension;
+
+    ImageFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    /**
+     * Identify the format from the first bytes of a file
+     *
+     * @param header Leading bytes of the file
+     * @param length Number of valid bytes in header
+     * @return The detected format, or null if it is not a supported image
+     */
+    public static ImageFormat detect(byte[] header, int length) {
+        if (length >= 3
+                && (header[0] & 0xFF) == 0xFF
+                && (header[1] & 0xFF) == 0xD8
+                && (header[2] & 0xFF) == 0xFF) {
+            return JPEG;
+        }
+        if (length >= PNG_SIGNATURE.length && startsWith(header, 0, PNG_SIGNATURE)) {
+            return PNG;
+        }
+        // RIFF <4-byte size> WEBP
+        if (length >= 12
+                && startsWith(header, 0, new byte[] { 'R', 'I', 'F', 'F' })
+                && startsWith(header, 8, new byte[] { 'W', 'E', 'B', 'P' })) {
+            return WEBP;
+        }
+        return null;
+    }
+
+    private static boolean startsWith(byte[] data, int offset, byte[] prefix) {
+        for (int i = 0; i < prefix.length; i++) {
+            if (data[offset + i] != prefix[i]) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -0,0 +1,59 @@
+package com.scheduler.booking.util;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Sort-and-sweep coalescing of half-open [start, end) time intervals.
+ *
+ * Items whose intervals overlap or touch (one ends exactly where the next starts) end up
+ * in the same group, so a group covers one contiguous span. O(n log n) for the sort, then
+ * a single pass.
+ */
+public final class IntervalMerger {
+
+    private IntervalMerger() {
+    }
+
+    /**
+     * Items that together cover one contiguous [start, end) span
+     */
+    public record Group<T>(LocalDateTime start, LocalDateTime end, List<T> members) {
+    }
+
+    public static <T> List<Group<T>> group(List<T> items, Function<T, LocalDateTime> startOf,
+                                           Function<T, LocalDateTime> endOf) {
+        List<T> sorted = new ArrayList<>(items);
+        sorted.sort(Comparator.comparing(startOf).thenComparing(endOf));
+
+        List<Group<T>> groups = new ArrayList<>();
+        List<T> members = null;
+        LocalDateTime start = null;
+        LocalDateTime end = null;
+        for (T item : sorted) {
+            LocalDateTime itemStart = startOf.apply(item);
+            LocalDateTime itemEnd = endOf.apply(item);
+            if (members != null && !itemStart.isAfter(end)) {
+                members.add(item);
+                if (itemEnd.isAfter(end)) {
+                    end = itemEnd;
+                }
+                continue;
+            }
+            if (members != null) {
+                groups.add(new Group<>(start, end, members));
+            }
+            members = new ArrayList<>();
+            members.add(item);
+            start = itemStart;
+            end = itemEnd;
+        }
+        if (members != null) {
+            groups.add(new Group<>(start, end, members));
+        }
+        return groups;
+    }
+}
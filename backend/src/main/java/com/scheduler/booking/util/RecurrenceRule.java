@@ -0,0 +1,275 @@
+package com.scheduler.booking.util;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.ZonedDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The subset of RFC 5545 RRULE supported for recurring blocked slots and booking series:
+ * FREQ=DAILY|WEEKLY, INTERVAL, BYDAY (weekly only, plain day codes), and COUNT or UNTIL.
+ * For example FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR for a weekday lunch break, or
+ * FREQ=WEEKLY;INTERVAL=2;BYDAY=FR for every other Friday.
+ *
+ * Occurrences are expanded in the zone of the first one (DTSTART) and keep its wall-clock
+ * time there, so a 12:00 lunch break stays at 12:00 local time across daylight-saving
+ * changes. DTSTART must itself match the rule. Without COUNT, {@link #startsBetween} jumps
+ * straight to the queried window, so its cost does not grow with the distance from DTSTART.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    private static final int MAX_COUNT = 10_000;
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer count;
+    // UNTIL, either in local time (of DTSTART's zone) or in UTC
+    private final LocalDateTime untilLocal;
+    private final Instant untilInstant;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count,
+                           LocalDateTime untilLocal, Instant untilInstant) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.untilLocal = untilLocal;
+        this.untilInstant = untilInstant;
+    }
+
+    /**
+     * Parse a rule, with or without the "RRULE:" prefix. A UNTIL in UTC (trailing Z) is an
+     * instant; a date or local date-time is read in the zone of DTSTART.
+     *
+     * @throws IllegalArgumentException if the rule is malformed or outside the supported subset
+     */
+    public static RecurrenceRule parse(String rule) {
+        String value = rule.trim();
+        if (value.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            value = value.substring(6);
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDateTime untilLocal = null;
+        Instant untilInstant = null;
+        for (String part : value.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String arg = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(arg);
+                    case "INTERVAL" -> interval = Integer.parseInt(arg);
+                    case "COUNT" -> count = Integer.parseInt(arg);
+                    case "UNTIL" -> {
+                        if (arg.endsWith("Z")) {
+                            untilInstant = LocalDateTime.parse(arg.substring(0, arg.length() - 1), UNTIL_DATE_TIME)
+                                    .toInstant(ZoneOffset.UTC);
+                        } else if (arg.length() == 8) {
+                            // A date covers the whole day
+                            untilLocal = LocalDate.parse(arg, UNTIL_DATE).atTime(LocalTime.MAX);
+                        } else {
+                            untilLocal = LocalDateTime.parse(arg, UNTIL_DATE_TIME);
+                        }
+                    }
+                    case "BYDAY" -> {
+                        for (String day : arg.split(",")) {
+                            byDay.add(dayOf(day.trim()));
+                        }
+                    }
+                    case "WKST" -> {
+                        if (!"MO".equals(arg)) {
+                            throw new IllegalArgumentException("Only WKST=MO is supported");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + arg);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ must be DAILY or WEEKLY");
+        }
+        if (count != null && (untilLocal != null || untilInstant != null)) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot both be set");
+        }
+        return create(frequency, interval, byDay, count, untilLocal, untilInstant);
+    }
+
+    /**
+     * Every intervalWeeks weeks on the weekday of DTSTART, for count occurrences or until
+     * the given instant (inclusive), whichever comes first
+     *
+     * @throws IllegalArgumentException if the interval or count is out of range
+     */
+    public static RecurrenceRule weekly(int intervalWeeks, Integer count, Instant until) {
+        return create(Frequency.WEEKLY, intervalWeeks, EnumSet.noneOf(DayOfWeek.class), count, null, until);
+    }
+
+    private static RecurrenceRule create(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count,
+                                         LocalDateTime untilLocal, Instant untilInstant) {
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be at least 1");
+        }
+        if (count != null && (count < 1 || count > MAX_COUNT)) {
+            throw new IllegalArgumentException("COUNT must be between 1 and " + MAX_COUNT);
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, untilLocal, untilInstant);
+    }
+
+    /**
+     * Check that the rule can start at dtstart
+     *
+     * @throws IllegalArgumentException if dtstart is not itself an occurrence of the rule
+     */
+    public void validateStart(ZonedDateTime dtstart) {
+        if (!byDay.isEmpty() && !byDay.contains(dtstart.getDayOfWeek())) {
+            throw new IllegalArgumentException("The first occurrence must fall on one of the BYDAY days");
+        }
+        Instant until = until(dtstart.getZone());
+        if (until != null && until.isBefore(dtstart.toInstant())) {
+            throw new IllegalArgumentException("UNTIL is before the first occurrence");
+        }
+    }
+
+    /**
+     * No occurrence starts after this: the last start for COUNT, UNTIL otherwise, or null if
+     * the rule never ends
+     */
+    public Instant lastStart(ZonedDateTime dtstart) {
+        if (count != null) {
+            List<ZonedDateTime> all = expand(dtstart, dtstart.toInstant(), Instant.MAX, MAX_COUNT);
+            return all.get(all.size() - 1).toInstant();
+        }
+        return until(dtstart.getZone());
+    }
+
+    /**
+     * Every occurrence of a rule that ends (COUNT or UNTIL)
+     *
+     * @throws IllegalArgumentException if the rule never ends or yields more than maxOccurrences
+     */
+    public List<ZonedDateTime> occurrences(ZonedDateTime dtstart, int maxOccurrences) {
+        if (count == null && untilLocal == null && untilInstant == null) {
+            throw new IllegalArgumentException("Either count or until is required");
+        }
+        return expand(dtstart, dtstart.toInstant(), Instant.MAX, maxOccurrences);
+    }
+
+    /**
+     * Occurrence starts s with from <= s < to, in order
+     */
+    public List<ZonedDateTime> startsBetween(ZonedDateTime dtstart, Instant from, Instant to) {
+        return expand(dtstart, from, to, Integer.MAX_VALUE);
+    }
+
+    private List<ZonedDateTime> expand(ZonedDateTime dtstart, Instant from, Instant to, int limit) {
+        ZoneId zone = dtstart.getZone();
+        Instant until = until(zone);
+        Instant first = dtstart.toInstant();
+        List<ZonedDateTime> starts = new ArrayList<>();
+        LocalTime time = dtstart.toLocalTime();
+        LocalDate firstDate = dtstart.toLocalDate();
+        ChronoUnit unit = frequency == Frequency.WEEKLY ? ChronoUnit.WEEKS : ChronoUnit.DAYS;
+        // Weekly periods run Monday to Sunday
+        LocalDate anchor = frequency == Frequency.WEEKLY
+                ? firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : firstDate;
+
+        long period = 0;
+        if (count == null && from.isAfter(first)) {
+            // Skip to the period containing from; COUNT needs every earlier occurrence counted
+            long elapsed = unit.between(anchor, LocalDate.ofInstant(from, zone));
+            period = elapsed - elapsed % interval;
+        }
+
+        int seen = 0;
+        for (; ; period += interval) {
+            Instant periodStart = anchor.plus(period, unit).atStartOfDay(zone).toInstant();
+            if (!periodStart.isBefore(to) || (until != null && periodStart.isAfter(until))) {
+                return starts;
+            }
+            for (LocalDate date : datesIn(anchor.plus(period, unit), firstDate)) {
+                // In a spring-forward gap this moves later by the gap, as for a single booking
+                ZonedDateTime start = ZonedDateTime.of(date, time, zone);
+                Instant instant = start.toInstant();
+                if (instant.isBefore(first)) {
+                    continue;
+                }
+                if ((until != null && instant.isAfter(until)) || (count != null && seen == count)
+                        || !instant.isBefore(to)) {
+                    return starts;
+                }
+                seen++;
+                if (!instant.isBefore(from)) {
+                    if (starts.size() == limit) {
+                        throw new IllegalArgumentException("A series can have at most " + limit + " occurrences");
+                    }
+                    starts.add(start);
+                }
+            }
+        }
+    }
+
+    private Instant until(ZoneId zone) {
+        return untilLocal != null ? untilLocal.atZone(zone).toInstant() : untilInstant;
+    }
+
+    private List<LocalDate> datesIn(LocalDate periodStart, LocalDate firstDate) {
+        if (frequency == Frequency.DAILY) {
+            return List.of(periodStart);
+        }
+        if (byDay.isEmpty()) {
+            return List.of(periodStart.with(TemporalAdjusters.nextOrSame(firstDate.getDayOfWeek())));
+        }
+        // EnumSet iterates Monday to Sunday, i.e. in date order within the period
+        List<LocalDate> dates = new ArrayList<>(byDay.size());
+        for (DayOfWeek day : byDay) {
+            dates.add(periodStart.with(TemporalAdjusters.nextOrSame(day)));
+        }
+        return dates;
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        return switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Unsupported BYDAY value: " + code);
+        };
+    }
+}
@@ -0,0 +1,69 @@
+package com.scheduler.booking.util;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free token bucket.
+ *
+ * Implemented as the generic cell rate algorithm: instead of storing a token
+ * count and a refill timestamp, the bucket keeps a single "theoretical arrival
+ * time" (TAT) in an AtomicLong. Each permit pushes the TAT forward by one
+ * emission interval; a request is allowed while the TAT is no further than
+ * {@code capacity - 1} intervals in the future. This behaves exactly like a
+ * bucket of {@code capacity} tokens refilled at {@code permitsPerSecond}, and
+ * only ever needs a single CAS to update.
+ */
+public class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrivalTime;
+
+    public TokenBucket(long capacity, double permitsPerSecond) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        if (permitsPerSecond <= 0) {
+            throw new IllegalArgumentException("Permits per second must be positive");
+        }
+        this.emissionIntervalNanos = Math.max(1L, (long) (TimeUnit.SECONDS.toNanos(1) / permitsPerSecond));
+        this.burstToleranceNanos = emissionIntervalNanos * (capacity - 1);
+        this.theoreticalArrivalTime = new AtomicLong(System.nanoTime());
+    }
+
+    /**
+     * Take one permit if available.
+     *
+     * @return true if the permit was granted
+     */
+    public boolean tryAcquire() {
+        while (true) {
+            long now = System.nanoTime();
+            long tat = theoreticalArrivalTime.get();
+            long start = Math.max(tat, now);
+            if (start - now > burstToleranceNanos) {
+                return false;
+            }
+            if (theoreticalArrivalTime.compareAndSet(tat, start + emissionIntervalNanos)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Nanoseconds until the next permit becomes available (0 if one is available now).
+     */
+    public long nanosUntilAvailable() {
+        long now = System.nanoTime();
+        long wait = theoreticalArrivalTime.get() - burstToleranceNanos - now;
+        return Math.max(0L, wait);
+    }
+
+    /**
+     * Nanoseconds after a permit is taken by which the bucket has refilled completely
+     */
+    public long fullRefillNanos() {
+        return burstToleranceNanos + emissionIntervalNanos;
+    }
+}
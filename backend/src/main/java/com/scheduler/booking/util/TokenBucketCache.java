@@ -0,0 +1,59 @@
+package com.scheduler.booking.util;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Expiry;
+
+import java.util.function.Supplier;
+
+/**
+ * Bounded map of token buckets.
+ *
+ * A bucket expires once it has gone unused long enough to refill completely, so forgetting
+ * it never changes a decision. Beyond maxKeys, Caffeine's frequency-based eviction keeps the
+ * keys that are hit often: a flood of one-off keys is turned away at admission instead of
+ * evicting the buckets of clients that are busy (and likely throttled), so they do not get a
+ * fresh burst. Lookups and evictions cost amortized constant time, never a scan.
+ */
+public class TokenBucketCache {
+
+    private final Cache<String, TokenBucket> buckets;
+
+    public TokenBucketCache(int maxKeys) {
+        if (maxKeys < 1) {
+            throw new IllegalArgumentException("Need room for at least one key");
+        }
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfter(new Expiry<String, TokenBucket>() {
+                    @Override
+                    public long expireAfterCreate(String key, TokenBucket bucket, long currentTime) {
+                        return bucket.fullRefillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterUpdate(String key, TokenBucket bucket, long currentTime,
+                                                  long currentDuration) {
+                        return bucket.fullRefillNanos();
+                    }
+
+                    @Override
+                    public long expireAfterRead(String key, TokenBucket bucket, long currentTime,
+                                                long currentDuration) {
+                        return bucket.fullRefillNanos();
+                    }
+                })
+                .build();
+    }
+
+    /**
+     * Get the bucket for a key, creating it with the factory if absent
+     */
+    public TokenBucket get(String key, Supplier<TokenBucket> factory) {
+        return buckets.get(key, ignored -> factory.get());
+    }
+
+    public long size() {
+        return buckets.estimatedSize();
+    }
+}
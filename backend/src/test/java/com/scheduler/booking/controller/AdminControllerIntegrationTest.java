@@ -0,0 +1,60 @@
+package com.scheduler.booking.controller;
+
+import com.scheduler.booking.repository.TenantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class AdminControllerIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Test
+    public void testBulkImportStreamsOneResultPerCsvRow() throws Exception {
+        // Rows without an owner skip Clerk provisioning and are created straight away
+        String csv = """
+                name,slug,email
+                Import One,import-one,one@import.com
+                Import Two,import-two,not-an-email
+                Import Three,import-one,three@import.com
+                """;
+
+        MvcResult started = mockMvc.perform(post("/api/admin/tenants/bulk")
+                        .with(SecurityMockMvcRequestPostProcessors.jwt()
+                                .authorities(new SimpleGrantedAuthority("ROLE_ADMIN")))
+                        .contentType("text/csv")
+                        .content(csv))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        String body = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse().getContentAsString();
+
+        String[] lines = body.strip().split("\n");
+        assertEquals(3, lines.length, body);
+        assertTrue(lines[0].contains("\"slug\":\"import-one\"") && lines[0].contains("\"status\":\"CREATED\""), lines[0]);
+        assertTrue(lines[1].contains("\"status\":\"FAILED\""), lines[1]);
+        assertTrue(lines[2].contains("Duplicate slug in import"), lines[2]);
+        assertTrue(tenantRepository.findBySlug("import-one").isPresent());
+        assertTrue(tenantRepository.findBySlug("import-two").isEmpty());
+    }
+}
@@ -0,0 +1,186 @@
+package com.scheduler.booking.controller;
+
+import com.scheduler.booking.config.IdempotencyFilter;
+import com.scheduler.booking.model.SessionType;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.service.BusinessHoursService;
+import com.scheduler.booking.service.IdempotencyService;
+import com.scheduler.booking.support.TestBusinessHours;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+import org.springframework.test.web.servlet.request.MockHttpServletRequestBuilder;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class IdempotencyIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private SessionTypeRepository sessionTypeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private IdempotencyService idempotencyService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    private Tenant tenant;
+    private SessionType sessionType;
+
+    @BeforeEach
+    public void setUp() {
+        tenant = tenantRepository.findBySlug("idempotency-tenant").orElseGet(() -> {
+            Tenant created = new Tenant();
+            created.setName("Idempotency Tenant");
+            created.setSlug("idempotency-tenant");
+            created.setEmail("idempotency@tenant.com");
+            created.setStatus("ACTIVE");
+            created.setSubscriptionTier("BASIC");
+            Tenant saved = tenantRepository.save(created);
+            businessHoursService.updateAllBusinessHours(saved.getId(), TestBusinessHours.everyDay("08:00", "20:00"));
+            return saved;
+        });
+        sessionType = sessionTypeRepository.findByTenantId(tenant.getId()).stream().findFirst().orElseGet(() -> {
+            SessionType created = new SessionType();
+            created.setTenantId(tenant.getId());
+            created.setName("Idempotent Session");
+            created.setDurationMinutes(60);
+            created.setPrice(BigDecimal.ZERO);
+            created.setCapacity(1);
+            return sessionTypeRepository.save(created);
+        });
+    }
+
+    @Test
+    public void testRetryReplaysTheResponseRecordedOnAsyncDispatch() throws Exception {
+        String body = bookingBody(2, "replay@customer.com");
+
+        MvcResult started = mockMvc.perform(booking("replay-key", body, "198.51.100.1"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        MockHttpServletResponse first = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER))
+                .andReturn().getResponse();
+
+        // Recorded when the async dispatch finished, so the retry is answered without running again
+        MockHttpServletResponse replayed = mockMvc.perform(booking("replay-key", body, "198.51.100.1"))
+                .andExpect(request().asyncNotStarted())
+                .andExpect(status().isOk())
+                .andExpect(header().string(IdempotencyFilter.REPLAYED_HEADER, "true"))
+                .andReturn().getResponse();
+        assertEquals(first.getContentAsString(), replayed.getContentAsString());
+        assertEquals(1, bookingRepository.findByTenantId(tenant.getId()).stream()
+                .filter(booking -> "replay@customer.com".equals(booking.getCustomer().getEmail()))
+                .count());
+    }
+
+    @Test
+    public void testKeyReusedWithADifferentBodyIsRejected() throws Exception {
+        MvcResult started = mockMvc.perform(booking("mismatch-key", bookingBody(3, "mismatch@customer.com"),
+                        "198.51.100.2"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        mockMvc.perform(asyncDispatch(started)).andExpect(status().isOk());
+
+        mockMvc.perform(booking("mismatch-key", bookingBody(4, "mismatch@customer.com"), "198.51.100.2"))
+                .andExpect(status().isUnprocessableEntity())
+                .andExpect(header().doesNotExist(IdempotencyFilter.REPLAYED_HEADER));
+    }
+
+    @Test
+    public void testConcurrentDuplicateWaitsForTheFirstRequest() throws Exception {
+        String body = bookingBody(5, "concurrent@customer.com");
+
+        // The first request holds the key until its async dispatch records the response
+        MvcResult started = mockMvc.perform(booking("concurrent-key", body, "198.51.100.3"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        CompletableFuture<MockHttpServletResponse> duplicate = CompletableFuture.supplyAsync(() -> {
+            try {
+                return mockMvc.perform(booking("concurrent-key", body, "198.51.100.3")).andReturn().getResponse();
+            } catch (Exception e) {
+                throw new IllegalStateException(e);
+            }
+        });
+
+        Thread.sleep(300);
+        assertFalse(duplicate.isDone(), "The duplicate should wait for the first request to finish");
+
+        MockHttpServletResponse first = mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andReturn().getResponse();
+        MockHttpServletResponse second = duplicate.get(10, TimeUnit.SECONDS);
+        assertEquals(200, second.getStatus());
+        assertEquals("true", second.getHeader(IdempotencyFilter.REPLAYED_HEADER));
+        assertEquals(first.getContentAsString(), second.getContentAsString());
+    }
+
+    @Test
+    public void testKeyPastItsTtlIsClaimedAgainBeforeThePurge() {
+        LocalDateTime createdAt = LocalDateTime.now().minusDays(2);
+        jdbcTemplate.update("INSERT INTO idempotency_keys (cache_key, request_hash, created_at, expires_at, status_code) "
+                + "VALUES (?, ?, ?, ?, ?)", "expired-key", "old-hash", createdAt, createdAt.plusDays(1), 200);
+
+        long started = System.nanoTime();
+        IdempotencyService.Outcome outcome = idempotencyService.begin("expired-key", "new-hash");
+        idempotencyService.complete("expired-key", 200, MediaType.APPLICATION_JSON_VALUE, "{}");
+
+        assertEquals(IdempotencyService.Decision.PROCEED, outcome.decision());
+        assertTrue(System.nanoTime() - started < TimeUnit.SECONDS.toNanos(5));
+    }
+
+    private MockHttpServletRequestBuilder booking(String idempotencyKey, String body, String remoteAddr) {
+        return post("/api/customer/tenants/" + tenant.getId() + "/bookings")
+                .header(IdempotencyFilter.HEADER, idempotencyKey)
+                .contentType(MediaType.APPLICATION_JSON)
+                .content(body)
+                .with(request -> {
+                    request.setRemoteAddr(remoteAddr);
+                    return request;
+                });
+    }
+
+    private String bookingBody(int daysAhead, String email) {
+        long startTime = TestBusinessHours.daysAheadAt(daysAhead, 10).toEpochMilli();
+        return "{\"sessionTypeId\":\"" + sessionType.getId() + "\",\"startTime\":" + startTime
+                + ",\"firstName\":\"Ida\",\"lastName\":\"Empotent\",\"email\":\"" + email + "\"}";
+    }
+}
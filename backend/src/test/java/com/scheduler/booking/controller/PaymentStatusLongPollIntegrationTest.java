@@ -0,0 +1,134 @@
+package com.scheduler.booking.controller;
+
+import com.scheduler.booking.model.Payment;
+import com.scheduler.booking.repository.PaymentRepository;
+import com.scheduler.booking.service.PaymentStatusNotifier;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.math.BigDecimal;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.asyncDispatch;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.request;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class PaymentStatusLongPollIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private PaymentRepository paymentRepository;
+
+    @Autowired
+    private PaymentStatusNotifier paymentStatusNotifier;
+
+    @Autowired
+    private MeterRegistry meterRegistry;
+
+    @Test
+    public void testLongPollIsAnsweredWhenThePaymentIsPublished() throws Exception {
+        Payment payment = pendingPayment();
+
+        MvcResult started = mockMvc.perform(get("/api/stripe/payment-status/{id}", payment.getBookingId())
+                        .param("wait", "5s"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertEquals(1, waiters());
+
+        // What the webhook does on this node
+        payment.setStatus("COMPLETED");
+        paymentRepository.save(payment);
+        paymentStatusNotifier.publish(payment.getBookingId());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        assertEquals(0, waiters());
+    }
+
+    @Test
+    public void testLongPollIsAnsweredByANotificationFromAnotherNode() throws Exception {
+        Payment payment = pendingPayment();
+
+        MvcResult started = mockMvc.perform(get("/api/stripe/payment-status/{id}", payment.getBookingId())
+                        .param("wait", "5s"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        // The webhook landed on another node: only its NOTIFY payment_status reaches this one
+        payment.setStatus("FAILED");
+        paymentRepository.save(payment);
+        paymentStatusNotifier.onNotification(payment.getBookingId().toString());
+
+        mockMvc.perform(asyncDispatch(started))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("FAILED"));
+        assertEquals(0, waiters());
+
+        // Malformed payloads are ignored
+        paymentStatusNotifier.onNotification("not-a-booking-id");
+    }
+
+    @Test
+    public void testSettledPaymentIsAnsweredWithoutWaiting() throws Exception {
+        Payment payment = pendingPayment();
+        payment.setStatus("COMPLETED");
+        paymentRepository.save(payment);
+
+        MvcResult result = mockMvc.perform(get("/api/stripe/payment-status/{id}", payment.getBookingId())
+                        .param("wait", "30s"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.status").value("COMPLETED"));
+        assertEquals(0, waiters());
+    }
+
+    @Test
+    public void testUnknownBookingLeavesNoWaiter() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stripe/payment-status/{id}", UUID.randomUUID())
+                        .param("wait", "30s"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isNotFound());
+        assertEquals(0, waiters());
+    }
+
+    @Test
+    public void testMalformedWaitIsABadRequest() throws Exception {
+        MvcResult result = mockMvc.perform(get("/api/stripe/payment-status/{id}", UUID.randomUUID())
+                        .param("wait", "soon"))
+                .andReturn();
+        mockMvc.perform(asyncDispatch(result))
+                .andExpect(status().isBadRequest());
+        assertEquals(0, waiters());
+    }
+
+    private Payment pendingPayment() {
+        Payment payment = new Payment();
+        payment.setBookingId(UUID.randomUUID());
+        payment.setTenantId(UUID.randomUUID());
+        payment.setCustomerId(UUID.randomUUID());
+        payment.setAmount(new BigDecimal("25.00"));
+        payment.setStatus("PENDING");
+        return paymentRepository.save(payment);
+    }
+
+    private double waiters() {
+        return meterRegistry.get("payments.status.waiters").gauge().value();
+    }
+}
@@ -0,0 +1,90 @@
+package com.scheduler.booking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.request.RequestPostProcessor;
+
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "rate-limit.limits.customer-read.ip-per-second=0.1",
+        "rate-limit.limits.customer-read.ip-burst=2",
+        "rate-limit.limits.customer-read.tenant-per-second=0",
+        "rate-limit.limits.customer-read.tenant-burst=0"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class RateLimitIntegrationTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    public void testCustomerReadsBeyondBurstAreRejected() throws Exception {
+        String path = "/api/customer/tenants/" + UUID.randomUUID() + "/business-hours";
+        mockMvc.perform(get(path).with(from("203.0.113.7"))).andExpect(status().isOk());
+        mockMvc.perform(get(path).with(from("203.0.113.7"))).andExpect(status().isOk());
+
+        mockMvc.perform(get(path).with(from("203.0.113.7")))
+                .andExpect(status().isTooManyRequests())
+                .andExpect(header().exists("Retry-After"));
+
+        // Other clients have their own bucket
+        mockMvc.perform(get(path).with(from("203.0.113.8"))).andExpect(status().isOk());
+    }
+
+    @Test
+    public void testQueuedBookingsAreLeftToAdmissionControl() throws Exception {
+        String tenant = UUID.randomUUID().toString();
+
+        // Past the booking-write tenant burst (30), each from its own client: admission
+        // control decides, so the requests reach the controller (and fail validation)
+        for (int i = 0; i < 40; i++) {
+            mockMvc.perform(post("/api/customer/tenants/" + tenant + "/bookings")
+                            .contentType(MediaType.APPLICATION_JSON).content("{}")
+                            .with(from("198.51.100." + i)))
+                    .andExpect(status().isBadRequest());
+        }
+
+        // Writes that are not queued keep their tenant limit
+        int rejected = 0;
+        for (int i = 0; i < 40; i++) {
+            int status = mockMvc.perform(post("/api/customer/tenants/" + tenant + "/bookings/series")
+                            .contentType(MediaType.APPLICATION_JSON).content("{}")
+                            .with(from("192.0.2." + i)))
+                    .andReturn().getResponse().getStatus();
+            if (status == 429) {
+                rejected++;
+            }
+        }
+        assertTrue(rejected > 0, "Series bookings were not limited per tenant");
+    }
+
+    @Test
+    public void testStripeWebhookIsNotRateLimited() throws Exception {
+        for (int i = 0; i < 20; i++) {
+            int status = mockMvc.perform(post("/api/stripe/webhook").content("{}"))
+                    .andReturn().getResponse().getStatus();
+            assertNotEquals(429, status, "Webhook was rate limited");
+        }
+    }
+
+    private static RequestPostProcessor from(String remoteAddr) {
+        return request -> {
+            request.setRemoteAddr(remoteAddr);
+            return request;
+        };
+    }
+}
@@ -0,0 +1,131 @@
+package com.scheduler.booking.controller;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.condition.EnabledIfSystemProperty;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.env.Environment;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.MemoryPoolMXBean;
+import java.lang.management.MemoryType;
+import java.lang.management.ThreadMXBean;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Semaphore;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Throughput and memory of request handling under I/O-heavy load, for comparing platform
+ * and virtual request threads. Each request blocks for benchmark.latency-ms, standing in
+ * for a Stripe, Clerk or Mailgun round trip. Not part of the normal build; run once per mode:
+ *
+ * <pre>
+ * mvn -Pjava21 test -Dtest=ThreadingBenchmarkTest -Dbenchmark=true
+ * mvn -Pjava21 test -Dtest=ThreadingBenchmarkTest -Dbenchmark=true -Dspring.threads.virtual.enabled=true
+ * </pre>
+ */
+@SpringBootTest(webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT, properties = "rate-limit.enabled=false")
+@ActiveProfiles("test")
+@EnabledIfSystemProperty(named = "benchmark", matches = "true")
+public class ThreadingBenchmarkTest {
+
+    private static final int REQUESTS = Integer.getInteger("benchmark.requests", 5000);
+    private static final int CONCURRENCY = Integer.getInteger("benchmark.concurrency", 1000);
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private Environment environment;
+
+    @TestConfiguration
+    static class BenchmarkEndpointConfig {
+        @Bean
+        SlowEndpoint slowEndpoint() {
+            return new SlowEndpoint();
+        }
+    }
+
+    @RestController
+    static class SlowEndpoint {
+
+        @Value("${benchmark.latency-ms:100}")
+        private long latencyMillis;
+
+        // Under /api/customer so it is reachable without authentication
+        @GetMapping("/api/customer/benchmark/io")
+        public String io() throws InterruptedException {
+            Thread.sleep(latencyMillis);
+            return "ok";
+        }
+    }
+
+    @Test
+    public void blockingIoThroughput() throws Exception {
+        HttpClient client = HttpClient.newBuilder().version(HttpClient.Version.HTTP_1_1).build();
+        HttpRequest request = HttpRequest.newBuilder(URI.create("http://localhost:" + port + "/api/customer/benchmark/io")).build();
+
+        // Warm up
+        run(client, request, Math.min(REQUESTS, 500));
+
+        ThreadMXBean threads = ManagementFactory.getThreadMXBean();
+        List<MemoryPoolMXBean> heapPools = ManagementFactory.getMemoryPoolMXBeans().stream()
+                .filter(pool -> pool.getType() == MemoryType.HEAP)
+                .toList();
+        System.gc();
+        threads.resetPeakThreadCount();
+        heapPools.forEach(MemoryPoolMXBean::resetPeakUsage);
+
+        long start = System.nanoTime();
+        List<Long> latencies = run(client, request, REQUESTS);
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        long peakHeap = heapPools.stream().mapToLong(pool -> pool.getPeakUsage().getUsed()).sum();
+        Collections.sort(latencies);
+        System.out.printf("%n=== %s threads: %d requests, concurrency %d ===%n",
+                Threading.VIRTUAL.isActive(environment) ? "virtual" : "platform", REQUESTS, CONCURRENCY);
+        System.out.printf("throughput      %.0f req/s%n", REQUESTS / seconds);
+        System.out.printf("latency p50/p99 %d / %d ms%n",
+                latencies.get(latencies.size() / 2) / 1_000_000,
+                latencies.get((int) (latencies.size() * 0.99)) / 1_000_000);
+        System.out.printf("peak threads    %d (platform, whole JVM)%n", threads.getPeakThreadCount());
+        System.out.printf("peak heap       %d MB%n%n", peakHeap / (1024 * 1024));
+
+        assertEquals(REQUESTS, latencies.size());
+    }
+
+    private List<Long> run(HttpClient client, HttpRequest request, int count) throws InterruptedException {
+        Semaphore inFlight = new Semaphore(CONCURRENCY);
+        List<Long> latencies = Collections.synchronizedList(new ArrayList<>(count));
+        List<CompletableFuture<?>> futures = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            inFlight.acquire();
+            long sent = System.nanoTime();
+            futures.add(client.sendAsync(request, HttpResponse.BodyHandlers.discarding())
+                    .whenComplete((response, error) -> {
+                        inFlight.release();
+                        if (error == null && response.statusCode() == 200) {
+                            latencies.add(System.nanoTime() - sent);
+                        }
+                    }));
+        }
+        CompletableFuture.allOf(futures.toArray(new CompletableFuture[0])).exceptionally(error -> null).join();
+        return new ArrayList<>(latencies);
+    }
+}
@@ -0,0 +1,174 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BlockedSlotRequest;
+import com.scheduler.booking.dto.BulkBlockedSlotResponse;
+import com.scheduler.booking.model.BlockedSlot;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BlockedSlotRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BlockedSlotServiceIntegrationTest {
+
+    @Autowired
+    private BlockedSlotService blockedSlotService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private BlockedSlotRepository blockedSlotRepository;
+
+    @Test
+    public void testBulkRangesAreMergedWithExistingBlocks() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Block Tenant");
+        tenant.setSlug("block-tenant");
+        tenant.setEmail("block@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+
+        LocalDateTime day = LocalDateTime.now().plusDays(5).truncatedTo(ChronoUnit.DAYS);
+        BlockedSlot existing = new BlockedSlot();
+        existing.setTenantId(tenant.getId());
+        existing.setStartTime(day.withHour(9));
+        existing.setEndTime(day.withHour(10));
+        existing.setReason("Dentist");
+        existing = blockedSlotRepository.save(existing);
+
+        // 10-11 touches the existing block and 10:30-12 overlaps it; 15-16 stands alone
+        BulkBlockedSlotResponse response = blockedSlotService.blockRanges(tenant.getId(), "owner", List.of(
+                range(day.withHour(10), day.withHour(11)),
+                range(day.withHour(10).withMinute(30), day.withHour(12)),
+                range(day.withHour(15), day.withHour(16))));
+
+        List<BlockedSlot> slots = blockedSlotRepository.findByTenantId(tenant.getId()).stream()
+                .sorted(Comparator.comparing(BlockedSlot::getStartTime))
+                .toList();
+        assertEquals(2, slots.size());
+        assertEquals(existing.getId(), slots.get(0).getId());
+        assertEquals(day.withHour(9), slots.get(0).getStartTime());
+        assertEquals(day.withHour(12), slots.get(0).getEndTime());
+        assertEquals("Dentist", slots.get(0).getReason());
+        assertEquals(day.withHour(15), slots.get(1).getStartTime());
+        assertEquals(0, response.getRemovedSlots());
+        assertTrue(response.getConflictingBookings().isEmpty());
+
+        // Legacy fragments written one at a time are coalesced by the compaction job
+        BlockedSlot fragment = new BlockedSlot();
+        fragment.setTenantId(tenant.getId());
+        fragment.setStartTime(day.withHour(16));
+        fragment.setEndTime(day.withHour(17));
+        blockedSlotRepository.save(fragment);
+
+        assertEquals(1, blockedSlotService.compact(tenant.getId()));
+        assertEquals(2, blockedSlotRepository.findByTenantId(tenant.getId()).size());
+    }
+
+    @Test
+    public void testRecurringBlockIsExpandedOnlyInsideTheWindow() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Recurring Block Tenant");
+        tenant.setSlug("recurring-block-tenant");
+        tenant.setEmail("recurring-block@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+
+        // Every other Friday, 12:00-13:00, with no end
+        LocalDateTime firstFriday = LocalDateTime.now().truncatedTo(ChronoUnit.DAYS)
+                .with(TemporalAdjusters.next(DayOfWeek.FRIDAY)).withHour(12);
+        BlockedSlot recurring = new BlockedSlot();
+        recurring.setTenantId(tenant.getId());
+        recurring.setStartTime(firstFriday);
+        recurring.setEndTime(firstFriday.plusHours(1));
+        recurring.setRecurrenceRule("FREQ=WEEKLY;INTERVAL=2;BYDAY=FR");
+        recurring = blockedSlotService.save(recurring);
+        assertNull(recurring.getRecurrenceEnd());
+
+        // Three years on: only the occurrences inside the eight-week window come back
+        LocalDateTime from = firstFriday.plusWeeks(156).minusDays(3);
+        List<BlockedSlot> blocking = blockedSlotService.findBlocking(tenant.getId(), from, from.plusWeeks(8));
+        assertEquals(4, blocking.size());
+        for (BlockedSlot occurrence : blocking) {
+            assertEquals(recurring.getId(), occurrence.getId());
+            assertEquals(DayOfWeek.FRIDAY, occurrence.getStartTime().getDayOfWeek());
+            assertEquals(0, ChronoUnit.WEEKS.between(firstFriday, occurrence.getStartTime()) % 2);
+        }
+
+        // The off weeks stay free
+        LocalDateTime offFriday = firstFriday.plusWeeks(157);
+        assertTrue(blockedSlotService.findBlocking(tenant.getId(), offFriday, offFriday.plusHours(1)).isEmpty());
+        assertEquals(1, blockedSlotRepository.findByTenantId(tenant.getId()).size());
+
+        BlockedSlot invalid = new BlockedSlot();
+        invalid.setTenantId(tenant.getId());
+        invalid.setStartTime(firstFriday.plusDays(1));
+        invalid.setEndTime(firstFriday.plusDays(1).plusHours(1));
+        invalid.setRecurrenceRule("FREQ=WEEKLY;BYDAY=FR");
+        RuntimeException refused = assertThrows(RuntimeException.class, () -> blockedSlotService.save(invalid));
+        assertTrue(refused.getMessage().contains("BYDAY"), refused.getMessage());
+    }
+
+    @Test
+    public void testRecurringBlockIsExpandedInTheTenantsTimezone() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Amsterdam Block Tenant");
+        tenant.setSlug("amsterdam-block-tenant");
+        tenant.setEmail("amsterdam-block@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant.setTimezone("Europe/Amsterdam");
+        tenant = tenantRepository.save(tenant);
+        ZoneId amsterdam = ZoneId.of("Europe/Amsterdam");
+
+        // Weekday lunch 12:00-13:00 in Amsterdam from a winter Monday, stored in server time
+        LocalDateTime firstLunch = serverTime(LocalDateTime.of(2026, 3, 2, 12, 0), amsterdam);
+        BlockedSlot lunch = new BlockedSlot();
+        lunch.setTenantId(tenant.getId());
+        lunch.setStartTime(firstLunch);
+        lunch.setEndTime(firstLunch.plusHours(1));
+        lunch.setRecurrenceRule("FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR;UNTIL=20260430");
+        lunch = blockedSlotService.save(lunch);
+        // UNTIL is a date in the tenant's zone: the block ends with 30 April there
+        assertTrue(lunch.getRecurrenceEnd().isAfter(serverTime(LocalDateTime.of(2026, 4, 30, 23, 59), amsterdam)));
+        assertTrue(lunch.getRecurrenceEnd().isBefore(serverTime(LocalDateTime.of(2026, 5, 1, 1, 0), amsterdam)));
+
+        // After the clocks go forward (29 March) lunch is still at noon in Amsterdam
+        LocalDateTime from = serverTime(LocalDateTime.of(2026, 4, 6, 0, 0), amsterdam);
+        List<BlockedSlot> blocking = blockedSlotService.findBlocking(tenant.getId(), from, from.plusDays(7));
+        assertEquals(5, blocking.size());
+        for (BlockedSlot occurrence : blocking) {
+            assertEquals(12, occurrence.getStartTime().atZone(ZoneId.systemDefault())
+                    .withZoneSameInstant(amsterdam).getHour());
+            assertEquals(60, ChronoUnit.MINUTES.between(occurrence.getStartTime(), occurrence.getEndTime()));
+        }
+    }
+
+    private static LocalDateTime serverTime(LocalDateTime local, ZoneId zone) {
+        return local.atZone(zone).withZoneSameInstant(ZoneId.systemDefault()).toLocalDateTime();
+    }
+
+    private static BlockedSlotRequest range(LocalDateTime start, LocalDateTime end) {
+        BlockedSlotRequest request = new BlockedSlotRequest();
+        request.setStartTime(start.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        request.setEndTime(end.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+        return request;
+    }
+}
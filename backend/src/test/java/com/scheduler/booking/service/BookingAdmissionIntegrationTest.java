@@ -0,0 +1,88 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.SessionType;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.support.TestBusinessHours;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingAdmissionIntegrationTest {
+
+    @Autowired
+    private BookingAdmissionService bookingAdmissionService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private SessionTypeRepository sessionTypeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Test
+    public void testConcurrentRequestsForOneSlotBookItOnce() throws Exception {
+        Tenant tenant = new Tenant();
+        tenant.setName("Slot Drop Tenant");
+        tenant.setSlug("slot-drop-tenant");
+        tenant.setEmail("slots@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+        businessHoursService.updateAllBusinessHours(tenant.getId(), TestBusinessHours.everyDay("08:00", "20:00"));
+
+        SessionType sessionType = new SessionType();
+        sessionType.setTenantId(tenant.getId());
+        sessionType.setName("Popular Class");
+        sessionType.setDurationMinutes(60);
+        sessionType.setPrice(BigDecimal.ZERO);
+        sessionType.setCapacity(1);
+        sessionType = sessionTypeRepository.save(sessionType);
+
+        long startTime = TestBusinessHours.daysAheadAt(2, 10).toEpochMilli();
+        List<CompletableFuture<Booking>> results = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            BookingRequest request = new BookingRequest();
+            request.setSessionTypeId(sessionType.getId());
+            request.setStartTime(startTime);
+            request.setEmail("customer" + i + "@slotdrop.com");
+            request.setFirstName("Customer");
+            request.setLastName(Integer.toString(i));
+            results.add(bookingAdmissionService.submit(tenant.getId(), request));
+        }
+
+        int booked = 0;
+        for (CompletableFuture<Booking> result : results) {
+            try {
+                assertNotNull(result.get(30, TimeUnit.SECONDS).getId());
+                booked++;
+            } catch (ExecutionException e) {
+                assertTrue(e.getCause().getMessage().contains("no longer available"), e.getCause().getMessage());
+            }
+        }
+
+        assertEquals(1, booked);
+        assertEquals(1, bookingRepository.findByTenantId(tenant.getId()).size());
+    }
+}
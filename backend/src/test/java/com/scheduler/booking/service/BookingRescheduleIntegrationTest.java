@@ -0,0 +1,127 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BookingRequest;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.SessionType;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.support.TestBusinessHours;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingRescheduleIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private SessionTypeRepository sessionTypeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BookingManageTokenService manageTokenService;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Test
+    public void testRescheduleMovesTheBookingAndBumpsTheSequence() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Reschedule Tenant");
+        tenant.setSlug("reschedule-tenant");
+        tenant.setEmail("reschedule@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+        businessHoursService.updateAllBusinessHours(tenant.getId(), TestBusinessHours.everyDay("08:00", "20:00"));
+
+        SessionType sessionType = new SessionType();
+        sessionType.setTenantId(tenant.getId());
+        sessionType.setName("Reschedulable Session");
+        sessionType.setDurationMinutes(60);
+        sessionType.setPrice(BigDecimal.ZERO);
+        sessionType.setCapacity(1);
+        sessionType = sessionTypeRepository.save(sessionType);
+
+        Instant start = TestBusinessHours.daysAheadAt(4, 10);
+        Booking booking = bookingService.createBooking(tenant.getId(),
+                request(sessionType, start, "mover@customer.com"), null);
+        bookingService.createBooking(tenant.getId(),
+                request(sessionType, start.plus(Duration.ofHours(3)), "other@customer.com"), null);
+        assertEquals(0, booking.getIcsSequence());
+
+        // Happy path: an overlapping move onto part of its own old time is allowed
+        Instant moved = start.plus(Duration.ofMinutes(30));
+        String token = manageTokenService.issue(booking.getId());
+        // The manage page loads the booking and its business with the same token
+        assertEquals(tenant.getId(), bookingService.getManagedBooking(booking.getId(), token).getTenant().getId());
+        assertThrows(RuntimeException.class, () -> bookingService.getManagedBooking(booking.getId(), "not-the-token"));
+        Booking rescheduled = bookingService.rescheduleBooking(booking.getId(), null, token, moved.toEpochMilli());
+        LocalDateTime movedStart = LocalDateTime.ofInstant(moved, ZoneId.systemDefault());
+        assertEquals(movedStart, rescheduled.getStartTime());
+        assertEquals(movedStart.plusHours(1), rescheduled.getEndTime());
+        assertEquals(1, rescheduled.getIcsSequence());
+
+        Booking stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(movedStart, stored.getStartTime());
+        assertEquals(1, stored.getIcsSequence());
+        assertEquals("CONFIRMED", stored.getStatus());
+
+        // Slot taken: overlapping the other booking is refused and nothing changes
+        RuntimeException taken = assertThrows(RuntimeException.class, () -> bookingService.rescheduleBooking(
+                booking.getId(), null, token, start.plus(Duration.ofHours(3)).toEpochMilli()));
+        assertTrue(taken.getMessage().contains("no longer available"), taken.getMessage());
+        stored = bookingRepository.findById(booking.getId()).orElseThrow();
+        assertEquals(movedStart, stored.getStartTime());
+        assertEquals(1, stored.getIcsSequence());
+
+        // Outside business hours: ending after 20:00 is refused
+        RuntimeException closed = assertThrows(RuntimeException.class, () -> bookingService.rescheduleBooking(
+                booking.getId(), null, token, start.plus(Duration.ofHours(9).plusMinutes(30)).toEpochMilli()));
+        assertTrue(closed.getMessage().contains("outside business hours"), closed.getMessage());
+        assertEquals(movedStart, bookingRepository.findById(booking.getId()).orElseThrow().getStartTime());
+
+        // Neither another tenant's business nor a customer without this booking's token can move it
+        assertThrows(RuntimeException.class, () -> bookingService.rescheduleBooking(booking.getId(),
+                UUID.randomUUID(), null, start.plus(Duration.ofDays(1)).toEpochMilli()));
+        assertThrows(RuntimeException.class, () -> bookingService.rescheduleBooking(booking.getId(), null,
+                "mover@customer.com", start.plus(Duration.ofDays(1)).toEpochMilli()));
+        assertThrows(RuntimeException.class, () -> bookingService.rescheduleBooking(booking.getId(), null,
+                manageTokenService.issue(UUID.randomUUID()), start.plus(Duration.ofDays(1)).toEpochMilli()));
+
+        // A second move bumps the sequence again
+        Booking again = bookingService.rescheduleBooking(booking.getId(), tenant.getId(), null,
+                start.plus(Duration.ofDays(1)).toEpochMilli());
+        assertEquals(2, again.getIcsSequence());
+    }
+
+    private static BookingRequest request(SessionType sessionType, Instant start, String email) {
+        BookingRequest request = new BookingRequest();
+        request.setSessionTypeId(sessionType.getId());
+        request.setStartTime(start.toEpochMilli());
+        request.setFirstName("Re");
+        request.setLastName("Schedule");
+        request.setEmail(email);
+        return request;
+    }
+}
@@ -0,0 +1,160 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BookingSeriesRequest;
+import com.scheduler.booking.dto.BusinessHoursOverrideRequest;
+import com.scheduler.booking.model.BlockedSlot;
+import com.scheduler.booking.model.Booking;
+import com.scheduler.booking.model.SessionType;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.BookingRepository;
+import com.scheduler.booking.repository.SessionTypeRepository;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.support.TestBusinessHours;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BookingSeriesIntegrationTest {
+
+    @Autowired
+    private BookingService bookingService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Autowired
+    private SessionTypeRepository sessionTypeRepository;
+
+    @Autowired
+    private BookingRepository bookingRepository;
+
+    @Autowired
+    private BlockedSlotService blockedSlotService;
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Test
+    public void testWeeklySeriesIsBookedAllOrNothing() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Weekly Tenant");
+        tenant.setSlug("weekly-tenant");
+        tenant.setEmail("weekly@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+        businessHoursService.updateAllBusinessHours(tenant.getId(), TestBusinessHours.everyDay("08:00", "20:00"));
+
+        SessionType sessionType = new SessionType();
+        sessionType.setTenantId(tenant.getId());
+        sessionType.setName("Weekly Class");
+        sessionType.setDurationMinutes(60);
+        sessionType.setPrice(BigDecimal.ZERO);
+        sessionType.setCapacity(1);
+        sessionType = sessionTypeRepository.save(sessionType);
+
+        Instant firstStart = TestBusinessHours.daysAheadAt(3, 10);
+        List<Booking> series = bookingService.createSeries(tenant.getId(),
+                seriesRequest(sessionType, firstStart, 12, "first@weekly.com"), null);
+
+        assertEquals(12, series.size());
+        assertNotNull(series.get(0).getSeriesId());
+        assertTrue(series.stream().allMatch(booking -> series.get(0).getSeriesId().equals(booking.getSeriesId())));
+        assertEquals(12, bookingRepository.findByTenantId(tenant.getId()).size());
+
+        // Clashes with the fourth occurrence of the first series, so none of it is booked
+        SessionType finalSessionType = sessionType;
+        RuntimeException refused = assertThrows(RuntimeException.class, () -> bookingService.createSeries(
+                finalSessionType.getTenantId(),
+                seriesRequest(finalSessionType, firstStart.plus(Duration.ofDays(21)), 4, "second@weekly.com"), null));
+        assertTrue(refused.getMessage().contains("not available"), refused.getMessage());
+        assertEquals(12, bookingRepository.findByTenantId(tenant.getId()).size());
+
+        // A series reaching a day the business has closed is refused with that date
+        LocalDate holiday = firstStart.plus(Duration.ofDays(12 * 7)).atOffset(ZoneOffset.UTC).toLocalDate();
+        BusinessHoursOverrideRequest closed = new BusinessHoursOverrideRequest();
+        closed.setDate(holiday.toString());
+        businessHoursService.createOverride(tenant.getId(), closed);
+        RuntimeException onHoliday = assertThrows(RuntimeException.class, () -> bookingService.createSeries(
+                finalSessionType.getTenantId(),
+                seriesRequest(finalSessionType, firstStart.plus(Duration.ofDays(11 * 7).plusHours(2)), 2,
+                        "third@weekly.com"), null));
+        assertTrue(onHoliday.getMessage().contains(holiday.toString()), onHoliday.getMessage());
+        assertFalse(onHoliday.getMessage().contains(holiday.minusWeeks(1).toString()), onHoliday.getMessage());
+        assertEquals(12, bookingRepository.findByTenantId(tenant.getId()).size());
+    }
+
+    @Test
+    public void testSeriesLongerThanTheExpansionWindowIsCheckedPerCluster() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Long Series Tenant");
+        tenant.setSlug("long-series-tenant");
+        tenant.setEmail("long-series@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+        businessHoursService.updateAllBusinessHours(tenant.getId(), TestBusinessHours.everyDay("08:00", "20:00"));
+
+        SessionType sessionType = new SessionType();
+        sessionType.setTenantId(tenant.getId());
+        sessionType.setName("Monthly Class");
+        sessionType.setDurationMinutes(60);
+        sessionType.setPrice(BigDecimal.ZERO);
+        sessionType.setCapacity(1);
+        sessionType = sessionTypeRepository.save(sessionType);
+
+        // Every four weeks for 30 sessions spans about 2.2 years, beyond the 731-day expansion window
+        Instant firstStart = TestBusinessHours.daysAheadAt(3, 10);
+        Instant blockedFrom = firstStart.plus(Duration.ofDays(28L * 28));
+        LocalDateTime blockStart = LocalDateTime.ofInstant(blockedFrom, ZoneId.systemDefault()).minusHours(1);
+        BlockedSlot weekly = new BlockedSlot();
+        weekly.setTenantId(tenant.getId());
+        weekly.setStartTime(blockStart);
+        weekly.setEndTime(blockStart.plusHours(3));
+        weekly.setRecurrenceRule("FREQ=WEEKLY");
+        blockedSlotService.save(weekly);
+
+        SessionType finalSessionType = sessionType;
+        BookingSeriesRequest request = seriesRequest(finalSessionType, firstStart, 30, "long@series.com");
+        request.setIntervalWeeks(4);
+        RuntimeException refused = assertThrows(RuntimeException.class,
+                () -> bookingService.createSeries(finalSessionType.getTenantId(), request, null));
+        // Only the last two sessions fall on the weekly block
+        String message = refused.getMessage();
+        assertTrue(message.startsWith("These dates are not available"), message);
+        assertTrue(message.contains(blockedFrom.atOffset(ZoneOffset.UTC).toLocalDate().toString()), message);
+        assertFalse(message.contains(blockedFrom.minus(Duration.ofDays(28)).atOffset(ZoneOffset.UTC)
+                .toLocalDate().toString()), message);
+
+        // The same series ending before the block is booked in full
+        BookingSeriesRequest shorter = seriesRequest(finalSessionType, firstStart, 28, "long@series.com");
+        shorter.setIntervalWeeks(4);
+        assertEquals(28, bookingService.createSeries(tenant.getId(), shorter, null).size());
+    }
+
+    private static BookingSeriesRequest seriesRequest(SessionType sessionType, Instant firstStart, int count,
+                                                      String email) {
+        BookingSeriesRequest request = new BookingSeriesRequest();
+        request.setSessionTypeId(sessionType.getId());
+        request.setStartTime(firstStart.toEpochMilli());
+        request.setCount(count);
+        request.setEmail(email);
+        request.setFirstName("Weekly");
+        request.setLastName("Customer");
+        return request;
+    }
+}
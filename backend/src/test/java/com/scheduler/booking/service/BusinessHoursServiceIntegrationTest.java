@@ -0,0 +1,83 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.dto.BusinessHoursOverrideRequest;
+import com.scheduler.booking.dto.BusinessHoursRequest;
+import com.scheduler.booking.model.Tenant;
+import com.scheduler.booking.repository.TenantRepository;
+import com.scheduler.booking.util.CompiledWeeklySchedule;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class BusinessHoursServiceIntegrationTest {
+
+    @Autowired
+    private BusinessHoursService businessHoursService;
+
+    @Autowired
+    private TenantRepository tenantRepository;
+
+    @Test
+    public void testOverridesReplaceWeeklyHoursAndScheduleFollowsVersion() {
+        Tenant tenant = new Tenant();
+        tenant.setName("Hours Tenant");
+        tenant.setSlug("hours-tenant");
+        tenant.setEmail("hours@tenant.com");
+        tenant.setStatus("ACTIVE");
+        tenant.setSubscriptionTier("BASIC");
+        tenant = tenantRepository.save(tenant);
+
+        // Overlapping Monday windows are merged into 09:00-17:00
+        businessHoursService.updateAllBusinessHours(tenant.getId(), List.of(
+                hours(DayOfWeek.MONDAY, "09:00", "12:00"),
+                hours(DayOfWeek.MONDAY, "11:00", "17:00")));
+        assertTrue(businessHoursService.isWithinBusinessHours(tenant.getId(), DayOfWeek.MONDAY, LocalTime.of(16, 59)));
+        assertFalse(businessHoursService.isWithinBusinessHours(tenant.getId(), DayOfWeek.MONDAY, LocalTime.of(17, 0)));
+        assertFalse(businessHoursService.isWithinBusinessHours(tenant.getId(), DayOfWeek.TUESDAY, LocalTime.of(10, 0)));
+
+        CompiledWeeklySchedule schedule = businessHoursService.getSchedule(tenant.getId());
+        assertSame(schedule, businessHoursService.getSchedule(tenant.getId()));
+        LocalDate holiday = LocalDate.now().with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+        assertTrue(schedule.covers(holiday, 10 * 60, 16 * 60));
+
+        // Closed on one Monday, open late on the Tuesday after it
+        businessHoursService.createOverride(tenant.getId(), override(holiday, null, null));
+        businessHoursService.createOverride(tenant.getId(), override(holiday.plusDays(1), "18:00", "21:00"));
+
+        CompiledWeeklySchedule recompiled = businessHoursService.getSchedule(tenant.getId());
+        assertNotSame(schedule, recompiled);
+        assertTrue(recompiled.version() > schedule.version());
+        assertFalse(businessHoursService.isWithinBusinessHours(tenant.getId(), holiday, LocalTime.of(10, 0)));
+        assertTrue(businessHoursService.isWithinBusinessHours(tenant.getId(), holiday.plusWeeks(1), LocalTime.of(10, 0)));
+        assertTrue(businessHoursService.isWithinBusinessHours(tenant.getId(), holiday.plusDays(1), LocalTime.of(20, 0)));
+        assertFalse(recompiled.covers(holiday.plusDays(1), 20 * 60, 22 * 60));
+        assertEquals(2, businessHoursService.getOverrides(tenant.getId(), LocalDate.now()).size());
+    }
+
+    private static BusinessHoursRequest hours(DayOfWeek day, String start, String end) {
+        BusinessHoursRequest request = new BusinessHoursRequest();
+        request.setDayOfWeek(day);
+        request.setStartTime(start);
+        request.setEndTime(end);
+        return request;
+    }
+
+    private static BusinessHoursOverrideRequest override(LocalDate date, String start, String end) {
+        BusinessHoursOverrideRequest request = new BusinessHoursOverrideRequest();
+        request.setDate(date.toString());
+        request.setStartTime(start);
+        request.setEndTime(end);
+        return request;
+    }
+}
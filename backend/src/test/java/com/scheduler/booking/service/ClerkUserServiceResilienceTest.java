@@ -0,0 +1,135 @@
+package com.scheduler.booking.service;
+
+import com.sun.net.httpserver.HttpServer;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Runs ClerkUserService against a local stub that can inject latency and error statuses,
+ * to check that a misbehaving provider fails fast instead of holding request threads,
+ * and that rejected requests (4xx) do not count against its circuit.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ClerkUserServiceResilienceTest {
+
+    private static final HttpServer stub;
+    private static final AtomicLong stubDelayMillis = new AtomicLong();
+    private static final AtomicInteger stubStatus = new AtomicInteger(200);
+    private static final AtomicInteger stubRequests = new AtomicInteger();
+
+    static {
+        try {
+            stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        stub.setExecutor(Executors.newCachedThreadPool());
+        stub.createContext("/users", exchange -> {
+            stubRequests.incrementAndGet();
+            try {
+                Thread.sleep(stubDelayMillis.get());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            byte[] body = "{\"id\":\"user_stub\"}".getBytes(StandardCharsets.UTF_8);
+            exchange.getResponseHeaders().add("Content-Type", "application/json");
+            exchange.sendResponseHeaders(stubStatus.get(), body.length);
+            try (OutputStream out = exchange.getResponseBody()) {
+                out.write(body);
+            }
+        });
+        stub.start();
+    }
+
+    @DynamicPropertySource
+    static void clerkStubProperties(DynamicPropertyRegistry registry) {
+        registry.add("clerk.api-base-url", () -> "http://127.0.0.1:" + stub.getAddress().getPort());
+        registry.add("http.client.read-timeouts.clerk", () -> "300ms");
+        registry.add("resilience4j.circuitbreaker.instances.clerk.sliding-window-size", () -> "5");
+        registry.add("resilience4j.circuitbreaker.instances.clerk.minimum-number-of-calls", () -> "5");
+    }
+
+    @AfterAll
+    static void stopStub() {
+        stub.stop(0);
+    }
+
+    @Autowired
+    private ClerkUserService clerkUserService;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @BeforeEach
+    void resetStub() {
+        stubDelayMillis.set(0);
+        stubStatus.set(200);
+        stubRequests.set(0);
+        circuitBreakerRegistry.circuitBreaker("clerk").reset();
+    }
+
+    @Test
+    public void testSlowProviderTimesOut() {
+        stubDelayMillis.set(2000);
+
+        long start = System.nanoTime();
+        assertThrows(RuntimeException.class, () -> clerkUserService.getUser("user_stub"));
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        assertTrue(elapsedMillis < 1500, "Call should be cut off by the read timeout, took " + elapsedMillis + "ms");
+    }
+
+    @Test
+    public void testCircuitOpensAfterRepeatedFailures() {
+        stubStatus.set(500);
+
+        for (int i = 0; i < 5; i++) {
+            assertThrows(RuntimeException.class, () -> clerkUserService.getUser("user_stub"));
+        }
+        assertEquals(CircuitBreaker.State.OPEN, circuitBreakerRegistry.circuitBreaker("clerk").getState());
+
+        // Further calls are rejected without reaching Clerk
+        int requestsBefore = stubRequests.get();
+        RuntimeException e = assertThrows(RuntimeException.class, () -> clerkUserService.getUser("user_stub"));
+        assertInstanceOf(CallNotPermittedException.class, e.getCause());
+        assertEquals(requestsBefore, stubRequests.get());
+    }
+
+    @Test
+    public void testClientErrorsDoNotOpenTheCircuit() {
+        stubStatus.set(404);
+
+        for (int i = 0; i < 10; i++) {
+            assertThrows(RuntimeException.class, () -> clerkUserService.getUser("user_stub"));
+        }
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("clerk");
+        assertEquals(CircuitBreaker.State.CLOSED, circuitBreaker.getState());
+        assertEquals(0, circuitBreaker.getMetrics().getNumberOfFailedCalls());
+        assertEquals(10, stubRequests.get());
+    }
+
+    @Test
+    public void testHealthyProviderSucceeds() {
+        assertEquals("user_stub", clerkUserService.getUser("user_stub").get("id"));
+    }
+}
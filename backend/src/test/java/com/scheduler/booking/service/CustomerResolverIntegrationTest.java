@@ -0,0 +1,83 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.model.Customer;
+import com.scheduler.booking.repository.CustomerRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+@SpringBootTest
+@ActiveProfiles("test")
+public class CustomerResolverIntegrationTest {
+
+    @Autowired
+    private CustomerResolver customerResolver;
+
+    @Autowired
+    private CustomerRepository customerRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Test
+    public void testConcurrentFirstBookingsShareOneCustomer() throws Exception {
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<UUID>> results = new ArrayList<>();
+            for (int i = 0; i < 16; i++) {
+                String email = i % 2 == 0 ? "repeat@customer.com" : " Repeat@Customer.COM ";
+                results.add(executor.submit(() -> customerResolver.resolve(email, "Repeat", "Customer", null)));
+            }
+
+            Set<UUID> ids = new HashSet<>();
+            for (Future<UUID> result : results) {
+                ids.add(result.get(30, TimeUnit.SECONDS));
+            }
+            assertEquals(1, ids.size());
+
+            Customer customer = customerRepository.findByEmail("repeat@customer.com").orElseThrow();
+            assertEquals(ids.iterator().next(), customer.getId());
+            assertEquals("Repeat", customer.getFirstName());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testExistingCustomerKeepsStoredDetails() {
+        UUID first = customerResolver.resolve("kept@customer.com", "Original", "Name", "123");
+        UUID second = customerResolver.resolve("kept@customer.com", "Other", "Person", "456");
+
+        assertEquals(first, second);
+        Customer customer = customerRepository.findById(first).orElseThrow();
+        assertEquals("Original", customer.getFirstName());
+        assertEquals("123", customer.getPhone());
+    }
+
+    @Test
+    public void testEmailsAreStoredNormalised() {
+        UUID id = customerResolver.resolve("Mixed.Case@Customer.com", "Mixed", "Case", null);
+        assertEquals(id, customerResolver.resolve("mixed.case@customer.com ", "Other", "Name", null));
+        assertEquals(id, customerRepository.findByEmail("mixed.case@customer.com").orElseThrow().getId());
+
+        // A row written around the resolver cannot bring back a case-only duplicate
+        assertThrows(DataIntegrityViolationException.class, () -> jdbcTemplate.update(
+                "INSERT INTO customers (id, email, first_name, last_name, timezone) VALUES (?, ?, 'X', 'Y', 'UTC')",
+                UUID.randomUUID(), "Mixed.Case@Customer.com"));
+    }
+}
@@ -0,0 +1,173 @@
+package com.scheduler.booking.service;
+
+import com.scheduler.booking.support.LocalS3Server;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.mock.web.MockMultipartFile;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Runs the R2 storage path and the /media proxy against LocalS3Server.
+ */
+@SpringBootTest
+@AutoConfigureMockMvc
+@ActiveProfiles("test")
+public class ImageStorageLocalS3IntegrationTest {
+
+    private static final String PUBLIC_URL_BASE = "http://localhost/media";
+    private static final LocalS3Server s3;
+
+    static {
+        try {
+            s3 = new LocalS3Server();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    @DynamicPropertySource
+    static void localS3Properties(DynamicPropertyRegistry registry) throws IOException {
+        registry.add("cloudflare.r2.endpoint", s3::endpoint);
+        registry.add("cloudflare.r2.path-style-access", () -> "true");
+        registry.add("cloudflare.r2.public-url-base", () -> PUBLIC_URL_BASE);
+        registry.add("images.media-proxy.enabled", () -> "true");
+        String cacheDir = Files.createTempDirectory("media-cache").toString();
+        registry.add("images.media-proxy.cache-dir", () -> cacheDir);
+    }
+
+    @AfterAll
+    static void stopS3() {
+        s3.close();
+    }
+
+    @Autowired
+    private ImageStorageService imageStorageService;
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @BeforeEach
+    void resetS3() {
+        s3.clear();
+    }
+
+    @Test
+    public void testUploadIsContentAddressedAndDeduplicated() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        byte[] png = samplePng();
+
+        String first = imageStorageService.uploadImage(pngUpload(png), tenantId).join();
+        String second = imageStorageService.uploadImage(pngUpload(png), tenantId).join();
+
+        assertEquals(first, second);
+        assertEquals(1, s3.putCount(), "Identical upload should not be stored twice");
+
+        String key = imageStorageService.extractKeyFromUrl(first);
+        assertTrue(key.startsWith("tenants/" + tenantId + "/") && key.endsWith(".png"));
+        assertArrayEquals(png, s3.get(key));
+    }
+
+    @Test
+    public void testRejectsFileThatIsNotAnImage() {
+        MockMultipartFile fake = new MockMultipartFile("file", "logo.png", "image/png", "not an image".getBytes());
+        assertThrows(IllegalArgumentException.class, () -> imageStorageService.uploadImage(fake, UUID.randomUUID()));
+    }
+
+    @Test
+    public void testBatchedDelete() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        String url = imageStorageService.uploadImage(pngUpload(samplePng()), tenantId).join();
+
+        List<String> failed = imageStorageService.deleteImages(List.of(url)).join();
+
+        assertTrue(failed.isEmpty());
+        assertTrue(s3.keys().isEmpty());
+    }
+
+    @Test
+    public void testReplacedImageUploadedAgainIsNotDeleted() throws Exception {
+        UUID tenantId = UUID.randomUUID();
+        byte[] png = samplePng();
+        String url = imageStorageService.uploadImage(pngUpload(png), tenantId).join();
+        String key = imageStorageService.extractKeyFromUrl(url);
+
+        // Queued for deletion, then the same content is uploaded again before the flush
+        Instant queuedAt = Instant.now();
+        Thread.sleep(5);
+        assertEquals(url, imageStorageService.uploadImage(pngUpload(png), tenantId).join());
+
+        assertTrue(imageStorageService.deleteUnlessReused(Map.of(key, queuedAt)).join().isEmpty());
+        assertArrayEquals(png, s3.get(key));
+
+        // Not uploaded since it was queued: deleted
+        imageStorageService.deleteUnlessReused(Map.of(key, Instant.now())).join();
+        assertTrue(s3.keys().isEmpty());
+    }
+
+    @Test
+    public void testMediaProxyServesRangesAndConditionalRequests() throws Exception {
+        byte[] png = samplePng();
+        String url = imageStorageService.uploadImage(pngUpload(png), UUID.randomUUID()).join();
+        String path = url.substring("http://localhost".length());
+
+        MvcResult full = mockMvc.perform(get(path))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Accept-Ranges", "bytes"))
+                .andReturn();
+        assertArrayEquals(png, full.getResponse().getContentAsByteArray());
+        String etag = full.getResponse().getHeader("ETag");
+        assertNotNull(etag);
+
+        MvcResult partial = mockMvc.perform(get(path).header("Range", "bytes=0-7"))
+                .andExpect(status().isPartialContent())
+                .andExpect(header().string("Content-Range", "bytes 0-7/" + png.length))
+                .andReturn();
+        assertArrayEquals(Arrays.copyOfRange(png, 0, 8), partial.getResponse().getContentAsByteArray());
+
+        mockMvc.perform(get(path).header("If-None-Match", etag))
+                .andExpect(status().isNotModified());
+
+        mockMvc.perform(get(path).header("Range", "bytes=" + png.length + "-"))
+                .andExpect(status().isRequestedRangeNotSatisfiable());
+
+        mockMvc.perform(get("/media/tenants/" + UUID.randomUUID() + "/missing.png"))
+                .andExpect(status().isNotFound());
+    }
+
+    private static MockMultipartFile pngUpload(byte[] png) {
+        // Declared type and name are deliberately wrong: the format comes from the bytes
+        return new MockMultipartFile("file", "logo.jpeg", "image/jpeg", png);
+    }
+
+    private static byte[] samplePng() throws IOException {
+        BufferedImage image = new BufferedImage(32, 32, BufferedImage.TYPE_INT_ARGB);
+        image.setRGB(3, 5, 0xFF336699);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        ImageIO.write(image, "png", out);
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,71 @@
+package com.scheduler.booking.service;
+
+import com.stripe.exception.ApiConnectionException;
+import com.stripe.exception.ApiException;
+import com.stripe.exception.CardException;
+import com.stripe.exception.InvalidRequestException;
+import feign.FeignException;
+import feign.Request;
+import feign.RetryableException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Which Mailgun and Stripe errors count against their circuit breakers: outages do,
+ * rejected requests do not.
+ */
+@SpringBootTest
+@ActiveProfiles("test")
+public class ProviderCircuitBreakerTest {
+
+    private static final Request REQUEST = Request.create(Request.HttpMethod.POST,
+            "https://api.mailgun.net/v3/example.com/messages", Map.of(), new byte[0], StandardCharsets.UTF_8, null);
+
+    @Autowired
+    private ExternalCallGuard externalCallGuard;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Test
+    public void testMailgunCountsOnlyServerAndConnectionErrors() {
+        assertTrue(countsAsFailure("mailgun",
+                new FeignException.FeignServerException(503, "Service Unavailable", REQUEST, null, Map.of())));
+        assertTrue(countsAsFailure("mailgun",
+                new RetryableException(-1, "Connection reset", Request.HttpMethod.POST, null, REQUEST)));
+
+        assertFalse(countsAsFailure("mailgun",
+                new FeignException.FeignClientException(400, "Bad Request", REQUEST, null, Map.of())));
+        assertFalse(countsAsFailure("mailgun",
+                new FeignException.FeignClientException(429, "Too Many Requests", REQUEST, null, Map.of())));
+    }
+
+    @Test
+    public void testStripeCountsOnlyApiAndConnectionErrors() {
+        assertTrue(countsAsFailure("stripe", new ApiException("Internal error", "req_1", null, 500, null)));
+        assertTrue(countsAsFailure("stripe", new ApiConnectionException("Connection reset")));
+
+        // What expiring an already expired Checkout Session answers
+        assertFalse(countsAsFailure("stripe", new InvalidRequestException(
+                "Only Checkout Sessions with a status of open can be expired", null, "req_2", null, 400, null)));
+        assertFalse(countsAsFailure("stripe", new CardException(
+                "Your card was declined", "req_3", "card_declined", null, "generic_decline", null, 402, null)));
+    }
+
+    private boolean countsAsFailure(String provider, Exception error) {
+        long failedBefore = circuitBreakerRegistry.circuitBreaker(provider).getMetrics().getNumberOfFailedCalls();
+        Exception thrown = assertThrows(Exception.class, () -> externalCallGuard.call(provider, () -> {
+            throw error;
+        }));
+        assertSame(error, thrown);
+        return circuitBreakerRegistry.circuitBreaker(provider).getMetrics().getNumberOfFailedCalls() > failedBefore;
+    }
+}
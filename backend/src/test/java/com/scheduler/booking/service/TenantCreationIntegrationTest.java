@@ -3,16 +3,24 @@ package com.scheduler.booking.service;
 import com.scheduler.booking.dto.TenantRequest;
 import com.scheduler.booking.model.Tenant;
 import com.scheduler.booking.repository.TenantRepository;
+import com.zaxxer.hikari.HikariDataSource;
+import com.zaxxer.hikari.HikariPoolMXBean;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.mock.mockito.MockBean;
 import org.springframework.test.context.ActiveProfiles;
 
+import javax.sql.DataSource;
 import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @SpringBootTest
@@ -25,6 +33,9 @@ public class TenantCreationIntegrationTest {
     @Autowired
     private TenantRepository tenantRepository;
 
+    @Autowired
+    private DataSource dataSource;
+
     @MockBean
     private ClerkUserService clerkUserService;
 
@@ -53,6 +64,50 @@ public class TenantCreationIntegrationTest {
         assertFalse(tenantRepository.existsBySlug("rollback-test"), "Tenant should not exist after rollback");
     }
 
+    @Test
+    public void testFailedCreationRemovesClerkUserCreatedAnyway() {
+        TenantRequest request = new TenantRequest();
+        request.setName("Timeout Test Tenant");
+        request.setSlug("timeout-test");
+        request.setEmail("timeout@example.com");
+        request.setOwnerEmail("timeout-owner@example.com");
+        request.setOwnerPassword("password");
+
+        // Clerk created the user, but the response never arrived
+        when(clerkUserService.createUser(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("Read timed out"));
+        when(clerkUserService.findUserIds(eq("timeout-owner@example.com"), anyString()))
+                .thenReturn(List.of("user_orphan"));
+
+        assertThrows(RuntimeException.class, () -> tenantService.createTenant(request));
+
+        verify(clerkUserService).deleteUser("user_orphan");
+        assertFalse(tenantRepository.existsBySlug("timeout-test"));
+    }
+
+    @Test
+    public void testTenantIsKeptWhileItsClerkUserCannotBeRemoved() {
+        TenantRequest request = new TenantRequest();
+        request.setName("Cleanup Test Tenant");
+        request.setSlug("cleanup-test");
+        request.setEmail("cleanup@example.com");
+        request.setOwnerEmail("cleanup-owner@example.com");
+        request.setOwnerPassword("password");
+
+        when(clerkUserService.createUser(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenThrow(new RuntimeException("Read timed out"));
+        when(clerkUserService.findUserIds(anyString(), anyString()))
+                .thenThrow(new RuntimeException("Clerk unavailable"));
+
+        assertThrows(RuntimeException.class, () -> tenantService.createTenant(request));
+
+        // Left for the stale-provisioning sweep, which needs the owner email to find the user
+        Tenant tenant = tenantRepository.findBySlug("cleanup-test").orElseThrow();
+        assertEquals("PROVISIONING", tenant.getStatus());
+        assertEquals("cleanup-owner@example.com", tenant.getProvisioningOwnerEmail());
+        verify(clerkUserService, never()).deleteUser(anyString());
+    }
+
     @Test
     public void testTenantCreationSuccess() {
         // Arrange
@@ -72,6 +127,35 @@ public class TenantCreationIntegrationTest {
 
         // Assert
         assertNotNull(tenant);
+        assertEquals("ACTIVE", tenant.getStatus());
+        assertNull(tenant.getProvisioningOwnerEmail());
         assertTrue(tenantRepository.existsBySlug("success-test"));
     }
+
+    @Test
+    public void testClerkCallDoesNotHoldDatabaseConnection() throws Exception {
+        TenantRequest request = new TenantRequest();
+        request.setName("Connection Test Tenant");
+        request.setSlug("connection-test");
+        request.setEmail("connection@example.com");
+        request.setOwnerEmail("connection-owner@example.com");
+        request.setOwnerPassword("password");
+
+        // Record pool usage and the tenant's state while the remote call is in flight
+        HikariPoolMXBean pool = dataSource.unwrap(HikariDataSource.class).getHikariPoolMXBean();
+        AtomicInteger activeConnections = new AtomicInteger(-1);
+        AtomicReference<String> statusDuringCall = new AtomicReference<>();
+        when(clerkUserService.createUser(anyString(), anyString(), anyString(), anyString(), anyString(), anyString()))
+                .thenAnswer(invocation -> {
+                    activeConnections.set(pool.getActiveConnections());
+                    statusDuringCall.set(tenantRepository.findBySlug("connection-test").map(Tenant::getStatus).orElse(null));
+                    return "user_67890";
+                });
+
+        Tenant tenant = tenantService.createTenant(request);
+
+        assertEquals(0, activeConnections.get(), "No connection should be held during the Clerk call");
+        assertEquals("PROVISIONING", statusDuringCall.get());
+        assertEquals("ACTIVE", tenant.getStatus());
+    }
 }
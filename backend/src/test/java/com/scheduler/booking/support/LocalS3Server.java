@@ -0,0 +1,280 @@
+package com.scheduler.booking.support;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Minimal in-memory S3-compatible server for tests and offline load tests of the R2 paths.
+ *
+ * Path-style only ({@code http://127.0.0.1:<port>/<bucket>/<key>}); signatures are not
+ * checked. Supports PutObject (plain and aws-chunked bodies), GetObject, HeadObject,
+ * DeleteObject, DeleteObjects and ListObjectsV2 without pagination, which is everything
+ * ImageStorageService uses. An artificial per-request latency can be set to simulate
+ * a remote store.
+ */
+public class LocalS3Server implements AutoCloseable {
+
+    private static final Pattern DELETE_KEY = Pattern.compile("<Key>(.*?)</Key>");
+
+    private final HttpServer server;
+    private final ConcurrentSkipListMap<String, StoredObject> objects = new ConcurrentSkipListMap<>();
+    private final AtomicInteger putCount = new AtomicInteger();
+    private final AtomicLong latencyMillis = new AtomicLong();
+
+    public LocalS3Server() throws IOException {
+        server = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        server.setExecutor(Executors.newCachedThreadPool());
+        server.createContext("/", this::handle);
+        server.start();
+    }
+
+    public String endpoint() {
+        return "http://127.0.0.1:" + server.getAddress().getPort();
+    }
+
+    public int putCount() {
+        return putCount.get();
+    }
+
+    public Set<String> keys() {
+        return objects.keySet();
+    }
+
+    public byte[] get(String key) {
+        StoredObject object = objects.get(key);
+        return object == null ? null : object.data();
+    }
+
+    public void setLatencyMillis(long millis) {
+        latencyMillis.set(millis);
+    }
+
+    public void clear() {
+        objects.clear();
+        putCount.set(0);
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        try {
+            simulateLatency();
+
+            // /<bucket>/<key>; the bucket name is not checked
+            String path = exchange.getRequestURI().getRawPath();
+            int keyStart = path.indexOf('/', 1);
+            String key = keyStart < 0 ? "" : URLDecoder.decode(path.substring(keyStart + 1), StandardCharsets.UTF_8);
+            Map<String, String> query = parseQuery(exchange.getRequestURI().getRawQuery());
+            String method = exchange.getRequestMethod();
+
+            if (key.isEmpty() && "GET".equals(method)) {
+                listObjects(exchange, query.getOrDefault("prefix", ""));
+            } else if (key.isEmpty() && "POST".equals(method) && query.containsKey("delete")) {
+                deleteObjects(exchange);
+            } else if ("PUT".equals(method)) {
+                putObject(exchange, key);
+            } else if ("GET".equals(method) || "HEAD".equals(method)) {
+                getObject(exchange, key, "HEAD".equals(method));
+            } else if ("DELETE".equals(method)) {
+                objects.remove(key);
+                exchange.sendResponseHeaders(204, -1);
+            } else {
+                exchange.sendResponseHeaders(405, -1);
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void putObject(HttpExchange exchange, String key) throws IOException {
+        byte[] body = exchange.getRequestBody().readAllBytes();
+        String contentSha = exchange.getRequestHeaders().getFirst("x-amz-content-sha256");
+        String encoding = exchange.getRequestHeaders().getFirst("Content-Encoding");
+        if ((contentSha != null && contentSha.startsWith("STREAMING-"))
+                || (encoding != null && encoding.contains("aws-chunked"))) {
+            body = decodeAwsChunked(body);
+        }
+        String contentType = exchange.getRequestHeaders().getFirst("Content-Type");
+        StoredObject object = new StoredObject(body, contentType, md5(body), Instant.now());
+        objects.put(key, object);
+        putCount.incrementAndGet();
+
+        exchange.getResponseHeaders().add("ETag", object.etag());
+        exchange.sendResponseHeaders(200, -1);
+    }
+
+    private void getObject(HttpExchange exchange, String key, boolean headOnly) throws IOException {
+        StoredObject object = objects.get(key);
+        if (object == null) {
+            if (headOnly) {
+                exchange.sendResponseHeaders(404, -1);
+            } else {
+                sendXml(exchange, 404, "<Error><Code>NoSuchKey</Code><Message>The specified key does not exist.</Message>"
+                        + "<Key>" + escape(key) + "</Key></Error>");
+            }
+            return;
+        }
+        if (object.contentType() != null) {
+            exchange.getResponseHeaders().add("Content-Type", object.contentType());
+        }
+        exchange.getResponseHeaders().add("ETag", object.etag());
+        exchange.getResponseHeaders().add("Last-Modified",
+                DateTimeFormatter.RFC_1123_DATE_TIME.format(object.lastModified().atOffset(ZoneOffset.UTC)));
+        if (headOnly) {
+            exchange.getResponseHeaders().add("Content-Length", String.valueOf(object.data().length));
+            exchange.sendResponseHeaders(200, -1);
+            return;
+        }
+        exchange.sendResponseHeaders(200, object.data().length == 0 ? -1 : object.data().length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(object.data());
+        }
+    }
+
+    private void deleteObjects(HttpExchange exchange) throws IOException {
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        StringBuilder deleted = new StringBuilder();
+        Matcher matcher = DELETE_KEY.matcher(body);
+        while (matcher.find()) {
+            String key = unescape(matcher.group(1));
+            objects.remove(key);
+            deleted.append("<Deleted><Key>").append(escape(key)).append("</Key></Deleted>");
+        }
+        boolean quiet = body.contains("<Quiet>true</Quiet>");
+        sendXml(exchange, 200, "<DeleteResult>" + (quiet ? "" : deleted) + "</DeleteResult>");
+    }
+
+    private void listObjects(HttpExchange exchange, String prefix) throws IOException {
+        StringBuilder contents = new StringBuilder();
+        int count = 0;
+        for (Map.Entry<String, StoredObject> entry : objects.tailMap(prefix).entrySet()) {
+            if (!entry.getKey().startsWith(prefix)) {
+                break;
+            }
+            StoredObject object = entry.getValue();
+            contents.append("<Contents>")
+                    .append("<Key>").append(escape(entry.getKey())).append("</Key>")
+                    .append("<LastModified>").append(object.lastModified()).append("</LastModified>")
+                    .append("<ETag>").append(escape(object.etag())).append("</ETag>")
+                    .append("<Size>").append(object.data().length).append("</Size>")
+                    .append("<StorageClass>STANDARD</StorageClass>")
+                    .append("</Contents>");
+            count++;
+        }
+        sendXml(exchange, 200, "<ListBucketResult><Name>bucket</Name><Prefix>" + escape(prefix) + "</Prefix>"
+                + "<KeyCount>" + count + "</KeyCount><MaxKeys>1000</MaxKeys><IsTruncated>false</IsTruncated>"
+                + contents + "</ListBucketResult>");
+    }
+
+    /**
+     * Strip aws-chunked framing: {@code <hex-size>[;chunk-signature=...]\r\n<data>\r\n} ... {@code 0...\r\n}
+     */
+    static byte[] decodeAwsChunked(byte[] body) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(body.length);
+        int pos = 0;
+        while (pos < body.length) {
+            int lineEnd = indexOfCrlf(body, pos);
+            if (lineEnd < 0) {
+                break;
+            }
+            String header = new String(body, pos, lineEnd - pos, StandardCharsets.US_ASCII);
+            int semicolon = header.indexOf(';');
+            int size = Integer.parseInt((semicolon < 0 ? header : header.substring(0, semicolon)).trim(), 16);
+            if (size == 0) {
+                break; // trailers follow, if any
+            }
+            int dataStart = lineEnd + 2;
+            out.write(body, dataStart, size);
+            pos = dataStart + size + 2;
+        }
+        return out.toByteArray();
+    }
+
+    private static int indexOfCrlf(byte[] data, int from) {
+        for (int i = from; i < data.length - 1; i++) {
+            if (data[i] == '\r' && data[i + 1] == '\n') {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    private void simulateLatency() {
+        long millis = latencyMillis.get();
+        if (millis > 0) {
+            try {
+                Thread.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private static void sendXml(HttpExchange exchange, int status, String xml) throws IOException {
+        byte[] body = ("<?xml version=\"1.0\" encoding=\"UTF-8\"?>" + xml).getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "application/xml");
+        exchange.sendResponseHeaders(status, body.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(body);
+        }
+    }
+
+    private static Map<String, String> parseQuery(String rawQuery) {
+        Map<String, String> query = new HashMap<>();
+        if (rawQuery == null) {
+            return query;
+        }
+        for (String pair : rawQuery.split("&")) {
+            int eq = pair.indexOf('=');
+            String name = URLDecoder.decode(eq < 0 ? pair : pair.substring(0, eq), StandardCharsets.UTF_8);
+            String value = eq < 0 ? "" : URLDecoder.decode(pair.substring(eq + 1), StandardCharsets.UTF_8);
+            query.put(name, value);
+        }
+        return query;
+    }
+
+    private static String md5(byte[] data) {
+        try {
+            return "\"" + HexFormat.of().formatHex(MessageDigest.getInstance("MD5").digest(data)) + "\"";
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static String escape(String value) {
+        return value.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+
+    private static String unescape(String value) {
+        return value.replace("&lt;", "<").replace("&gt;", ">").replace("&quot;", "\"").replace("&amp;", "&");
+    }
+
+    private record StoredObject(byte[] data, String contentType, String etag, Instant lastModified) {
+    }
+
+}
@@ -0,0 +1,54 @@
+package com.scheduler.booking.support;
+
+import com.scheduler.booking.util.SqlFingerprint;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.stream.Collectors;
+
+/**
+ * Test-only filter that fails the request, and with it the test, when a single request
+ * issues more Hibernate statements than test.n-plus-one.max-statements-per-request.
+ * The failure lists the statement shapes that repeated, which is usually the N+1.
+ *
+ * Only statements on the request thread are counted; work handed to other threads
+ * (CompletableFuture controllers, @Async) is not.
+ */
+@Component
+@Order(Ordered.HIGHEST_PRECEDENCE)
+public class NPlusOneDetectorFilter extends OncePerRequestFilter {
+
+    @Value("${test.n-plus-one.max-statements-per-request:25}")
+    private int maxStatements;
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        StatementCountingInspector.start();
+        List<String> statements;
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            statements = StatementCountingInspector.stop();
+        }
+
+        if (statements.size() > maxStatements) {
+            Map<String, Long> repeated = statements.stream()
+                    .collect(Collectors.groupingBy(SqlFingerprint::normalize, TreeMap::new, Collectors.counting()));
+            repeated.values().removeIf(count -> count < 2);
+            throw new AssertionError(request.getMethod() + " " + request.getRequestURI() + " issued "
+                    + statements.size() + " statements (limit " + maxStatements + "). Repeated: " + repeated);
+        }
+    }
+}
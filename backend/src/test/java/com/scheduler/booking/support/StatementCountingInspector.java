@@ -0,0 +1,37 @@
+package com.scheduler.booking.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Hibernate StatementInspector that records the SQL issued on the current thread while
+ * counting is active. Registered for the test profile in application-test.properties.
+ */
+public class StatementCountingInspector implements StatementInspector {
+
+    private static final ThreadLocal<List<String>> statements = new ThreadLocal<>();
+
+    public static void start() {
+        statements.set(new ArrayList<>());
+    }
+
+    /**
+     * Stop counting and return the statements seen since {@link #start()}
+     */
+    public static List<String> stop() {
+        List<String> seen = statements.get();
+        statements.remove();
+        return seen != null ? seen : List.of();
+    }
+
+    @Override
+    public String inspect(String sql) {
+        List<String> seen = statements.get();
+        if (seen != null) {
+            seen.add(sql);
+        }
+        return sql;
+    }
+}
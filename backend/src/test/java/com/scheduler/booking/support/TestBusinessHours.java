@@ -0,0 +1,44 @@
+package com.scheduler.booking.support;
+
+import com.scheduler.booking.dto.BusinessHoursRequest;
+
+import java.time.DayOfWeek;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Business hours for test tenants, and start times inside them. Bookings are refused
+ * outside the tenant's hours, and tenants saved directly have none.
+ */
+public final class TestBusinessHours {
+
+    private TestBusinessHours() {
+    }
+
+    /**
+     * The same hours on all seven days
+     */
+    public static List<BusinessHoursRequest> everyDay(String start, String end) {
+        return Arrays.stream(DayOfWeek.values())
+                .map(day -> {
+                    BusinessHoursRequest request = new BusinessHoursRequest();
+                    request.setDayOfWeek(day);
+                    request.setStartTime(start);
+                    request.setEndTime(end);
+                    return request;
+                })
+                .toList();
+    }
+
+    /**
+     * The given hour, some days from today, in UTC (the timezone of tenants that do not set one)
+     */
+    public static Instant daysAheadAt(int days, int hour) {
+        return LocalDate.now(ZoneOffset.UTC).plusDays(days).atTime(LocalTime.of(hour, 0))
+                .toInstant(ZoneOffset.UTC);
+    }
+}
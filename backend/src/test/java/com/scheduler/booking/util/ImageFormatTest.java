@@ -0,0 +1,86 @@
+package com.scheduler.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class ImageFormatTest {
+
+    private static final byte[] JPEG_HEADER = {
+            (byte) 0xFF, (byte) 0xD8, (byte) 0xFF, (byte) 0xE0, 0x00, 0x10, 'J', 'F', 'I', 'F', 0x00, 0x01
+    };
+    private static final byte[] PNG_HEADER = {
+            (byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n', 0x00, 0x00, 0x00, 0x0D
+    };
+    private static final byte[] WEBP_HEADER = {
+            'R', 'I', 'F', 'F', 0x24, 0x00, 0x00, 0x00, 'W', 'E', 'B', 'P'
+    };
+
+    @Test
+    public void testDetectsEachSupportedFormat() {
+        assertEquals(ImageFormat.JPEG, detect(JPEG_HEADER));
+        assertEquals(ImageFormat.PNG, detect(PNG_HEADER));
+        assertEquals(ImageFormat.WEBP, detect(WEBP_HEADER));
+
+        assertEquals("image/jpeg", ImageFormat.JPEG.getContentType());
+        assertEquals(".png", ImageFormat.PNG.getExtension());
+        assertEquals(".webp", ImageFormat.WEBP.getExtension());
+    }
+
+    @Test
+    public void testSignatureLengthCoversEveryFormat() {
+        for (byte[] header : new byte[][] { JPEG_HEADER, PNG_HEADER, WEBP_HEADER }) {
+            assertEquals(ImageFormat.SIGNATURE_LENGTH, header.length);
+            assertNotNull(ImageFormat.detect(header, ImageFormat.SIGNATURE_LENGTH));
+        }
+    }
+
+    @Test
+    public void testTruncatedHeadersAreRejected() {
+        // Only the bytes within length count, even if the buffer holds more
+        assertNull(ImageFormat.detect(JPEG_HEADER, 2));
+        assertNull(ImageFormat.detect(PNG_HEADER, 7));
+        assertNull(ImageFormat.detect(WEBP_HEADER, 11));
+        assertNull(ImageFormat.detect(new byte[ImageFormat.SIGNATURE_LENGTH], 0));
+
+        assertEquals(ImageFormat.JPEG, ImageFormat.detect(JPEG_HEADER, 3));
+        assertEquals(ImageFormat.PNG, ImageFormat.detect(PNG_HEADER, 8));
+    }
+
+    @Test
+    public void testSpoofedContentIsRejected() {
+        // Text, SVG and HTML claiming to be images by name or Content-Type
+        assertNull(detect("<svg xmlns=\"http://www.w3.org/2000/svg\">".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(detect("<!DOCTYPE html><html>".getBytes(StandardCharsets.US_ASCII)));
+        assertNull(detect("GIF89a\u0001\u0000\u0001\u0000\u0000\u0000".getBytes(StandardCharsets.US_ASCII)));
+
+        // A RIFF container that is not WebP (WAV audio)
+        byte[] wav = WEBP_HEADER.clone();
+        System.arraycopy("WAVE".getBytes(StandardCharsets.US_ASCII), 0, wav, 8, 4);
+        assertNull(detect(wav));
+
+        // One byte off in each signature
+        byte[] jpeg = JPEG_HEADER.clone();
+        jpeg[2] = 0x00;
+        assertNull(detect(jpeg));
+        byte[] png = PNG_HEADER.clone();
+        png[7] = '\r';
+        assertNull(detect(png));
+        byte[] webp = WEBP_HEADER.clone();
+        webp[11] = 'X';
+        assertNull(detect(webp));
+
+        // A real signature that does not start the file
+        byte[] shifted = new byte[ImageFormat.SIGNATURE_LENGTH];
+        System.arraycopy(PNG_HEADER, 0, shifted, 1, ImageFormat.SIGNATURE_LENGTH - 1);
+        assertNull(detect(shifted));
+    }
+
+    private static ImageFormat detect(byte[] data) {
+        byte[] header = Arrays.copyOf(data, Math.max(data.length, ImageFormat.SIGNATURE_LENGTH));
+        return ImageFormat.detect(header, Math.min(data.length, ImageFormat.SIGNATURE_LENGTH));
+    }
+}
@@ -0,0 +1,94 @@
+package com.scheduler.booking.util;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+public class RecurrenceRuleTest {
+
+    private static final ZoneId AMSTERDAM = ZoneId.of("Europe/Amsterdam");
+
+    @Test
+    public void testOccurrencesKeepLocalTimeAcrossDaylightSaving() {
+        // Weekday lunch from a Monday in March; clocks go forward on Sunday 29 March 2026
+        ZonedDateTime first = LocalDateTime.of(2026, 3, 23, 12, 0).atZone(AMSTERDAM);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR");
+
+        List<ZonedDateTime> starts = rule.startsBetween(first, first.toInstant(), first.plusWeeks(2).toInstant());
+        assertEquals(10, starts.size());
+        for (ZonedDateTime start : starts) {
+            assertEquals(LocalTime.NOON, start.toLocalTime());
+        }
+        // 11:00 UTC before the change, 10:00 UTC after
+        assertEquals(Instant.parse("2026-03-27T11:00:00Z"), starts.get(4).toInstant());
+        assertEquals(Instant.parse("2026-03-30T10:00:00Z"), starts.get(5).toInstant());
+    }
+
+    @Test
+    public void testWindowFarFromTheStartIsExpandedDirectly() {
+        ZonedDateTime first = LocalDateTime.of(2026, 1, 2, 12, 0).atZone(AMSTERDAM);
+        RecurrenceRule rule = RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=2;BYDAY=FR");
+
+        ZonedDateTime from = first.plusWeeks(156).minusDays(3);
+        List<ZonedDateTime> starts = rule.startsBetween(first, from.toInstant(), from.plusWeeks(8).toInstant());
+        assertEquals(4, starts.size());
+        assertEquals(first.plusWeeks(156), starts.get(0));
+    }
+
+    @Test
+    public void testUntilIsReadInTheZoneOfTheFirstOccurrence() {
+        ZonedDateTime first = LocalDateTime.of(2026, 6, 1, 9, 0).atZone(AMSTERDAM);
+
+        // A date covers the whole local day
+        RecurrenceRule byDate = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260605");
+        assertEquals(LocalDateTime.of(2026, 6, 5, 9, 0).atZone(AMSTERDAM).toInstant(),
+                byDate.startsBetween(first, first.toInstant(), first.plusDays(30).toInstant())
+                        .get(4).toInstant());
+        assertEquals(5, byDate.occurrences(first, 100).size());
+
+        // 08:00 UTC is 10:00 in Amsterdam: the morning of the 3rd is still included
+        RecurrenceRule byInstant = RecurrenceRule.parse("FREQ=DAILY;UNTIL=20260603T080000Z");
+        assertEquals(3, byInstant.occurrences(first, 100).size());
+        assertEquals(Instant.parse("2026-06-03T08:00:00Z"), byInstant.lastStart(first));
+    }
+
+    @Test
+    public void testWeeklySeriesStopsAtCountOrUntilWhicheverComesFirst() {
+        ZonedDateTime first = LocalDateTime.of(2026, 10, 19, 10, 0).atZone(AMSTERDAM);
+
+        List<ZonedDateTime> byCount = RecurrenceRule.weekly(1, 3, first.plusWeeks(10).toInstant())
+                .occurrences(first, 52);
+        assertEquals(List.of(first, first.plusWeeks(1), first.plusWeeks(2)), byCount);
+
+        List<ZonedDateTime> byUntil = RecurrenceRule.weekly(2, 10, first.plusWeeks(4).toInstant())
+                .occurrences(first, 52);
+        assertEquals(List.of(first, first.plusWeeks(2), first.plusWeeks(4)), byUntil);
+        // After the clocks go back on 25 October
+        assertEquals(LocalTime.of(10, 0), byUntil.get(1).toLocalTime());
+
+        IllegalArgumentException tooMany = assertThrows(IllegalArgumentException.class,
+                () -> RecurrenceRule.weekly(1, 60, null).occurrences(first, 52));
+        assertTrue(tooMany.getMessage().contains("52"), tooMany.getMessage());
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.weekly(1, null, null).occurrences(first, 52));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.weekly(0, 3, null));
+    }
+
+    @Test
+    public void testInvalidRulesAreRejected() {
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=MONTHLY"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;BYDAY=MO"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=DAILY;COUNT=3;UNTIL=20260605"));
+        assertThrows(IllegalArgumentException.class, () -> RecurrenceRule.parse("FREQ=WEEKLY;INTERVAL=0"));
+
+        ZonedDateTime saturday = LocalDateTime.of(2026, 6, 6, 12, 0).atZone(AMSTERDAM);
+        assertThrows(IllegalArgumentException.class,
+                () -> RecurrenceRule.parse("FREQ=WEEKLY;BYDAY=FR").validateStart(saturday));
+    }
+}
@@ -0,0 +1,16 @@
+package com.scheduler.booking.read;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+/**
+ * Read-only API for the public booking pages (/api/customer/tenants/** GETs and availability).
+ * Runs on WebFlux + R2DBC against the backend's database; all writes stay in the backend.
+ */
+@SpringBootApplication
+public class BookingReadApplication {
+
+    public static void main(String[] args) {
+        SpringApplication.run(BookingReadApplication.class, args);
+    }
+}
@@ -0,0 +1,30 @@
+package com.scheduler.booking.read.config;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import org.springframework.boot.autoconfigure.jackson.Jackson2ObjectMapperBuilderCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+@Configuration
+public class JacksonConfig {
+
+    /**
+     * Serialize LocalDateTime as epoch milliseconds in the default zone, like the backend
+     */
+    @Bean
+    public Jackson2ObjectMapperBuilderCustomizer epochMillisCustomizer() {
+        return builder -> builder.serializerByType(LocalDateTime.class, new JsonSerializer<LocalDateTime>() {
+            @Override
+            public void serialize(LocalDateTime value, JsonGenerator gen, SerializerProvider serializers)
+                    throws IOException {
+                gen.writeNumber(value.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+            }
+        });
+    }
+}
@@ -0,0 +1,99 @@
+package com.scheduler.booking.read.controller;
+
+import com.scheduler.booking.read.model.AvailableSlot;
+import com.scheduler.booking.read.model.BlockedSlotView;
+import com.scheduler.booking.read.model.BusinessHoursOverrideView;
+import com.scheduler.booking.read.model.BusinessHoursView;
+import com.scheduler.booking.read.model.SessionTypeView;
+import com.scheduler.booking.read.model.TenantView;
+import com.scheduler.booking.read.service.PublicReadService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Read-only counterparts of the backend's public CustomerController GETs, with the same
+ * paths and JSON, plus availability. Route these GETs here at the proxy; everything
+ * else under /api/customer (booking creation, booking lookup) stays on the backend.
+ */
+@RestController
+@RequestMapping("/api/customer")
+@RequiredArgsConstructor
+public class PublicTenantController {
+
+    // Short browser/CDN caching for the anonymous surge on shared booking links
+    private static final CacheControl PUBLIC_CACHE = CacheControl.maxAge(Duration.ofSeconds(10)).cachePublic();
+
+    private final PublicReadService publicReadService;
+
+    @GetMapping("/tenants/{slug}")
+    public Mono<ResponseEntity<TenantView>> getTenantBySlug(@PathVariable String slug) {
+        return publicReadService.getTenantBySlug(slug)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Tenant not found")))
+                .map(tenant -> ResponseEntity.ok().cacheControl(PUBLIC_CACHE).body(tenant));
+    }
+
+    @GetMapping("/tenants/{tenantId}/sessions")
+    public Mono<ResponseEntity<List<SessionTypeView>>> getAvailableSessions(@PathVariable UUID tenantId) {
+        return publicReadService.getActiveSessionTypes(tenantId)
+                .map(sessions -> ResponseEntity.ok().cacheControl(PUBLIC_CACHE).body(sessions));
+    }
+
+    @GetMapping("/tenants/{tenantId}/business-hours")
+    public Mono<ResponseEntity<List<BusinessHoursView>>> getBusinessHours(@PathVariable UUID tenantId) {
+        return publicReadService.getBusinessHours(tenantId)
+                .map(hours -> ResponseEntity.ok().cacheControl(PUBLIC_CACHE).body(hours));
+    }
+
+    @GetMapping("/tenants/{tenantId}/business-hours/overrides")
+    public Mono<ResponseEntity<List<BusinessHoursOverrideView>>> getBusinessHoursOverrides(@PathVariable UUID tenantId) {
+        return publicReadService.getBusinessHoursOverrides(tenantId)
+                .map(overrides -> ResponseEntity.ok().cacheControl(PUBLIC_CACHE).body(overrides));
+    }
+
+    /**
+     * With from and to (epoch millis), the blocked intervals overlapping that window, with
+     * recurring blocks expanded into their occurrences; without them, the stored blocks
+     */
+    @GetMapping("/tenants/{tenantId}/blocked-slots")
+    public Mono<ResponseEntity<List<BlockedSlotView>>> getBlockedSlots(
+            @PathVariable UUID tenantId,
+            @RequestParam(required = false) Long from,
+            @RequestParam(required = false) Long to) {
+        Mono<List<BlockedSlotView>> slots = from == null || to == null
+                ? publicReadService.getBlockedSlots(tenantId)
+                : publicReadService.getBlockedSlots(tenantId,
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(from), ZoneId.systemDefault()),
+                        LocalDateTime.ofInstant(Instant.ofEpochMilli(to), ZoneId.systemDefault()));
+        return slots.map(body -> ResponseEntity.ok().cacheControl(PUBLIC_CACHE).body(body));
+    }
+
+    /**
+     * Bookable start times for a session type on a date (yyyy-MM-dd, tenant's time zone)
+     */
+    @GetMapping("/tenants/{tenantId}/availability")
+    public Mono<List<AvailableSlot>> getAvailability(
+            @PathVariable UUID tenantId,
+            @RequestParam UUID sessionTypeId,
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate date) {
+        return publicReadService.getAvailability(tenantId, sessionTypeId, date)
+                .switchIfEmpty(Mono.error(new ResponseStatusException(HttpStatus.NOT_FOUND, "Session type not found")));
+    }
+}
@@ -0,0 +1,11 @@
+package com.scheduler.booking.read.model;
+
+/**
+ * A bookable start time for a session type
+ *
+ * @param startTime epoch milliseconds, as accepted by the backend's booking endpoint
+ * @param endTime   epoch milliseconds
+ * @param remaining places left (capacity minus participants already booked)
+ */
+public record AvailableSlot(long startTime, long endTime, int remaining) {
+}
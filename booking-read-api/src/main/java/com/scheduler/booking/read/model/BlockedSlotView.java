@@ -0,0 +1,20 @@
+package com.scheduler.booking.read.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Same JSON shape as the backend's BlockedSlot entity
+ */
+public record BlockedSlotView(
+        UUID id,
+        UUID tenantId,
+        LocalDateTime startTime,
+        LocalDateTime endTime,
+        String reason,
+        String createdBy,
+        String recurrenceRule,
+        LocalDateTime recurrenceEnd,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,10 @@
+package com.scheduler.booking.read.model;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * An active booking's time range, used for availability
+ */
+public record BookedInterval(UUID sessionTypeId, LocalDateTime startTime, LocalDateTime endTime, int participants) {
+}
@@ -0,0 +1,15 @@
+package com.scheduler.booking.read.model;
+
+import java.util.UUID;
+
+/**
+ * Same JSON shape as the backend's BusinessHoursOverrideResponse (date as "yyyy-MM-dd",
+ * times as "HH:mm", both times null when the day is closed)
+ */
+public record BusinessHoursOverrideView(
+        UUID id,
+        String date,
+        String startTime,
+        String endTime,
+        String reason) {
+}
@@ -0,0 +1,15 @@
+package com.scheduler.booking.read.model;
+
+import java.time.DayOfWeek;
+import java.util.UUID;
+
+/**
+ * Same JSON shape as the backend's BusinessHoursResponse (times as "HH:mm")
+ */
+public record BusinessHoursView(
+        UUID id,
+        DayOfWeek dayOfWeek,
+        String startTime,
+        String endTime,
+        boolean enabled) {
+}
@@ -0,0 +1,26 @@
+package com.scheduler.booking.read.model;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Bookable session type; same JSON shape as the backend's SessionType entity, minus the
+ * meeting link and password, which are only sent to customers once they have booked
+ */
+public record SessionTypeView(
+        UUID id,
+        UUID tenantId,
+        String name,
+        String description,
+        Integer durationMinutes,
+        BigDecimal price,
+        String currency,
+        Integer capacity,
+        String category,
+        String color,
+        boolean active,
+        String cancellationPolicy,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
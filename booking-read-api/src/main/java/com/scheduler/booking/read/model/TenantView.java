@@ -0,0 +1,28 @@
+package com.scheduler.booking.read.model;
+
+import java.time.LocalDateTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Public tenant page data; same JSON shape as the backend's Tenant entity
+ */
+public record TenantView(
+        UUID id,
+        String name,
+        String slug,
+        String email,
+        String phone,
+        String logoUrl,
+        Map<String, String> logoVariants,
+        String description,
+        Map<String, String> brandColors,
+        String customDomain,
+        String status,
+        String subscriptionTier,
+        LocalDateTime subscriptionExpiresAt,
+        String timezone,
+        String notificationMode,
+        LocalDateTime createdAt,
+        LocalDateTime updatedAt) {
+}
@@ -0,0 +1,235 @@
+package com.scheduler.booking.read.repository;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.scheduler.booking.read.model.BlockedSlotView;
+import com.scheduler.booking.read.model.BookedInterval;
+import com.scheduler.booking.read.model.BusinessHoursOverrideView;
+import com.scheduler.booking.read.model.BusinessHoursView;
+import com.scheduler.booking.read.model.SessionTypeView;
+import com.scheduler.booking.read.model.TenantView;
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Read-only queries against the backend's schema. Plain SQL through DatabaseClient:
+ * no entity mapping, no persistence context, one round trip per query.
+ */
+@Repository
+@RequiredArgsConstructor
+public class PublicReadRepository {
+
+    private static final TypeReference<Map<String, String>> STRING_MAP = new TypeReference<>() {
+    };
+
+    private final DatabaseClient databaseClient;
+    private final ObjectMapper objectMapper;
+
+    public Mono<TenantView> findTenantBySlug(String slug) {
+        return databaseClient.sql("""
+                        SELECT id, name, slug, email, phone, logo_url, CAST(logo_variants AS VARCHAR) AS logo_variants,
+                               description, CAST(brand_colors AS VARCHAR) AS brand_colors, custom_domain, status,
+                               subscription_tier, subscription_expires_at, timezone, notification_mode,
+                               created_at, updated_at
+                        FROM tenants WHERE slug = :slug""")
+                .bind("slug", slug)
+                .map(this::toTenant)
+                .one();
+    }
+
+    public Mono<String> findTenantTimezone(UUID tenantId) {
+        return databaseClient.sql("SELECT timezone FROM tenants WHERE id = :id")
+                .bind("id", tenantId)
+                .map(row -> row.get("timezone", String.class))
+                .one();
+    }
+
+    public Flux<SessionTypeView> findActiveSessionTypes(UUID tenantId) {
+        return databaseClient.sql("""
+                        SELECT id, tenant_id, name, description, duration_minutes, price, currency, capacity,
+                               category, color, is_active, cancellation_policy, created_at, updated_at
+                        FROM session_types WHERE tenant_id = :tenantId AND is_active = TRUE""")
+                .bind("tenantId", tenantId)
+                .map(this::toSessionType)
+                .all();
+    }
+
+    public Flux<BusinessHoursView> findBusinessHours(UUID tenantId) {
+        // Same order as the backend: day name, then start time
+        return databaseClient.sql("""
+                        SELECT id, day_of_week, start_time, end_time, enabled
+                        FROM business_hours WHERE tenant_id = :tenantId
+                        ORDER BY day_of_week, start_time""")
+                .bind("tenantId", tenantId)
+                .map(row -> new BusinessHoursView(
+                        row.get("id", UUID.class),
+                        DayOfWeek.valueOf(row.get("day_of_week", String.class)),
+                        row.get("start_time", LocalTime.class).toString(),
+                        row.get("end_time", LocalTime.class).toString(),
+                        Boolean.TRUE.equals(row.get("enabled", Boolean.class))))
+                .all();
+    }
+
+    /**
+     * Date-specific hours from the given date on, in the backend's order
+     */
+    public Flux<BusinessHoursOverrideView> findBusinessHoursOverrides(UUID tenantId, LocalDate from) {
+        return databaseClient.sql("""
+                        SELECT id, override_date, start_time, end_time, reason
+                        FROM business_hours_overrides WHERE tenant_id = :tenantId AND override_date >= :from
+                        ORDER BY override_date, start_time""")
+                .bind("tenantId", tenantId)
+                .bind("from", from)
+                .map(row -> {
+                    LocalTime start = row.get("start_time", LocalTime.class);
+                    LocalTime end = row.get("end_time", LocalTime.class);
+                    return new BusinessHoursOverrideView(
+                            row.get("id", UUID.class),
+                            row.get("override_date", LocalDate.class).toString(),
+                            start != null ? start.toString() : null,
+                            end != null ? end.toString() : null,
+                            row.get("reason", String.class));
+                })
+                .all();
+    }
+
+    public Flux<BlockedSlotView> findBlockedSlots(UUID tenantId) {
+        return databaseClient.sql("""
+                        SELECT id, tenant_id, start_time, end_time, reason, created_by, recurrence_rule, recurrence_end,
+                               created_at, updated_at
+                        FROM blocked_slots WHERE tenant_id = :tenantId""")
+                .bind("tenantId", tenantId)
+                .map(this::toBlockedSlot)
+                .all();
+    }
+
+    /**
+     * One-off blocked slots overlapping [from, to), and recurring ones that may have an
+     * occurrence in it (the first occurrence starts before to and the last ends after from)
+     */
+    public Flux<BlockedSlotView> findBlockedSlots(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql("""
+                        SELECT id, tenant_id, start_time, end_time, reason, created_by, recurrence_rule, recurrence_end,
+                               created_at, updated_at
+                        FROM blocked_slots
+                        WHERE tenant_id = :tenantId AND start_time < :to
+                          AND (end_time > :from
+                               OR (recurrence_rule IS NOT NULL AND (recurrence_end IS NULL OR recurrence_end > :from)))""")
+                .bind("tenantId", tenantId)
+                .bind("from", from)
+                .bind("to", to)
+                .map(this::toBlockedSlot)
+                .all();
+    }
+
+    /**
+     * Bookings that still hold their time (pending, awaiting payment or confirmed) overlapping [from, to)
+     */
+    public Flux<BookedInterval> findActiveBookings(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        return databaseClient.sql("""
+                        SELECT session_type_id, start_time, end_time, participants
+                        FROM bookings
+                        WHERE tenant_id = :tenantId AND status IN ('PENDING', 'PENDING_PAYMENT', 'CONFIRMED')
+                          AND start_time < :to AND end_time > :from""")
+                .bind("tenantId", tenantId)
+                .bind("from", from)
+                .bind("to", to)
+                .map(row -> {
+                    Integer participants = row.get("participants", Integer.class);
+                    return new BookedInterval(
+                            row.get("session_type_id", UUID.class),
+                            row.get("start_time", LocalDateTime.class),
+                            row.get("end_time", LocalDateTime.class),
+                            participants != null ? participants : 1);
+                })
+                .all();
+    }
+
+    public Mono<SessionTypeView> findActiveSessionType(UUID tenantId, UUID sessionTypeId) {
+        return databaseClient.sql("""
+                        SELECT id, tenant_id, name, description, duration_minutes, price, currency, capacity,
+                               category, color, is_active, cancellation_policy, created_at, updated_at
+                        FROM session_types WHERE id = :id AND tenant_id = :tenantId AND is_active = TRUE""")
+                .bind("id", sessionTypeId)
+                .bind("tenantId", tenantId)
+                .map(this::toSessionType)
+                .one();
+    }
+
+    private TenantView toTenant(Readable row) {
+        return new TenantView(
+                row.get("id", UUID.class),
+                row.get("name", String.class),
+                row.get("slug", String.class),
+                row.get("email", String.class),
+                row.get("phone", String.class),
+                row.get("logo_url", String.class),
+                readMap(row.get("logo_variants", String.class)),
+                row.get("description", String.class),
+                readMap(row.get("brand_colors", String.class)),
+                row.get("custom_domain", String.class),
+                row.get("status", String.class),
+                row.get("subscription_tier", String.class),
+                row.get("subscription_expires_at", LocalDateTime.class),
+                row.get("timezone", String.class),
+                row.get("notification_mode", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    private SessionTypeView toSessionType(Readable row) {
+        return new SessionTypeView(
+                row.get("id", UUID.class),
+                row.get("tenant_id", UUID.class),
+                row.get("name", String.class),
+                row.get("description", String.class),
+                row.get("duration_minutes", Integer.class),
+                row.get("price", BigDecimal.class),
+                row.get("currency", String.class),
+                row.get("capacity", Integer.class),
+                row.get("category", String.class),
+                row.get("color", String.class),
+                Boolean.TRUE.equals(row.get("is_active", Boolean.class)),
+                row.get("cancellation_policy", String.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    private BlockedSlotView toBlockedSlot(Readable row) {
+        return new BlockedSlotView(
+                row.get("id", UUID.class),
+                row.get("tenant_id", UUID.class),
+                row.get("start_time", LocalDateTime.class),
+                row.get("end_time", LocalDateTime.class),
+                row.get("reason", String.class),
+                row.get("created_by", String.class),
+                row.get("recurrence_rule", String.class),
+                row.get("recurrence_end", LocalDateTime.class),
+                row.get("created_at", LocalDateTime.class),
+                row.get("updated_at", LocalDateTime.class));
+    }
+
+    private Map<String, String> readMap(String json) {
+        if (json == null) {
+            return null;
+        }
+        try {
+            return objectMapper.readValue(json, STRING_MAP);
+        } catch (JsonProcessingException e) {
+            throw new RuntimeException("Invalid JSON column value: " + e.getOriginalMessage(), e);
+        }
+    }
+}
@@ -0,0 +1,280 @@
+package com.scheduler.booking.read.service;
+
+import com.github.benmanes.caffeine.cache.AsyncCache;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.scheduler.booking.read.model.AvailableSlot;
+import com.scheduler.booking.read.model.BlockedSlotView;
+import com.scheduler.booking.read.model.BookedInterval;
+import com.scheduler.booking.read.model.BusinessHoursOverrideView;
+import com.scheduler.booking.read.model.BusinessHoursView;
+import com.scheduler.booking.read.model.SessionTypeView;
+import com.scheduler.booking.read.model.TenantView;
+import com.scheduler.booking.read.repository.PublicReadRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.YearMonth;
+import java.time.ZoneId;
+import java.time.ZonedDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+/**
+ * Public booking-page reads with a short-lived cache in front of the database.
+ *
+ * Tenant pages, session types, business hours and blocked slots are cached for
+ * read-api.cache.ttl so a burst of visitors on a shared booking link costs one query per
+ * item rather than one per visitor. Availability is computed from live bookings each time.
+ *
+ * Recurring blocked slots are expanded only inside the queried window, a month of one
+ * rule at a time, with the expanded months kept in a cache keyed by the rule's content.
+ *
+ * Booking and blocked-slot times are stored as LocalDateTime in the backend's default
+ * zone, so this service must run with the same default time zone as the backend.
+ */
+@Service
+public class PublicReadService {
+
+    private final PublicReadRepository repository;
+    private final int maxDaysAhead;
+    private final Duration maxBlockedSlotWindow;
+
+    private final AsyncCache<String, TenantView> tenantsBySlug;
+    private final AsyncCache<UUID, List<SessionTypeView>> sessionTypes;
+    private final AsyncCache<UUID, List<BusinessHoursView>> businessHours;
+    private final AsyncCache<UUID, List<BusinessHoursOverrideView>> businessHoursOverrides;
+    private final AsyncCache<UUID, List<BlockedSlotView>> blockedSlots;
+    private final AsyncCache<UUID, ZoneId> timezones;
+    private final Cache<Expansion, List<LocalDateTime>> expansions;
+
+    /**
+     * Occurrence starts of a recurrence rule within one month
+     */
+    private record Expansion(String rule, LocalDateTime firstStart, YearMonth month) {
+    }
+
+    public PublicReadService(PublicReadRepository repository,
+                             @Value("${read-api.cache.ttl:PT10S}") Duration cacheTtl,
+                             @Value("${read-api.cache.max-size:10000}") long cacheMaxSize,
+                             @Value("${read-api.availability.max-days-ahead:90}") int maxDaysAhead,
+                             @Value("${read-api.blocked-slots.max-window:P92D}") Duration maxBlockedSlotWindow) {
+        this.repository = repository;
+        this.maxDaysAhead = maxDaysAhead;
+        this.maxBlockedSlotWindow = maxBlockedSlotWindow;
+        this.tenantsBySlug = newCache(cacheTtl, cacheMaxSize);
+        this.sessionTypes = newCache(cacheTtl, cacheMaxSize);
+        this.businessHours = newCache(cacheTtl, cacheMaxSize);
+        this.businessHoursOverrides = newCache(cacheTtl, cacheMaxSize);
+        this.blockedSlots = newCache(cacheTtl, cacheMaxSize);
+        this.timezones = newCache(cacheTtl, cacheMaxSize);
+        this.expansions = Caffeine.newBuilder()
+                .maximumSize(cacheMaxSize)
+                .build();
+    }
+
+    public Mono<TenantView> getTenantBySlug(String slug) {
+        return cached(tenantsBySlug, slug, () -> repository.findTenantBySlug(slug));
+    }
+
+    public Mono<List<SessionTypeView>> getActiveSessionTypes(UUID tenantId) {
+        return cached(sessionTypes, tenantId, () -> repository.findActiveSessionTypes(tenantId).collectList());
+    }
+
+    public Mono<List<BusinessHoursView>> getBusinessHours(UUID tenantId) {
+        return cached(businessHours, tenantId, () -> repository.findBusinessHours(tenantId).collectList());
+    }
+
+    /**
+     * Upcoming date-specific hours (from yesterday, in the server's zone, like the backend)
+     */
+    public Mono<List<BusinessHoursOverrideView>> getBusinessHoursOverrides(UUID tenantId) {
+        return cached(businessHoursOverrides, tenantId, () -> repository
+                .findBusinessHoursOverrides(tenantId, LocalDate.now().minusDays(1)).collectList());
+    }
+
+    public Mono<List<BlockedSlotView>> getBlockedSlots(UUID tenantId) {
+        return cached(blockedSlots, tenantId, () -> repository.findBlockedSlots(tenantId).collectList());
+    }
+
+    /**
+     * Blocked intervals overlapping [from, to), with recurring blocks expanded into their
+     * occurrences there
+     */
+    public Mono<List<BlockedSlotView>> getBlockedSlots(UUID tenantId, LocalDateTime from, LocalDateTime to) {
+        if (!to.isAfter(from) || Duration.between(from, to).compareTo(maxBlockedSlotWindow) > 0) {
+            return Mono.error(new ResponseStatusException(HttpStatus.BAD_REQUEST,
+                    "The window must be positive and at most " + maxBlockedSlotWindow.toDays() + " days"));
+        }
+        return repository.findBlockedSlots(tenantId, from, to).collectList()
+                .map(rows -> expand(rows, from, to));
+    }
+
+    /**
+     * Free start times for a session type on a date in the tenant's time zone.
+     *
+     * Slots are laid end to end from the start of each enabled business-hours window, or of
+     * each of the date's override windows if it has overrides (none if it is closed). A slot
+     * is offered if it is in the future, does not overlap a blocked slot or a booking of
+     * another session type, and bookings of this session type leave room below its capacity.
+     * Empty if the tenant or session type does not exist.
+     */
+    public Mono<List<AvailableSlot>> getAvailability(UUID tenantId, UUID sessionTypeId, LocalDate date) {
+        ZoneId storageZone = ZoneId.systemDefault();
+        Mono<ZoneId> tenantZone = cached(timezones, tenantId, () -> repository.findTenantTimezone(tenantId)
+                .map(timezone -> ZoneId.of(timezone != null ? timezone : "UTC")));
+
+        return Mono.zip(tenantZone, repository.findActiveSessionType(tenantId, sessionTypeId), getBusinessHours(tenantId),
+                        getBusinessHoursOverrides(tenantId))
+                .flatMap(loaded -> {
+                    ZoneId zone = loaded.getT1();
+                    SessionTypeView sessionType = loaded.getT2();
+                    List<BusinessHoursView> hours = hoursOn(date, loaded.getT3(), loaded.getT4());
+
+                    LocalDate today = LocalDate.now(zone);
+                    if (date.isBefore(today) || date.isAfter(today.plusDays(maxDaysAhead))) {
+                        return Mono.just(List.<AvailableSlot>of());
+                    }
+
+                    LocalDateTime from = date.atStartOfDay(zone).withZoneSameInstant(storageZone).toLocalDateTime();
+                    LocalDateTime to = date.plusDays(1).atStartOfDay(zone).withZoneSameInstant(storageZone).toLocalDateTime();
+                    return Mono.zip(
+                                    repository.findBlockedSlots(tenantId, from, to).collectList(),
+                                    repository.findActiveBookings(tenantId, from, to).collectList())
+                            .map(busy -> computeSlots(date, zone, storageZone, sessionType, hours,
+                                    expand(busy.getT1(), from, to), busy.getT2()));
+                });
+    }
+
+    List<AvailableSlot> computeSlots(LocalDate date, ZoneId zone, ZoneId storageZone, SessionTypeView sessionType,
+                                     List<BusinessHoursView> hours, List<BlockedSlotView> blocked,
+                                     List<BookedInterval> bookings) {
+        Duration duration = Duration.ofMinutes(sessionType.durationMinutes());
+        int capacity = sessionType.capacity() != null ? sessionType.capacity() : 1;
+        Instant now = Instant.now();
+
+        List<AvailableSlot> slots = new ArrayList<>();
+        for (BusinessHoursView window : hours) {
+            if (!window.enabled() || window.dayOfWeek() != date.getDayOfWeek()) {
+                continue;
+            }
+            LocalTime windowEnd = LocalTime.parse(window.endTime());
+            LocalTime start = LocalTime.parse(window.startTime());
+            // Stop when the slot would run past the window (or past midnight)
+            while (!start.plus(duration).isAfter(windowEnd) && !start.plus(duration).isBefore(start)) {
+                ZonedDateTime slotStart = ZonedDateTime.of(date, start, zone);
+                ZonedDateTime slotEnd = slotStart.plus(duration);
+                start = start.plus(duration);
+                if (!slotStart.toInstant().isAfter(now)) {
+                    continue;
+                }
+
+                LocalDateTime storedStart = slotStart.withZoneSameInstant(storageZone).toLocalDateTime();
+                LocalDateTime storedEnd = slotEnd.withZoneSameInstant(storageZone).toLocalDateTime();
+                if (blocked.stream().anyMatch(slot -> overlaps(slot.startTime(), slot.endTime(), storedStart, storedEnd))) {
+                    continue;
+                }
+
+                int booked = 0;
+                boolean otherSession = false;
+                for (BookedInterval booking : bookings) {
+                    if (overlaps(booking.startTime(), booking.endTime(), storedStart, storedEnd)) {
+                        if (sessionType.id().equals(booking.sessionTypeId())) {
+                            booked += booking.participants();
+                        } else {
+                            otherSession = true;
+                        }
+                    }
+                }
+                if (!otherSession && booked < capacity) {
+                    slots.add(new AvailableSlot(slotStart.toInstant().toEpochMilli(),
+                            slotEnd.toInstant().toEpochMilli(), capacity - booked));
+                }
+            }
+        }
+        return slots;
+    }
+
+    /**
+     * The weekly hours, or the date's override windows in their place if it has any
+     */
+    static List<BusinessHoursView> hoursOn(LocalDate date, List<BusinessHoursView> weekly,
+                                           List<BusinessHoursOverrideView> overrides) {
+        String day = date.toString();
+        List<BusinessHoursView> hours = new ArrayList<>();
+        boolean overridden = false;
+        for (BusinessHoursOverrideView override : overrides) {
+            if (!day.equals(override.date())) {
+                continue;
+            }
+            overridden = true;
+            if (override.startTime() != null) {
+                hours.add(new BusinessHoursView(override.id(), date.getDayOfWeek(), override.startTime(),
+                        override.endTime(), true));
+            }
+        }
+        return overridden ? hours : weekly;
+    }
+
+    /**
+     * One-off blocks overlapping [from, to) as they are, recurring ones as the occurrences
+     * overlapping it
+     */
+    List<BlockedSlotView> expand(List<BlockedSlotView> rows, LocalDateTime from, LocalDateTime to) {
+        List<BlockedSlotView> blocked = new ArrayList<>();
+        for (BlockedSlotView row : rows) {
+            if (row.recurrenceRule() == null) {
+                if (overlaps(row.startTime(), row.endTime(), from, to)) {
+                    blocked.add(row);
+                }
+                continue;
+            }
+            Duration length = Duration.between(row.startTime(), row.endTime());
+            // An occurrence starting up to one length before the window still overlaps it
+            for (YearMonth month = YearMonth.from(from.minus(length));
+                 month.atDay(1).atStartOfDay().isBefore(to);
+                 month = month.plusMonths(1)) {
+                List<LocalDateTime> starts = expansions.get(new Expansion(row.recurrenceRule(), row.startTime(), month),
+                        key -> RecurrenceRule.parse(key.rule()).startsBetween(key.firstStart(),
+                                key.month().atDay(1).atStartOfDay(), key.month().plusMonths(1).atDay(1).atStartOfDay()));
+                for (LocalDateTime start : starts) {
+                    LocalDateTime end = start.plus(length);
+                    if (overlaps(start, end, from, to)) {
+                        blocked.add(new BlockedSlotView(row.id(), row.tenantId(), start, end, row.reason(),
+                                row.createdBy(), row.recurrenceRule(), row.recurrenceEnd(), row.createdAt(),
+                                row.updatedAt()));
+                    }
+                }
+            }
+        }
+        return blocked;
+    }
+
+    private static boolean overlaps(LocalDateTime start, LocalDateTime end, LocalDateTime otherStart, LocalDateTime otherEnd) {
+        return start.isBefore(otherEnd) && end.isAfter(otherStart);
+    }
+
+    private static <K, V> AsyncCache<K, V> newCache(Duration ttl, long maxSize) {
+        return Caffeine.newBuilder()
+                .expireAfterWrite(ttl)
+                .maximumSize(maxSize)
+                .buildAsync();
+    }
+
+    /**
+     * Concurrent misses for the same key share one query. Empty results are not cached.
+     */
+    private static <K, V> Mono<V> cached(AsyncCache<K, V> cache, K key, Supplier<Mono<V>> loader) {
+        return Mono.fromFuture(() -> cache.get(key, (k, executor) -> loader.get().toFuture()));
+    }
+}
@@ -0,0 +1,231 @@
+package com.scheduler.booking.read.service;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * The subset of RFC 5545 RRULE supported for recurring blocked slots:
+ * FREQ=DAILY|WEEKLY, INTERVAL, BYDAY (weekly only, plain day codes), and COUNT or UNTIL.
+ * For example FREQ=WEEKLY;BYDAY=MO,TU,WE,TH,FR for a weekday lunch break, or
+ * FREQ=WEEKLY;INTERVAL=2;BYDAY=FR for every other Friday.
+ *
+ * Occurrences keep the wall-clock time of the first one (DTSTART), which must itself match
+ * the rule. Without COUNT, {@link #startsBetween} jumps straight to the queried window, so
+ * its cost does not grow with the distance from DTSTART.
+ *
+ * Copy of the backend's com.scheduler.booking.util.RecurrenceRule, which validates the
+ * rules when they are saved; keep the two in step.
+ */
+public final class RecurrenceRule {
+
+    public enum Frequency {
+        DAILY, WEEKLY
+    }
+
+    private static final int MAX_COUNT = 10_000;
+    private static final DateTimeFormatter UNTIL_DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter UNTIL_DATE_TIME = DateTimeFormatter.ofPattern("yyyyMMdd'T'HHmmss");
+
+    private final Frequency frequency;
+    private final int interval;
+    private final Set<DayOfWeek> byDay;
+    private final Integer count;
+    private final LocalDateTime until;
+
+    private RecurrenceRule(Frequency frequency, int interval, Set<DayOfWeek> byDay, Integer count,
+                           LocalDateTime until) {
+        this.frequency = frequency;
+        this.interval = interval;
+        this.byDay = byDay;
+        this.count = count;
+        this.until = until;
+    }
+
+    /**
+     * Parse a rule, with or without the "RRULE:" prefix. A UNTIL in UTC (trailing Z) is
+     * converted to the server's default zone, like all stored times.
+     *
+     * @throws IllegalArgumentException if the rule is malformed or outside the supported subset
+     */
+    public static RecurrenceRule parse(String rule) {
+        String value = rule.trim();
+        if (value.regionMatches(true, 0, "RRULE:", 0, 6)) {
+            value = value.substring(6);
+        }
+        Frequency frequency = null;
+        int interval = 1;
+        Set<DayOfWeek> byDay = EnumSet.noneOf(DayOfWeek.class);
+        Integer count = null;
+        LocalDateTime until = null;
+        for (String part : value.split(";")) {
+            int eq = part.indexOf('=');
+            if (eq < 0) {
+                throw new IllegalArgumentException("Malformed recurrence rule part: " + part);
+            }
+            String name = part.substring(0, eq).trim().toUpperCase(Locale.ROOT);
+            String arg = part.substring(eq + 1).trim().toUpperCase(Locale.ROOT);
+            try {
+                switch (name) {
+                    case "FREQ" -> frequency = Frequency.valueOf(arg);
+                    case "INTERVAL" -> interval = Integer.parseInt(arg);
+                    case "COUNT" -> count = Integer.parseInt(arg);
+                    case "UNTIL" -> until = parseUntil(arg);
+                    case "BYDAY" -> {
+                        for (String day : arg.split(",")) {
+                            byDay.add(dayOf(day.trim()));
+                        }
+                    }
+                    case "WKST" -> {
+                        if (!"MO".equals(arg)) {
+                            throw new IllegalArgumentException("Only WKST=MO is supported");
+                        }
+                    }
+                    default -> throw new IllegalArgumentException("Unsupported recurrence rule part: " + name);
+                }
+            } catch (NumberFormatException | DateTimeParseException e) {
+                throw new IllegalArgumentException("Invalid value for " + name + ": " + arg);
+            }
+        }
+
+        if (frequency == null) {
+            throw new IllegalArgumentException("FREQ must be DAILY or WEEKLY");
+        }
+        if (interval < 1) {
+            throw new IllegalArgumentException("INTERVAL must be at least 1");
+        }
+        if (count != null && until != null) {
+            throw new IllegalArgumentException("COUNT and UNTIL cannot both be set");
+        }
+        if (count != null && (count < 1 || count > MAX_COUNT)) {
+            throw new IllegalArgumentException("COUNT must be between 1 and " + MAX_COUNT);
+        }
+        if (!byDay.isEmpty() && frequency != Frequency.WEEKLY) {
+            throw new IllegalArgumentException("BYDAY is only supported with FREQ=WEEKLY");
+        }
+        return new RecurrenceRule(frequency, interval, byDay, count, until);
+    }
+
+    /**
+     * Check that the rule can start at dtstart
+     *
+     * @throws IllegalArgumentException if dtstart is not itself an occurrence of the rule
+     */
+    public void validateStart(LocalDateTime dtstart) {
+        if (!byDay.isEmpty() && !byDay.contains(dtstart.getDayOfWeek())) {
+            throw new IllegalArgumentException("The first occurrence must fall on one of the BYDAY days");
+        }
+        if (until != null && until.isBefore(dtstart)) {
+            throw new IllegalArgumentException("UNTIL is before the first occurrence");
+        }
+    }
+
+    /**
+     * No occurrence starts after this: the last start for COUNT, UNTIL otherwise, or null if
+     * the rule never ends
+     */
+    public LocalDateTime lastStart(LocalDateTime dtstart) {
+        if (count != null) {
+            List<LocalDateTime> all = startsBetween(dtstart, dtstart, LocalDateTime.MAX);
+            return all.get(all.size() - 1);
+        }
+        return until;
+    }
+
+    /**
+     * Occurrence starts s with from <= s < to, in order
+     */
+    public List<LocalDateTime> startsBetween(LocalDateTime dtstart, LocalDateTime from, LocalDateTime to) {
+        List<LocalDateTime> starts = new ArrayList<>();
+        LocalTime time = dtstart.toLocalTime();
+        LocalDate firstDate = dtstart.toLocalDate();
+        ChronoUnit unit = frequency == Frequency.WEEKLY ? ChronoUnit.WEEKS : ChronoUnit.DAYS;
+        // Weekly periods run Monday to Sunday
+        LocalDate anchor = frequency == Frequency.WEEKLY
+                ? firstDate.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : firstDate;
+
+        long period = 0;
+        if (count == null && from.isAfter(dtstart)) {
+            // Skip to the period containing from; COUNT needs every earlier occurrence counted
+            long elapsed = unit.between(anchor, from.toLocalDate());
+            period = elapsed - elapsed % interval;
+        }
+
+        int seen = 0;
+        for (; ; period += interval) {
+            LocalDateTime periodStart = anchor.plus(period, unit).atStartOfDay();
+            if (!periodStart.isBefore(to) || (until != null && periodStart.isAfter(until))) {
+                return starts;
+            }
+            for (LocalDate date : datesIn(periodStart.toLocalDate(), firstDate)) {
+                LocalDateTime start = date.atTime(time);
+                if (start.isBefore(dtstart)) {
+                    continue;
+                }
+                if ((until != null && start.isAfter(until)) || (count != null && seen == count)
+                        || !start.isBefore(to)) {
+                    return starts;
+                }
+                seen++;
+                if (!start.isBefore(from)) {
+                    starts.add(start);
+                }
+            }
+        }
+    }
+
+    private List<LocalDate> datesIn(LocalDate periodStart, LocalDate firstDate) {
+        if (frequency == Frequency.DAILY) {
+            return List.of(periodStart);
+        }
+        if (byDay.isEmpty()) {
+            return List.of(periodStart.with(TemporalAdjusters.nextOrSame(firstDate.getDayOfWeek())));
+        }
+        // EnumSet iterates Monday to Sunday, i.e. in date order within the period
+        List<LocalDate> dates = new ArrayList<>(byDay.size());
+        for (DayOfWeek day : byDay) {
+            dates.add(periodStart.with(TemporalAdjusters.nextOrSame(day)));
+        }
+        return dates;
+    }
+
+    private static LocalDateTime parseUntil(String value) {
+        if (value.length() == 8) {
+            // A date covers the whole day
+            return LocalDate.parse(value, UNTIL_DATE).atTime(LocalTime.MAX);
+        }
+        if (value.endsWith("Z")) {
+            return LocalDateTime.parse(value.substring(0, value.length() - 1), UNTIL_DATE_TIME)
+                    .atOffset(ZoneOffset.UTC)
+                    .atZoneSameInstant(ZoneId.systemDefault())
+                    .toLocalDateTime();
+        }
+        return LocalDateTime.parse(value, UNTIL_DATE_TIME);
+    }
+
+    private static DayOfWeek dayOf(String code) {
+        return switch (code) {
+            case "MO" -> DayOfWeek.MONDAY;
+            case "TU" -> DayOfWeek.TUESDAY;
+            case "WE" -> DayOfWeek.WEDNESDAY;
+            case "TH" -> DayOfWeek.THURSDAY;
+            case "FR" -> DayOfWeek.FRIDAY;
+            case "SA" -> DayOfWeek.SATURDAY;
+            case "SU" -> DayOfWeek.SUNDAY;
+            default -> throw new IllegalArgumentException("Unsupported BYDAY value: " + code);
+        };
+    }
+}
@@ -0,0 +1,122 @@
+package com.scheduler.booking.read.service;
+
+import com.scheduler.booking.read.model.AvailableSlot;
+import com.scheduler.booking.read.model.BlockedSlotView;
+import com.scheduler.booking.read.model.BookedInterval;
+import com.scheduler.booking.read.model.BusinessHoursOverrideView;
+import com.scheduler.booking.read.model.BusinessHoursView;
+import com.scheduler.booking.read.model.SessionTypeView;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.DayOfWeek;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Slot computation must agree with the backend's booking checks: blocks and bookings
+ * overlap when start < otherEnd and end > otherStart, a booking of another session type
+ * takes the slot, and bookings of the same type count towards its capacity.
+ */
+public class PublicReadServiceTest {
+
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+    private static final UUID TENANT_ID = UUID.randomUUID();
+
+    private final PublicReadService service = new PublicReadService(null, Duration.ofSeconds(10), 100, 90,
+            Duration.ofDays(92));
+
+    // A Monday far enough ahead that every slot is in the future
+    private final LocalDate monday = LocalDate.now(ZONE).plusWeeks(2).with(TemporalAdjusters.next(DayOfWeek.MONDAY));
+
+    @Test
+    public void testHoursOnUsesOverridesInPlaceOfWeeklyHours() {
+        List<BusinessHoursView> weekly = List.of(hours(DayOfWeek.MONDAY, "09:00", "17:00"));
+        List<BusinessHoursOverrideView> overrides = List.of(
+                override(monday, null, null),
+                override(monday.plusDays(1), "18:00", "20:00"),
+                override(monday.plusDays(1), "07:00", "08:00"));
+
+        assertSame(weekly, PublicReadService.hoursOn(monday.plusWeeks(1), weekly, overrides));
+        assertTrue(PublicReadService.hoursOn(monday, weekly, overrides).isEmpty());
+
+        List<BusinessHoursView> tuesday = PublicReadService.hoursOn(monday.plusDays(1), weekly, overrides);
+        assertEquals(2, tuesday.size());
+        assertTrue(tuesday.stream().allMatch(window -> window.enabled() && window.dayOfWeek() == DayOfWeek.TUESDAY));
+        assertEquals("18:00", tuesday.get(0).startTime());
+    }
+
+    @Test
+    public void testSlotsSkipBlocksAndOtherSessionsAndRespectCapacity() {
+        SessionTypeView group = sessionType(60, 3);
+        List<BlockedSlotView> blocked = List.of(
+                // Ends as the 09:00 slot starts: touching is not overlapping
+                blocked(at(8), at(9)),
+                blocked(at(10).plusMinutes(30), at(10).plusMinutes(45)));
+        List<BookedInterval> bookings = List.of(
+                new BookedInterval(group.id(), at(9), at(10), 2),
+                new BookedInterval(UUID.randomUUID(), at(11).plusMinutes(30), at(12), 1),
+                new BookedInterval(group.id(), at(12), at(13), 3));
+
+        List<AvailableSlot> slots = service.computeSlots(monday, ZONE, ZONE, group,
+                List.of(hours(DayOfWeek.MONDAY, "09:00", "14:30"), hours(DayOfWeek.TUESDAY, "09:00", "17:00")),
+                blocked, bookings);
+
+        // 10:00 is blocked, 11:00 taken by another session type, 12:00 full, 14:00 would end past 14:30
+        assertEquals(List.of(at(9), at(13)), slots.stream().map(PublicReadServiceTest::start).toList());
+        assertEquals(1, slots.get(0).remaining());
+        assertEquals(3, slots.get(1).remaining());
+        assertTrue(service.computeSlots(monday, ZONE, ZONE, group, List.of(), blocked, bookings).isEmpty());
+    }
+
+    @Test
+    public void testRecurringBlocksAreExpandedIntoTheDay() {
+        // Every other Monday 12:00-13:00, starting on this Monday two weeks before
+        BlockedSlotView lunch = new BlockedSlotView(UUID.randomUUID(), TENANT_ID, at(12).minusWeeks(2),
+                at(13).minusWeeks(2), "Lunch", "owner", "FREQ=WEEKLY;INTERVAL=2;BYDAY=MO", null, null, null);
+        LocalDateTime from = monday.atStartOfDay();
+
+        List<BlockedSlotView> expanded = service.expand(List.of(lunch), from, from.plusDays(1));
+        assertEquals(1, expanded.size());
+        assertEquals(at(12), expanded.get(0).startTime());
+        assertTrue(service.expand(List.of(lunch), from.plusWeeks(1), from.plusWeeks(1).plusDays(1)).isEmpty());
+
+        List<AvailableSlot> slots = service.computeSlots(monday, ZONE, ZONE, sessionType(60, 1),
+                List.of(hours(DayOfWeek.MONDAY, "11:00", "14:00")), expanded, List.of());
+        assertEquals(List.of(at(11), at(13)), slots.stream().map(PublicReadServiceTest::start).toList());
+    }
+
+    private LocalDateTime at(int hour) {
+        return monday.atTime(LocalTime.of(hour, 0));
+    }
+
+    private static LocalDateTime start(AvailableSlot slot) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(slot.startTime()), ZONE);
+    }
+
+    private static BusinessHoursView hours(DayOfWeek day, String start, String end) {
+        return new BusinessHoursView(UUID.randomUUID(), day, start, end, true);
+    }
+
+    private static BusinessHoursOverrideView override(LocalDate date, String start, String end) {
+        return new BusinessHoursOverrideView(UUID.randomUUID(), date.toString(), start, end, null);
+    }
+
+    private static SessionTypeView sessionType(int durationMinutes, int capacity) {
+        return new SessionTypeView(UUID.randomUUID(), TENANT_ID, "Session", null, durationMinutes, BigDecimal.TEN,
+                "EUR", capacity, null, null, true, null, null, null);
+    }
+
+    private static BlockedSlotView blocked(LocalDateTime start, LocalDateTime end) {
+        return new BlockedSlotView(UUID.randomUUID(), TENANT_ID, start, end, null, "owner", null, null, null, null);
+    }
+}
@@ -9,6 +9,7 @@ import BusinessDashboard from './pages/BusinessDashboard';
 import CustomerPortal from './pages/CustomerPortal';
 import BookingSuccess from './pages/BookingSuccess';
 import BookingCancelled from './pages/BookingCancelled';
+import ManageBooking from './pages/ManageBooking';
 import './App.css';
 
 const ProtectedRoute = ({ children, allowedRoles }: { children: React.ReactNode; allowedRoles: string[] }) => {
@@ -66,6 +67,7 @@ function AppRoutes() {
       <Route path="/book/:slug/:sessionId" element={<CustomerPortal />} />
       <Route path="/booking-success" element={<BookingSuccess />} />
       <Route path="/booking-cancelled" element={<BookingCancelled />} />
+      <Route path="/bookings/:id/manage" element={<ManageBooking />} />
     </Routes>
   );
 }
@@ -1,8 +1,8 @@
 import { useState, useEffect } from 'react';
 import '../styles/BookingCalendar.css';
 import { customerAPI } from '../services/api';
-import type { BusinessHours, BlockedSlot } from '../types';
-import { getUserTimezone, getTimezoneAbbreviation } from '../utils/timezone';
+import type { BusinessHours, BusinessHoursOverride, BlockedSlot } from '../types';
+import { getUserTimezone, getTimezoneAbbreviation, getZonedTime } from '../utils/timezone';
 
 interface TimeSlot {
   time: string;
@@ -14,6 +14,8 @@ interface BookingCalendarProps {
   sessionDurationMinutes: number;
   onSelectSlot: (datetime: string) => void;
   tenantId: string;
+  // The business's timezone; its hours and date overrides are in this zone
+  timezone: string;
   sessionTypeId?: string;
 }
 
@@ -21,6 +23,7 @@ export default function BookingCalendar({
   sessionDurationMinutes,
   onSelectSlot,
   tenantId,
+  timezone,
   sessionTypeId
 }: BookingCalendarProps) {
   const [selectedDate, setSelectedDate] = useState<Date>(new Date());
@@ -28,42 +31,75 @@ export default function BookingCalendar({
   const [availableSlots, setAvailableSlots] = useState<TimeSlot[]>([]);
   const [selectedTime, setSelectedTime] = useState<string | null>(null);
   const [businessHours, setBusinessHours] = useState<BusinessHours[]>([]);
+  const [hoursOverrides, setHoursOverrides] = useState<BusinessHoursOverride[]>([]);
   const [blockedSlots, setBlockedSlots] = useState<BlockedSlot[]>([]);
 
-  // Load business hours and blocked slots
+  // Month of the selected date: blocked slots (with recurring blocks expanded) are loaded a month at a time
+  const selectedMonth = new Date(selectedDate.getFullYear(), selectedDate.getMonth(), 1).getTime();
+
+  // Load business hours
   useEffect(() => {
-    const loadAvailability = async () => {
+    const loadBusinessHours = async () => {
       try {
-        const [hoursRes, slotsRes] = await Promise.all([
+        const [hoursRes, overridesRes] = await Promise.all([
           customerAPI.getBusinessHours(tenantId),
-          customerAPI.getBlockedSlots(tenantId)
+          customerAPI.getBusinessHoursOverrides(tenantId)
         ]);
         setBusinessHours(hoursRes.data);
-        setBlockedSlots(slotsRes.data);
+        setHoursOverrides(overridesRes.data);
       } catch (error) {
         console.error('Failed to load availability data:', error);
       }
     };
 
     if (tenantId) {
-      loadAvailability();
+      loadBusinessHours();
     }
   }, [tenantId]);
 
-  // Check if a time is within business hours
-  const isWithinBusinessHours = (date: Date, time: string): boolean => {
-    const dayOfWeek = ['SUNDAY', 'MONDAY', 'TUESDAY', 'WEDNESDAY', 'THURSDAY', 'FRIDAY', 'SATURDAY'][date.getDay()] as BusinessHours['dayOfWeek'];
+  // Load blocked slots for the selected month
+  useEffect(() => {
+    const loadBlockedSlots = async () => {
+      try {
+        const monthStart = new Date(selectedMonth);
+        const nextMonthStart = new Date(monthStart.getFullYear(), monthStart.getMonth() + 1, 1);
+        const slotsRes = await customerAPI.getBlockedSlots(tenantId, selectedMonth, nextMonthStart.getTime());
+        setBlockedSlots(slotsRes.data);
+      } catch (error) {
+        console.error('Failed to load availability data:', error);
+      }
+    };
+
+    if (tenantId) {
+      loadBlockedSlots();
+    }
+  }, [tenantId, selectedMonth]);
+
+  // Check if a session starting at this moment fits in one of the business's open ranges.
+  // Slots are shown in the customer's time, hours are in the business's timezone (as the server checks them).
+  const isWithinBusinessHours = (slotStart: Date): boolean => {
+    const start = getZonedTime(slotStart.getTime(), timezone);
+    const endMinutes = start.minutes + sessionDurationMinutes;
+    const toMinutes = (time: string) => {
+      const [hours, minutes] = time.split(':').map(Number);
+      return hours * 60 + minutes;
+    };
+    const fits = (rangeStart: string, rangeEnd: string) =>
+      start.minutes >= toMinutes(rangeStart) && endMinutes <= toMinutes(rangeEnd);
+
+    // Date-specific overrides replace the weekly hours for that date
+    const overrides = hoursOverrides.filter(o => o.date === start.date);
+    if (overrides.length > 0) {
+      return overrides.some(o => o.startTime && o.endTime && fits(o.startTime, o.endTime));
+    }
 
-    const dayHours = businessHours.filter(h => h.dayOfWeek === dayOfWeek && h.enabled);
+    const dayHours = businessHours.filter(h => h.dayOfWeek === start.dayOfWeek && h.enabled);
 
     if (dayHours.length === 0) {
       return false; // No business hours set for this day
     }
 
-    // Check if time falls within any of the business hour ranges for this day
-    return dayHours.some(hour => {
-      return time >= hour.startTime && time < hour.endTime;
-    });
+    return dayHours.some(hour => fits(hour.startTime, hour.endTime));
   };
 
   // Check if a time slot is blocked
@@ -94,7 +130,7 @@ export default function BookingCalendar({
         const isPast = slotDate <= new Date();
 
         // Check if slot is within business hours
-        const withinBusinessHours = isWithinBusinessHours(date, timeString);
+        const withinBusinessHours = isWithinBusinessHours(slotDate);
 
         // Check if slot is blocked
         const blocked = isSlotBlocked(date, timeString);
@@ -117,7 +153,7 @@ export default function BookingCalendar({
     const slots = generateTimeSlots(selectedDate);
     setAvailableSlots(slots);
     setSelectedTime(null);
-  }, [selectedDate, businessHours, blockedSlots]);
+  }, [selectedDate, businessHours, hoursOverrides, blockedSlots, timezone]);
 
   const getDaysInMonth = (date: Date) => {
     const year = date.getFullYear();
@@ -1,5 +1,6 @@
 import { useEffect, useState } from 'react';
 import { useNavigate, useSearchParams } from 'react-router-dom';
+import { stripeAPI } from '../services/api';
 
 export default function BookingSuccess() {
   const [searchParams] = useSearchParams();
@@ -7,8 +8,33 @@ export default function BookingSuccess() {
   const [countdown, setCountdown] = useState(5);
   const sessionId = searchParams.get('session_id');
   const slug = searchParams.get('slug');
+  const bookingId = searchParams.get('booking_id');
+  const [confirming, setConfirming] = useState(!!bookingId);
 
   useEffect(() => {
+    if (!bookingId) return;
+    let cancelled = false;
+    const waitForConfirmation = async () => {
+      // Long-poll: the server answers as soon as the Stripe webhook has been processed
+      for (let attempt = 0; attempt < 3 && !cancelled; attempt++) {
+        try {
+          const response = await stripeAPI.getPaymentStatus(bookingId, '30s');
+          if (response.data.status !== 'PENDING') break;
+        } catch (error) {
+          console.error('Failed to check payment status:', error);
+          break;
+        }
+      }
+      if (!cancelled) setConfirming(false);
+    };
+    waitForConfirmation();
+    return () => {
+      cancelled = true;
+    };
+  }, [bookingId]);
+
+  useEffect(() => {
+    if (confirming) return;
     const timer = setInterval(() => {
       setCountdown((prev) => {
         if (prev <= 1) {
@@ -26,7 +52,7 @@ export default function BookingSuccess() {
     }, 1000);
 
     return () => clearInterval(timer);
-  }, [navigate, slug]);
+  }, [navigate, slug, confirming]);
 
   return (
     <div style={{
@@ -140,7 +166,7 @@ export default function BookingSuccess() {
           color: '#9ca3af',
           margin: 0
         }}>
-          Redirecting in {countdown} seconds...
+          {confirming ? 'Confirming your payment...' : `Redirecting in ${countdown} seconds...`}
         </p>
       </div>
     </div>
@@ -7,6 +7,12 @@ import BusinessCalendar from '../components/BusinessCalendar';
 import ImageUpload from '../components/ImageUpload';
 import { getUserTimezone, getTimezoneAbbreviation } from '../utils/timezone';
 
+// IANA zones the browser knows, always including the current one
+const timezoneOptions = (current: string): string[] => {
+  const supported: string[] = (Intl as any).supportedValuesOf ? (Intl as any).supportedValuesOf('timeZone') : [];
+  return supported.includes(current) ? supported : [current, ...supported];
+};
+
 export default function BusinessDashboard() {
   const { user } = useUser();
   const { signOut } = useClerk();
@@ -96,6 +102,16 @@ export default function BusinessDashboard() {
     }
   };
 
+  const handleTimezoneChange = async (timezone: string) => {
+    try {
+      const response = await businessAPI.updateTenantTimezone(timezone);
+      setTenant(response.data);
+    } catch (error: any) {
+      console.error('Failed to update timezone:', error);
+      alert(error.response?.data?.message || 'Failed to update timezone');
+    }
+  };
+
   const handleSubmit = async (e: React.FormEvent) => {
     e.preventDefault();
     console.log('📝 Creating session type with data:', formData);
@@ -307,7 +323,17 @@ export default function BusinessDashboard() {
             alignItems: 'center',
             gap: '8px'
           }}>
-            🌍 <strong>Business Timezone:</strong> {tenant.timezone} ({getTimezoneAbbreviation(tenant.timezone)})
+            🌍 <strong>Business Timezone:</strong>
+            <select
+              value={tenant.timezone}
+              onChange={(e) => handleTimezoneChange(e.target.value)}
+              style={{ fontSize: '14px', padding: '2px 4px' }}
+            >
+              {timezoneOptions(tenant.timezone).map(zone => (
+                <option key={zone} value={zone}>{zone}</option>
+              ))}
+            </select>
+            ({getTimezoneAbbreviation(tenant.timezone)}) — business hours and holidays are in this timezone
           </div>
         )}
 
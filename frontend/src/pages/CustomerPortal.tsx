@@ -1,6 +1,6 @@
-import { useState, useEffect } from 'react';
+import { useState, useEffect, useRef } from 'react';
 import { useParams, useNavigate, useSearchParams } from 'react-router-dom';
-import { customerAPI, stripeAPI } from '../services/api';
+import { customerAPI } from '../services/api';
 import type { Tenant, SessionType } from '../types';
 import BookingCalendar from '../components/BookingCalendar';
 import { getTimezoneDifferenceMessage } from '../utils/timezone';
@@ -13,6 +13,9 @@ export default function CustomerPortal() {
   const [sessions, setSessions] = useState<SessionType[]>([]);
   const [selectedSession, setSelectedSession] = useState<SessionType | null>(null);
   const [showCustomerForm, setShowCustomerForm] = useState(false);
+  // Kept across resubmits of the same attempt so a retry after a dropped response
+  // gets the original booking back instead of a second one
+  const idempotencyKey = useRef<{ key: string; request: string } | null>(null);
   const [bookingData, setBookingData] = useState({
     firstName: '',
     lastName: '',
@@ -129,8 +132,7 @@ export default function CustomerPortal() {
         sessionTypeId: selectedSession.id
       });
 
-      // Create the booking first
-      const bookingResponse = await customerAPI.createBooking(tenant.id, {
+      const request = {
         sessionTypeId: selectedSession.id,
         startTime: startTimeEpoch,
         firstName: bookingData.firstName,
@@ -139,20 +141,36 @@ export default function CustomerPortal() {
         phone: bookingData.phone,
         notes: bookingData.notes,
         participants: 1
-      });
+      };
+      // A changed form is a new attempt, not a retry
+      const fingerprint = JSON.stringify(request);
+      if (!idempotencyKey.current || idempotencyKey.current.request !== fingerprint) {
+        idempotencyKey.current = { key: crypto.randomUUID(), request: fingerprint };
+      }
 
-      console.log('Booking created:', bookingResponse.data);
+      // Create the booking and, if payment is needed, the Stripe checkout session
+      const response = await customerAPI.createBookingWithCheckout(tenant.id, request, slug,
+        idempotencyKey.current.key);
+      idempotencyKey.current = null;
 
-      // Create Stripe checkout session and redirect to payment
-      const checkoutResponse = await stripeAPI.createCheckoutSession(bookingResponse.data.id, slug!);
-      console.log('Stripe checkout session created:', checkoutResponse.data);
+      console.log('Booking created:', response.data);
 
-      // Redirect to Stripe checkout
-      window.location.href = checkoutResponse.data.checkoutUrl;
+      if (response.data.checkoutUrl) {
+        // Redirect to Stripe checkout
+        window.location.href = response.data.checkoutUrl;
+      } else {
+        alert('Your booking is confirmed! A confirmation email is on its way.');
+        navigate(`/book/${slug}`);
+      }
 
     } catch (error: any) {
       console.error('Failed to create booking:', error);
-      const errorMessage = error.response?.data?.message || error.message || 'Failed to create booking. Please try again.';
+      const status = error.response?.status;
+      if (status && status < 500 && status !== 409 && status !== 429) {
+        // Definitive answer: the next submit is a new attempt
+        idempotencyKey.current = null;
+      }
+      const errorMessage = error.response?.data?.error || error.response?.data?.message || error.message || 'Failed to create booking. Please try again.';
       alert(errorMessage);
     }
   };
@@ -217,7 +235,7 @@ export default function CustomerPortal() {
                   boxShadow: '0 4px 12px rgba(0,0,0,0.15)'
                 }}>
                   <img
-                    src={tenant.logoUrl}
+                    src={tenant.logoVariants?.['128'] || tenant.logoUrl}
                     alt={`${tenant.name} logo`}
                     style={{
                       width: '100%',
@@ -261,6 +279,7 @@ export default function CustomerPortal() {
               sessionDurationMinutes={selectedSession.durationMinutes}
               onSelectSlot={handleTimeSlotSelect}
               tenantId={tenant?.id || ''}
+              timezone={tenant?.timezone || 'UTC'}
               sessionTypeId={selectedSession.id}
             />
           </div>
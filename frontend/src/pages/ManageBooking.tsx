@@ -0,0 +1,123 @@
+import { useEffect, useState } from 'react';
+import { useParams, useSearchParams } from 'react-router-dom';
+import BookingCalendar from '../components/BookingCalendar';
+import { customerAPI } from '../services/api';
+import type { Booking, Tenant } from '../types';
+
+const formatTime = (timestamp: number) =>
+  new Date(timestamp).toLocaleString('en-US', {
+    weekday: 'long',
+    month: 'long',
+    day: 'numeric',
+    hour: '2-digit',
+    minute: '2-digit',
+    timeZoneName: 'short'
+  });
+
+/**
+ * Target of the manage link in booking emails: shows the booking and lets the customer move it.
+ * The link's token authorises both the lookup and the reschedule.
+ */
+export default function ManageBooking() {
+  const { id } = useParams<{ id: string }>();
+  const [searchParams] = useSearchParams();
+  const token = searchParams.get('token') || '';
+  const [booking, setBooking] = useState<Booking | null>(null);
+  const [tenant, setTenant] = useState<Tenant | null>(null);
+  const [newStartTime, setNewStartTime] = useState<string | null>(null);
+  const [saving, setSaving] = useState(false);
+  const [message, setMessage] = useState<string | null>(null);
+  const [error, setError] = useState<string | null>(null);
+
+  useEffect(() => {
+    if (!id || !token) {
+      setError('This link is incomplete. Please use the link from your booking email.');
+      return;
+    }
+    customerAPI.getManagedBooking(id, token)
+      .then((response) => {
+        setBooking(response.data.booking);
+        setTenant(response.data.tenant);
+      })
+      .catch((err) => {
+        console.error('Failed to load booking:', err);
+        setError('This booking could not be found. The link may be outdated.');
+      });
+  }, [id, token]);
+
+  const handleReschedule = async () => {
+    if (!booking || !newStartTime) return;
+    setSaving(true);
+    setMessage(null);
+    setError(null);
+    try {
+      const response = await customerAPI.rescheduleBooking(booking.id, new Date(newStartTime).getTime(), token);
+      setBooking({ ...booking, ...response.data });
+      setNewStartTime(null);
+      setMessage('Your booking has been moved. A confirmation email is on its way.');
+    } catch (err: any) {
+      console.error('Failed to reschedule booking:', err);
+      setError(err.response?.data?.message || 'This time is not available. Please choose another time.');
+    } finally {
+      setSaving(false);
+    }
+  };
+
+  const reschedulable = booking
+    && (booking.status === 'CONFIRMED' || booking.status === 'PENDING')
+    && booking.startTime > Date.now();
+
+  return (
+    <div className="container" style={{ paddingTop: '48px', paddingBottom: '48px' }}>
+      {tenant && <h1 style={{ marginBottom: '8px', color: '#1f2937' }}>{tenant.name}</h1>}
+
+      {error && (
+        <div className="card" style={{ background: '#fee2e2', color: '#991b1b', padding: '16px', marginBottom: '20px' }}>
+          {error}
+        </div>
+      )}
+      {message && (
+        <div className="card" style={{ background: '#f0fdf4', color: '#166534', padding: '16px', marginBottom: '20px' }}>
+          {message}
+        </div>
+      )}
+
+      {booking && (
+        <div className="card" style={{ marginBottom: '24px' }}>
+          <h2 style={{ margin: '0 0 8px 0', fontSize: '20px' }}>{booking.sessionType?.name || 'Your booking'}</h2>
+          <p style={{ margin: 0, color: '#6b7280' }}>
+            <strong>When:</strong> {formatTime(booking.startTime)}
+          </p>
+          <p style={{ margin: '4px 0 0 0', color: '#6b7280' }}>
+            <strong>Status:</strong> {booking.status}
+          </p>
+        </div>
+      )}
+
+      {booking && tenant && reschedulable && (
+        <>
+          <h2 style={{ fontSize: '20px', marginBottom: '16px' }}>Pick a new time</h2>
+          <BookingCalendar
+            sessionDurationMinutes={Math.round((booking.endTime - booking.startTime) / 60000)}
+            onSelectSlot={setNewStartTime}
+            tenantId={tenant.id}
+            timezone={tenant.timezone || 'UTC'}
+            sessionTypeId={booking.sessionTypeId}
+          />
+          {newStartTime && (
+            <div style={{ marginTop: '24px', display: 'flex', alignItems: 'center', gap: '16px' }}>
+              <span>Move to {formatTime(new Date(newStartTime).getTime())}?</span>
+              <button onClick={handleReschedule} disabled={saving} className="button button-primary">
+                {saving ? 'Saving...' : 'Confirm new time'}
+              </button>
+            </div>
+          )}
+        </>
+      )}
+
+      {booking && !reschedulable && !message && (
+        <p style={{ color: '#6b7280' }}>This booking can no longer be changed online.</p>
+      )}
+    </div>
+  );
+}
@@ -1,7 +1,9 @@
 import axios from 'axios';
-import type { Tenant, SessionType, Booking, BusinessHours, BlockedSlot } from '../types';
+import type { Tenant, SessionType, Booking, BusinessHours, BusinessHoursOverride, BlockedSlot, BulkBlockedSlotResponse } from '../types';
 
 const API_BASE_URL = 'http://localhost:8080/api';
+// Optional read-only API (booking-read-api) for public booking-page GETs
+const READ_API_BASE_URL = import.meta.env.VITE_READ_API_URL || API_BASE_URL;
 
 const api = axios.create({
   baseURL: API_BASE_URL,
@@ -10,6 +12,11 @@ const api = axios.create({
   },
 });
 
+// Anonymous reads; no auth header needed
+const readApi = axios.create({
+  baseURL: READ_API_BASE_URL,
+});
+
 // Setup function to inject Clerk's getToken function
 let getClerkToken: (() => Promise<string | null>) | null = null;
 
@@ -63,6 +70,8 @@ export const businessAPI = {
   getTenant: () => api.get<Tenant>('/business/tenant'),
   updateTenantTimezone: (timezone: string) =>
     api.put<Tenant>('/business/tenant/timezone', { timezone }),
+  updateNotificationMode: (notificationMode: 'INSTANT' | 'HOURLY' | 'DAILY') =>
+    api.put<Tenant>('/business/tenant/notification-mode', { notificationMode }),
   updateTenantProfile: (data: { logoUrl?: string; description?: string }) =>
     api.put<Tenant>('/business/tenant/profile', data),
   uploadLogo: (file: File) => {
@@ -80,9 +89,16 @@ export const businessAPI = {
   deleteSessionType: (id: string) => api.delete(`/business/sessions/${id}`),
   getBookings: () => api.get<Booking[]>('/business/bookings'),
   cancelBooking: (id: string) => api.delete(`/business/bookings/${id}`),
-  getBlockedSlots: () => api.get<BlockedSlot[]>('/business/blocked-slots'),
-  createBlockedSlot: (data: { startTime: number; endTime: number; reason?: string }) =>
+  rescheduleBooking: (id: string, startTime: number) =>
+    api.post<Booking>(`/business/bookings/${id}/reschedule`, { startTime }),
+  // Without from/to, the stored blocks; with them (epoch ms), the window with recurring blocks expanded
+  getBlockedSlots: (from?: number, to?: number) =>
+    api.get<BlockedSlot[]>('/business/blocked-slots', { params: { from, to } }),
+  // recurrenceRule: optional RRULE subset, e.g. 'FREQ=WEEKLY;INTERVAL=2;BYDAY=FR'
+  createBlockedSlot: (data: { startTime: number; endTime: number; reason?: string; recurrenceRule?: string }) =>
     api.post<BlockedSlot>('/business/blocked-slots', data),
+  createBlockedSlots: (ranges: { startTime: number; endTime: number; reason?: string }[]) =>
+    api.post<BulkBlockedSlotResponse>('/business/blocked-slots/bulk', { ranges }),
   deleteBlockedSlot: (id: string) => api.delete(`/business/blocked-slots/${id}`),
   getBusinessHours: () => api.get<BusinessHours[]>('/business/business-hours'),
   createBusinessHours: (data: Partial<BusinessHours>) =>
@@ -92,19 +108,44 @@ export const businessAPI = {
   deleteBusinessHours: (id: string) => api.delete(`/business/business-hours/${id}`),
   updateAllBusinessHours: (data: Partial<BusinessHours>[]) =>
     api.put<BusinessHours[]>('/business/business-hours/batch', data),
+  // Date-specific hours (holidays, extended hours); from is 'yyyy-MM-dd', default today
+  getBusinessHoursOverrides: (from?: string) =>
+    api.get<BusinessHoursOverride[]>('/business/business-hours/overrides', { params: { from } }),
+  createBusinessHoursOverride: (data: Omit<BusinessHoursOverride, 'id'>) =>
+    api.post<BusinessHoursOverride>('/business/business-hours/overrides', data),
+  deleteBusinessHoursOverride: (id: string) => api.delete(`/business/business-hours/overrides/${id}`),
 };
 
 // Customer API
 export const customerAPI = {
-  getTenantBySlug: (slug: string) => api.get<Tenant>(`/customer/tenants/${slug}`),
+  getTenantBySlug: (slug: string) => readApi.get<Tenant>(`/customer/tenants/${slug}`),
   getSessionTypes: (tenantId: string) =>
-    api.get<SessionType[]>(`/customer/tenants/${tenantId}/sessions`),
+    readApi.get<SessionType[]>(`/customer/tenants/${tenantId}/sessions`),
   createBooking: (tenantId: string, data: any) =>
     api.post<Booking>(`/customer/tenants/${tenantId}/bookings`, data),
+  // Creates the booking and, for paid sessions, the Stripe checkout session in one request
+  // Retries with the same idempotencyKey replay the first response
+  createBookingWithCheckout: (tenantId: string, data: any, slug?: string, idempotencyKey?: string) =>
+    api.post<{ booking: Booking; checkoutUrl: string | null; sessionId: string | null }>(
+      `/customer/tenants/${tenantId}/bookings/checkout`, data, {
+        params: { slug },
+        headers: idempotencyKey ? { 'Idempotency-Key': idempotencyKey } : undefined,
+      }),
+  // Weekly series (free sessions): data is a booking plus intervalWeeks and count or until (epoch ms)
+  createBookingSeries: (tenantId: string, data: any) =>
+    api.post<Booking[]>(`/customer/tenants/${tenantId}/bookings/series`, data),
+  // token: from the manage link (/bookings/:id/manage?token=...) in the confirmation email
+  getManagedBooking: (bookingId: string, token: string) =>
+    api.get<{ booking: Booking; tenant: Tenant }>(`/customer/bookings/${bookingId}/manage`, { params: { token } }),
+  rescheduleBooking: (bookingId: string, startTime: number, token: string) =>
+    api.post<Booking>(`/customer/bookings/${bookingId}/reschedule`, { startTime, token }),
   getBusinessHours: (tenantId: string) =>
-    api.get<BusinessHours[]>(`/customer/tenants/${tenantId}/business-hours`),
-  getBlockedSlots: (tenantId: string) =>
-    api.get<BlockedSlot[]>(`/customer/tenants/${tenantId}/blocked-slots`),
+    readApi.get<BusinessHours[]>(`/customer/tenants/${tenantId}/business-hours`),
+  getBusinessHoursOverrides: (tenantId: string) =>
+    readApi.get<BusinessHoursOverride[]>(`/customer/tenants/${tenantId}/business-hours/overrides`),
+  // With from/to (epoch ms), blocked intervals in that window with recurring blocks expanded
+  getBlockedSlots: (tenantId: string, from?: number, to?: number) =>
+    readApi.get<BlockedSlot[]>(`/customer/tenants/${tenantId}/blocked-slots`, { params: { from, to } }),
 };
 
 // Stripe API
@@ -116,6 +157,9 @@ export const stripeAPI = {
     }),
   getConfig: () =>
     api.get<{ publishableKey: string }>('/stripe/config'),
+  // Held open by the server (up to wait) until the payment leaves PENDING
+  getPaymentStatus: (bookingId: string, wait?: string) =>
+    api.get<{ status: string }>(`/stripe/payment-status/${bookingId}`, { params: { wait } }),
 };
 
 export default api;
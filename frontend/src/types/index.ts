@@ -20,10 +20,12 @@ export interface Tenant {
   email: string;
   phone?: string;
   logoUrl?: string;
+  logoVariants?: Record<string, string>; // width ("64", "128", ...) or "original" -> URL
   description?: string;
   status: string;
   subscriptionTier: string;
   timezone: string; // IANA timezone identifier (e.g., "Europe/Amsterdam")
+  notificationMode?: 'INSTANT' | 'HOURLY' | 'DAILY';
   createdAt: string;
 }
 
@@ -61,6 +63,7 @@ export interface Booking {
   status: string;
   participants: number;
   notes?: string;
+  seriesId?: string | null; // Set on the occurrences of a recurring series
   sessionType?: SessionType;
   customer?: Customer;
 }
@@ -73,6 +76,15 @@ export interface BusinessHours {
   enabled: boolean;
 }
 
+// Hours for one date, replacing that weekday's business hours; no times means closed all day
+export interface BusinessHoursOverride {
+  id: string;
+  date: string;       // Format: "yyyy-MM-dd"
+  startTime?: string; // Format: "HH:mm"
+  endTime?: string;   // Format: "HH:mm"
+  reason?: string;
+}
+
 export interface BlockedSlot {
   id: string;
   tenantId: string;
@@ -80,6 +92,14 @@ export interface BlockedSlot {
   endTime: number;   // Epoch timestamp in milliseconds (LocalDateTime from backend)
   reason?: string;
   createdBy?: string;
+  recurrenceRule?: string; // RRULE subset; startTime/endTime are then the first occurrence
+  recurrenceEnd?: number;  // No occurrence ends after this; absent if the rule never ends
   createdAt?: number;
   updatedAt?: number;
 }
+
+export interface BulkBlockedSlotResponse {
+  blockedSlots: BlockedSlot[];     // Blocks written: new ones and existing ones they were merged into
+  removedSlots: number;            // Existing blocks merged away
+  conflictingBookings: Booking[];  // Active bookings inside the new ranges (not cancelled)
+}
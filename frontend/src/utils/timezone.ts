@@ -50,6 +50,43 @@ export const getTimezoneAbbreviation = (timezone?: string): string => {
   return timeZonePart?.value || timezone;
 };
 
+const zonedFormatters = new Map<string, Intl.DateTimeFormat>();
+
+/**
+ * Wall-clock date (YYYY-MM-DD), weekday (e.g. "MONDAY") and minute of the day of an
+ * instant in the given timezone. Business hours are in the business's timezone.
+ */
+export const getZonedTime = (
+  timestamp: number,
+  timezone: string
+): { date: string; dayOfWeek: string; minutes: number } => {
+  let formatter = zonedFormatters.get(timezone);
+  if (!formatter) {
+    formatter = new Intl.DateTimeFormat('en-US', {
+      timeZone: timezone,
+      year: 'numeric',
+      month: '2-digit',
+      day: '2-digit',
+      weekday: 'long',
+      hour: '2-digit',
+      minute: '2-digit',
+      hour12: false,
+    });
+    zonedFormatters.set(timezone, formatter);
+  }
+
+  const parts = formatter.formatToParts(new Date(timestamp));
+  const part = (type: Intl.DateTimeFormatPartTypes) => parts.find((p) => p.type === type)?.value || '';
+  // Some engines print midnight as 24:00 with hour12: false
+  const hour = Number(part('hour')) % 24;
+
+  return {
+    date: `${part('year')}-${part('month')}-${part('day')}`,
+    dayOfWeek: part('weekday').toUpperCase(),
+    minutes: hour * 60 + Number(part('minute')),
+  };
+};
+
 /**
  * Convert a time string (HH:mm) in business timezone to a display string with offset info
  * Note: This is for display purposes only. Actual booking times are stored as UTC timestamps.